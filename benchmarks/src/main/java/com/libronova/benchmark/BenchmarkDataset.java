@@ -0,0 +1,124 @@
+package com.libronova.benchmark;
+
+import com.libronova.dao.BookRepository;
+import com.libronova.dao.MemberRepository;
+import com.libronova.model.Book;
+import com.libronova.model.Member;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Catálogo sintético reproducible: con la misma semilla genera siempre los mismos libros y miembros
+ */
+public final class BenchmarkDataset {
+    static final String[] TITLE_WORDS = {
+        "Sombra", "Viento", "Ciudad", "Memoria", "Río", "Jardín", "Silencio", "Noche",
+        "Mar", "Camino", "Espejo", "Tiempo", "Luz", "Piedra", "Invierno", "Laberinto"
+    };
+    private static final String[] AUTHORS = {
+        "Gabriel García Márquez", "Isabel Allende", "Jorge Luis Borges", "Julio Cortázar",
+        "Mario Vargas Llosa", "Laura Esquivel", "Juan Rulfo", "Clarice Lispector"
+    };
+    private static final String[] CATEGORIES = {
+        "Literatura", "Ciencia Ficción", "Historia", "Ciencia", "Infantil", "Poesía"
+    };
+    private static final String[] MEMBERSHIP_TYPES = { "REGULAR", "REGULAR", "REGULAR", "PREMIUM", "VIP" };
+
+    private final long seed;
+    private final int bookCount;
+    private final int memberCount;
+
+    public BenchmarkDataset(long seed, int bookCount, int memberCount) {
+        this.seed = seed;
+        this.bookCount = bookCount;
+        this.memberCount = memberCount;
+    }
+
+    /**
+     * Genera los libros del catálogo
+     */
+    public List<Book> books() {
+        Random random = new Random(seed);
+        List<Book> books = new ArrayList<>(bookCount);
+        for (int i = 0; i < bookCount; i++) {
+            String title = pick(random, TITLE_WORDS) + " de " + pick(random, TITLE_WORDS).toLowerCase() + " " + (i + 1);
+            books.add(new Book(String.format("979-%09d", i), title, pick(random, AUTHORS), "Editorial Benchmark",
+                               LocalDate.of(1950 + random.nextInt(70), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                               pick(random, CATEGORIES), 2 + random.nextInt(8)));
+        }
+        return books;
+    }
+
+    /**
+     * Genera los miembros
+     */
+    public List<Member> members() {
+        Random random = new Random(seed + 1);
+        List<Member> members = new ArrayList<>(memberCount);
+        for (int i = 0; i < memberCount; i++) {
+            String memberId = String.format("BEN%06d", i);
+            members.add(new Member(memberId, "Socio" + i, pick(random, TITLE_WORDS), memberId.toLowerCase() + "@bench.local",
+                                   "555-" + (1000 + random.nextInt(9000)), "Calle " + (1 + random.nextInt(200)),
+                                   LocalDate.of(1950 + random.nextInt(55), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                                   pick(random, MEMBERSHIP_TYPES)));
+        }
+        return members;
+    }
+
+    /**
+     * Inserta el catálogo en los repositorios y devuelve los IDs asignados
+     */
+    public Loaded load(BookRepository bookRepository, MemberRepository memberRepository) {
+        List<Book> books = books();
+        int[] bookIds = new int[books.size()];
+        for (int i = 0; i < bookIds.length; i++) {
+            bookIds[i] = insert(bookRepository.create(books.get(i)), books.get(i).getId());
+        }
+
+        List<Member> members = members();
+        int[] memberIds = new int[members.size()];
+        for (int i = 0; i < memberIds.length; i++) {
+            memberIds[i] = insert(memberRepository.create(members.get(i)), members.get(i).getId());
+        }
+        return new Loaded(bookIds, memberIds);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    private static int insert(boolean created, int id) {
+        if (!created) {
+            throw new IllegalStateException("No se pudo cargar el dataset del benchmark");
+        }
+        return id;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * IDs de base de datos de los libros y miembros cargados
+     */
+    public static final class Loaded {
+        private final int[] bookIds;
+        private final int[] memberIds;
+
+        Loaded(int[] bookIds, int[] memberIds) {
+            this.bookIds = bookIds;
+            this.memberIds = memberIds;
+        }
+
+        public int[] getBookIds() {
+            return bookIds;
+        }
+
+        public int[] getMemberIds() {
+            return memberIds;
+        }
+    }
+}
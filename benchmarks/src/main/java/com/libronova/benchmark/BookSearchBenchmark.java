@@ -0,0 +1,56 @@
+package com.libronova.benchmark;
+
+import com.libronova.model.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookService.searchBooks con términos que aparecen en los títulos del dataset
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dlibronova.profile=h2")
+public class BookSearchBenchmark {
+
+    @Param({ LibraryFixture.MEMORY, LibraryFixture.H2 })
+    public String backend;
+
+    @Param("42")
+    public long seed;
+
+    @Param("2000")
+    public int books;
+
+    private LibraryFixture fixture;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LibraryFixture.silenceConsole();
+        fixture = LibraryFixture.create(backend, new BenchmarkDataset(seed, books, 10));
+        random = new SplittableRandom(seed);
+    }
+
+    @Benchmark
+    public List<Book> searchBooks() {
+        String[] words = BenchmarkDataset.TITLE_WORDS;
+        return fixture.getBookService().searchBooks(words[random.nextInt(words.length)]);
+    }
+}
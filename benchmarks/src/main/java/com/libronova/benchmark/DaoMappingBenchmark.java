@@ -0,0 +1,75 @@
+package com.libronova.benchmark;
+
+import com.libronova.model.Book;
+import com.libronova.model.Loan;
+import com.libronova.model.Member;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecturas completas de los DAO JDBC sobre H2. El tiempo lo dominan los mapResultSetTo* de
+ * cada DAO (privados), uno por fila, más el recorrido del ResultSet; con -prof gc se ve la
+ * asignación por fila.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dlibronova.profile=h2")
+public class DaoMappingBenchmark {
+
+    @Param("42")
+    public long seed;
+
+    @Param("2000")
+    public int books;
+
+    @Param("1000")
+    public int members;
+
+    @Param("500")
+    public int activeLoans;
+
+    private LibraryFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        LibraryFixture.silenceConsole();
+        fixture = LibraryFixture.create(LibraryFixture.H2, new BenchmarkDataset(seed, books, members));
+        int[] bookIds = fixture.getBookIds();
+        int[] memberIds = fixture.getMemberIds();
+        for (int i = 0; i < activeLoans; i++) {
+            fixture.getLoanService().createLoan(bookIds[i % bookIds.length], memberIds[i % memberIds.length],
+                                                LibraryFixture.USER_ID);
+        }
+    }
+
+    @Benchmark
+    public List<Book> mapBooks() {
+        return fixture.getBookRepository().findAll();
+    }
+
+    @Benchmark
+    public List<Member> mapMembers() {
+        return fixture.getMemberRepository().findAll();
+    }
+
+    @Benchmark
+    public List<Loan> mapLoans() {
+        return fixture.getLoanRepository().findActiveLoans();
+    }
+}
@@ -0,0 +1,68 @@
+package com.libronova.benchmark;
+
+import com.libronova.model.Book;
+import com.libronova.model.Member;
+import com.libronova.util.CSVExporter;
+import com.libronova.util.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSVExporter sobre el catálogo sintético (escribe en report.export.path) y el coste de una
+ * línea de Logger, que formatea la fecha y vacía el archivo en cada llamada
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ExportAndLoggingBenchmark {
+
+    @Param("42")
+    public long seed;
+
+    @Param("2000")
+    public int books;
+
+    private List<Book> catalog;
+    private List<Member> members;
+    private Logger logger;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LibraryFixture.silenceConsole();
+        BenchmarkDataset dataset = new BenchmarkDataset(seed, books, books / 2);
+        catalog = dataset.books();
+        members = dataset.members();
+        logger = Logger.getInstance();
+    }
+
+    @Benchmark
+    public boolean exportBookCatalog() {
+        return CSVExporter.exportBookCatalog(catalog, "benchmark_libros.csv");
+    }
+
+    @Benchmark
+    public boolean exportMembers() {
+        return CSVExporter.exportMembers(members, "benchmark_miembros.csv");
+    }
+
+    @Benchmark
+    public void logInfo() {
+        logger.info("Préstamo creado exitosamente: LOAN-BENCHMARK");
+    }
+}
@@ -0,0 +1,166 @@
+package com.libronova.benchmark;
+
+import com.libronova.config.DatabaseConfig;
+import com.libronova.config.MigrationRunner;
+import com.libronova.dao.BookDAO;
+import com.libronova.dao.BookRepository;
+import com.libronova.dao.LoanDAO;
+import com.libronova.dao.LoanRepository;
+import com.libronova.dao.MemberDAO;
+import com.libronova.dao.MemberRepository;
+import com.libronova.dao.memory.InMemoryBookRepository;
+import com.libronova.dao.memory.InMemoryLoanRepository;
+import com.libronova.dao.memory.InMemoryMemberRepository;
+import com.libronova.metrics.DashboardMetrics;
+import com.libronova.model.Book;
+import com.libronova.service.BookService;
+import com.libronova.service.LoanService;
+import com.libronova.service.MemberService;
+import com.libronova.util.LoanIdGenerator;
+import com.libronova.util.SnowflakeLoanIdGenerator;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Servicios de LibroNova cableados contra un backend de benchmark con el dataset ya cargado.
+ *
+ * "memory" usa los repositorios en memoria; "h2" usa los DAO JDBC contra la base embebida del
+ * perfil h2 (el benchmark debe arrancar con -Dlibronova.profile=h2), que se vacía y se vuelve a
+ * crear en cada reset para que todas las iteraciones partan del mismo estado.
+ */
+public final class LibraryFixture {
+    public static final String MEMORY = "memory";
+    public static final String H2 = "h2";
+    /** Usuario de la tabla users (admin del esquema de ejemplo) que registra los préstamos */
+    public static final int USER_ID = 1;
+
+    private final BookRepository bookRepository;
+    private final MemberRepository memberRepository;
+    private final LoanRepository loanRepository;
+    private final BookService bookService;
+    private final MemberService memberService;
+    private final LoanService loanService;
+    private final RecordingLoanIdGenerator loanIdGenerator = new RecordingLoanIdGenerator();
+    private final BenchmarkDataset.Loaded data;
+
+    private LibraryFixture(String backend, BenchmarkDataset dataset) {
+        if (MEMORY.equals(backend)) {
+            InMemoryBookRepository books = new InMemoryBookRepository();
+            InMemoryMemberRepository members = new InMemoryMemberRepository();
+            bookRepository = books;
+            memberRepository = members;
+            loanRepository = new InMemoryLoanRepository(books, members);
+        } else if (H2.equals(backend)) {
+            resetEmbeddedDatabase();
+            bookRepository = new BookDAO();
+            memberRepository = new MemberDAO();
+            loanRepository = new LoanDAO();
+        } else {
+            throw new IllegalArgumentException("Backend de benchmark desconocido: " + backend);
+        }
+
+        bookService = new BookService(bookRepository);
+        memberService = new MemberService(memberRepository);
+        DashboardMetrics metrics = new DashboardMetrics(
+            loanRepository::getStatistics,
+            bookRepository::countAvailableByCategory,
+            bookId -> {
+                Book book = bookRepository.findById(bookId);
+                return book != null ? book.getCategory() : null;
+            });
+        loanService = new LoanService(loanRepository, bookService, memberService, metrics, loanIdGenerator,
+                                      LoanService.CounterMode.APPLICATION);
+        data = dataset.load(bookRepository, memberRepository);
+    }
+
+    /**
+     * Crea el backend indicado y carga el dataset
+     */
+    public static LibraryFixture create(String backend, BenchmarkDataset dataset) {
+        return new LibraryFixture(backend, dataset);
+    }
+
+    /**
+     * Descarta la salida por consola del Logger para que no se mezcle con la de JMH;
+     * el archivo app.log se sigue escribiendo
+     */
+    public static void silenceConsole() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    /**
+     * Borra todos los objetos de la base H2 y vuelve a ejecutar el esquema portable
+     */
+    private static void resetEmbeddedDatabase() {
+        String initScript = DatabaseConfig.getProperty("db.init.script", "");
+        if (!DatabaseConfig.getProperty("db.url", "").startsWith("jdbc:h2:") || initScript.isBlank()) {
+            throw new IllegalStateException("El backend h2 requiere -Dlibronova.profile=h2");
+        }
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+            MigrationRunner.executeScript(conn, initScript);
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo preparar la base H2: " + e.getMessage(), e);
+        }
+    }
+
+    public BookRepository getBookRepository() {
+        return bookRepository;
+    }
+
+    public MemberRepository getMemberRepository() {
+        return memberRepository;
+    }
+
+    public LoanRepository getLoanRepository() {
+        return loanRepository;
+    }
+
+    public BookService getBookService() {
+        return bookService;
+    }
+
+    public MemberService getMemberService() {
+        return memberService;
+    }
+
+    public LoanService getLoanService() {
+        return loanService;
+    }
+
+    public int[] getBookIds() {
+        return data.getBookIds();
+    }
+
+    public int[] getMemberIds() {
+        return data.getMemberIds();
+    }
+
+    /**
+     * Último loan_id generado por el servicio en este hilo
+     */
+    public String lastLoanId() {
+        return loanIdGenerator.last.get();
+    }
+
+    /**
+     * Generador Snowflake que recuerda el último ID entregado a cada hilo, porque createLoan
+     * no devuelve el préstamo creado
+     */
+    private static final class RecordingLoanIdGenerator implements LoanIdGenerator {
+        private final LoanIdGenerator delegate = new SnowflakeLoanIdGenerator(1);
+        private final ThreadLocal<String> last = new ThreadLocal<>();
+
+        @Override
+        public String nextId() {
+            String id = delegate.nextId();
+            last.set(id);
+            return id;
+        }
+    }
+}
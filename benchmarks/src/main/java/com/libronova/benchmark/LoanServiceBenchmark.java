@@ -0,0 +1,66 @@
+package com.libronova.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ciclo completo de circulación: LoanService.createLoan seguido de returnBook sobre el mismo
+ * préstamo, de modo que el stock y los contadores vuelven a su valor y el estado no se agota
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dlibronova.profile=h2")
+public class LoanServiceBenchmark {
+
+    @Param({ LibraryFixture.MEMORY, LibraryFixture.H2 })
+    public String backend;
+
+    @Param("42")
+    public long seed;
+
+    @Param("2000")
+    public int books;
+
+    @Param("1000")
+    public int members;
+
+    private LibraryFixture fixture;
+    private SplittableRandom random;
+
+    /**
+     * Cada iteración parte de un catálogo recién cargado; así los préstamos devueltos no se
+     * acumulan durante toda la medición
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        LibraryFixture.silenceConsole();
+        fixture = LibraryFixture.create(backend, new BenchmarkDataset(seed, books, members));
+        random = new SplittableRandom(seed);
+    }
+
+    @Benchmark
+    public boolean createAndReturnLoan() throws Exception {
+        int[] bookIds = fixture.getBookIds();
+        int[] memberIds = fixture.getMemberIds();
+        fixture.getLoanService().createLoan(bookIds[random.nextInt(bookIds.length)],
+                                            memberIds[random.nextInt(memberIds.length)], LibraryFixture.USER_ID);
+        int loanId = fixture.getLoanService().findLoanByLoanId(fixture.lastLoanId()).getId();
+        return fixture.getLoanService().returnBook(loanId);
+    }
+}
@@ -0,0 +1,76 @@
+-- V2: columnas de versión para control de concurrencia optimista
+-- Cada UPDATE de la aplicación incrementa version y se condiciona a la versión leída.
+-- Los triggers y procedimientos que modifican estas filas también deben incrementarla,
+-- de lo contrario la aplicación no detectaría sus cambios.
+
+ALTER TABLE books ADD COLUMN version INT NOT NULL DEFAULT 0;
+ALTER TABLE members ADD COLUMN version INT NOT NULL DEFAULT 0;
+ALTER TABLE loans ADD COLUMN version INT NOT NULL DEFAULT 0;
+
+DROP TRIGGER IF EXISTS tr_loan_created;
+DROP TRIGGER IF EXISTS tr_loan_returned;
+
+DELIMITER //
+CREATE TRIGGER tr_loan_created
+AFTER INSERT ON loans
+FOR EACH ROW
+BEGIN
+    UPDATE books 
+    SET available_stock = available_stock - 1,
+        version = version + 1,
+        updated_at = CURRENT_TIMESTAMP
+    WHERE id = NEW.book_id;
+    
+    UPDATE members 
+    SET current_loans = current_loans + 1,
+        version = version + 1,
+        updated_at = CURRENT_TIMESTAMP
+    WHERE id = NEW.member_id;
+END //
+DELIMITER ;
+
+DELIMITER //
+CREATE TRIGGER tr_loan_returned
+AFTER UPDATE ON loans
+FOR EACH ROW
+BEGIN
+    IF OLD.status = 'ACTIVE' AND NEW.status = 'RETURNED' THEN
+        UPDATE books 
+        SET available_stock = available_stock + 1,
+            version = version + 1,
+            updated_at = CURRENT_TIMESTAMP
+        WHERE id = NEW.book_id;
+        
+        UPDATE members 
+        SET current_loans = current_loans - 1,
+            version = version + 1,
+            updated_at = CURRENT_TIMESTAMP
+        WHERE id = NEW.member_id;
+    END IF;
+END //
+DELIMITER ;
+
+DROP PROCEDURE IF EXISTS UpdateOverdueLoans;
+DROP PROCEDURE IF EXISTS CalculateFines;
+
+DELIMITER //
+CREATE PROCEDURE UpdateOverdueLoans()
+BEGIN
+    UPDATE loans 
+    SET status = 'OVERDUE', version = version + 1, updated_at = CURRENT_TIMESTAMP
+    WHERE status = 'ACTIVE' 
+    AND due_date < CURDATE();
+END //
+DELIMITER ;
+
+DELIMITER //
+CREATE PROCEDURE CalculateFines(IN daily_rate DECIMAL(10,2))
+BEGIN
+    UPDATE loans 
+    SET fine_amount = GREATEST(0, DATEDIFF(CURDATE(), due_date)) * daily_rate,
+        version = version + 1,
+        updated_at = CURRENT_TIMESTAMP
+    WHERE status = 'OVERDUE' 
+    AND due_date < CURDATE();
+END //
+DELIMITER ;
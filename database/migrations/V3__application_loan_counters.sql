@@ -0,0 +1,21 @@
+-- V3: los contadores de préstamos pasan a mantenerse solo desde la aplicación
+-- (loan.counter.mode=APPLICATION). La aplicación actualiza available_stock y current_loans
+-- en la misma transacción que el préstamo, con UPDATE relativos y condicionados, de modo
+-- que cada préstamo o devolución escribe una sola vez cada contador.
+
+DROP TRIGGER IF EXISTS tr_loan_created;
+DROP TRIGGER IF EXISTS tr_loan_returned;
+
+-- Recalcular los contadores: con triggers y aplicación activos a la vez pudieron quedar
+-- descontados dos veces
+UPDATE books b
+SET available_stock = GREATEST(0, b.stock - (
+        SELECT COUNT(*) FROM loans l
+        WHERE l.book_id = b.id AND l.status IN ('ACTIVE', 'OVERDUE'))),
+    version = version + 1;
+
+UPDATE members m
+SET current_loans = LEAST(m.max_loans, (
+        SELECT COUNT(*) FROM loans l
+        WHERE l.member_id = m.id AND l.status IN ('ACTIVE', 'OVERDUE'))),
+    version = version + 1;
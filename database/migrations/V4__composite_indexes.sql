@@ -0,0 +1,45 @@
+-- V4: índices compuestos alineados con las consultas de los DAO y eliminación de redundantes
+-- Los índices nuevos se crean antes de eliminar los que respaldan claves foráneas.
+
+-- books: listados por activo/categoría ordenados por título y disponibilidad por categoría
+CREATE INDEX idx_books_active_title ON books(active, title);
+CREATE INDEX idx_books_category_active_title ON books(category, active, title);
+CREATE INDEX idx_books_active_category_stock ON books(active, category, available_stock);
+
+-- members: listados de activos ordenados por apellido y nombre
+CREATE INDEX idx_members_active_name ON members(active, last_name, first_name);
+
+-- loans: por estado y vencimiento (cubre también el agregado de multas por estado),
+-- historial por miembro y por libro, y préstamos activos de un miembro
+CREATE INDEX idx_loans_status_due_fine ON loans(status, due_date, fine_amount);
+CREATE INDEX idx_loans_member_loan_date ON loans(member_id, loan_date);
+CREATE INDEX idx_loans_member_status_due ON loans(member_id, status, due_date);
+CREATE INDEX idx_loans_book_loan_date ON loans(book_id, loan_date);
+
+-- Duplican una clave UNIQUE o son prefijo de un índice compuesto
+ALTER TABLE books
+    DROP INDEX idx_isbn,
+    DROP INDEX idx_title,
+    DROP INDEX idx_author,
+    DROP INDEX idx_active,
+    DROP INDEX idx_category,
+    DROP INDEX idx_books_category_active;
+
+ALTER TABLE members
+    DROP INDEX idx_member_id,
+    DROP INDEX idx_email,
+    DROP INDEX idx_active,
+    DROP INDEX idx_membership_type;
+
+ALTER TABLE loans
+    DROP INDEX idx_loan_id,
+    DROP INDEX idx_status,
+    DROP INDEX idx_due_date,
+    DROP INDEX idx_loans_due_date_status,
+    DROP INDEX idx_loan_date,
+    DROP INDEX idx_member_id,
+    DROP INDEX idx_book_id;
+
+ALTER TABLE users
+    DROP INDEX idx_username,
+    DROP INDEX idx_email;
@@ -0,0 +1,37 @@
+-- V5: histórico de préstamos devueltos, particionado por año de loan_date
+-- LoanArchiveService mueve aquí por lotes los préstamos devueltos antiguos para que la tabla
+-- loans (y sus índices) contenga solo el trabajo en curso. Las tablas particionadas no admiten
+-- claves foráneas y toda clave única debe incluir la columna de partición.
+
+CREATE TABLE loans_history (
+    id INT NOT NULL,
+    loan_id VARCHAR(20) NOT NULL,
+    book_id INT NOT NULL,
+    member_id INT NOT NULL,
+    user_id INT NOT NULL,
+    loan_date DATE NOT NULL,
+    due_date DATE NOT NULL,
+    return_date DATE NULL,
+    status ENUM('ACTIVE', 'RETURNED', 'OVERDUE') NOT NULL,
+    fine_amount DECIMAL(10,2) DEFAULT 0.00,
+    notes TEXT,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    version INT NOT NULL DEFAULT 0,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, loan_date),
+    INDEX idx_loans_history_member_loan_date (member_id, loan_date),
+    INDEX idx_loans_history_book_loan_date (book_id, loan_date),
+    INDEX idx_loans_history_loan_id (loan_id)
+)
+PARTITION BY RANGE (YEAR(loan_date)) (
+    PARTITION p_old VALUES LESS THAN (2024),
+    PARTITION p2024 VALUES LESS THAN (2025),
+    PARTITION p2025 VALUES LESS THAN (2026),
+    PARTITION p2026 VALUES LESS THAN (2027),
+    PARTITION p2027 VALUES LESS THAN (2028),
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
+
+-- Selección de candidatos a archivar sin recorrer toda la tabla
+CREATE INDEX idx_loans_status_return_date ON loans(status, return_date);
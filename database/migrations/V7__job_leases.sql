@@ -0,0 +1,14 @@
+-- V7: leases para elegir qué instancia ejecuta las tareas programadas
+-- Cada fila es un lease con nombre: holder lo posee hasta expires_at y lo renueva con cada
+-- latido. fencing_token aumenta cada vez que el lease cambia de manos, de modo que un líder
+-- antiguo que despierta tras una pausa no puede hacerse pasar por el actual. Las horas son
+-- siempre las del servidor de base de datos, no las de cada instancia.
+
+CREATE TABLE job_leases (
+    name VARCHAR(64) PRIMARY KEY,
+    holder VARCHAR(128) NOT NULL,
+    fencing_token BIGINT NOT NULL,
+    acquired_at TIMESTAMP(3) NOT NULL,
+    heartbeat_at TIMESTAMP(3) NOT NULL,
+    expires_at TIMESTAMP(3) NOT NULL
+);
@@ -0,0 +1,86 @@
+-- V6 (opcional): particionado mensual de loans por loan_date
+-- Se aplica solo si 6 figura en db.migrations.optional. Permite que MySQL descarte particiones
+-- en las consultas acotadas por fecha y que LoanPartitionService añada meses futuros y elimine
+-- los antiguos en tiempo constante (DROP PARTITION) en lugar de con DELETE masivos.
+--
+-- Requisitos de MySQL para particionar:
+--   * Las tablas particionadas no admiten claves foráneas: la integridad con books, members y
+--     users pasa a depender de la aplicación (LoanService valida libro y miembro al prestar, y
+--     libros y miembros solo se desactivan, nunca se borran).
+--   * Toda clave única debe incluir loan_date: la clave primaria pasa a (id, loan_date) y la
+--     unicidad de loan_id a (loan_id, loan_date). Como loan_date es la fecha en que se genera
+--     el ID, dos préstamos con el mismo loan_id siguen chocando en la práctica, y las búsquedas
+--     por loan_id usan el prefijo de esa clave.
+
+-- Las claves foráneas de schema.sql no tienen nombre explícito y el que genera MySQL
+-- (loans_ibfk_N) puede variar tras un volcado o una recreación: se buscan en information_schema
+SELECT CONCAT('ALTER TABLE loans ',
+              GROUP_CONCAT(CONCAT('DROP FOREIGN KEY `', CONSTRAINT_NAME, '`') SEPARATOR ', '))
+INTO @drop_loans_fks
+FROM information_schema.TABLE_CONSTRAINTS
+WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'loans' AND CONSTRAINT_TYPE = 'FOREIGN KEY';
+
+SET @drop_loans_fks = IFNULL(@drop_loans_fks, 'DO 0');
+PREPARE drop_loans_fks FROM @drop_loans_fks;
+EXECUTE drop_loans_fks;
+DEALLOCATE PREPARE drop_loans_fks;
+
+ALTER TABLE loans
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, loan_date),
+    DROP INDEX loan_id,
+    ADD UNIQUE KEY uk_loans_loan_id_date (loan_id, loan_date);
+
+-- p_old recoge el histórico anterior; p_future queda vacía y se divide al añadir meses
+ALTER TABLE loans PARTITION BY RANGE COLUMNS (loan_date) (
+    PARTITION p_old VALUES LESS THAN ('2024-01-01'),
+    PARTITION p202401 VALUES LESS THAN ('2024-02-01'),
+    PARTITION p202402 VALUES LESS THAN ('2024-03-01'),
+    PARTITION p202403 VALUES LESS THAN ('2024-04-01'),
+    PARTITION p202404 VALUES LESS THAN ('2024-05-01'),
+    PARTITION p202405 VALUES LESS THAN ('2024-06-01'),
+    PARTITION p202406 VALUES LESS THAN ('2024-07-01'),
+    PARTITION p202407 VALUES LESS THAN ('2024-08-01'),
+    PARTITION p202408 VALUES LESS THAN ('2024-09-01'),
+    PARTITION p202409 VALUES LESS THAN ('2024-10-01'),
+    PARTITION p202410 VALUES LESS THAN ('2024-11-01'),
+    PARTITION p202411 VALUES LESS THAN ('2024-12-01'),
+    PARTITION p202412 VALUES LESS THAN ('2025-01-01'),
+    PARTITION p202501 VALUES LESS THAN ('2025-02-01'),
+    PARTITION p202502 VALUES LESS THAN ('2025-03-01'),
+    PARTITION p202503 VALUES LESS THAN ('2025-04-01'),
+    PARTITION p202504 VALUES LESS THAN ('2025-05-01'),
+    PARTITION p202505 VALUES LESS THAN ('2025-06-01'),
+    PARTITION p202506 VALUES LESS THAN ('2025-07-01'),
+    PARTITION p202507 VALUES LESS THAN ('2025-08-01'),
+    PARTITION p202508 VALUES LESS THAN ('2025-09-01'),
+    PARTITION p202509 VALUES LESS THAN ('2025-10-01'),
+    PARTITION p202510 VALUES LESS THAN ('2025-11-01'),
+    PARTITION p202511 VALUES LESS THAN ('2025-12-01'),
+    PARTITION p202512 VALUES LESS THAN ('2026-01-01'),
+    PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+    PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+    PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+    PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+    PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+    PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+    PARTITION p202607 VALUES LESS THAN ('2026-08-01'),
+    PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+    PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+    PARTITION p202701 VALUES LESS THAN ('2027-02-01'),
+    PARTITION p202702 VALUES LESS THAN ('2027-03-01'),
+    PARTITION p202703 VALUES LESS THAN ('2027-04-01'),
+    PARTITION p202704 VALUES LESS THAN ('2027-05-01'),
+    PARTITION p202705 VALUES LESS THAN ('2027-06-01'),
+    PARTITION p202706 VALUES LESS THAN ('2027-07-01'),
+    PARTITION p202707 VALUES LESS THAN ('2027-08-01'),
+    PARTITION p202708 VALUES LESS THAN ('2027-09-01'),
+    PARTITION p202709 VALUES LESS THAN ('2027-10-01'),
+    PARTITION p202710 VALUES LESS THAN ('2027-11-01'),
+    PARTITION p202711 VALUES LESS THAN ('2027-12-01'),
+    PARTITION p202712 VALUES LESS THAN ('2028-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
@@ -1,9 +1,16 @@
 package com.libronova;
 
+import com.libronova.batch.BatchRunner;
+import com.libronova.config.ApplicationContext;
+import com.libronova.config.DatabaseConfig;
+import com.libronova.server.ApiServer;
 import com.libronova.ui.LibroNovaUI;
 import com.libronova.util.Logger;
 
 import javax.swing.*;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
 
 /**
  * Clase principal de la aplicación LibroNova
@@ -12,6 +19,15 @@ public class LibroNovaApplication {
     private static final Logger logger = Logger.getInstance();
 
     public static void main(String[] args) {
+        if (args.length > 0 && "--server".equals(args[0])) {
+            runServer(args);
+            return;
+        }
+        if (args.length > 0 && "--batch".equals(args[0])) {
+            BatchRunner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         try {
             // Configurar el look and feel del sistema
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -32,6 +48,8 @@ public class LibroNovaApplication {
 
         try {
             logger.info("Iniciando aplicación LibroNova");
+            ApplicationContext.getInstance().registerManagementBeans();
+            ApplicationContext.getInstance().startJobScheduler();
             
             // Mostrar mensaje de bienvenida
             JOptionPane.showMessageDialog(
@@ -61,4 +79,46 @@ public class LibroNovaApplication {
             logger.close();
         }
     }
+
+    /**
+     * Modo sin interfaz gráfica: solo la API HTTP/JSON (--server [--port N])
+     */
+    private static void runServer(String[] args) {
+        int port = DatabaseConfig.getIntProperty("server.port", 8080);
+        for (int i = 1; i < args.length - 1; i++) {
+            if ("--port".equals(args[i])) {
+                port = Integer.parseInt(args[i + 1]);
+            }
+        }
+
+        logger.info("Iniciando LibroNova en modo servidor");
+        ApplicationContext context = ApplicationContext.getInstance();
+        context.registerManagementBeans();
+        context.startJobScheduler();
+        try {
+            ApiServer server = new ApiServer(context.getBookService(), context.getMemberService(),
+                    context.getLoanService(), new InetSocketAddress(port),
+                    DatabaseConfig.getIntProperty("server.backlog", 1024),
+                    DatabaseConfig.getIntProperty("server.threads", 200),
+                    DatabaseConfig.getIntProperty("server.etag.cache.ms", 2000),
+                    DatabaseConfig.getIntProperty("server.etag.cache.entries", 50000));
+            int maxRequests = DatabaseConfig.getIntProperty("server.max.concurrent.requests", 0);
+            server.setMaxConcurrentRequests(maxRequests > 0 ? maxRequests : DatabaseConfig.getIntProperty("db.pool.size", 10),
+                                            DatabaseConfig.getIntProperty("server.admission.wait.ms", 1000));
+            CountDownLatch stopped = new CountDownLatch(1);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop(DatabaseConfig.getIntProperty("server.shutdown.seconds", 5));
+                context.getJobScheduler().stop(DatabaseConfig.getIntProperty("server.shutdown.seconds", 5));
+                logger.info("Aplicación LibroNova finalizada");
+                logger.close();
+                stopped.countDown();
+            }, "libronova-server-shutdown"));
+            server.start();
+            stopped.await();
+        } catch (Exception e) {
+            logger.error("Error fatal en el servidor: " + e.getMessage(), e);
+            logger.close();
+            System.exit(1);
+        }
+    }
 }
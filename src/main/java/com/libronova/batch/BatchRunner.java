@@ -0,0 +1,235 @@
+package com.libronova.batch;
+
+import com.libronova.config.ApplicationContext;
+import com.libronova.metrics.DaoMetrics;
+import com.libronova.model.Book;
+import com.libronova.model.Loan;
+import com.libronova.model.Member;
+import com.libronova.service.BookService;
+import com.libronova.service.LoanPartitionService;
+import com.libronova.service.LoanService;
+import com.libronova.service.MemberService;
+import com.libronova.util.CSVExporter;
+import com.libronova.util.Logger;
+import com.libronova.util.ProgressListener;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tareas nocturnas sin interfaz gráfica para cron: barrido de vencidos, recálculo de multas,
+ * mantenimiento de las particiones de loans y exportaciones CSV. Las tareas se ejecutan en el orden indicado y se detienen en la primera
+ * que falla; cuenta como fallida la que termina tras un error de base de datos capturado por un
+ * DAO (DaoMetrics.failureCount). El avance se escribe en la salida estándar y el código de salida
+ * indica el resultado (0 correcto, 1 tarea fallida, 2 uso incorrecto).
+ *
+ * No carga Swing ni AWT: la JVM arranca con java.awt.headless=true y solo se crean los
+ * servicios que usan las tareas pedidas.
+ */
+public class BatchRunner {
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_FAILED = 1;
+    public static final int EXIT_USAGE = 2;
+
+    private static final Logger logger = Logger.getInstance();
+    private static final long PROGRESS_INTERVAL_MS = 1000;
+
+    /**
+     * Tareas disponibles
+     */
+    public enum Job {
+        OVERDUE("overdue", "marcar préstamos vencidos"),
+        FINES("fines", "recalcular multas de préstamos vencidos"),
+        PARTITIONS("partitions", "mantener las particiones mensuales de préstamos"),
+        EXPORT_BOOKS("export-books", "exportar el catálogo de libros"),
+        EXPORT_MEMBERS("export-members", "exportar los miembros"),
+        EXPORT_LOANS("export-loans", "exportar los préstamos activos");
+
+        private final String command;
+        private final String description;
+
+        Job(String command, String description) {
+            this.command = command;
+            this.description = description;
+        }
+
+        public String getCommand() {
+            return command;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public static Job fromCommand(String command) {
+            for (Job job : values()) {
+                if (job.command.equals(command)) {
+                    return job;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final BookService bookService;
+    private final MemberService memberService;
+    private final LoanService loanService;
+    private final LoanPartitionService partitionService;
+    private final PrintStream console;
+
+    public BatchRunner(BookService bookService, MemberService memberService, LoanService loanService,
+                       PrintStream console) {
+        this(bookService, memberService, loanService, null, console);
+    }
+
+    /**
+     * @param partitionService null con los repositorios en memoria, que no tienen particiones
+     */
+    public BatchRunner(BookService bookService, MemberService memberService, LoanService loanService,
+                       LoanPartitionService partitionService, PrintStream console) {
+        this.bookService = bookService;
+        this.memberService = memberService;
+        this.loanService = loanService;
+        this.partitionService = partitionService;
+        this.console = console;
+    }
+
+    /**
+     * Ejecuta las tareas en orden y devuelve el código de salida
+     */
+    public int run(List<Job> jobs) {
+        long started = System.nanoTime();
+        for (Job job : jobs) {
+            long jobStarted = System.nanoTime();
+            console.println("[" + job.getCommand() + "] Inicio: " + job.getDescription());
+            long failuresBefore = DaoMetrics.failureCount();
+            try {
+                String summary = execute(job);
+                long failures = DaoMetrics.failureCount() - failuresBefore;
+                if (failures > 0) {
+                    // Los DAO devuelven listas vacías o false ante un error de base de datos
+                    throw new IllegalStateException(failures + " operaciones de base de datos fallidas (ver app.log)");
+                }
+                console.printf("[%s] Terminado en %.1f s: %s%n", job.getCommand(), elapsedSeconds(jobStarted), summary);
+            } catch (Exception e) {
+                logger.error("Tarea por lotes " + job.getCommand() + " fallida: " + e.getMessage(), e);
+                console.printf("[%s] FALLIDA tras %.1f s: %s%n", job.getCommand(), elapsedSeconds(jobStarted), e.getMessage());
+                return EXIT_FAILED;
+            }
+        }
+        console.printf("Tareas completadas: %d en %.1f s%n", jobs.size(), elapsedSeconds(started));
+        return EXIT_OK;
+    }
+
+    private String execute(Job job) throws Exception {
+        switch (job) {
+            case OVERDUE:
+                return loanService.updateOverdueLoans(progress(job)) + " préstamos marcados como vencidos";
+            case FINES:
+                return loanService.updateFines(progress(job)) + " multas actualizadas";
+            case PARTITIONS:
+                if (partitionService == null) {
+                    throw new IllegalStateException("Las particiones de préstamos solo existen con MySQL");
+                }
+                if (!partitionService.maintain()) {
+                    throw new IllegalStateException("No se pudieron mantener las particiones (ver app.log)");
+                }
+                return "particiones de loans al día";
+            case EXPORT_BOOKS: {
+                List<Book> books = bookService.getAllBooks();
+                String filename = CSVExporter.generateFilename("catalogo_libros", "csv");
+                return exported(CSVExporter.exportBookCatalog(books, filename), books.size(), filename);
+            }
+            case EXPORT_MEMBERS: {
+                List<Member> members = memberService.getAllMembers();
+                String filename = CSVExporter.generateFilename("miembros", "csv");
+                return exported(CSVExporter.exportMembers(members, filename), members.size(), filename);
+            }
+            case EXPORT_LOANS: {
+                List<Loan> loans = loanService.getActiveLoans();
+                String filename = CSVExporter.generateFilename("prestamos_activos", "csv");
+                return exported(CSVExporter.exportLoans(loans, filename), loans.size(), filename);
+            }
+            default:
+                throw new IllegalArgumentException("Tarea no admitida: " + job);
+        }
+    }
+
+    private static String exported(boolean succeeded, int rows, String filename) {
+        if (!succeeded) {
+            throw new IllegalStateException("No se pudo escribir " + filename + " (ver app.log)");
+        }
+        return rows + " filas en " + filename;
+    }
+
+    /**
+     * Escribe el avance como mucho una vez por segundo, y siempre al terminar
+     */
+    private ProgressListener progress(Job job) {
+        long[] lastPrinted = { System.currentTimeMillis() };
+        return (done, total) -> {
+            long now = System.currentTimeMillis();
+            if (done < total && now - lastPrinted[0] < PROGRESS_INTERVAL_MS) {
+                return;
+            }
+            lastPrinted[0] = now;
+            console.printf("[%s] %d/%d (%d%%)%n", job.getCommand(), done, total, total > 0 ? done * 100 / total : 100);
+        };
+    }
+
+    private static double elapsedSeconds(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000_000.0;
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        List<Job> jobs = new ArrayList<>();
+        boolean quiet = false;
+        for (String arg : args) {
+            if ("--quiet".equals(arg)) {
+                quiet = true;
+                continue;
+            }
+            Job job = Job.fromCommand(arg);
+            if (job == null) {
+                usage("Tarea o argumento desconocido: " + arg);
+            }
+            jobs.add(job);
+        }
+        if (jobs.isEmpty()) {
+            usage("Indique al menos una tarea");
+        }
+
+        PrintStream console = System.out;
+        if (quiet) {
+            // El Logger también escribe en consola; con --quiet solo queda en app.log
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+
+        int exitCode;
+        try {
+            ApplicationContext context = ApplicationContext.getInstance();
+            exitCode = new BatchRunner(context.getBookService(), context.getMemberService(), context.getLoanService(),
+                                       context.isInMemory() ? null : context.getLoanPartitionService(),
+                                       console).run(jobs);
+        } catch (Exception e) {
+            logger.error("Error al preparar las tareas por lotes: " + e.getMessage(), e);
+            console.println("Error al preparar las tareas por lotes: " + e.getMessage());
+            exitCode = EXIT_FAILED;
+        }
+        logger.close();
+        System.exit(exitCode);
+    }
+
+    private static void usage(String message) {
+        System.err.println(message);
+        StringBuilder commands = new StringBuilder();
+        for (Job job : Job.values()) {
+            commands.append(String.format("%n  %-15s %s", job.getCommand(), job.getDescription()));
+        }
+        System.err.println("Uso: BatchRunner [--quiet] TAREA [TAREA ...]" + commands);
+        System.exit(EXIT_USAGE);
+    }
+}
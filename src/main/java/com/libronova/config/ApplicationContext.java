@@ -0,0 +1,364 @@
+package com.libronova.config;
+
+import com.libronova.dao.BookDAO;
+import com.libronova.dao.BookRepository;
+import com.libronova.dao.InstrumentedRepository;
+import com.libronova.dao.LeaseDAO;
+import com.libronova.dao.LoanDAO;
+import com.libronova.dao.LoanPartitionDAO;
+import com.libronova.dao.LoanRepository;
+import com.libronova.dao.MemberDAO;
+import com.libronova.dao.MemberRepository;
+import com.libronova.dao.memory.InMemoryBookRepository;
+import com.libronova.dao.memory.InMemoryLoanRepository;
+import com.libronova.dao.memory.InMemoryMemberRepository;
+import com.libronova.management.ConnectionPoolMonitor;
+import com.libronova.management.LoanServiceMonitor;
+import com.libronova.management.LoggerMonitor;
+import com.libronova.metrics.DaoMetrics;
+import com.libronova.metrics.DashboardMetrics;
+import com.libronova.model.Book;
+import com.libronova.scheduler.CronExpression;
+import com.libronova.scheduler.JobScheduler;
+import com.libronova.scheduler.LeaderElection;
+import com.libronova.scheduler.NodeLease;
+import com.libronova.service.BookService;
+import com.libronova.service.LoanArchiveService;
+import com.libronova.service.LoanPartitionService;
+import com.libronova.service.LoanService;
+import com.libronova.service.MemberService;
+import com.libronova.util.LoanIdGenerator;
+import com.libronova.util.Logger;
+import com.libronova.util.ProgressListener;
+import com.libronova.util.RandomLoanIdGenerator;
+import com.libronova.util.SnowflakeLoanIdGenerator;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Contexto de la aplicación: mantiene una única instancia compartida de cada DAO y servicio.
+ *
+ * Los componentes se crean de forma perezosa en el primer acceso, de modo que el arranque
+ * solo construye lo que la primera pantalla necesita. Cualquier caché, pool o métrica debe
+ * registrarse aquí para que sea única en todo el proceso.
+ *
+ * repository.backend elige el almacenamiento de los repositorios: jdbc (MySQL, por defecto)
+ * o memory, que no necesita base de datos y pierde los datos al cerrar la aplicación.
+ */
+public class ApplicationContext {
+    private static volatile ApplicationContext instance;
+
+    private final boolean inMemory = "memory".equalsIgnoreCase(
+        DatabaseConfig.getProperty("repository.backend", "jdbc").trim());
+    private final Lazy<DaoMetrics> daoMetrics = new Lazy<>(ApplicationContext::createDaoMetrics);
+    private final Lazy<BookRepository> bookDAO = new Lazy<>(
+        () -> inMemory ? new InMemoryBookRepository() : instrument(BookRepository.class, new BookDAO()));
+    private final Lazy<MemberRepository> memberDAO = new Lazy<>(
+        () -> inMemory ? new InMemoryMemberRepository() : instrument(MemberRepository.class, new MemberDAO()));
+    private final Lazy<LoanRepository> loanDAO = new Lazy<>(
+        () -> inMemory
+            ? new InMemoryLoanRepository((InMemoryBookRepository) getBookDAO(), (InMemoryMemberRepository) getMemberDAO())
+            : instrument(LoanRepository.class, new LoanDAO()));
+    private final Lazy<BookService> bookService = new Lazy<>(() -> new BookService(getBookDAO()));
+    private final Lazy<MemberService> memberService = new Lazy<>(() -> new MemberService(getMemberDAO()));
+    private final Lazy<DashboardMetrics> dashboardMetrics = new Lazy<>(this::createDashboardMetrics);
+    private final Lazy<LoanIdGenerator> loanIdGenerator = new Lazy<>(this::createLoanIdGenerator);
+    private final Lazy<LoanService.CounterMode> loanCounterMode = new Lazy<>(this::resolveLoanCounterMode);
+    private final Lazy<LoanService> loanService = new Lazy<>(
+        () -> new LoanService(getLoanDAO(), getBookService(), getMemberService(), getDashboardMetrics(),
+                              getLoanIdGenerator(), getLoanCounterMode()));
+    private final Lazy<LoanArchiveService> loanArchiveService = new Lazy<>(
+        () -> new LoanArchiveService(getLoanDAO(),
+                                     DatabaseConfig.getIntProperty("archive.loans.min.age.days", 365),
+                                     DatabaseConfig.getIntProperty("archive.loans.batch.size", 500)));
+    private final Lazy<LoanPartitionService> loanPartitionService = new Lazy<>(
+        () -> new LoanPartitionService(new LoanPartitionDAO(),
+                                       DatabaseConfig.getIntProperty("loans.partitioning.months.ahead", 3),
+                                       DatabaseConfig.getIntProperty("loans.partitioning.retention.months", 0)));
+
+    private final Lazy<JobScheduler> jobScheduler = new Lazy<>(this::createJobScheduler);
+
+    private boolean managementBeansRegistered;
+    private boolean jobSchedulerStarted;
+
+    private ApplicationContext() {}
+
+    public static ApplicationContext getInstance() {
+        if (instance == null) {
+            synchronized (ApplicationContext.class) {
+                if (instance == null) {
+                    instance = new ApplicationContext();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Indica si los repositorios trabajan en memoria en lugar de sobre MySQL
+     */
+    public boolean isInMemory() {
+        return inMemory;
+    }
+
+    public BookRepository getBookDAO() {
+        return bookDAO.get();
+    }
+
+    public MemberRepository getMemberDAO() {
+        return memberDAO.get();
+    }
+
+    public LoanRepository getLoanDAO() {
+        return loanDAO.get();
+    }
+
+    public BookService getBookService() {
+        return bookService.get();
+    }
+
+    public MemberService getMemberService() {
+        return memberService.get();
+    }
+
+    public LoanService getLoanService() {
+        return loanService.get();
+    }
+
+    public LoanArchiveService getLoanArchiveService() {
+        return loanArchiveService.get();
+    }
+
+    public LoanPartitionService getLoanPartitionService() {
+        return loanPartitionService.get();
+    }
+
+    public DashboardMetrics getDashboardMetrics() {
+        return dashboardMetrics.get();
+    }
+
+    /**
+     * Latencias, filas y errores por método de los repositorios JDBC y espera del pool
+     */
+    public DaoMetrics getDaoMetrics() {
+        return daoMetrics.get();
+    }
+
+    public LoanIdGenerator getLoanIdGenerator() {
+        return loanIdGenerator.get();
+    }
+
+    public LoanService.CounterMode getLoanCounterMode() {
+        return loanCounterMode.get();
+    }
+
+    /**
+     * Publica en el servidor JMX de la plataforma los beans del pool de conexiones, el log y
+     * LoanService (dominio com.libronova) para seguirlos con jconsole o jcmd (jmx.enabled).
+     * Registrar no crea los componentes perezosos: LoanService se obtiene en la primera lectura
+     */
+    public synchronized void registerManagementBeans() {
+        if (managementBeansRegistered || !Boolean.parseBoolean(DatabaseConfig.getProperty("jmx.enabled", "true").trim())) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ConnectionPool pool = DatabaseConfig.getConnectionPool();
+            if (pool != null && !inMemory) {
+                server.registerMBean(new ConnectionPoolMonitor(pool), new ObjectName("com.libronova:type=ConnectionPool"));
+            }
+            server.registerMBean(new LoanServiceMonitor(this::getLoanService), new ObjectName("com.libronova:type=LoanService"));
+            server.registerMBean(new LoggerMonitor(Logger.getInstance()), new ObjectName("com.libronova:type=Logger"));
+            managementBeansRegistered = true;
+            Logger.getInstance().info("MBeans de LibroNova registrados en el dominio com.libronova");
+        } catch (JMException e) {
+            Logger.getInstance().error("No se pudieron registrar los MBeans: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Planificador de las tareas en segundo plano (barrido de vencidos, multas, archivo y particiones)
+     */
+    public JobScheduler getJobScheduler() {
+        return jobScheduler.get();
+    }
+
+    /**
+     * Arranca el planificador de tareas si scheduler.enabled; llamadas repetidas no hacen nada
+     */
+    public synchronized void startJobScheduler() {
+        if (jobSchedulerStarted || !Boolean.parseBoolean(DatabaseConfig.getProperty("scheduler.enabled", "true").trim())) {
+            return;
+        }
+        getJobScheduler().start();
+        jobSchedulerStarted = true;
+    }
+
+    /**
+     * Crea el planificador con las tareas que tienen expresión cron en scheduler.job.&lt;nombre&gt;.cron
+     * (vacía = desactivada). Con MySQL y scheduler.leader.election solo las ejecuta la instancia
+     * que tiene el lease "scheduler" de job_leases
+     */
+    private JobScheduler createJobScheduler() {
+        JobScheduler scheduler = new JobScheduler(
+            DatabaseConfig.getIntProperty("scheduler.threads", 2),
+            DatabaseConfig.getIntProperty("scheduler.jitter.seconds", 30) * 1000L,
+            DatabaseConfig.getIntProperty("scheduler.history.size", 50));
+        scheduleJob(scheduler, "overdue",
+                    () -> getLoanService().updateOverdueLoans(ProgressListener.NONE) + " préstamos marcados como vencidos");
+        scheduleJob(scheduler, "fines",
+                    () -> getLoanService().updateFines(ProgressListener.NONE) + " multas actualizadas");
+        scheduleJob(scheduler, "archive",
+                    () -> getLoanArchiveService().archiveReturnedLoans() + " préstamos archivados");
+        if (!inMemory) {
+            scheduleJob(scheduler, "partitions", () -> {
+                if (!getLoanPartitionService().maintain()) {
+                    throw new IllegalStateException("No se pudieron mantener las particiones de loans (ver app.log)");
+                }
+                return "particiones de loans al día";
+            });
+        }
+        if (!inMemory && Boolean.parseBoolean(DatabaseConfig.getProperty("scheduler.leader.election", "true").trim())) {
+            String node = DatabaseConfig.getProperty("scheduler.leader.node", "").trim();
+            scheduler.setLeaderElection(new LeaderElection(
+                new LeaseDAO(), "scheduler",
+                node.isEmpty() ? LeaderElection.defaultHolder() : node,
+                DatabaseConfig.getIntProperty("scheduler.leader.lease.seconds", 15) * 1000L));
+        }
+        return scheduler;
+    }
+
+    private static void scheduleJob(JobScheduler scheduler, String name, Callable<String> task) {
+        String cron = DatabaseConfig.getProperty("scheduler.job." + name + ".cron", "").trim();
+        if (!cron.isEmpty()) {
+            scheduler.schedule(name, CronExpression.parse(cron), task);
+        }
+    }
+
+    /**
+     * Determina quién mantiene los contadores de préstamos (loan.counter.mode)
+     */
+    private LoanService.CounterMode resolveLoanCounterMode() {
+        LoanService.CounterMode mode = LoanService.CounterMode.valueOf(
+            DatabaseConfig.getProperty("loan.counter.mode", "APPLICATION").trim().toUpperCase());
+        return resolveLoanCounterMode(mode, getLoanDAO().hasCounterTriggers());
+    }
+
+    /**
+     * Ajusta el modo configurado a los triggers que hay realmente en la base de datos:
+     * con APPLICATION y los triggers aún instalados (V3 sin aplicar) se usa TRIGGER para no
+     * contar dos veces cada préstamo, y con TRIGGER sin triggers (V3 ya los eliminó) se usa
+     * APPLICATION para que los préstamos sigan descontando stock y cupo.
+     *
+     * @param triggersInstalled resultado de hasCounterTriggers(), o null si no se pudo comprobar
+     */
+    static LoanService.CounterMode resolveLoanCounterMode(LoanService.CounterMode configured, Boolean triggersInstalled) {
+        if (configured == LoanService.CounterMode.APPLICATION && Boolean.TRUE.equals(triggersInstalled)) {
+            Logger.getInstance().warning(
+                "Los triggers de préstamos siguen instalados; se mantienen los contadores en modo TRIGGER");
+            return LoanService.CounterMode.TRIGGER;
+        }
+        if (configured == LoanService.CounterMode.TRIGGER && Boolean.FALSE.equals(triggersInstalled)) {
+            Logger.getInstance().warning(
+                "loan.counter.mode=TRIGGER pero la base de datos no tiene los triggers de préstamos (migración V3); "
+                + "los contadores se mantienen en modo APPLICATION");
+            return LoanService.CounterMode.APPLICATION;
+        }
+        return configured;
+    }
+
+    /**
+     * Crea el generador de IDs de préstamo configurado (loan.id.generator = snowflake | uuid)
+     */
+    private LoanIdGenerator createLoanIdGenerator() {
+        String type = DatabaseConfig.getProperty("loan.id.generator", "snowflake").trim();
+        if ("uuid".equalsIgnoreCase(type)) {
+            return new RandomLoanIdGenerator();
+        }
+        if (!"snowflake".equalsIgnoreCase(type)) {
+            throw new IllegalStateException("Generador de IDs de préstamo desconocido: " + type);
+        }
+
+        String node = DatabaseConfig.getProperty("loan.id.node", "").trim();
+        if (!node.isEmpty()) {
+            Logger.getInstance().info("IDs de préstamo con el nodo " + node + " (loan.id.node)");
+            return new SnowflakeLoanIdGenerator(Long.parseLong(node));
+        }
+        if (inMemory) {
+            // Los repositorios en memoria no se comparten con otras instancias
+            Logger.getInstance().info("IDs de préstamo con el nodo 0 (repositorios en memoria)");
+            return new SnowflakeLoanIdGenerator(0);
+        }
+        // Sin nodo fijo se reserva uno libre en job_leases para que no coincida con otra instancia
+        NodeLease lease = NodeLease.claim(
+            new LeaseDAO(), "loan-id-node-", SnowflakeLoanIdGenerator.MAX_NODE, LeaderElection.defaultHolder(),
+            DatabaseConfig.getIntProperty("loan.id.node.lease.seconds", 60) * 1000L);
+        Logger.getInstance().info("IDs de préstamo con el nodo " + lease.getNode() + " (reservado en job_leases)");
+        return new SnowflakeLoanIdGenerator(lease.getNode(), lease::isHeld);
+    }
+
+    /**
+     * Mide cada llamada al repositorio JDBC; los repositorios en memoria no se envuelven
+     */
+    private <T> T instrument(Class<T> type, T repository) {
+        return InstrumentedRepository.wrap(type, repository, repository.getClass().getSimpleName(), getDaoMetrics());
+    }
+
+    /**
+     * Crea las métricas de repositorios y arranca su volcado periódico al log
+     * (metrics.dao.dump.interval.seconds; 0 = solo bajo demanda)
+     */
+    private static DaoMetrics createDaoMetrics() {
+        DaoMetrics metrics = new DaoMetrics();
+        ConnectionPool pool = DatabaseConfig.getConnectionPool();
+        if (pool != null) {
+            metrics.register("ConnectionPool.borrow", pool.getBorrowTime());
+        }
+        metrics.startPeriodicDump(DatabaseConfig.getIntProperty("metrics.dao.dump.interval.seconds", 300));
+        return metrics;
+    }
+
+    /**
+     * Crea las métricas del panel; se siembran en la primera lectura, no al arrancar
+     */
+    private DashboardMetrics createDashboardMetrics() {
+        return new DashboardMetrics(
+            () -> getLoanDAO().getStatistics(),
+            () -> getBookDAO().countAvailableByCategory(),
+            bookId -> {
+                Book book = getBookDAO().findById(bookId);
+                return book != null ? book.getCategory() : null;
+            });
+    }
+
+    /**
+     * Valor inicializado una sola vez en el primer acceso (seguro entre hilos)
+     */
+    private static final class Lazy<T> {
+        private final Supplier<T> factory;
+        private volatile T value;
+
+        Lazy(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        T get() {
+            T result = value;
+            if (result == null) {
+                synchronized (this) {
+                    result = value;
+                    if (result == null) {
+                        result = factory.get();
+                        value = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
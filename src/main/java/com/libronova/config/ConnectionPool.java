@@ -0,0 +1,304 @@
+package com.libronova.config;
+
+import com.libronova.metrics.LatencyHistogram;
+import com.libronova.util.Logger;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool de conexiones JDBC de tamaño acotado.
+ *
+ * Las conexiones se abren bajo demanda hasta db.pool.size y se reutilizan en orden LIFO, de
+ * modo que las más recientes (las que menos riesgo tienen de haber caducado) salen primero.
+ * Las que llevan libres más de validationIdleMillis se comprueban con isValid() antes de
+ * prestarlas, ya que el servidor o un cortafuegos pueden haber cortado la conexión mientras tanto.
+ * Cerrar la conexión prestada la devuelve al pool; si quedó una transacción abierta se deshace
+ * antes. Cuando no hay ninguna libre se espera hasta db.pool.timeout.ms y después se lanza
+ * SQLException, que los DAO tratan como cualquier otro error de base de datos. El tamaño y la
+ * espera máxima se pueden cambiar en caliente (por ejemplo, desde JMX).
+ */
+public class ConnectionPool {
+    private static final Logger logger = Logger.getInstance();
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long DEFAULT_VALIDATION_IDLE_MILLIS = 30_000;
+
+    /**
+     * Abre conexiones físicas nuevas
+     */
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    private final ConnectionFactory factory;
+    private final ResizableSemaphore permits;
+    private volatile int maxSize;
+    private volatile long timeoutMillis;
+    private volatile long validationIdleMillis = DEFAULT_VALIDATION_IDLE_MILLIS;
+    private final BlockingDeque<IdleConnection> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final LatencyHistogram borrowTime = new LatencyHistogram();
+    private volatile boolean closed;
+
+    public ConnectionPool(ConnectionFactory factory, int maxSize, long timeoutMillis) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("El tamaño del pool debe ser positivo: " + maxSize);
+        }
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.timeoutMillis = timeoutMillis;
+        this.permits = new ResizableSemaphore(maxSize);
+    }
+
+    /**
+     * Presta una conexión; se devuelve al pool con close()
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("El pool de conexiones está cerrado");
+        }
+        long start = System.nanoTime();
+        if (!permits.tryAcquire()) {
+            waiting.incrementAndGet();
+            try {
+                if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    timeouts.increment();
+                    throw new SQLException("No hay conexiones libres en el pool tras " + timeoutMillis + " ms");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrumpido mientras se esperaba una conexión", e);
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+
+        try {
+            Connection physical = takeIdle();
+            active.incrementAndGet();
+            borrowTime.record(System.nanoTime() - start);
+            return lease(physical);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Cierra las conexiones libres; las prestadas se cierran al devolverse
+     */
+    public void close() {
+        closed = true;
+        IdleConnection entry;
+        while ((entry = idle.pollFirst()) != null) {
+            closeQuietly(entry.connection);
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Cambia el número máximo de conexiones; al reducirlo, las prestadas de más se cierran al
+     * devolverse en lugar de volver al pool
+     */
+    public synchronized void setMaxSize(int newSize) {
+        if (newSize <= 0) {
+            throw new IllegalArgumentException("El tamaño del pool debe ser positivo: " + newSize);
+        }
+        int delta = newSize - maxSize;
+        if (delta > 0) {
+            permits.release(delta);
+        } else if (delta < 0) {
+            permits.shrink(-delta);
+        }
+        maxSize = newSize;
+        logger.info("Tamaño del pool de conexiones cambiado a " + newSize);
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public void setTimeoutMillis(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public long getValidationIdleMillis() {
+        return validationIdleMillis;
+    }
+
+    /**
+     * Tiempo libre a partir del cual una conexión se valida con isValid() antes de prestarla
+     * (0 = validar siempre)
+     */
+    public void setValidationIdleMillis(long validationIdleMillis) {
+        this.validationIdleMillis = Math.max(0, validationIdleMillis);
+    }
+
+    public int getActive() {
+        return active.get();
+    }
+
+    public int getIdle() {
+        return idle.size();
+    }
+
+    /**
+     * Hilos esperando una conexión libre
+     */
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    /**
+     * Conexiones físicas abiertas desde la creación del pool
+     */
+    public long getOpened() {
+        return opened.sum();
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    /**
+     * Conexiones libres descartadas por no superar la validación
+     */
+    public long getDiscarded() {
+        return discarded.sum();
+    }
+
+    /**
+     * Tiempo en obtener una conexión, incluida la espera y la apertura si fue necesaria
+     */
+    public LatencyHistogram getBorrowTime() {
+        return borrowTime;
+    }
+
+    private Connection takeIdle() throws SQLException {
+        IdleConnection entry;
+        while ((entry = idle.pollFirst()) != null) {
+            Connection conn = entry.connection;
+            if (conn.isClosed()) {
+                continue;
+            }
+            // isClosed() no va a la red; tras una espera larga se hace un ping con isValid()
+            long idleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - entry.idleSince);
+            if (idleMillis < validationIdleMillis || isValid(conn)) {
+                return conn;
+            }
+            discarded.increment();
+            logger.warning("Se descarta una conexión del pool que no respondió tras " + idleMillis + " ms libre");
+            closeQuietly(conn);
+        }
+        Connection fresh = factory.open();
+        opened.increment();
+        return fresh;
+    }
+
+    private void release(Connection physical) {
+        active.decrementAndGet();
+        try {
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (closed || physical.isClosed() || idle.size() + active.get() >= maxSize) {
+                closeQuietly(physical);
+            } else {
+                idle.offerFirst(new IdleConnection(physical));
+            }
+        } catch (SQLException e) {
+            logger.warning("Se descarta una conexión del pool: " + e.getMessage());
+            closeQuietly(physical);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Envuelve la conexión física para que close() la devuelva al pool una sola vez
+     */
+    private Connection lease(Connection physical) {
+        AtomicBoolean returned = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+            ConnectionPool.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            (proxy, method, args) -> {
+                String name = method.getName();
+                if ("close".equals(name)) {
+                    if (returned.compareAndSet(false, true)) {
+                        release(physical);
+                    }
+                    return null;
+                }
+                if ("isClosed".equals(name) && returned.get()) {
+                    return true;
+                }
+                if (returned.get() && method.getDeclaringClass() != Object.class) {
+                    throw new SQLException("La conexión ya se devolvió al pool");
+                }
+                try {
+                    return method.invoke(physical, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+
+    private static boolean isValid(Connection conn) {
+        try {
+            return conn.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Conexión libre con el instante en que volvió al pool
+     */
+    private static final class IdleConnection {
+        final Connection connection;
+        final long idleSince = System.nanoTime();
+
+        IdleConnection(Connection connection) {
+            this.connection = connection;
+        }
+    }
+
+    /**
+     * Semáforo cuyo número de permisos puede reducirse sin esperar a que se devuelvan
+     */
+    private static final class ResizableSemaphore extends Semaphore {
+        ResizableSemaphore(int permits) {
+            super(permits, true);
+        }
+
+        void shrink(int reduction) {
+            reducePermits(reduction);
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            // La conexión ya no sirve; no hay nada más que hacer
+        }
+    }
+}
@@ -1,36 +1,66 @@
 package com.libronova.config;
 
+import com.libronova.dao.StatementTracer;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.HashSet;
 import java.util.Properties;
+import java.util.Set;
 
 /**
- * Clase de configuración para la conexión a la base de datos
+ * Clase de configuración para la conexión a la base de datos.
+ *
+ * Con -Dlibronova.profile=&lt;perfil&gt; se carga además config-&lt;perfil&gt;.properties, cuyas claves
+ * sustituyen a las de config.properties (por ejemplo, el perfil h2 de las pruebas).
  */
 public class DatabaseConfig {
     private static final String CONFIG_FILE = "config.properties";
+    private static final String PROFILE_PROPERTY = "libronova.profile";
     private static Properties properties;
     private static String url;
     private static String username;
     private static String password;
+    private static volatile boolean migrated;
+    private static final ConnectionPool pool;
+    private static final ConnectionPool backgroundPool;
+    private static final ThreadLocal<Boolean> backgroundThread = new ThreadLocal<>();
 
     static {
         loadProperties();
+        // Las conexiones del pool se abren en el primer préstamo, no al cargar la configuración
+        int poolSize = getIntProperty("db.pool.size", 10);
+        pool = poolSize > 0
+            ? new ConnectionPool(DatabaseConfig::openConnection, poolSize, getIntProperty("db.pool.timeout.ms", 5000))
+            : null;
+        // Pool aparte para las tareas programadas, que así no quitan conexiones a las ventanillas
+        int backgroundSize = getIntProperty("db.pool.background.size", 3);
+        backgroundPool = pool != null && backgroundSize > 0
+            ? new ConnectionPool(DatabaseConfig::openConnection, backgroundSize,
+                                 getIntProperty("db.pool.background.timeout.ms", 30000))
+            : null;
+        int validationIdleMillis = getIntProperty("db.pool.validation.idle.ms", 30000);
+        for (ConnectionPool configured : new ConnectionPool[] { pool, backgroundPool }) {
+            if (configured != null) {
+                configured.setValidationIdleMillis(validationIdleMillis);
+            }
+        }
     }
 
     /**
-     * Carga las propiedades de configuración desde el archivo config.properties
+     * Carga las propiedades de configuración desde el archivo config.properties y el perfil activo
      */
     private static void loadProperties() {
         properties = new Properties();
-        try (InputStream input = DatabaseConfig.class.getClassLoader().getResourceAsStream(CONFIG_FILE)) {
-            if (input == null) {
-                throw new RuntimeException("No se pudo encontrar el archivo " + CONFIG_FILE);
+        try {
+            load(CONFIG_FILE);
+            String profile = System.getProperty(PROFILE_PROPERTY);
+            if (profile != null && !profile.isBlank()) {
+                load("config-" + profile.trim() + ".properties");
             }
-            properties.load(input);
             
             url = properties.getProperty("db.url");
             username = properties.getProperty("db.username");
@@ -44,10 +74,89 @@ public class DatabaseConfig {
         }
     }
 
+    private static void load(String file) throws IOException {
+        try (InputStream input = DatabaseConfig.class.getClassLoader().getResourceAsStream(file)) {
+            if (input == null) {
+                throw new RuntimeException("No se pudo encontrar el archivo " + file);
+            }
+            properties.load(input);
+        }
+    }
+
     /**
-     * Obtiene una conexión a la base de datos
+     * Obtiene una conexión a la base de datos; con db.pool.size &gt; 0 sale del pool (o del de
+     * segundo plano, en los hilos marcados con useBackgroundPool) y close() la devuelve a él.
+     * Si hay una grabación JFR activa sus sentencias se trazan
      */
     public static Connection getConnection() throws SQLException {
+        if (!migrated) {
+            migrate();
+        }
+        ConnectionPool source = backgroundPool != null && Boolean.TRUE.equals(backgroundThread.get()) ? backgroundPool : pool;
+        return StatementTracer.wrap(source != null ? source.borrow() : openConnection());
+    }
+
+    /**
+     * Hace que el hilo actual tome sus conexiones del pool de segundo plano
+     * (db.pool.background.size); lo usan los hilos del planificador de tareas y el latido de
+     * la elección de líder
+     */
+    public static void useBackgroundPool() {
+        backgroundThread.set(Boolean.TRUE);
+    }
+
+    /**
+     * Pool de conexiones en uso, o null si está desactivado (db.pool.size=0)
+     */
+    public static ConnectionPool getConnectionPool() {
+        return pool;
+    }
+
+    /**
+     * Pool de las tareas en segundo plano, o null si comparten el principal
+     */
+    public static ConnectionPool getBackgroundConnectionPool() {
+        return backgroundPool;
+    }
+
+    /**
+     * Prepara el esquema antes de entregar la primera conexión: ejecuta db.init.script si se
+     * indica (bases de datos embebidas que empiezan vacías) y aplica las migraciones pendientes
+     * (db.migrations.enabled)
+     */
+    private static synchronized void migrate() throws SQLException {
+        if (migrated) {
+            return;
+        }
+        String initScript = getProperty("db.init.script", "").trim();
+        if (!initScript.isEmpty()) {
+            try (Connection conn = openConnection()) {
+                MigrationRunner.executeScript(conn, initScript);
+            }
+        }
+        if (Boolean.parseBoolean(getProperty("db.migrations.enabled", "true"))) {
+            try (Connection conn = openConnection()) {
+                new MigrationRunner(getIntProperty("db.migrations.baseline.version", 1),
+                                    optionalMigrations()).migrate(conn);
+            }
+        }
+        migrated = true;
+    }
+
+    /**
+     * Versiones de las migraciones opcionales habilitadas (db.migrations.optional, separadas por comas)
+     */
+    private static Set<Integer> optionalMigrations() {
+        Set<Integer> versions = new HashSet<>();
+        for (String version : getProperty("db.migrations.optional", "").split(",")) {
+            if (!version.isBlank()) {
+                versions.add(Integer.parseInt(version.trim()));
+            }
+        }
+        return versions;
+    }
+
+    private static Connection openConnection() throws SQLException {
         try {
             Class.forName("com.mysql.cj.jdbc.Driver");
             return DriverManager.getConnection(url, username, password);
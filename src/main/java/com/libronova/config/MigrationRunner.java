@@ -0,0 +1,371 @@
+package com.libronova.config;
+
+import com.libronova.util.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Aplica en orden los scripts de database/migrations y registra cada versión en schema_migrations.
+ *
+ * database/schema.sql es la versión 1 (línea base). Los scripts se listan en migrations.list,
+ * se identifican por el prefijo V&lt;n&gt;__ y se guardan con su checksum CRC32, de modo que un
+ * script ya aplicado que cambie se detecta en lugar de ignorarse. Un bloqueo con nombre
+ * (GET_LOCK) evita que dos instancias migren a la vez.
+ *
+ * Los scripts bajo optional/ solo se aplican si su versión está habilitada; mientras no lo
+ * esté no se registran, de modo que pueden activarse más adelante.
+ *
+ * Al crear schema_migrations la línea base es la mayor entre baselineVersion y la que se
+ * deduce del propio esquema (columna version, triggers de contadores, índices y tablas de cada
+ * script), para no repetir sobre una base de datos actualizada a mano una migración que ya
+ * tiene aplicada.
+ */
+public class MigrationRunner {
+    private static final Logger logger = Logger.getInstance();
+
+    private static final String RESOURCE_PATH = "db/migration/";
+    private static final String INDEX_FILE = RESOURCE_PATH + "migrations.list";
+    private static final String LOCK_NAME = "libronova_schema_migrations";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+    private static final Pattern FILE_NAME = Pattern.compile("(optional/)?V(\\d+)__(\\w+)\\.sql");
+
+    private static final String CREATE_HISTORY_TABLE =
+        "CREATE TABLE IF NOT EXISTS schema_migrations (" +
+        "version INT PRIMARY KEY, " +
+        "description VARCHAR(200) NOT NULL, " +
+        "script VARCHAR(200) NOT NULL, " +
+        "checksum BIGINT NOT NULL, " +
+        "execution_ms INT NOT NULL DEFAULT 0, " +
+        "installed_on TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
+
+    private static final String SELECT_APPLIED =
+        "SELECT version, checksum FROM schema_migrations";
+
+    private static final String INSERT_APPLIED =
+        "INSERT INTO schema_migrations (version, description, script, checksum, execution_ms) VALUES (?, ?, ?, ?, ?)";
+
+    // Huellas de las migraciones aplicadas a mano, en orden; cada una exige las anteriores
+    private static final String[][] SCHEMA_PROBES = {
+        { "2", "SELECT COUNT(*) FROM information_schema.COLUMNS " +
+               "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'books' AND COLUMN_NAME = 'version'" },
+        { "3", "SELECT COUNT(*) = 0 FROM information_schema.TRIGGERS " +
+               "WHERE TRIGGER_SCHEMA = DATABASE() AND TRIGGER_NAME IN ('tr_loan_created', 'tr_loan_returned')" },
+        { "4", "SELECT COUNT(*) FROM information_schema.STATISTICS " +
+               "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'books' AND INDEX_NAME = 'idx_books_active_title'" },
+        { "5", "SELECT COUNT(*) FROM information_schema.TABLES " +
+               "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'loans_history'" },
+        { "7", "SELECT COUNT(*) FROM information_schema.TABLES " +
+               "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'job_leases'" }
+    };
+
+    private static final String SELECT_LOCK = "SELECT GET_LOCK(?, ?)";
+    private static final String RELEASE_LOCK = "SELECT RELEASE_LOCK(?)";
+
+    private final int baselineVersion;
+    private final Set<Integer> enabledOptional;
+
+    public MigrationRunner(int baselineVersion) {
+        this(baselineVersion, Set.of());
+    }
+
+    public MigrationRunner(int baselineVersion, Set<Integer> enabledOptional) {
+        this.baselineVersion = baselineVersion;
+        this.enabledOptional = Set.copyOf(enabledOptional);
+    }
+
+    /**
+     * Aplica las migraciones pendientes usando la conexión indicada
+     */
+    public void migrate(Connection conn) throws SQLException {
+        List<Migration> migrations = loadMigrations();
+        acquireLock(conn);
+        try {
+            Map<Integer, Long> applied = loadApplied(conn, migrations);
+            int pending = 0;
+            for (Migration migration : migrations) {
+                Long checksum = applied.get(migration.version);
+                if (checksum != null) {
+                    if (checksum != 0 && checksum != migration.checksum) {
+                        throw new SQLException("La migración V" + migration.version +
+                            " cambió después de aplicarse (" + migration.script + ")");
+                    }
+                    continue;
+                }
+                if (migration.optional && !enabledOptional.contains(migration.version)) {
+                    continue;
+                }
+                apply(conn, migration);
+                pending++;
+            }
+            if (pending > 0) {
+                logger.info("Migraciones aplicadas: " + pending);
+            }
+        } finally {
+            releaseLock(conn);
+        }
+    }
+
+    private void apply(Connection conn, Migration migration) throws SQLException {
+        long start = System.nanoTime();
+        logger.info("Aplicando migración " + migration.script);
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : migration.statements) {
+                try {
+                    stmt.execute(sql);
+                } catch (SQLException e) {
+                    throw new SQLException("Error en la migración " + migration.script + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        record(conn, migration, (int) ((System.nanoTime() - start) / 1_000_000));
+    }
+
+    private static void record(Connection conn, Migration migration, int executionMillis) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_APPLIED)) {
+            stmt.setInt(1, migration.version);
+            stmt.setString(2, migration.description);
+            stmt.setString(3, migration.script);
+            stmt.setLong(4, migration.checksum);
+            stmt.setInt(5, executionMillis);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Lee el historial, creándolo y marcando la línea base si es la primera ejecución
+     */
+    private Map<Integer, Long> loadApplied(Connection conn, List<Migration> migrations) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(CREATE_HISTORY_TABLE);
+        }
+
+        Map<Integer, Long> applied = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_APPLIED);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getLong("checksum"));
+            }
+        }
+
+        if (applied.isEmpty()) {
+            int baseline = baselineVersion;
+            int detected = detectAppliedVersion(conn);
+            if (detected > baseline) {
+                logger.info("El esquema ya tiene aplicadas las migraciones hasta V" + detected + "; se toman como línea base");
+                baseline = detected;
+            }
+            Set<Integer> optional = new HashSet<>();
+            for (Migration migration : migrations) {
+                if (migration.optional) {
+                    optional.add(migration.version);
+                }
+            }
+            // Las versiones hasta la línea base ya están en la base de datos (schema.sql o aplicadas a mano);
+            // las opcionales solo se registran cuando se aplican
+            for (int version = 1; version <= baseline; version++) {
+                if (optional.contains(version)) {
+                    continue;
+                }
+                Migration baselineMigration = new Migration(version, "baseline", "baseline", false, 0, List.of());
+                record(conn, baselineMigration, 0);
+                applied.put(version, 0L);
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Última versión cuya huella está en el esquema, siguiendo el orden de las migraciones
+     */
+    private static int detectAppliedVersion(Connection conn) throws SQLException {
+        int detected = 1;
+        for (String[] probe : SCHEMA_PROBES) {
+            try (PreparedStatement stmt = conn.prepareStatement(probe[1]);
+                 ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) == 0) {
+                    break;
+                }
+            }
+            detected = Integer.parseInt(probe[0]);
+        }
+        return detected;
+    }
+
+    private static void acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_LOCK)) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("No se pudo obtener el bloqueo de migraciones");
+                }
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) {
+        try (PreparedStatement stmt = conn.prepareStatement(RELEASE_LOCK)) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.executeQuery().close();
+        } catch (SQLException e) {
+            logger.warning("No se pudo liberar el bloqueo de migraciones: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Carga los scripts listados en migrations.list, ordenados por versión
+     */
+    static List<Migration> loadMigrations() throws SQLException {
+        List<Migration> migrations = new ArrayList<>();
+        String index = readResource(INDEX_FILE);
+        if (index == null) {
+            return migrations;
+        }
+
+        int lastVersion = 1;
+        for (String line : index.split("\\R")) {
+            String script = line.trim();
+            if (script.isEmpty() || script.startsWith("#")) {
+                continue;
+            }
+            Matcher matcher = FILE_NAME.matcher(script);
+            if (!matcher.matches()) {
+                throw new SQLException("Nombre de migración no válido: " + script);
+            }
+            int version = Integer.parseInt(matcher.group(2));
+            if (version <= lastVersion) {
+                throw new SQLException("Las migraciones deben listarse en orden creciente: " + script);
+            }
+            String content = readResource(RESOURCE_PATH + script);
+            if (content == null) {
+                throw new SQLException("No se encontró la migración " + script);
+            }
+            migrations.add(new Migration(version, matcher.group(3).replace('_', ' '), script,
+                                         matcher.group(1) != null, checksum(content), parseStatements(content)));
+            lastVersion = version;
+        }
+        return migrations;
+    }
+
+    /**
+     * Ejecuta un script SQL del classpath sentencia a sentencia, sin registrarlo como migración
+     */
+    public static void executeScript(Connection conn, String resourcePath) throws SQLException {
+        String content = readResource(resourcePath);
+        if (content == null) {
+            throw new SQLException("No se encontró el script " + resourcePath);
+        }
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : parseStatements(content)) {
+                try {
+                    stmt.execute(sql);
+                } catch (SQLException e) {
+                    throw new SQLException("Error en el script " + resourcePath + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        logger.info("Script ejecutado: " + resourcePath);
+    }
+
+    /**
+     * Divide un script en sentencias, respetando DELIMITER para triggers y procedimientos.
+     * Cada sentencia debe terminar con el delimitador al final de una línea.
+     */
+    public static List<String> parseStatements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        String delimiter = ";";
+
+        for (String line : script.split("\\R")) {
+            String trimmed = line.trim();
+            if (current.length() == 0 && (trimmed.isEmpty() || trimmed.startsWith("--"))) {
+                continue;
+            }
+            if (trimmed.toUpperCase().startsWith("DELIMITER ")) {
+                delimiter = trimmed.substring("DELIMITER ".length()).trim();
+                continue;
+            }
+
+            if (trimmed.endsWith(delimiter)) {
+                current.append(line, 0, line.lastIndexOf(delimiter));
+                String statement = current.toString().trim();
+                if (!statement.isEmpty()) {
+                    statements.add(statement);
+                }
+                current.setLength(0);
+            } else {
+                current.append(line).append('\n');
+            }
+        }
+
+        String remainder = current.toString().trim();
+        if (!remainder.isEmpty()) {
+            statements.add(remainder);
+        }
+        return statements;
+    }
+
+    private static long checksum(String content) {
+        CRC32 crc = new CRC32();
+        crc.update(content.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private static String readResource(String path) throws SQLException {
+        try (InputStream input = MigrationRunner.class.getClassLoader().getResourceAsStream(path)) {
+            if (input == null) {
+                return null;
+            }
+            StringBuilder sb = new StringBuilder();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    sb.append(line).append('\n');
+                }
+            }
+            return sb.toString();
+        } catch (IOException e) {
+            throw new SQLException("Error al leer " + path, e);
+        }
+    }
+
+    /**
+     * Script de migración ya leído
+     */
+    static final class Migration {
+        final int version;
+        final String description;
+        final String script;
+        final boolean optional;
+        final long checksum;
+        final List<String> statements;
+
+        Migration(int version, String description, String script, boolean optional, long checksum,
+                  List<String> statements) {
+            this.version = version;
+            this.description = description;
+            this.script = script;
+            this.optional = optional;
+            this.checksum = checksum;
+            this.statements = statements;
+        }
+    }
+}
@@ -1,17 +1,23 @@
 package com.libronova.dao;
 
 import com.libronova.config.DatabaseConfig;
+import com.libronova.exception.OptimisticLockException;
+import com.libronova.metrics.DaoMetrics;
 import com.libronova.model.Book;
+import com.libronova.model.RecordVersion;
+import com.libronova.util.CancellableQuery;
 import com.libronova.util.Logger;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * DAO para operaciones CRUD de libros
  */
-public class BookDAO {
+public class BookDAO implements BookRepository {
     private static final Logger logger = Logger.getInstance();
 
     // Consultas SQL
@@ -22,12 +28,22 @@ public class BookDAO {
     private static final String SELECT_BY_ID = 
         "SELECT * FROM books WHERE id = ?";
 
+    private static final String SELECT_VERSION = 
+        "SELECT id, version, updated_at FROM books WHERE id = ?";
+
     private static final String SELECT_BY_ISBN = 
         "SELECT * FROM books WHERE isbn = ?";
 
     private static final String SELECT_ALL = 
         "SELECT * FROM books WHERE active = true ORDER BY title";
 
+    // Páginas del API REST; el id desempata para que las páginas no se solapen
+    private static final String SELECT_ALL_PAGE = 
+        "SELECT * FROM books WHERE active = true ORDER BY title, id LIMIT ? OFFSET ?";
+
+    private static final String SELECT_AVAILABLE_PAGE = 
+        "SELECT * FROM books WHERE active = true AND available_stock > 0 ORDER BY title, id LIMIT ? OFFSET ?";
+
     private static final String SELECT_BY_CATEGORY = 
         "SELECT * FROM books WHERE category = ? AND active = true ORDER BY title";
 
@@ -36,18 +52,22 @@ public class BookDAO {
 
     private static final String UPDATE_BOOK = 
         "UPDATE books SET title = ?, author = ?, publisher = ?, publication_date = ?, " +
-        "category = ?, stock = ?, available_stock = ?, active = ? WHERE id = ?";
+        "category = ?, stock = ?, available_stock = ?, active = ?, version = version + 1 " +
+        "WHERE id = ? AND version = ?";
 
     private static final String UPDATE_STOCK = 
-        "UPDATE books SET available_stock = ? WHERE id = ?";
+        "UPDATE books SET available_stock = ?, version = version + 1 WHERE id = ? AND version = ?";
 
     private static final String DELETE_BOOK = 
-        "UPDATE books SET active = false WHERE id = ?";
+        "UPDATE books SET active = false, version = version + 1 WHERE id = ?";
 
     private static final String SEARCH_BOOKS = 
         "SELECT * FROM books WHERE active = true AND " +
         "(title LIKE ? OR author LIKE ? OR isbn LIKE ?) ORDER BY title";
 
+    private static final String SELECT_AVAILABLE_BY_CATEGORY = 
+        "SELECT category, SUM(available_stock) AS available FROM books WHERE active = true GROUP BY category";
+
     /**
      * Crea un nuevo libro
      */
@@ -77,6 +97,7 @@ public class BookDAO {
                 return true;
             }
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al crear libro: " + e.getMessage());
         }
         return false;
@@ -96,11 +117,34 @@ public class BookDAO {
                 }
             }
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al buscar libro por ID: " + e.getMessage());
         }
         return null;
     }
 
+    /**
+     * Obtiene la versión y la fecha de modificación de un libro sin leer el resto de columnas
+     */
+    public RecordVersion findVersion(int id) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_VERSION)) {
+            
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Timestamp updatedAt = rs.getTimestamp("updated_at");
+                    return new RecordVersion(rs.getInt("id"), rs.getInt("version"),
+                                             updatedAt != null ? updatedAt.toLocalDateTime() : null);
+                }
+            }
+        } catch (SQLException e) {
+            DaoMetrics.markFailed();
+            logger.error("Error al obtener la versión del libro: " + e.getMessage());
+        }
+        return null;
+    }
+
     /**
      * Busca un libro por ISBN
      */
@@ -115,6 +159,7 @@ public class BookDAO {
                 }
             }
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al buscar libro por ISBN: " + e.getMessage());
         }
         return null;
@@ -133,11 +178,19 @@ public class BookDAO {
                 books.add(mapResultSetToBook(rs));
             }
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al obtener todos los libros: " + e.getMessage());
         }
         return books;
     }
 
+    /**
+     * Obtiene una página de los libros activos
+     */
+    public List<Book> findAllPage(int offset, int limit) {
+        return findPage(SELECT_ALL_PAGE, offset, limit, "Error al obtener la página de libros: ");
+    }
+
     /**
      * Obtiene libros por categoría
      */
@@ -153,6 +206,7 @@ public class BookDAO {
                 }
             }
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al buscar libros por categoría: " + e.getMessage());
         }
         return books;
@@ -171,11 +225,38 @@ public class BookDAO {
                 books.add(mapResultSetToBook(rs));
             }
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al obtener libros disponibles: " + e.getMessage());
         }
         return books;
     }
 
+    /**
+     * Obtiene una página de los libros disponibles para préstamo
+     */
+    public List<Book> findAvailablePage(int offset, int limit) {
+        return findPage(SELECT_AVAILABLE_PAGE, offset, limit, "Error al obtener la página de libros disponibles: ");
+    }
+
+    private List<Book> findPage(String sql, int offset, int limit, String errorMessage) {
+        List<Book> books = new ArrayList<>();
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, limit);
+            stmt.setInt(2, offset);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    books.add(mapResultSetToBook(rs));
+                }
+            }
+        } catch (SQLException e) {
+            DaoMetrics.markFailed();
+            logger.error(errorMessage + e.getMessage());
+        }
+        return books;
+    }
+
     /**
      * Busca libros por título, autor o ISBN
      */
@@ -189,21 +270,46 @@ public class BookDAO {
             stmt.setString(2, searchPattern);
             stmt.setString(3, searchPattern);
             
+            CancellableQuery.register(stmt);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
                     books.add(mapResultSetToBook(rs));
                 }
             }
         } catch (SQLException e) {
-            logger.error("Error al buscar libros: " + e.getMessage());
+            // Una búsqueda sustituida por otra y cancelada no es un error
+            if (!CancellableQuery.isCancelled()) {
+                DaoMetrics.markFailed();
+                logger.error("Error al buscar libros: " + e.getMessage());
+            }
         }
         return books;
     }
 
     /**
-     * Actualiza un libro
+     * Obtiene los ejemplares disponibles agrupados por categoría
      */
-    public boolean update(Book book) {
+    public Map<String, Long> countAvailableByCategory() {
+        Map<String, Long> available = new TreeMap<>();
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_AVAILABLE_BY_CATEGORY);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                available.put(rs.getString("category"), rs.getLong("available"));
+            }
+        } catch (SQLException e) {
+            DaoMetrics.markFailed();
+            logger.error("Error al obtener disponibilidad por categoría: " + e.getMessage());
+            return null;
+        }
+        return available;
+    }
+
+    /**
+     * Actualiza un libro si su versión no cambió desde que se leyó
+     */
+    public boolean update(Book book) throws OptimisticLockException {
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(UPDATE_BOOK)) {
             
@@ -216,34 +322,41 @@ public class BookDAO {
             stmt.setInt(7, book.getAvailableStock());
             stmt.setBoolean(8, book.isActive());
             stmt.setInt(9, book.getId());
+            stmt.setInt(10, book.getVersion());
 
             int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected > 0) {
-                logger.info("Libro actualizado exitosamente: " + book.getIsbn());
-                return true;
+            if (rowsAffected == 0) {
+                throw new OptimisticLockException("El libro ID " + book.getId() + " fue modificado por otro usuario");
             }
+            book.setVersion(book.getVersion() + 1);
+            logger.info("Libro actualizado exitosamente: " + book.getIsbn());
+            return true;
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al actualizar libro: " + e.getMessage());
         }
         return false;
     }
 
     /**
-     * Actualiza el stock disponible de un libro
+     * Actualiza el stock disponible de un libro si su versión sigue siendo la esperada
      */
-    public boolean updateStock(int bookId, int availableStock) {
+    public boolean updateStock(int bookId, int availableStock, int expectedVersion) throws OptimisticLockException {
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(UPDATE_STOCK)) {
             
             stmt.setInt(1, availableStock);
             stmt.setInt(2, bookId);
+            stmt.setInt(3, expectedVersion);
 
             int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected > 0) {
-                logger.info("Stock actualizado para libro ID: " + bookId);
-                return true;
+            if (rowsAffected == 0) {
+                throw new OptimisticLockException("El stock del libro ID " + bookId + " fue modificado por otro usuario");
             }
+            logger.info("Stock actualizado para libro ID: " + bookId);
+            return true;
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al actualizar stock: " + e.getMessage());
         }
         return false;
@@ -263,6 +376,7 @@ public class BookDAO {
                 return true;
             }
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al eliminar libro: " + e.getMessage());
         }
         return false;
@@ -283,6 +397,7 @@ public class BookDAO {
         book.setStock(rs.getInt("stock"));
         book.setAvailableStock(rs.getInt("available_stock"));
         book.setActive(rs.getBoolean("active"));
+        book.setVersion(rs.getInt("version"));
         return book;
     }
 }
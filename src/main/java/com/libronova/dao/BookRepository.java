@@ -0,0 +1,87 @@
+package com.libronova.dao;
+
+import com.libronova.exception.OptimisticLockException;
+import com.libronova.model.Book;
+import com.libronova.model.RecordVersion;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repositorio de libros: BookDAO lo implementa sobre MySQL y InMemoryBookRepository en memoria.
+ *
+ * Los listados solo incluyen libros activos ordenados por título. Los objetos devueltos son
+ * copias, de modo que modificarlos no altera el repositorio hasta llamar a update.
+ */
+public interface BookRepository {
+
+    /**
+     * Crea un nuevo libro y le asigna su ID
+     */
+    boolean create(Book book);
+
+    /**
+     * Busca un libro por ID
+     */
+    Book findById(int id);
+
+    /**
+     * Versión y fecha de modificación de un libro sin cargar la fila completa, o null si no existe
+     */
+    RecordVersion findVersion(int id);
+
+    /**
+     * Busca un libro por ISBN
+     */
+    Book findByIsbn(String isbn);
+
+    /**
+     * Obtiene todos los libros activos
+     */
+    List<Book> findAll();
+
+    /**
+     * Obtiene una página de los libros activos: salta offset filas y devuelve como mucho limit
+     */
+    List<Book> findAllPage(int offset, int limit);
+
+    /**
+     * Busca libros por categoría
+     */
+    List<Book> findByCategory(String category);
+
+    /**
+     * Obtiene libros disponibles para préstamo
+     */
+    List<Book> findAvailable();
+
+    /**
+     * Obtiene una página de los libros disponibles para préstamo
+     */
+    List<Book> findAvailablePage(int offset, int limit);
+
+    /**
+     * Busca libros por título, autor o ISBN
+     */
+    List<Book> search(String searchTerm);
+
+    /**
+     * Suma el stock disponible de los libros activos por categoría
+     */
+    Map<String, Long> countAvailableByCategory();
+
+    /**
+     * Actualiza un libro si su versión no cambió desde que se leyó
+     */
+    boolean update(Book book) throws OptimisticLockException;
+
+    /**
+     * Actualiza el stock disponible de un libro si su versión sigue siendo la esperada
+     */
+    boolean updateStock(int bookId, int availableStock, int expectedVersion) throws OptimisticLockException;
+
+    /**
+     * Elimina (desactiva) un libro
+     */
+    boolean delete(int id);
+}
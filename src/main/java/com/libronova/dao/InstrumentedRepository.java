@@ -0,0 +1,101 @@
+package com.libronova.dao;
+
+import com.libronova.exception.LibroNovaException;
+import com.libronova.metrics.DaoMetrics;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Envoltorio que mide cada llamada a un repositorio y la registra en DaoMetrics.
+ *
+ * La operación se nombra como "BookDAO.findByIsbn"; los métodos sobrecargados añaden el número
+ * de parámetros ("LoanDAO.findByMember/3"). Las filas son el tamaño de la colección devuelta,
+ * 1 por cada objeto encontrado o el entero devuelto por las operaciones que cuentan filas.
+ * Cuentan como error las SQLException capturadas por el DAO (markFailed) y las excepciones no
+ * previstas; los conflictos de versión y demás excepciones de negocio no.
+ */
+public final class InstrumentedRepository {
+
+    private InstrumentedRepository() {}
+
+    /**
+     * Devuelve el repositorio envuelto; prefix suele ser el nombre simple de la implementación
+     */
+    public static <T> T wrap(Class<T> type, T target, String prefix, DaoMetrics metrics) {
+        Map<Method, String> names = operationNames(type, prefix);
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+            (instance, method, args) -> {
+                String operation = names.get(method);
+                if (operation == null) {
+                    return invoke(target, method, args); // equals, hashCode, toString
+                }
+
+                DaoMetrics.clearFailed();
+                long start = System.nanoTime();
+                boolean failed = false;
+                Object result = null;
+                try {
+                    result = invoke(target, method, args);
+                    return result;
+                } catch (LibroNovaException e) {
+                    throw e;
+                } catch (Throwable e) {
+                    failed = true;
+                    throw e;
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    failed |= DaoMetrics.consumeFailed();
+                    metrics.record(operation, elapsed, rowsOf(result), failed);
+                }
+            });
+        return type.cast(proxy);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Map<Method, String> operationNames(Class<?> type, String prefix) {
+        Map<String, Integer> overloads = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            overloads.merge(method.getName(), 1, Integer::sum);
+        }
+        Map<Method, String> names = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            String name = prefix + "." + method.getName();
+            if (overloads.get(method.getName()) > 1) {
+                name += "/" + method.getParameterCount();
+            }
+            names.put(method, name);
+        }
+        return names;
+    }
+
+    private static long rowsOf(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Map) {
+            return ((Map<?, ?>) result).size();
+        }
+        if (result instanceof Integer || result instanceof Long) {
+            return ((Number) result).longValue();
+        }
+        if (result instanceof Boolean) {
+            return ((Boolean) result) ? 1 : 0;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,140 @@
+package com.libronova.dao;
+
+import com.libronova.config.DatabaseConfig;
+import com.libronova.util.Logger;
+
+import java.sql.*;
+
+/**
+ * DAO de los leases con nombre de la tabla job_leases (migración V7).
+ *
+ * Todas las comparaciones de tiempo usan CURRENT_TIMESTAMP(3) del servidor de base de datos,
+ * así que un reloj desajustado en una instancia no le permite quedarse un lease ajeno.
+ */
+public class LeaseDAO {
+    private static final Logger logger = Logger.getInstance();
+
+    // Consultas SQL
+    private static final String INSERT_LEASE =
+        "INSERT INTO job_leases (name, holder, fencing_token, acquired_at, heartbeat_at, expires_at) " +
+        "VALUES (?, ?, 1, CURRENT_TIMESTAMP(3), CURRENT_TIMESTAMP(3), " +
+        "TIMESTAMPADD(MICROSECOND, ?, CURRENT_TIMESTAMP(3)))";
+
+    private static final String TAKE_EXPIRED_LEASE =
+        "UPDATE job_leases SET holder = ?, fencing_token = fencing_token + 1, acquired_at = CURRENT_TIMESTAMP(3), " +
+        "heartbeat_at = CURRENT_TIMESTAMP(3), expires_at = TIMESTAMPADD(MICROSECOND, ?, CURRENT_TIMESTAMP(3)) " +
+        "WHERE name = ? AND expires_at <= CURRENT_TIMESTAMP(3)";
+
+    private static final String RENEW_LEASE =
+        "UPDATE job_leases SET heartbeat_at = CURRENT_TIMESTAMP(3), " +
+        "expires_at = TIMESTAMPADD(MICROSECOND, ?, CURRENT_TIMESTAMP(3)) " +
+        "WHERE name = ? AND holder = ? AND fencing_token = ?";
+
+    private static final String RELEASE_LEASE =
+        "UPDATE job_leases SET expires_at = CURRENT_TIMESTAMP(3) WHERE name = ? AND holder = ? AND fencing_token = ?";
+
+    private static final String SELECT_TOKEN =
+        "SELECT fencing_token FROM job_leases WHERE name = ? AND holder = ?";
+
+    private static final String SELECT_CURRENT_TOKEN =
+        "SELECT fencing_token FROM job_leases WHERE name = ? AND expires_at > CURRENT_TIMESTAMP(3)";
+
+    /**
+     * Intenta quedarse con el lease si no existe o ha caducado; devuelve el nuevo fencing token,
+     * o -1 si lo tiene otra instancia o no se pudo consultar
+     */
+    public long tryAcquire(String name, String holder, long leaseMillis) {
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            if (!insert(conn, name, holder, leaseMillis)) {
+                try (PreparedStatement stmt = conn.prepareStatement(TAKE_EXPIRED_LEASE)) {
+                    stmt.setString(1, holder);
+                    stmt.setLong(2, leaseMillis * 1000);
+                    stmt.setString(3, name);
+                    if (stmt.executeUpdate() == 0) {
+                        return -1;
+                    }
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(SELECT_TOKEN)) {
+                stmt.setString(1, name);
+                stmt.setString(2, holder);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? rs.getLong(1) : -1;
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error al adquirir el lease " + name + ": " + e.getMessage());
+        }
+        return -1;
+    }
+
+    /**
+     * Crea el lease si todavía no existe; false si ya existía
+     */
+    private static boolean insert(Connection conn, String name, String holder, long leaseMillis) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_LEASE)) {
+            stmt.setString(1, name);
+            stmt.setString(2, holder);
+            stmt.setLong(3, leaseMillis * 1000);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            if (e instanceof SQLIntegrityConstraintViolationException
+                || (e.getSQLState() != null && e.getSQLState().startsWith("23"))) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Alarga el lease si sigue siendo de holder con el mismo token; false si lo perdió
+     */
+    public boolean renew(String name, String holder, long fencingToken, long leaseMillis) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(RENEW_LEASE)) {
+
+            stmt.setLong(1, leaseMillis * 1000);
+            stmt.setString(2, name);
+            stmt.setString(3, holder);
+            stmt.setLong(4, fencingToken);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            logger.error("Error al renovar el lease " + name + ": " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Deja caducar el lease al momento para que otra instancia lo tome sin esperar
+     */
+    public boolean release(String name, String holder, long fencingToken) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(RELEASE_LEASE)) {
+
+            stmt.setString(1, name);
+            stmt.setString(2, holder);
+            stmt.setLong(3, fencingToken);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            logger.error("Error al liberar el lease " + name + ": " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Fencing token del lease vigente, 0 si ha caducado o -1 si no se pudo consultar
+     */
+    public long findCurrentToken(String name) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_CURRENT_TOKEN)) {
+
+            stmt.setString(1, name);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        } catch (SQLException e) {
+            logger.error("Error al consultar el lease " + name + ": " + e.getMessage());
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,84 @@
+package com.libronova.dao;
+
+import com.libronova.metrics.DaoMetrics;
+import com.libronova.util.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Fencing token con el que el hilo actual ejecuta una tarea programada.
+ *
+ * Mientras está fijado, las escrituras de las tareas (LoanDAO.updateStatus, updateFine y
+ * archiveReturnedBefore) añaden CONDITION a su WHERE, de modo que una instancia que perdió el
+ * lease tras validarlo no puede escribir aunque su tarea siga en marcha. En InnoDB la subconsulta
+ * de una sentencia de escritura deja un bloqueo compartido en la fila del lease hasta el commit,
+ * así que otra instancia no puede tomarlo a mitad de un lote de archivo.
+ */
+public final class LeaseFence {
+    private static final Logger logger = Logger.getInstance();
+    private static final ThreadLocal<LeaseFence> CURRENT = new ThreadLocal<>();
+
+    /** Condición que se añade al WHERE de las escrituras protegidas; se enlaza con bind() */
+    static final String CONDITION =
+        " AND EXISTS (SELECT 1 FROM job_leases WHERE name = ? AND fencing_token = ?)";
+
+    private static final String SELECT_HELD =
+        "SELECT COUNT(*) FROM job_leases WHERE name = ? AND fencing_token = ?";
+
+    private final String leaseName;
+    private final long token;
+
+    private LeaseFence(String leaseName, long token) {
+        this.leaseName = leaseName;
+        this.token = token;
+    }
+
+    /**
+     * Protege las escrituras del hilo actual con el token indicado hasta clear()
+     */
+    public static void set(String leaseName, long token) {
+        CURRENT.set(new LeaseFence(leaseName, token));
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Token del hilo actual, o null si sus escrituras no van protegidas
+     */
+    static LeaseFence current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Enlaza los dos parámetros de CONDITION a partir de la posición index
+     */
+    void bind(PreparedStatement stmt, int index) throws SQLException {
+        stmt.setString(index, leaseName);
+        stmt.setLong(index + 1, token);
+    }
+
+    /**
+     * Tras una escritura protegida que no tocó ninguna fila, comprueba si fue por el lease. Si el
+     * token ya no es el vigente lo anota como fallo de la tarea e interrumpe el hilo, para que los
+     * barridos paren en su siguiente iteración.
+     */
+    boolean lost(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_HELD)) {
+            bind(stmt, 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next() && rs.getInt(1) > 0) {
+                    return false;
+                }
+            }
+        }
+        DaoMetrics.markFailed();
+        logger.error("Escritura rechazada: el lease " + leaseName + " ya no tiene el token " + token);
+        Thread.currentThread().interrupt();
+        return true;
+    }
+}
@@ -1,19 +1,26 @@
 package com.libronova.dao;
 
 import com.libronova.config.DatabaseConfig;
+import com.libronova.exception.OptimisticLockException;
+import com.libronova.metrics.DaoMetrics;
 import com.libronova.model.Loan;
+import com.libronova.model.LoanStatistics;
+import com.libronova.model.RecordVersion;
+import com.libronova.util.CancellableQuery;
 import com.libronova.util.Logger;
 
 import java.math.BigDecimal;
 import java.sql.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * DAO para operaciones CRUD de préstamos
  */
-public class LoanDAO {
+public class LoanDAO implements LoanRepository {
     private static final Logger logger = Logger.getInstance();
 
     // Consultas SQL
@@ -25,6 +32,9 @@ public class LoanDAO {
     private static final String SELECT_BY_ID = 
         "SELECT * FROM loans WHERE id = ?";
 
+    private static final String SELECT_VERSION = 
+        "SELECT id, version, updated_at FROM loans WHERE id = ?";
+
     private static final String SELECT_BY_LOAN_ID = 
         "SELECT * FROM loans WHERE loan_id = ?";
 
@@ -34,23 +44,54 @@ public class LoanDAO {
     private static final String SELECT_OVERDUE_LOANS = 
         "SELECT * FROM loans WHERE status = 'OVERDUE' ORDER BY due_date";
 
+    // Páginas del API REST en el orden de idx_loans_status_due_fine; el id desempata
+    private static final String SELECT_ACTIVE_LOANS_PAGE = 
+        "SELECT * FROM loans WHERE status = 'ACTIVE' ORDER BY due_date, fine_amount, id LIMIT ? OFFSET ?";
+
+    private static final String SELECT_OVERDUE_LOANS_PAGE = 
+        "SELECT * FROM loans WHERE status = 'OVERDUE' ORDER BY due_date, fine_amount, id LIMIT ? OFFSET ?";
+
+    private static final String LOAN_COLUMNS = 
+        "id, loan_id, book_id, member_id, user_id, loan_date, due_date, return_date, status, " +
+        "fine_amount, notes, created_at, updated_at, version";
+
+    // Incluye los préstamos archivados en loans_history
     private static final String SELECT_BY_MEMBER = 
-        "SELECT * FROM loans WHERE member_id = ? ORDER BY loan_date DESC";
+        "SELECT " + LOAN_COLUMNS + " FROM loans WHERE member_id = ? " +
+        "UNION ALL " +
+        "SELECT " + LOAN_COLUMNS + " FROM loans_history WHERE member_id = ? " +
+        "ORDER BY loan_date DESC";
 
     private static final String SELECT_BY_BOOK = 
         "SELECT * FROM loans WHERE book_id = ? ORDER BY loan_date DESC";
 
+    // Variantes acotadas por loan_date: con loans particionada MySQL solo lee los meses del rango
+    private static final String SELECT_BY_MEMBER_BETWEEN = 
+        "SELECT " + LOAN_COLUMNS + " FROM loans WHERE member_id = ? AND loan_date >= ? AND loan_date < ? " +
+        "UNION ALL " +
+        "SELECT " + LOAN_COLUMNS + " FROM loans_history WHERE member_id = ? AND loan_date >= ? AND loan_date < ? " +
+        "ORDER BY loan_date DESC";
+
+    private static final String SELECT_BY_BOOK_BETWEEN = 
+        "SELECT * FROM loans WHERE book_id = ? AND loan_date >= ? AND loan_date < ? ORDER BY loan_date DESC";
+
     private static final String SELECT_ACTIVE_BY_MEMBER = 
         "SELECT * FROM loans WHERE member_id = ? AND status = 'ACTIVE' ORDER BY due_date";
 
     private static final String UPDATE_LOAN = 
-        "UPDATE loans SET return_date = ?, status = ?, fine_amount = ?, notes = ?, updated_at = ? WHERE id = ?";
+        "UPDATE loans SET return_date = ?, status = ?, fine_amount = ?, notes = ?, updated_at = ?, " +
+        "version = version + 1 WHERE id = ? AND version = ?";
 
     private static final String UPDATE_STATUS = 
-        "UPDATE loans SET status = ?, updated_at = ? WHERE id = ?";
+        "UPDATE loans SET status = ?, updated_at = ?, version = version + 1 WHERE id = ? AND version = ?";
 
     private static final String UPDATE_FINE = 
-        "UPDATE loans SET fine_amount = ?, updated_at = ? WHERE id = ?";
+        "UPDATE loans SET fine_amount = ?, updated_at = ?, version = version + 1 WHERE id = ? AND status = 'OVERDUE'";
+
+    // Variantes para las tareas programadas con LeaseFence fijado
+    private static final String UPDATE_STATUS_FENCED = UPDATE_STATUS + LeaseFence.CONDITION;
+
+    private static final String UPDATE_FINE_FENCED = UPDATE_FINE + LeaseFence.CONDITION;
 
     private static final String DELETE_LOAN = 
         "DELETE FROM loans WHERE id = ?";
@@ -63,6 +104,55 @@ public class LoanDAO {
         "OR b.title LIKE ? OR b.isbn LIKE ? OR l.loan_id LIKE ?) " +
         "ORDER BY l.loan_date DESC";
 
+    // Contadores con actualizaciones relativas y condicionadas: una sola escritura por fila y sin releer
+    private static final String CHECKOUT_BOOK = 
+        "UPDATE books SET available_stock = available_stock - 1, version = version + 1 " +
+        "WHERE id = ? AND active = true AND available_stock > 0";
+
+    private static final String CHECKOUT_MEMBER = 
+        "UPDATE members SET current_loans = current_loans + 1, version = version + 1 " +
+        "WHERE id = ? AND active = true AND current_loans < max_loans";
+
+    private static final String CHECKIN_BOOK = 
+        "UPDATE books SET available_stock = available_stock + 1, version = version + 1 " +
+        "WHERE id = ? AND available_stock < stock";
+
+    private static final String CHECKIN_MEMBER = 
+        "UPDATE members SET current_loans = current_loans - 1, version = version + 1 " +
+        "WHERE id = ? AND current_loans > 0";
+
+    private static final String COUNT_COUNTER_TRIGGERS = 
+        "SELECT COUNT(*) FROM information_schema.TRIGGERS WHERE TRIGGER_SCHEMA = DATABASE() " +
+        "AND TRIGGER_NAME IN ('tr_loan_created', 'tr_loan_returned')";
+
+    // Archivo por lotes: candidatos bloqueados, copia al histórico y borrado en la misma transacción.
+    // loan_date nunca es posterior a return_date, así que acotarla no cambia el resultado y permite descartar particiones
+    private static final String SELECT_ARCHIVE_CANDIDATES = 
+        "SELECT id FROM loans WHERE status = 'RETURNED' AND return_date < ? AND loan_date < ? " +
+        "ORDER BY return_date LIMIT ? FOR UPDATE";
+
+    private static final String ARCHIVE_COPY_TEMPLATE = 
+        "INSERT INTO loans_history (" + LOAN_COLUMNS + ") " +
+        "SELECT " + LOAN_COLUMNS + " FROM loans WHERE id IN (%s)";
+
+    private static final String ARCHIVE_DELETE_TEMPLATE = 
+        "DELETE FROM loans WHERE id IN (%s)";
+
+    private static final String ARCHIVE_DELETE_FENCED_TEMPLATE = ARCHIVE_DELETE_TEMPLATE + LeaseFence.CONDITION;
+
+    // Estadísticas en un solo viaje: conteos y multas por estado, categoría y tipo de membresía
+    private static final String SELECT_STATISTICS = 
+        "SELECT 'STATUS' AS dimension, status AS dim_key, COUNT(*) AS total, " +
+        "COALESCE(SUM(fine_amount), 0) AS fines FROM loans GROUP BY status " +
+        "UNION ALL " +
+        "SELECT 'CATEGORY', b.category, COUNT(*), COALESCE(SUM(l.fine_amount), 0) FROM loans l " +
+        "JOIN books b ON l.book_id = b.id WHERE l.status IN ('ACTIVE', 'OVERDUE') GROUP BY b.category " +
+        "UNION ALL " +
+        "SELECT 'MEMBERSHIP', m.membership_type, COUNT(*), COALESCE(SUM(l.fine_amount), 0) FROM loans l " +
+        "JOIN members m ON l.member_id = m.id WHERE l.status IN ('ACTIVE', 'OVERDUE') GROUP BY m.membership_type " +
+        "UNION ALL " +
+        "SELECT 'STATUS', 'RETURNED', COUNT(*), 0 FROM loans_history";
+
     /**
      * Crea un nuevo préstamo
      */
@@ -95,11 +185,197 @@ public class LoanDAO {
                 return true;
             }
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al crear préstamo: " + e.getMessage());
         }
         return false;
     }
 
+    /**
+     * Registra un préstamo y actualiza los contadores del libro y del miembro en una transacción.
+     * Devuelve false si no hay stock, el miembro alcanzó su límite o falla la base de datos;
+     * en ese caso no se modifica nada.
+     */
+    public boolean checkout(Loan loan) {
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement bookStmt = conn.prepareStatement(CHECKOUT_BOOK);
+                 PreparedStatement memberStmt = conn.prepareStatement(CHECKOUT_MEMBER);
+                 PreparedStatement loanStmt = conn.prepareStatement(INSERT_LOAN, Statement.RETURN_GENERATED_KEYS)) {
+
+                bookStmt.setInt(1, loan.getBookId());
+                if (bookStmt.executeUpdate() == 0) {
+                    conn.rollback();
+                    logger.warning("Préstamo rechazado, sin stock disponible para libro ID: " + loan.getBookId());
+                    return false;
+                }
+
+                memberStmt.setInt(1, loan.getMemberId());
+                if (memberStmt.executeUpdate() == 0) {
+                    conn.rollback();
+                    logger.warning("Préstamo rechazado, límite alcanzado para miembro ID: " + loan.getMemberId());
+                    return false;
+                }
+
+                loanStmt.setString(1, loan.getLoanId());
+                loanStmt.setInt(2, loan.getBookId());
+                loanStmt.setInt(3, loan.getMemberId());
+                loanStmt.setInt(4, loan.getUserId());
+                loanStmt.setDate(5, Date.valueOf(loan.getLoanDate()));
+                loanStmt.setDate(6, Date.valueOf(loan.getDueDate()));
+                loanStmt.setObject(7, loan.getReturnDate() != null ? Date.valueOf(loan.getReturnDate()) : null);
+                loanStmt.setString(8, loan.getStatus());
+                loanStmt.setBigDecimal(9, loan.getFineAmount());
+                loanStmt.setString(10, loan.getNotes());
+                loanStmt.setTimestamp(11, Timestamp.valueOf(loan.getCreatedAt()));
+                loanStmt.setTimestamp(12, Timestamp.valueOf(loan.getUpdatedAt()));
+                loanStmt.executeUpdate();
+
+                try (ResultSet generatedKeys = loanStmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        loan.setId(generatedKeys.getInt(1));
+                    }
+                }
+                conn.commit();
+                logger.info("Préstamo registrado exitosamente: " + loan.getLoanId());
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            DaoMetrics.markFailed();
+            logger.error("Error al registrar préstamo: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Marca un préstamo como devuelto y restituye los contadores del libro y del miembro
+     * en una transacción. El préstamo debe venir ya marcado como devuelto y con su multa.
+     */
+    public boolean checkin(Loan loan) throws OptimisticLockException {
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement loanStmt = conn.prepareStatement(UPDATE_LOAN);
+                 PreparedStatement bookStmt = conn.prepareStatement(CHECKIN_BOOK);
+                 PreparedStatement memberStmt = conn.prepareStatement(CHECKIN_MEMBER)) {
+
+                loanStmt.setObject(1, loan.getReturnDate() != null ? Date.valueOf(loan.getReturnDate()) : null);
+                loanStmt.setString(2, loan.getStatus());
+                loanStmt.setBigDecimal(3, loan.getFineAmount());
+                loanStmt.setString(4, loan.getNotes());
+                loanStmt.setTimestamp(5, Timestamp.valueOf(loan.getUpdatedAt()));
+                loanStmt.setInt(6, loan.getId());
+                loanStmt.setInt(7, loan.getVersion());
+                if (loanStmt.executeUpdate() == 0) {
+                    conn.rollback();
+                    throw new OptimisticLockException("El préstamo " + loan.getLoanId() + " fue modificado por otro usuario");
+                }
+
+                bookStmt.setInt(1, loan.getBookId());
+                if (bookStmt.executeUpdate() == 0) {
+                    logger.warning("El stock del libro ID " + loan.getBookId() + " ya estaba al máximo");
+                }
+
+                memberStmt.setInt(1, loan.getMemberId());
+                if (memberStmt.executeUpdate() == 0) {
+                    logger.warning("El miembro ID " + loan.getMemberId() + " no tenía préstamos registrados");
+                }
+
+                conn.commit();
+                loan.setVersion(loan.getVersion() + 1);
+                logger.info("Devolución registrada exitosamente: " + loan.getLoanId());
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            DaoMetrics.markFailed();
+            logger.error("Error al registrar devolución: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Mueve a loans_history un lote de préstamos devueltos antes de la fecha indicada.
+     * Cada lote es una transacción corta; devuelve el número de préstamos movidos o -1 si falla.
+     */
+    public int archiveReturnedBefore(LocalDate cutoff, int batchSize) {
+        LeaseFence fence = LeaseFence.current();
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                List<Integer> ids = new ArrayList<>();
+                try (PreparedStatement stmt = conn.prepareStatement(SELECT_ARCHIVE_CANDIDATES)) {
+                    stmt.setDate(1, Date.valueOf(cutoff));
+                    stmt.setDate(2, Date.valueOf(cutoff));
+                    stmt.setInt(3, batchSize);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            ids.add(rs.getInt("id"));
+                        }
+                    }
+                }
+                if (ids.isEmpty()) {
+                    conn.commit();
+                    return 0;
+                }
+
+                String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+                String deleteTemplate = fence != null ? ARCHIVE_DELETE_FENCED_TEMPLATE : ARCHIVE_DELETE_TEMPLATE;
+                try (PreparedStatement copy = conn.prepareStatement(String.format(ARCHIVE_COPY_TEMPLATE, placeholders));
+                     PreparedStatement delete = conn.prepareStatement(String.format(deleteTemplate, placeholders))) {
+                    for (int i = 0; i < ids.size(); i++) {
+                        copy.setInt(i + 1, ids.get(i));
+                        delete.setInt(i + 1, ids.get(i));
+                    }
+                    if (fence != null) {
+                        fence.bind(delete, ids.size() + 1);
+                    }
+                    int copied = copy.executeUpdate();
+                    int deleted = delete.executeUpdate();
+                    if (copied != ids.size() || deleted != ids.size()) {
+                        conn.rollback();
+                        if (deleted == 0 && fence != null && fence.lost(conn)) {
+                            return -1;
+                        }
+                        logger.warning("Lote de archivo descartado: filas copiadas " + copied + ", borradas " + deleted);
+                        return -1;
+                    }
+                }
+                conn.commit();
+                logger.info("Préstamos archivados en loans_history: " + ids.size());
+                return ids.size();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            DaoMetrics.markFailed();
+            logger.error("Error al archivar préstamos: " + e.getMessage());
+        }
+        return -1;
+    }
+
+    /**
+     * Indica si la base de datos conserva los triggers que mantienen los contadores.
+     * Devuelve null si no se pudo comprobar.
+     */
+    public Boolean hasCounterTriggers() {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(COUNT_COUNTER_TRIGGERS);
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() && rs.getInt(1) > 0;
+        } catch (SQLException e) {
+            DaoMetrics.markFailed();
+            logger.error("Error al comprobar los triggers de préstamos: " + e.getMessage());
+        }
+        return null;
+    }
+
     /**
      * Busca un préstamo por ID
      */
@@ -114,11 +390,34 @@ public class LoanDAO {
                 }
             }
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al buscar préstamo por ID: " + e.getMessage());
         }
         return null;
     }
 
+    /**
+     * Obtiene la versión y la fecha de modificación de un préstamo sin leer el resto de columnas
+     */
+    public RecordVersion findVersion(int id) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_VERSION)) {
+            
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Timestamp updatedAt = rs.getTimestamp("updated_at");
+                    return new RecordVersion(rs.getInt("id"), rs.getInt("version"),
+                                             updatedAt != null ? updatedAt.toLocalDateTime() : null);
+                }
+            }
+        } catch (SQLException e) {
+            DaoMetrics.markFailed();
+            logger.error("Error al obtener la versión del préstamo: " + e.getMessage());
+        }
+        return null;
+    }
+
     /**
      * Busca un préstamo por loan_id
      */
@@ -133,6 +432,7 @@ public class LoanDAO {
                 }
             }
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al buscar préstamo por loan_id: " + e.getMessage());
         }
         return null;
@@ -151,11 +451,19 @@ public class LoanDAO {
                 loans.add(mapResultSetToLoan(rs));
             }
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al obtener préstamos activos: " + e.getMessage());
         }
         return loans;
     }
 
+    /**
+     * Obtiene una página de los préstamos activos
+     */
+    public List<Loan> findActiveLoansPage(int offset, int limit) {
+        return findPage(SELECT_ACTIVE_LOANS_PAGE, offset, limit, "Error al obtener la página de préstamos activos: ");
+    }
+
     /**
      * Obtiene préstamos vencidos
      */
@@ -169,11 +477,38 @@ public class LoanDAO {
                 loans.add(mapResultSetToLoan(rs));
             }
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al obtener préstamos vencidos: " + e.getMessage());
         }
         return loans;
     }
 
+    /**
+     * Obtiene una página de los préstamos vencidos
+     */
+    public List<Loan> findOverdueLoansPage(int offset, int limit) {
+        return findPage(SELECT_OVERDUE_LOANS_PAGE, offset, limit, "Error al obtener la página de préstamos vencidos: ");
+    }
+
+    private List<Loan> findPage(String sql, int offset, int limit, String errorMessage) {
+        List<Loan> loans = new ArrayList<>();
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, limit);
+            stmt.setInt(2, offset);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    loans.add(mapResultSetToLoan(rs));
+                }
+            }
+        } catch (SQLException e) {
+            DaoMetrics.markFailed();
+            logger.error(errorMessage + e.getMessage());
+        }
+        return loans;
+    }
+
     /**
      * Obtiene préstamos de un miembro
      */
@@ -183,17 +518,44 @@ public class LoanDAO {
              PreparedStatement stmt = conn.prepareStatement(SELECT_BY_MEMBER)) {
             
             stmt.setInt(1, memberId);
+            stmt.setInt(2, memberId);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
                     loans.add(mapResultSetToLoan(rs));
                 }
             }
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al obtener préstamos del miembro: " + e.getMessage());
         }
         return loans;
     }
 
+    /**
+     * Obtiene préstamos de un miembro con loan_date en [from, to)
+     */
+    public List<Loan> findByMember(int memberId, LocalDate from, LocalDate to) {
+        List<Loan> loans = new ArrayList<>();
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_BY_MEMBER_BETWEEN)) {
+            
+            for (int offset : new int[] {0, 3}) {
+                stmt.setInt(offset + 1, memberId);
+                stmt.setDate(offset + 2, Date.valueOf(from));
+                stmt.setDate(offset + 3, Date.valueOf(to));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    loans.add(mapResultSetToLoan(rs));
+                }
+            }
+        } catch (SQLException e) {
+            DaoMetrics.markFailed();
+            logger.error("Error al obtener préstamos del miembro por fecha: " + e.getMessage());
+        }
+        return loans;
+    }
+
     /**
      * Obtiene préstamos activos de un miembro
      */
@@ -209,6 +571,7 @@ public class LoanDAO {
                 }
             }
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al obtener préstamos activos del miembro: " + e.getMessage());
         }
         return loans;
@@ -229,11 +592,35 @@ public class LoanDAO {
                 }
             }
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al obtener préstamos del libro: " + e.getMessage());
         }
         return loans;
     }
 
+    /**
+     * Obtiene préstamos de un libro con loan_date en [from, to)
+     */
+    public List<Loan> findByBook(int bookId, LocalDate from, LocalDate to) {
+        List<Loan> loans = new ArrayList<>();
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_BY_BOOK_BETWEEN)) {
+            
+            stmt.setInt(1, bookId);
+            stmt.setDate(2, Date.valueOf(from));
+            stmt.setDate(3, Date.valueOf(to));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    loans.add(mapResultSetToLoan(rs));
+                }
+            }
+        } catch (SQLException e) {
+            DaoMetrics.markFailed();
+            logger.error("Error al obtener préstamos del libro por fecha: " + e.getMessage());
+        }
+        return loans;
+    }
+
     /**
      * Busca préstamos por varios criterios
      */
@@ -250,21 +637,65 @@ public class LoanDAO {
             stmt.setString(5, searchPattern);
             stmt.setString(6, searchPattern);
             
+            CancellableQuery.register(stmt);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
                     loans.add(mapResultSetToLoan(rs));
                 }
             }
         } catch (SQLException e) {
-            logger.error("Error al buscar préstamos: " + e.getMessage());
+            // Una búsqueda sustituida por otra y cancelada no es un error
+            if (!CancellableQuery.isCancelled()) {
+                DaoMetrics.markFailed();
+                logger.error("Error al buscar préstamos: " + e.getMessage());
+            }
         }
         return loans;
     }
 
     /**
-     * Actualiza un préstamo
+     * Obtiene las estadísticas agregadas de préstamos con una única consulta
+     */
+    public LoanStatistics getStatistics() {
+        LoanStatistics statistics = new LoanStatistics();
+        BigDecimal finesOutstanding = BigDecimal.ZERO;
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_STATISTICS);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                String dimension = rs.getString("dimension");
+                String key = rs.getString("dim_key");
+                long total = rs.getLong("total");
+
+                if ("CATEGORY".equals(dimension)) {
+                    statistics.putOpenLoansByCategory(key, total);
+                } else if ("MEMBERSHIP".equals(dimension)) {
+                    statistics.putOpenLoansByMembershipType(key, total);
+                } else if ("ACTIVE".equals(key)) {
+                    statistics.setActiveLoans(total);
+                    finesOutstanding = finesOutstanding.add(rs.getBigDecimal("fines"));
+                } else if ("OVERDUE".equals(key)) {
+                    statistics.setOverdueLoans(total);
+                    finesOutstanding = finesOutstanding.add(rs.getBigDecimal("fines"));
+                } else if ("RETURNED".equals(key)) {
+                    // Devueltos en loans más los archivados en loans_history
+                    statistics.setReturnedLoans(statistics.getReturnedLoans() + total);
+                }
+            }
+            statistics.setFinesOutstanding(finesOutstanding);
+        } catch (SQLException e) {
+            DaoMetrics.markFailed();
+            logger.error("Error al obtener estadísticas de préstamos: " + e.getMessage());
+            return null;
+        }
+        return statistics;
+    }
+
+    /**
+     * Actualiza un préstamo si su versión no cambió desde que se leyó
      */
-    public boolean update(Loan loan) {
+    public boolean update(Loan loan) throws OptimisticLockException {
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(UPDATE_LOAN)) {
             
@@ -274,57 +705,79 @@ public class LoanDAO {
             stmt.setString(4, loan.getNotes());
             stmt.setTimestamp(5, Timestamp.valueOf(loan.getUpdatedAt()));
             stmt.setInt(6, loan.getId());
+            stmt.setInt(7, loan.getVersion());
 
             int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected > 0) {
-                logger.info("Préstamo actualizado exitosamente: " + loan.getLoanId());
-                return true;
+            if (rowsAffected == 0) {
+                throw new OptimisticLockException("El préstamo " + loan.getLoanId() + " fue modificado por otro usuario");
             }
+            loan.setVersion(loan.getVersion() + 1);
+            logger.info("Préstamo actualizado exitosamente: " + loan.getLoanId());
+            return true;
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al actualizar préstamo: " + e.getMessage());
         }
         return false;
     }
 
     /**
-     * Actualiza el estado de un préstamo
+     * Actualiza el estado de un préstamo si su versión sigue siendo la esperada
      */
-    public boolean updateStatus(int loanId, String status) {
+    public boolean updateStatus(int loanId, String status, int expectedVersion) throws OptimisticLockException {
+        LeaseFence fence = LeaseFence.current();
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(UPDATE_STATUS)) {
+             PreparedStatement stmt = conn.prepareStatement(fence != null ? UPDATE_STATUS_FENCED : UPDATE_STATUS)) {
             
             stmt.setString(1, status);
             stmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
             stmt.setInt(3, loanId);
+            stmt.setInt(4, expectedVersion);
+            if (fence != null) {
+                fence.bind(stmt, 5);
+            }
 
             int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected > 0) {
-                logger.info("Estado del préstamo actualizado: " + loanId);
-                return true;
+            if (rowsAffected == 0) {
+                if (fence != null && fence.lost(conn)) {
+                    return false;
+                }
+                throw new OptimisticLockException("El préstamo ID " + loanId + " fue modificado por otro usuario");
             }
+            logger.info("Estado del préstamo actualizado: " + loanId);
+            return true;
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al actualizar estado del préstamo: " + e.getMessage());
         }
         return false;
     }
 
     /**
-     * Actualiza la multa de un préstamo
+     * Actualiza la multa de un préstamo si sigue vencido; false si ya se devolvió
      */
     public boolean updateFine(int loanId, BigDecimal fineAmount) {
+        LeaseFence fence = LeaseFence.current();
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(UPDATE_FINE)) {
+             PreparedStatement stmt = conn.prepareStatement(fence != null ? UPDATE_FINE_FENCED : UPDATE_FINE)) {
             
             stmt.setBigDecimal(1, fineAmount);
             stmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
             stmt.setInt(3, loanId);
+            if (fence != null) {
+                fence.bind(stmt, 4);
+            }
 
             int rowsAffected = stmt.executeUpdate();
             if (rowsAffected > 0) {
                 logger.info("Multa actualizada para préstamo: " + loanId);
                 return true;
             }
+            if (fence != null) {
+                fence.lost(conn);
+            }
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al actualizar multa: " + e.getMessage());
         }
         return false;
@@ -344,6 +797,7 @@ public class LoanDAO {
                 return true;
             }
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al eliminar préstamo: " + e.getMessage());
         }
         return false;
@@ -372,6 +826,7 @@ public class LoanDAO {
         loan.setNotes(rs.getString("notes"));
         loan.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
         loan.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+        loan.setVersion(rs.getInt("version"));
         return loan;
     }
 }
@@ -0,0 +1,123 @@
+package com.libronova.dao;
+
+import com.libronova.config.DatabaseConfig;
+import com.libronova.util.Logger;
+
+import java.sql.*;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DAO para el mantenimiento de las particiones mensuales de loans (migración opcional V6).
+ *
+ * Cada mes vive en una partición pYYYYMM; p_future (MAXVALUE) recoge lo posterior al último
+ * mes y se divide para añadir meses nuevos. Los nombres de partición se construyen siempre a
+ * partir de un YearMonth, nunca de texto externo, porque no admiten parámetros.
+ */
+public class LoanPartitionDAO {
+    private static final Logger logger = Logger.getInstance();
+
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final String FUTURE_PARTITION = "p_future";
+
+    // Consultas SQL
+    private static final String SELECT_PARTITIONS =
+        "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'loans' AND PARTITION_NAME IS NOT NULL " +
+        "ORDER BY PARTITION_ORDINAL_POSITION";
+
+    private static final String REORGANIZE_FUTURE_TEMPLATE =
+        "ALTER TABLE loans REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO (%s, " +
+        "PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN (MAXVALUE))";
+
+    private static final String COUNT_OPEN_TEMPLATE =
+        "SELECT COUNT(*) FROM loans PARTITION (%s) WHERE status <> 'RETURNED'";
+
+    private static final String DROP_PARTITION_TEMPLATE =
+        "ALTER TABLE loans DROP PARTITION %s";
+
+    /**
+     * Obtiene los meses con partición propia, en orden. Lista vacía si loans no está
+     * particionada; null si no se pudo consultar.
+     */
+    public List<YearMonth> findMonthlyPartitions() {
+        List<YearMonth> months = new ArrayList<>();
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_PARTITIONS);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                String name = rs.getString("PARTITION_NAME");
+                if (name.matches("p\\d{6}")) {
+                    months.add(YearMonth.parse(name, PARTITION_FORMAT));
+                }
+            }
+            return months;
+        } catch (SQLException e) {
+            logger.error("Error al obtener las particiones de préstamos: " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Añade particiones para los meses indicados (consecutivos y posteriores al último existente)
+     */
+    public boolean addMonthlyPartitions(List<YearMonth> months) {
+        if (months.isEmpty()) {
+            return true;
+        }
+        List<String> definitions = new ArrayList<>();
+        for (YearMonth month : months) {
+            definitions.add("PARTITION " + partitionName(month) + " VALUES LESS THAN ('" +
+                            month.plusMonths(1).atDay(1) + "')");
+        }
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            stmt.execute(String.format(REORGANIZE_FUTURE_TEMPLATE, String.join(", ", definitions)));
+            logger.info("Particiones de préstamos añadidas hasta " + months.get(months.size() - 1));
+            return true;
+        } catch (SQLException e) {
+            logger.error("Error al añadir particiones de préstamos: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Cuenta los préstamos no devueltos de un mes; devuelve -1 si falla
+     */
+    public long countOpenLoans(YearMonth month) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(String.format(COUNT_OPEN_TEMPLATE, partitionName(month)));
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            logger.error("Error al contar préstamos abiertos de " + month + ": " + e.getMessage());
+        }
+        return -1;
+    }
+
+    /**
+     * Elimina la partición de un mes junto con todos sus préstamos
+     */
+    public boolean dropMonthlyPartition(YearMonth month) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            stmt.execute(String.format(DROP_PARTITION_TEMPLATE, partitionName(month)));
+            logger.info("Partición de préstamos eliminada: " + partitionName(month));
+            return true;
+        } catch (SQLException e) {
+            logger.error("Error al eliminar la partición de " + month + ": " + e.getMessage());
+        }
+        return false;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return month.format(PARTITION_FORMAT);
+    }
+}
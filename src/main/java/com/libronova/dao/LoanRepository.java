@@ -0,0 +1,135 @@
+package com.libronova.dao;
+
+import com.libronova.exception.OptimisticLockException;
+import com.libronova.model.Loan;
+import com.libronova.model.LoanStatistics;
+import com.libronova.model.RecordVersion;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repositorio de préstamos: LoanDAO lo implementa sobre MySQL y InMemoryLoanRepository en memoria.
+ *
+ * checkout y checkin actualizan además los contadores del libro y del miembro como una sola
+ * operación. El historial de un miembro incluye los préstamos archivados.
+ */
+public interface LoanRepository {
+
+    /**
+     * Crea un nuevo préstamo sin tocar los contadores
+     */
+    boolean create(Loan loan);
+
+    /**
+     * Registra un préstamo descontando stock del libro y sumando un préstamo al miembro.
+     * Devuelve false sin modificar nada si no hay stock o el miembro alcanzó su límite.
+     */
+    boolean checkout(Loan loan);
+
+    /**
+     * Guarda un préstamo ya marcado como devuelto y restituye los contadores
+     */
+    boolean checkin(Loan loan) throws OptimisticLockException;
+
+    /**
+     * Archiva un lote de préstamos devueltos antes de la fecha; devuelve cuántos o -1 si falla
+     */
+    int archiveReturnedBefore(LocalDate cutoff, int batchSize);
+
+    /**
+     * Indica si la base de datos mantiene los contadores con triggers; null si no se sabe
+     */
+    Boolean hasCounterTriggers();
+
+    /**
+     * Busca un préstamo por ID
+     */
+    Loan findById(int id);
+
+    /**
+     * Versión y fecha de modificación de un préstamo sin cargar la fila completa, o null si no existe
+     */
+    RecordVersion findVersion(int id);
+
+    /**
+     * Busca un préstamo por loan_id
+     */
+    Loan findByLoanId(String loanId);
+
+    /**
+     * Obtiene los préstamos activos ordenados por vencimiento
+     */
+    List<Loan> findActiveLoans();
+
+    /**
+     * Obtiene una página de los préstamos activos: salta offset filas y devuelve como mucho limit
+     */
+    List<Loan> findActiveLoansPage(int offset, int limit);
+
+    /**
+     * Obtiene los préstamos vencidos ordenados por vencimiento
+     */
+    List<Loan> findOverdueLoans();
+
+    /**
+     * Obtiene una página de los préstamos vencidos
+     */
+    List<Loan> findOverdueLoansPage(int offset, int limit);
+
+    /**
+     * Obtiene el historial completo de un miembro, del más reciente al más antiguo
+     */
+    List<Loan> findByMember(int memberId);
+
+    /**
+     * Obtiene préstamos de un miembro con loan_date en [from, to)
+     */
+    List<Loan> findByMember(int memberId, LocalDate from, LocalDate to);
+
+    /**
+     * Obtiene préstamos activos de un miembro
+     */
+    List<Loan> findActiveByMember(int memberId);
+
+    /**
+     * Obtiene préstamos de un libro, del más reciente al más antiguo
+     */
+    List<Loan> findByBook(int bookId);
+
+    /**
+     * Obtiene préstamos de un libro con loan_date en [from, to)
+     */
+    List<Loan> findByBook(int bookId, LocalDate from, LocalDate to);
+
+    /**
+     * Busca préstamos por datos del miembro, del libro o por loan_id
+     */
+    List<Loan> search(String searchTerm);
+
+    /**
+     * Obtiene las estadísticas agregadas de préstamos; null si falla
+     */
+    LoanStatistics getStatistics();
+
+    /**
+     * Actualiza un préstamo si su versión no cambió desde que se leyó
+     */
+    boolean update(Loan loan) throws OptimisticLockException;
+
+    /**
+     * Actualiza el estado de un préstamo si su versión sigue siendo la esperada
+     */
+    boolean updateStatus(int loanId, String status, int expectedVersion) throws OptimisticLockException;
+
+    /**
+     * Actualiza la multa de un préstamo si sigue vencido; false si ya se devolvió
+     */
+    boolean updateFine(int loanId, BigDecimal fineAmount);
+
+    /**
+     * Elimina un préstamo
+     */
+    boolean delete(int id);
+}
@@ -1,7 +1,11 @@
 package com.libronova.dao;
 
 import com.libronova.config.DatabaseConfig;
+import com.libronova.exception.OptimisticLockException;
+import com.libronova.metrics.DaoMetrics;
 import com.libronova.model.Member;
+import com.libronova.model.RecordVersion;
+import com.libronova.util.CancellableQuery;
 import com.libronova.util.Logger;
 
 import java.sql.*;
@@ -11,7 +15,7 @@ import java.util.List;
 /**
  * DAO para operaciones CRUD de miembros
  */
-public class MemberDAO {
+public class MemberDAO implements MemberRepository {
     private static final Logger logger = Logger.getInstance();
 
     // Consultas SQL
@@ -23,6 +27,9 @@ public class MemberDAO {
     private static final String SELECT_BY_ID = 
         "SELECT * FROM members WHERE id = ?";
 
+    private static final String SELECT_VERSION = 
+        "SELECT id, version, updated_at FROM members WHERE id = ?";
+
     private static final String SELECT_BY_MEMBER_ID = 
         "SELECT * FROM members WHERE member_id = ?";
 
@@ -32,15 +39,24 @@ public class MemberDAO {
     private static final String SELECT_ACTIVE = 
         "SELECT * FROM members WHERE active = true AND current_loans < max_loans ORDER BY last_name, first_name";
 
+    // Páginas del API REST; el id desempata para que las páginas no se solapen
+    private static final String SELECT_ALL_PAGE = 
+        "SELECT * FROM members WHERE active = true ORDER BY last_name, first_name, id LIMIT ? OFFSET ?";
+
+    private static final String SELECT_ACTIVE_PAGE = 
+        "SELECT * FROM members WHERE active = true AND current_loans < max_loans " +
+        "ORDER BY last_name, first_name, id LIMIT ? OFFSET ?";
+
     private static final String UPDATE_MEMBER = 
         "UPDATE members SET first_name = ?, last_name = ?, email = ?, phone = ?, address = ?, " +
-        "birth_date = ?, membership_type = ?, active = ?, max_loans = ? WHERE id = ?";
+        "birth_date = ?, membership_type = ?, active = ?, max_loans = ?, version = version + 1 " +
+        "WHERE id = ? AND version = ?";
 
     private static final String UPDATE_LOANS = 
-        "UPDATE members SET current_loans = ? WHERE id = ?";
+        "UPDATE members SET current_loans = ?, version = version + 1 WHERE id = ? AND version = ?";
 
     private static final String DELETE_MEMBER = 
-        "UPDATE members SET active = false WHERE id = ?";
+        "UPDATE members SET active = false, version = version + 1 WHERE id = ?";
 
     private static final String SEARCH_MEMBERS = 
         "SELECT * FROM members WHERE active = true AND " +
@@ -79,6 +95,7 @@ public class MemberDAO {
                 return true;
             }
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al crear miembro: " + e.getMessage());
         }
         return false;
@@ -98,11 +115,34 @@ public class MemberDAO {
                 }
             }
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al buscar miembro por ID: " + e.getMessage());
         }
         return null;
     }
 
+    /**
+     * Obtiene la versión y la fecha de modificación de un miembro sin leer el resto de columnas
+     */
+    public RecordVersion findVersion(int id) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_VERSION)) {
+            
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Timestamp updatedAt = rs.getTimestamp("updated_at");
+                    return new RecordVersion(rs.getInt("id"), rs.getInt("version"),
+                                             updatedAt != null ? updatedAt.toLocalDateTime() : null);
+                }
+            }
+        } catch (SQLException e) {
+            DaoMetrics.markFailed();
+            logger.error("Error al obtener la versión del miembro: " + e.getMessage());
+        }
+        return null;
+    }
+
     /**
      * Busca un miembro por member_id
      */
@@ -117,6 +157,7 @@ public class MemberDAO {
                 }
             }
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al buscar miembro por member_id: " + e.getMessage());
         }
         return null;
@@ -135,11 +176,19 @@ public class MemberDAO {
                 members.add(mapResultSetToMember(rs));
             }
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al obtener todos los miembros: " + e.getMessage());
         }
         return members;
     }
 
+    /**
+     * Obtiene una página de los miembros activos
+     */
+    public List<Member> findAllPage(int offset, int limit) {
+        return findPage(SELECT_ALL_PAGE, offset, limit, "Error al obtener la página de miembros: ");
+    }
+
     /**
      * Obtiene miembros que pueden realizar préstamos
      */
@@ -153,11 +202,38 @@ public class MemberDAO {
                 members.add(mapResultSetToMember(rs));
             }
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al obtener miembros activos: " + e.getMessage());
         }
         return members;
     }
 
+    /**
+     * Obtiene una página de los miembros que pueden realizar préstamos
+     */
+    public List<Member> findActiveMembersPage(int offset, int limit) {
+        return findPage(SELECT_ACTIVE_PAGE, offset, limit, "Error al obtener la página de miembros activos: ");
+    }
+
+    private List<Member> findPage(String sql, int offset, int limit, String errorMessage) {
+        List<Member> members = new ArrayList<>();
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, limit);
+            stmt.setInt(2, offset);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    members.add(mapResultSetToMember(rs));
+                }
+            }
+        } catch (SQLException e) {
+            DaoMetrics.markFailed();
+            logger.error(errorMessage + e.getMessage());
+        }
+        return members;
+    }
+
     /**
      * Busca miembros por nombre, apellido, member_id o email
      */
@@ -172,21 +248,26 @@ public class MemberDAO {
             stmt.setString(3, searchPattern);
             stmt.setString(4, searchPattern);
             
+            CancellableQuery.register(stmt);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
                     members.add(mapResultSetToMember(rs));
                 }
             }
         } catch (SQLException e) {
-            logger.error("Error al buscar miembros: " + e.getMessage());
+            // Una búsqueda sustituida por otra y cancelada no es un error
+            if (!CancellableQuery.isCancelled()) {
+                DaoMetrics.markFailed();
+                logger.error("Error al buscar miembros: " + e.getMessage());
+            }
         }
         return members;
     }
 
     /**
-     * Actualiza un miembro
+     * Actualiza un miembro si su versión no cambió desde que se leyó
      */
-    public boolean update(Member member) {
+    public boolean update(Member member) throws OptimisticLockException {
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(UPDATE_MEMBER)) {
             
@@ -200,34 +281,41 @@ public class MemberDAO {
             stmt.setBoolean(8, member.isActive());
             stmt.setInt(9, member.getMaxLoans());
             stmt.setInt(10, member.getId());
+            stmt.setInt(11, member.getVersion());
 
             int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected > 0) {
-                logger.info("Miembro actualizado exitosamente: " + member.getMemberId());
-                return true;
+            if (rowsAffected == 0) {
+                throw new OptimisticLockException("El miembro ID " + member.getId() + " fue modificado por otro usuario");
             }
+            member.setVersion(member.getVersion() + 1);
+            logger.info("Miembro actualizado exitosamente: " + member.getMemberId());
+            return true;
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al actualizar miembro: " + e.getMessage());
         }
         return false;
     }
 
     /**
-     * Actualiza el número de préstamos actuales de un miembro
+     * Actualiza el número de préstamos actuales de un miembro si su versión sigue siendo la esperada
      */
-    public boolean updateCurrentLoans(int memberId, int currentLoans) {
+    public boolean updateCurrentLoans(int memberId, int currentLoans, int expectedVersion) throws OptimisticLockException {
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(UPDATE_LOANS)) {
             
             stmt.setInt(1, currentLoans);
             stmt.setInt(2, memberId);
+            stmt.setInt(3, expectedVersion);
 
             int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected > 0) {
-                logger.info("Préstamos actualizados para miembro ID: " + memberId);
-                return true;
+            if (rowsAffected == 0) {
+                throw new OptimisticLockException("Los préstamos del miembro ID " + memberId + " fueron modificados por otro usuario");
             }
+            logger.info("Préstamos actualizados para miembro ID: " + memberId);
+            return true;
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al actualizar préstamos del miembro: " + e.getMessage());
         }
         return false;
@@ -247,6 +335,7 @@ public class MemberDAO {
                 return true;
             }
         } catch (SQLException e) {
+            DaoMetrics.markFailed();
             logger.error("Error al eliminar miembro: " + e.getMessage());
         }
         return false;
@@ -270,6 +359,7 @@ public class MemberDAO {
         member.setActive(rs.getBoolean("active"));
         member.setMaxLoans(rs.getInt("max_loans"));
         member.setCurrentLoans(rs.getInt("current_loans"));
+        member.setVersion(rs.getInt("version"));
         return member;
     }
 }
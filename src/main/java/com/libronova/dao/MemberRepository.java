@@ -0,0 +1,75 @@
+package com.libronova.dao;
+
+import com.libronova.exception.OptimisticLockException;
+import com.libronova.model.Member;
+import com.libronova.model.RecordVersion;
+
+import java.util.List;
+
+/**
+ * Repositorio de miembros: MemberDAO lo implementa sobre MySQL y InMemoryMemberRepository en memoria.
+ *
+ * Los listados solo incluyen miembros activos ordenados por apellido y nombre.
+ */
+public interface MemberRepository {
+
+    /**
+     * Crea un nuevo miembro y le asigna su ID
+     */
+    boolean create(Member member);
+
+    /**
+     * Busca un miembro por ID
+     */
+    Member findById(int id);
+
+    /**
+     * Versión y fecha de modificación de un miembro sin cargar la fila completa, o null si no existe
+     */
+    RecordVersion findVersion(int id);
+
+    /**
+     * Busca un miembro por member_id
+     */
+    Member findByMemberId(String memberId);
+
+    /**
+     * Obtiene todos los miembros activos
+     */
+    List<Member> findAll();
+
+    /**
+     * Obtiene una página de los miembros activos: salta offset filas y devuelve como mucho limit
+     */
+    List<Member> findAllPage(int offset, int limit);
+
+    /**
+     * Obtiene los miembros activos que pueden pedir más préstamos
+     */
+    List<Member> findActiveMembers();
+
+    /**
+     * Obtiene una página de los miembros que pueden realizar préstamos
+     */
+    List<Member> findActiveMembersPage(int offset, int limit);
+
+    /**
+     * Busca miembros por nombre, apellido, member_id o email
+     */
+    List<Member> search(String searchTerm);
+
+    /**
+     * Actualiza un miembro si su versión no cambió desde que se leyó
+     */
+    boolean update(Member member) throws OptimisticLockException;
+
+    /**
+     * Actualiza los préstamos actuales de un miembro si su versión sigue siendo la esperada
+     */
+    boolean updateCurrentLoans(int memberId, int currentLoans, int expectedVersion) throws OptimisticLockException;
+
+    /**
+     * Elimina (desactiva) un miembro
+     */
+    boolean delete(int id);
+}
@@ -0,0 +1,153 @@
+package com.libronova.dao;
+
+import com.libronova.config.DatabaseConfig;
+import com.libronova.util.Logger;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.regex.Pattern;
+
+/**
+ * Registro de sentencias lentas: las que superan db.slow.query.threshold.ms se escriben con su
+ * constante SQL, sus parámetros, la duración y las filas (? en las consultas, que no se cuentan
+ * fuera de una grabación JFR) en un archivo aparte que rota por
+ * tamaño (db.slow.query.log, .max.bytes, .files).
+ *
+ * Los correos electrónicos se enmascaran siempre y los valores con forma de teléfono cuando la
+ * sentencia trabaja con la columna phone, para no copiar datos personales de los miembros al log.
+ */
+public final class SlowQueryLog {
+    private static final Logger logger = Logger.getInstance();
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final Pattern EMAIL = Pattern.compile("[^\\s@%]+@[^\\s@%]+");
+    private static final Pattern PHONE = Pattern.compile("[%+(]*\\d[\\d\\s().-]{5,}\\d%?");
+    private static final int MAX_VALUE_LENGTH = 80;
+    private static final SlowQueryLog INSTANCE = create();
+
+    private final long thresholdNanos;
+    private final FileHandler output;
+
+    SlowQueryLog(long thresholdMillis, FileHandler output) {
+        this.thresholdNanos = thresholdMillis * 1_000_000L;
+        this.output = output;
+    }
+
+    /**
+     * Registro configurado, o null si está desactivado (umbral 0 o archivo no disponible)
+     */
+    static SlowQueryLog getInstance() {
+        return INSTANCE;
+    }
+
+    boolean isSlow(long nanos) {
+        return nanos >= thresholdNanos;
+    }
+
+    /**
+     * Escribe una sentencia lenta
+     */
+    void record(String sqlId, String sql, Map<Integer, Object> parameters, long nanos, long rows, boolean failed) {
+        String line = format(LocalDateTime.now(), sqlId, sql, parameters, nanos, rows, failed);
+        output.publish(new LogRecord(Level.WARNING, line));
+        output.flush();
+    }
+
+    static String format(LocalDateTime at, String sqlId, String sql, Map<Integer, Object> parameters,
+                         long nanos, long rows, boolean failed) {
+        boolean maskPhones = sql.toLowerCase().contains("phone");
+        StringBuilder params = new StringBuilder("[");
+        for (Map.Entry<Integer, Object> entry : parameters.entrySet()) {
+            if (params.length() > 1) {
+                params.append(", ");
+            }
+            params.append(entry.getKey()).append('=').append(describe(entry.getValue(), maskPhones));
+        }
+        params.append(']');
+        return String.format("%s | %.1f ms | %s filas | %s | %s%s", at.format(DATE_FORMAT), nanos / 1_000_000.0,
+                rows < 0 ? "?" : String.valueOf(rows), sqlId, params, failed ? " | FALLIDA" : "");
+    }
+
+    /**
+     * Representa un parámetro enmascarando los datos personales
+     */
+    static String describe(Object value, boolean maskPhones) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (!(value instanceof String)) {
+            return String.valueOf(value);
+        }
+        String text = (String) value;
+        if (EMAIL.matcher(text).find()) {
+            text = maskEmails(text);
+        } else if (maskPhones && PHONE.matcher(text).matches()) {
+            text = maskDigits(text);
+        }
+        if (text.length() > MAX_VALUE_LENGTH) {
+            text = text.substring(0, MAX_VALUE_LENGTH) + "...";
+        }
+        return "'" + text + "'";
+    }
+
+    private static String maskEmails(String text) {
+        return EMAIL.matcher(text).replaceAll(match -> {
+            String email = match.group();
+            int at = email.indexOf('@');
+            return email.charAt(0) + "***" + email.substring(at);
+        });
+    }
+
+    /**
+     * Sustituye todos los dígitos salvo los dos últimos
+     */
+    private static String maskDigits(String text) {
+        int digits = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isDigit(text.charAt(i))) {
+                digits++;
+            }
+        }
+        StringBuilder masked = new StringBuilder(text.length());
+        int seen = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isDigit(c) && ++seen <= digits - 2) {
+                masked.append('*');
+            } else {
+                masked.append(c);
+            }
+        }
+        return masked.toString();
+    }
+
+    private static SlowQueryLog create() {
+        int thresholdMillis = DatabaseConfig.getIntProperty("db.slow.query.threshold.ms", 0);
+        if (thresholdMillis <= 0) {
+            return null;
+        }
+        String file = DatabaseConfig.getProperty("db.slow.query.log", "slow-queries.log").trim();
+        try {
+            FileHandler handler = new FileHandler(file + ".%g",
+                    DatabaseConfig.getIntProperty("db.slow.query.log.max.bytes", 10 * 1024 * 1024),
+                    Math.max(1, DatabaseConfig.getIntProperty("db.slow.query.log.files", 5)), true);
+            handler.setFormatter(new Formatter() {
+                @Override
+                public String format(LogRecord record) {
+                    return record.getMessage() + System.lineSeparator();
+                }
+            });
+            Runtime.getRuntime().addShutdownHook(new Thread(handler::close, "libronova-slow-query-log"));
+            logger.info("Registro de sentencias lentas (≥ " + thresholdMillis + " ms) en " + file);
+            return new SlowQueryLog(thresholdMillis, handler);
+        } catch (IOException | RuntimeException e) {
+            logger.warning("No se pudo abrir el registro de sentencias lentas: " + e.getMessage());
+            return null;
+        }
+    }
+}
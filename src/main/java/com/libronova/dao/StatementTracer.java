@@ -0,0 +1,220 @@
+package com.libronova.dao;
+
+import com.libronova.metrics.SqlStatementEvent;
+import jdk.jfr.EventType;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Traza las sentencias preparadas que ejecutan los DAO como eventos JFR (SqlStatementEvent) y
+ * envía las que superan el umbral al registro de sentencias lentas (SlowQueryLog).
+ *
+ * Cada sentencia se identifica por la constante del DAO que contiene su SQL ("BookDAO.SEARCH_BOOKS");
+ * el catálogo se construye una vez leyendo las constantes String de los DAO. Solo se envuelve la
+ * conexión si hay una grabación JFR con el evento activo o el registro de lentas está habilitado;
+ * con ambos apagados el coste es una comprobación por conexión.
+ *
+ * El ResultSet solo se envuelve (para contar filas y medir hasta su cierre) mientras el evento
+ * JFR está activo. Para el registro de lentas basta con medir el execute: Connector/J lee el
+ * resultado completo antes de devolverlo, así que no se paga un proxy por cada next().
+ */
+public final class StatementTracer {
+    private static final EventType SQL_EVENT = EventType.getEventType(SqlStatementEvent.class);
+    private static final Map<String, String> SQL_IDS =
+        catalog(BookDAO.class, MemberDAO.class, LoanDAO.class, LoanPartitionDAO.class, LeaseDAO.class);
+
+    private StatementTracer() {}
+
+    /**
+     * Devuelve la conexión envuelta si hay que trazar sus sentencias, o la misma conexión si no
+     */
+    public static Connection wrap(Connection conn) {
+        SlowQueryLog slowLog = SlowQueryLog.getInstance();
+        if (slowLog == null && !SQL_EVENT.isEnabled()) {
+            return conn;
+        }
+        return (Connection) Proxy.newProxyInstance(
+            StatementTracer.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            (proxy, method, args) -> {
+                Object result = invoke(conn, method, args);
+                if ("prepareStatement".equals(method.getName())) {
+                    String sql = (String) args[0];
+                    return trace((PreparedStatement) result, sqlId(sql), sql, slowLog);
+                }
+                return result;
+            });
+    }
+
+    /**
+     * Identificador de una sentencia: la constante que la declara o, si no se conoce, su inicio
+     */
+    static String sqlId(String sql) {
+        String id = SQL_IDS.get(sql);
+        if (id != null) {
+            return id;
+        }
+        String compact = sql.trim().replaceAll("\\s+", " ");
+        return compact.length() > 60 ? compact.substring(0, 60) + "..." : compact;
+    }
+
+    private static PreparedStatement trace(PreparedStatement stmt, String sqlId, String sql, SlowQueryLog slowLog) {
+        Execution[] pending = new Execution[1];
+        // Los parámetros solo se guardan si pueden acabar en el registro de lentas
+        Map<Integer, Object> parameters = slowLog != null ? new TreeMap<>() : null;
+        return (PreparedStatement) Proxy.newProxyInstance(
+            StatementTracer.class.getClassLoader(),
+            new Class<?>[] { PreparedStatement.class },
+            (proxy, method, args) -> {
+                String name = method.getName();
+                if (parameters != null) {
+                    captureParameter(parameters, name, args);
+                }
+                if (!name.startsWith("execute") || (args != null && args.length > 0)) {
+                    if ("close".equals(name) && pending[0] != null) {
+                        pending[0].finish(); // ResultSet sin cerrar explícitamente
+                        pending[0] = null;
+                    }
+                    return invoke(stmt, method, args);
+                }
+
+                Execution execution = new Execution(sqlId, sql, parameters, slowLog);
+                Object result;
+                try {
+                    result = invoke(stmt, method, args);
+                } catch (Throwable e) {
+                    execution.failed = true;
+                    execution.finish();
+                    throw e;
+                }
+                if (result instanceof ResultSet) {
+                    if (SQL_EVENT.isEnabled()) {
+                        pending[0] = execution;
+                        return countRows((ResultSet) result, execution, pending);
+                    }
+                    execution.rows = -1; // Filas sin contar
+                    execution.finish();
+                    return result;
+                }
+                execution.rows = rowsOf(result);
+                execution.finish();
+                return result;
+            });
+    }
+
+    /**
+     * Cuenta las filas leídas y cierra la ejecución al cerrar el ResultSet
+     */
+    private static ResultSet countRows(ResultSet rs, Execution execution, Execution[] pending) {
+        return (ResultSet) Proxy.newProxyInstance(
+            StatementTracer.class.getClassLoader(),
+            new Class<?>[] { ResultSet.class },
+            (proxy, method, args) -> {
+                Object result = invoke(rs, method, args);
+                String name = method.getName();
+                if ("next".equals(name) && Boolean.TRUE.equals(result)) {
+                    execution.rows++;
+                } else if ("close".equals(name) && pending[0] == execution) {
+                    execution.finish();
+                    pending[0] = null;
+                }
+                return result;
+            });
+    }
+
+    private static void captureParameter(Map<Integer, Object> parameters, String name, Object[] args) {
+        if ("clearParameters".equals(name)) {
+            parameters.clear();
+        } else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+            parameters.put((Integer) args[0], "setNull".equals(name) ? null : args[1]);
+        }
+    }
+
+    private static long rowsOf(Object result) {
+        if (result instanceof Number) {
+            return ((Number) result).longValue();
+        }
+        if (result instanceof int[]) {
+            long rows = 0;
+            for (int count : (int[]) result) {
+                rows += Math.max(count, 0);
+            }
+            return rows;
+        }
+        return 0;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Asocia el texto SQL de cada constante String estática de los DAO con "Clase.CONSTANTE"
+     */
+    private static Map<String, String> catalog(Class<?>... daos) {
+        Map<String, String> ids = new HashMap<>();
+        for (Class<?> dao : daos) {
+            for (Field field : dao.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (field.getType() != String.class || !Modifier.isStatic(modifiers) || !Modifier.isFinal(modifiers)) {
+                    continue;
+                }
+                try {
+                    field.setAccessible(true);
+                    ids.putIfAbsent((String) field.get(null), dao.getSimpleName() + "." + field.getName());
+                } catch (IllegalAccessException e) {
+                    // Constante inaccesible: sus sentencias se identifican por el texto
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Una ejecución en curso: empieza al ejecutar y termina al acabar de leer el ResultSet
+     */
+    private static final class Execution {
+        private final SqlStatementEvent event = new SqlStatementEvent();
+        private final String sql;
+        private final Map<Integer, Object> parameters;
+        private final SlowQueryLog slowLog;
+        private final long start = System.nanoTime();
+        private long rows;
+        private boolean failed;
+
+        Execution(String sqlId, String sql, Map<Integer, Object> parameters, SlowQueryLog slowLog) {
+            this.sql = sql;
+            this.parameters = parameters;
+            this.slowLog = slowLog;
+            event.sqlId = sqlId;
+            event.begin();
+        }
+
+        void finish() {
+            event.end();
+            if (event.shouldCommit()) {
+                event.rows = rows;
+                event.failed = failed;
+                event.commit();
+            }
+            long elapsed = System.nanoTime() - start;
+            if (slowLog != null && slowLog.isSlow(elapsed)) {
+                slowLog.record(event.sqlId, sql, new TreeMap<>(parameters), elapsed, rows, failed);
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.libronova.dao.memory;
+
+import com.libronova.dao.BookRepository;
+import com.libronova.exception.OptimisticLockException;
+import com.libronova.model.Book;
+import com.libronova.model.RecordVersion;
+import com.libronova.util.Logger;
+import com.libronova.util.Pages;
+import com.libronova.util.SearchText;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Repositorio de libros en memoria, seguro entre hilos.
+ *
+ * Cada fila guardada es una instantánea que nunca se modifica: las escrituras construyen una
+ * copia y la publican con replace(clave, anterior, nueva), que solo tiene éxito si nadie la
+ * cambió entre medias, igual que el UPDATE ... WHERE version = ? de BookDAO. Los índices
+ * secundarios por categoría solo crecen y las consultas vuelven a comprobar la fila, así que
+ * una entrada obsoleta nunca produce un resultado incorrecto.
+ */
+public class InMemoryBookRepository implements BookRepository {
+    private static final Logger logger = Logger.getInstance();
+    private static final Comparator<Book> BY_TITLE = Comparator.comparing(Book::getTitle, String.CASE_INSENSITIVE_ORDER);
+
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final ConcurrentMap<Integer, Book> books = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> idsByIsbn = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<Integer>> idsByCategory = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean create(Book book) {
+        int id = nextId.incrementAndGet();
+        if (idsByIsbn.putIfAbsent(book.getIsbn(), id) != null) {
+            logger.error("Error al crear libro: el ISBN " + book.getIsbn() + " ya existe");
+            return false;
+        }
+        Book row = new Book(book);
+        row.setId(id);
+        row.setVersion(0);
+        books.put(id, row);
+        indexCategory(row.getCategory(), id);
+        book.setId(id);
+        logger.info("Libro creado exitosamente: " + book.getIsbn());
+        return true;
+    }
+
+    @Override
+    public Book findById(int id) {
+        Book row = books.get(id);
+        return row != null ? new Book(row) : null;
+    }
+
+    @Override
+    public RecordVersion findVersion(int id) {
+        Book row = books.get(id);
+        return row != null ? new RecordVersion(id, row.getVersion(), null) : null;
+    }
+
+    @Override
+    public Book findByIsbn(String isbn) {
+        Integer id = idsByIsbn.get(isbn);
+        return id != null ? findById(id) : null;
+    }
+
+    @Override
+    public List<Book> findAll() {
+        return select(books.values(), Book::isActive);
+    }
+
+    @Override
+    public List<Book> findAllPage(int offset, int limit) {
+        return Pages.slice(findAll(), offset, limit);
+    }
+
+    @Override
+    public List<Book> findByCategory(String category) {
+        List<Book> rows = new ArrayList<>();
+        for (Integer id : idsByCategory.getOrDefault(category, Set.of())) {
+            Book row = books.get(id);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return select(rows, row -> row.isActive() && category.equals(row.getCategory()));
+    }
+
+    @Override
+    public List<Book> findAvailable() {
+        return select(books.values(), row -> row.isActive() && row.getAvailableStock() > 0);
+    }
+
+    @Override
+    public List<Book> findAvailablePage(int offset, int limit) {
+        return Pages.slice(findAvailable(), offset, limit);
+    }
+
+    @Override
+    public List<Book> search(String searchTerm) {
+        String term = SearchText.normalize(searchTerm);
+        return select(books.values(),
+                      row -> row.isActive() && SearchText.containsAny(term, row.getTitle(), row.getAuthor(), row.getIsbn()));
+    }
+
+    @Override
+    public Map<String, Long> countAvailableByCategory() {
+        Map<String, Long> available = new TreeMap<>();
+        for (Book row : books.values()) {
+            if (row.isActive()) {
+                available.merge(row.getCategory(), (long) row.getAvailableStock(), Long::sum);
+            }
+        }
+        return available;
+    }
+
+    @Override
+    public boolean update(Book book) throws OptimisticLockException {
+        Book previous = mutate(book.getId(), row -> row.getVersion() == book.getVersion(), row -> {
+            row.setTitle(book.getTitle());
+            row.setAuthor(book.getAuthor());
+            row.setPublisher(book.getPublisher());
+            row.setPublicationDate(book.getPublicationDate());
+            row.setCategory(book.getCategory());
+            row.setStock(book.getStock());
+            row.setAvailableStock(book.getAvailableStock());
+            row.setActive(book.isActive());
+        });
+        if (previous == null) {
+            throw new OptimisticLockException("El libro ID " + book.getId() + " fue modificado por otro usuario");
+        }
+        indexCategory(book.getCategory(), book.getId());
+        book.setVersion(book.getVersion() + 1);
+        logger.info("Libro actualizado exitosamente: " + book.getIsbn());
+        return true;
+    }
+
+    @Override
+    public boolean updateStock(int bookId, int availableStock, int expectedVersion) throws OptimisticLockException {
+        if (mutate(bookId, row -> row.getVersion() == expectedVersion, row -> row.setAvailableStock(availableStock)) == null) {
+            throw new OptimisticLockException("El stock del libro ID " + bookId + " fue modificado por otro usuario");
+        }
+        logger.info("Stock actualizado para libro ID: " + bookId);
+        return true;
+    }
+
+    @Override
+    public boolean delete(int id) {
+        if (mutate(id, row -> true, row -> row.setActive(false)) == null) {
+            return false;
+        }
+        logger.info("Libro eliminado exitosamente ID: " + id);
+        return true;
+    }
+
+    /**
+     * Presta un ejemplar si el libro está activo y tiene stock disponible
+     */
+    boolean takeCopy(int bookId) {
+        return mutate(bookId, row -> row.isActive() && row.getAvailableStock() > 0,
+                      row -> row.setAvailableStock(row.getAvailableStock() - 1)) != null;
+    }
+
+    /**
+     * Devuelve un ejemplar si el stock disponible no está ya al máximo
+     */
+    boolean returnCopy(int bookId) {
+        return mutate(bookId, row -> row.getAvailableStock() < row.getStock(),
+                      row -> row.setAvailableStock(row.getAvailableStock() + 1)) != null;
+    }
+
+    /**
+     * Fila actual sin copiar, solo para lectura dentro del paquete
+     */
+    Book peek(int id) {
+        return books.get(id);
+    }
+
+    /**
+     * Aplica un cambio a la fila si cumple la condición, reintentando si otro hilo la
+     * reemplazó entre la lectura y la escritura. Devuelve la fila anterior o null.
+     */
+    private Book mutate(int id, Predicate<Book> condition, Consumer<Book> change) {
+        while (true) {
+            Book current = books.get(id);
+            if (current == null || !condition.test(current)) {
+                return null;
+            }
+            Book next = new Book(current);
+            change.accept(next);
+            next.setVersion(current.getVersion() + 1);
+            if (books.replace(id, current, next)) {
+                return current;
+            }
+        }
+    }
+
+    private void indexCategory(String category, int id) {
+        if (category != null) {
+            idsByCategory.computeIfAbsent(category, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    private static List<Book> select(Iterable<Book> rows, Predicate<Book> filter) {
+        List<Book> result = new ArrayList<>();
+        for (Book row : rows) {
+            if (filter.test(row)) {
+                result.add(new Book(row));
+            }
+        }
+        result.sort(BY_TITLE);
+        return result;
+    }
+}
@@ -0,0 +1,375 @@
+package com.libronova.dao.memory;
+
+import com.libronova.dao.LoanRepository;
+import com.libronova.exception.OptimisticLockException;
+import com.libronova.model.Book;
+import com.libronova.model.Loan;
+import com.libronova.model.LoanStatistics;
+import com.libronova.model.Member;
+import com.libronova.model.RecordVersion;
+import com.libronova.util.Logger;
+import com.libronova.util.Pages;
+import com.libronova.util.SearchText;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Repositorio de préstamos en memoria, seguro entre hilos.
+ *
+ * Comparte los repositorios de libros y miembros para mantener los contadores en checkout y
+ * checkin y para las búsquedas y estadísticas que en SQL son un JOIN. En lugar de una
+ * transacción, checkout deshace los contadores ya modificados si un paso posterior falla.
+ * Los préstamos archivados pasan a un mapa aparte, como loans_history.
+ */
+public class InMemoryLoanRepository implements LoanRepository {
+    private static final Logger logger = Logger.getInstance();
+    private static final Comparator<Loan> BY_DUE_DATE = Comparator.comparing(Loan::getDueDate);
+    private static final Comparator<Loan> BY_LOAN_DATE_DESC = Comparator.comparing(Loan::getLoanDate).reversed();
+
+    private final InMemoryBookRepository books;
+    private final InMemoryMemberRepository members;
+
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final ConcurrentMap<Integer, Loan> loans = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Loan> archived = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> idsByLoanId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Set<Integer>> idsByMember = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Set<Integer>> idsByBook = new ConcurrentHashMap<>();
+
+    public InMemoryLoanRepository(InMemoryBookRepository books, InMemoryMemberRepository members) {
+        this.books = books;
+        this.members = members;
+    }
+
+    @Override
+    public boolean create(Loan loan) {
+        if (!insert(loan)) {
+            return false;
+        }
+        logger.info("Préstamo creado exitosamente: " + loan.getLoanId());
+        return true;
+    }
+
+    @Override
+    public boolean checkout(Loan loan) {
+        if (!books.takeCopy(loan.getBookId())) {
+            logger.warning("Préstamo rechazado, sin stock disponible para libro ID: " + loan.getBookId());
+            return false;
+        }
+        if (!members.addLoan(loan.getMemberId())) {
+            books.returnCopy(loan.getBookId());
+            logger.warning("Préstamo rechazado, límite alcanzado para miembro ID: " + loan.getMemberId());
+            return false;
+        }
+        if (!insert(loan)) {
+            books.returnCopy(loan.getBookId());
+            members.removeLoan(loan.getMemberId());
+            return false;
+        }
+        logger.info("Préstamo registrado exitosamente: " + loan.getLoanId());
+        return true;
+    }
+
+    @Override
+    public boolean checkin(Loan loan) throws OptimisticLockException {
+        if (mutate(loan.getId(), row -> row.getVersion() == loan.getVersion(), row -> copyReturnFields(loan, row)) == null) {
+            throw new OptimisticLockException("El préstamo " + loan.getLoanId() + " fue modificado por otro usuario");
+        }
+        if (!books.returnCopy(loan.getBookId())) {
+            logger.warning("El stock del libro ID " + loan.getBookId() + " ya estaba al máximo");
+        }
+        if (!members.removeLoan(loan.getMemberId())) {
+            logger.warning("El miembro ID " + loan.getMemberId() + " no tenía préstamos registrados");
+        }
+        loan.setVersion(loan.getVersion() + 1);
+        logger.info("Devolución registrada exitosamente: " + loan.getLoanId());
+        return true;
+    }
+
+    @Override
+    public int archiveReturnedBefore(LocalDate cutoff, int batchSize) {
+        List<Loan> candidates = new ArrayList<>();
+        for (Loan row : loans.values()) {
+            if ("RETURNED".equals(row.getStatus()) && row.getReturnDate() != null && row.getReturnDate().isBefore(cutoff)) {
+                candidates.add(row);
+            }
+        }
+        candidates.sort(Comparator.comparing(Loan::getReturnDate));
+
+        int moved = 0;
+        for (Loan row : candidates.subList(0, Math.min(batchSize, candidates.size()))) {
+            // Si otro hilo cambió la fila desde la selección, se deja para el siguiente lote
+            if (loans.remove(row.getId(), row)) {
+                archived.put(row.getId(), row);
+                moved++;
+            }
+        }
+        if (moved > 0) {
+            logger.info("Préstamos archivados en loans_history: " + moved);
+        }
+        return moved;
+    }
+
+    @Override
+    public Boolean hasCounterTriggers() {
+        return false;
+    }
+
+    @Override
+    public Loan findById(int id) {
+        Loan row = loans.get(id);
+        return row != null ? new Loan(row) : null;
+    }
+
+    @Override
+    public RecordVersion findVersion(int id) {
+        Loan row = loans.get(id);
+        return row != null ? new RecordVersion(id, row.getVersion(), row.getUpdatedAt()) : null;
+    }
+
+    @Override
+    public Loan findByLoanId(String loanId) {
+        Integer id = idsByLoanId.get(loanId);
+        return id != null ? findById(id) : null;
+    }
+
+    @Override
+    public List<Loan> findActiveLoans() {
+        return select(loans.values(), row -> "ACTIVE".equals(row.getStatus()), BY_DUE_DATE);
+    }
+
+    @Override
+    public List<Loan> findActiveLoansPage(int offset, int limit) {
+        return Pages.slice(findActiveLoans(), offset, limit);
+    }
+
+    @Override
+    public List<Loan> findOverdueLoans() {
+        return select(loans.values(), row -> "OVERDUE".equals(row.getStatus()), BY_DUE_DATE);
+    }
+
+    @Override
+    public List<Loan> findOverdueLoansPage(int offset, int limit) {
+        return Pages.slice(findOverdueLoans(), offset, limit);
+    }
+
+    @Override
+    public List<Loan> findByMember(int memberId) {
+        return select(rowsOf(idsByMember, memberId, true), row -> row.getMemberId() == memberId, BY_LOAN_DATE_DESC);
+    }
+
+    @Override
+    public List<Loan> findByMember(int memberId, LocalDate from, LocalDate to) {
+        return select(rowsOf(idsByMember, memberId, true),
+                      row -> row.getMemberId() == memberId && inRange(row, from, to), BY_LOAN_DATE_DESC);
+    }
+
+    @Override
+    public List<Loan> findActiveByMember(int memberId) {
+        return select(rowsOf(idsByMember, memberId, false),
+                      row -> row.getMemberId() == memberId && "ACTIVE".equals(row.getStatus()), BY_DUE_DATE);
+    }
+
+    @Override
+    public List<Loan> findByBook(int bookId) {
+        return select(rowsOf(idsByBook, bookId, false), row -> row.getBookId() == bookId, BY_LOAN_DATE_DESC);
+    }
+
+    @Override
+    public List<Loan> findByBook(int bookId, LocalDate from, LocalDate to) {
+        return select(rowsOf(idsByBook, bookId, false),
+                      row -> row.getBookId() == bookId && inRange(row, from, to), BY_LOAN_DATE_DESC);
+    }
+
+    @Override
+    public List<Loan> search(String searchTerm) {
+        String term = SearchText.normalize(searchTerm);
+        return select(loans.values(), row -> {
+            Member member = members.peek(row.getMemberId());
+            Book book = books.peek(row.getBookId());
+            return member != null && book != null
+                && SearchText.containsAny(term, member.getFirstName(), member.getLastName(), member.getMemberId(),
+                                      book.getTitle(), book.getIsbn(), row.getLoanId());
+        }, BY_LOAN_DATE_DESC);
+    }
+
+    @Override
+    public LoanStatistics getStatistics() {
+        LoanStatistics statistics = new LoanStatistics();
+        Map<String, Long> byCategory = new HashMap<>();
+        Map<String, Long> byMembership = new HashMap<>();
+        BigDecimal finesOutstanding = BigDecimal.ZERO;
+        long active = 0;
+        long overdue = 0;
+        long returned = archived.size();
+
+        for (Loan row : loans.values()) {
+            if ("RETURNED".equals(row.getStatus())) {
+                returned++;
+                continue;
+            }
+            if ("ACTIVE".equals(row.getStatus())) {
+                active++;
+            } else {
+                overdue++;
+            }
+            if (row.getFineAmount() != null) {
+                finesOutstanding = finesOutstanding.add(row.getFineAmount());
+            }
+            Book book = books.peek(row.getBookId());
+            if (book != null) {
+                byCategory.merge(book.getCategory(), 1L, Long::sum);
+            }
+            Member member = members.peek(row.getMemberId());
+            if (member != null) {
+                byMembership.merge(member.getMembershipType(), 1L, Long::sum);
+            }
+        }
+
+        statistics.setActiveLoans(active);
+        statistics.setOverdueLoans(overdue);
+        statistics.setReturnedLoans(returned);
+        statistics.setFinesOutstanding(finesOutstanding);
+        byCategory.forEach(statistics::putOpenLoansByCategory);
+        byMembership.forEach(statistics::putOpenLoansByMembershipType);
+        return statistics;
+    }
+
+    @Override
+    public boolean update(Loan loan) throws OptimisticLockException {
+        if (mutate(loan.getId(), row -> row.getVersion() == loan.getVersion(), row -> copyReturnFields(loan, row)) == null) {
+            throw new OptimisticLockException("El préstamo " + loan.getLoanId() + " fue modificado por otro usuario");
+        }
+        loan.setVersion(loan.getVersion() + 1);
+        logger.info("Préstamo actualizado exitosamente: " + loan.getLoanId());
+        return true;
+    }
+
+    @Override
+    public boolean updateStatus(int loanId, String status, int expectedVersion) throws OptimisticLockException {
+        Loan previous = mutate(loanId, row -> row.getVersion() == expectedVersion, row -> {
+            row.setStatus(status);
+            row.setUpdatedAt(LocalDateTime.now());
+        });
+        if (previous == null) {
+            throw new OptimisticLockException("El préstamo ID " + loanId + " fue modificado por otro usuario");
+        }
+        logger.info("Estado del préstamo actualizado: " + loanId);
+        return true;
+    }
+
+    @Override
+    public boolean updateFine(int loanId, BigDecimal fineAmount) {
+        Loan previous = mutate(loanId, row -> "OVERDUE".equals(row.getStatus()), row -> {
+            row.setFineAmount(fineAmount);
+            row.setUpdatedAt(LocalDateTime.now());
+        });
+        if (previous == null) {
+            return false;
+        }
+        logger.info("Multa actualizada para préstamo: " + loanId);
+        return true;
+    }
+
+    @Override
+    public boolean delete(int id) {
+        Loan removed = loans.remove(id);
+        if (removed == null) {
+            return false;
+        }
+        idsByLoanId.remove(removed.getLoanId(), id);
+        logger.info("Préstamo eliminado exitosamente ID: " + id);
+        return true;
+    }
+
+    private boolean insert(Loan loan) {
+        int id = nextId.incrementAndGet();
+        if (idsByLoanId.putIfAbsent(loan.getLoanId(), id) != null) {
+            logger.error("Error al crear préstamo: el loan_id " + loan.getLoanId() + " ya existe");
+            return false;
+        }
+        Loan row = new Loan(loan);
+        row.setId(id);
+        row.setVersion(0);
+        loans.put(id, row);
+        idsByMember.computeIfAbsent(row.getMemberId(), key -> ConcurrentHashMap.newKeySet()).add(id);
+        idsByBook.computeIfAbsent(row.getBookId(), key -> ConcurrentHashMap.newKeySet()).add(id);
+        loan.setId(id);
+        return true;
+    }
+
+    /**
+     * Campos que escriben update y checkin, los mismos que UPDATE_LOAN en LoanDAO
+     */
+    private static void copyReturnFields(Loan source, Loan row) {
+        row.setReturnDate(source.getReturnDate());
+        row.setStatus(source.getStatus());
+        row.setFineAmount(source.getFineAmount());
+        row.setNotes(source.getNotes());
+        row.setUpdatedAt(source.getUpdatedAt());
+    }
+
+    /**
+     * Filas indexadas para la clave, incluidas las archivadas si se piden
+     */
+    private List<Loan> rowsOf(ConcurrentMap<Integer, Set<Integer>> index, int key, boolean includeArchived) {
+        List<Loan> rows = new ArrayList<>();
+        for (Integer id : index.getOrDefault(key, Set.of())) {
+            Loan row = loans.get(id);
+            if (row == null && includeArchived) {
+                row = archived.get(id);
+            }
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private static boolean inRange(Loan row, LocalDate from, LocalDate to) {
+        return !row.getLoanDate().isBefore(from) && row.getLoanDate().isBefore(to);
+    }
+
+    /**
+     * Aplica un cambio a la fila si cumple la condición, reintentando si otro hilo la
+     * reemplazó entre la lectura y la escritura. Devuelve la fila anterior o null.
+     */
+    private Loan mutate(int id, Predicate<Loan> condition, Consumer<Loan> change) {
+        while (true) {
+            Loan current = loans.get(id);
+            if (current == null || !condition.test(current)) {
+                return null;
+            }
+            Loan next = new Loan(current);
+            change.accept(next);
+            next.setVersion(current.getVersion() + 1);
+            if (loans.replace(id, current, next)) {
+                return current;
+            }
+        }
+    }
+
+    private static List<Loan> select(Iterable<Loan> rows, Predicate<Loan> filter, Comparator<Loan> order) {
+        List<Loan> result = new ArrayList<>();
+        for (Loan row : rows) {
+            if (filter.test(row)) {
+                result.add(new Loan(row));
+            }
+        }
+        result.sort(order);
+        return result;
+    }
+}
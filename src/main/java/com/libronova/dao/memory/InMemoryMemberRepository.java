@@ -0,0 +1,211 @@
+package com.libronova.dao.memory;
+
+import com.libronova.dao.MemberRepository;
+import com.libronova.exception.OptimisticLockException;
+import com.libronova.model.Member;
+import com.libronova.model.RecordVersion;
+import com.libronova.util.Logger;
+import com.libronova.util.Pages;
+import com.libronova.util.SearchText;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Repositorio de miembros en memoria, seguro entre hilos.
+ *
+ * Sigue el mismo esquema que InMemoryBookRepository: filas inmutables reemplazadas de forma
+ * atómica y versionadas. member_id y email son únicos como en la tabla members.
+ */
+public class InMemoryMemberRepository implements MemberRepository {
+    private static final Logger logger = Logger.getInstance();
+    private static final Comparator<Member> BY_NAME = Comparator
+        .comparing(Member::getLastName, String.CASE_INSENSITIVE_ORDER)
+        .thenComparing(Member::getFirstName, String.CASE_INSENSITIVE_ORDER);
+
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final ConcurrentMap<Integer, Member> members = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> idsByMemberId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> idsByEmail = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean create(Member member) {
+        int id = nextId.incrementAndGet();
+        if (idsByMemberId.putIfAbsent(member.getMemberId(), id) != null) {
+            logger.error("Error al crear miembro: el member_id " + member.getMemberId() + " ya existe");
+            return false;
+        }
+        if (idsByEmail.putIfAbsent(member.getEmail(), id) != null) {
+            idsByMemberId.remove(member.getMemberId(), id);
+            logger.error("Error al crear miembro: el email " + member.getEmail() + " ya existe");
+            return false;
+        }
+        Member row = new Member(member);
+        row.setId(id);
+        row.setVersion(0);
+        members.put(id, row);
+        member.setId(id);
+        logger.info("Miembro creado exitosamente: " + member.getMemberId());
+        return true;
+    }
+
+    @Override
+    public Member findById(int id) {
+        Member row = members.get(id);
+        return row != null ? new Member(row) : null;
+    }
+
+    @Override
+    public RecordVersion findVersion(int id) {
+        Member row = members.get(id);
+        return row != null ? new RecordVersion(id, row.getVersion(), null) : null;
+    }
+
+    @Override
+    public Member findByMemberId(String memberId) {
+        Integer id = idsByMemberId.get(memberId);
+        return id != null ? findById(id) : null;
+    }
+
+    @Override
+    public List<Member> findAll() {
+        return select(Member::isActive);
+    }
+
+    @Override
+    public List<Member> findAllPage(int offset, int limit) {
+        return Pages.slice(findAll(), offset, limit);
+    }
+
+    @Override
+    public List<Member> findActiveMembers() {
+        return select(row -> row.isActive() && row.getCurrentLoans() < row.getMaxLoans());
+    }
+
+    @Override
+    public List<Member> findActiveMembersPage(int offset, int limit) {
+        return Pages.slice(findActiveMembers(), offset, limit);
+    }
+
+    @Override
+    public List<Member> search(String searchTerm) {
+        String term = SearchText.normalize(searchTerm);
+        return select(row -> row.isActive() && SearchText.containsAny(term, row.getFirstName(), row.getLastName(),
+                                                                     row.getMemberId(), row.getEmail()));
+    }
+
+    @Override
+    public boolean update(Member member) throws OptimisticLockException {
+        Member stored = members.get(member.getId());
+        String previousEmail = stored != null ? stored.getEmail() : null;
+        boolean emailChanged = stored != null && !member.getEmail().equals(previousEmail);
+        if (emailChanged) {
+            Integer owner = idsByEmail.putIfAbsent(member.getEmail(), member.getId());
+            if (owner != null && owner != member.getId()) {
+                logger.error("Error al actualizar miembro: el email " + member.getEmail() + " ya existe");
+                return false;
+            }
+        }
+
+        Member previous = mutate(member.getId(), row -> row.getVersion() == member.getVersion(), row -> {
+            row.setFirstName(member.getFirstName());
+            row.setLastName(member.getLastName());
+            row.setEmail(member.getEmail());
+            row.setPhone(member.getPhone());
+            row.setAddress(member.getAddress());
+            row.setBirthDate(member.getBirthDate());
+            row.setMembershipType(member.getMembershipType());
+            row.setActive(member.isActive());
+            row.setMaxLoans(member.getMaxLoans());
+        });
+        if (previous == null) {
+            if (emailChanged) {
+                idsByEmail.remove(member.getEmail(), member.getId());
+            }
+            throw new OptimisticLockException("El miembro ID " + member.getId() + " fue modificado por otro usuario");
+        }
+        if (!previous.getEmail().equals(member.getEmail())) {
+            idsByEmail.remove(previous.getEmail(), member.getId());
+        }
+        member.setVersion(member.getVersion() + 1);
+        logger.info("Miembro actualizado exitosamente: " + member.getMemberId());
+        return true;
+    }
+
+    @Override
+    public boolean updateCurrentLoans(int memberId, int currentLoans, int expectedVersion) throws OptimisticLockException {
+        if (mutate(memberId, row -> row.getVersion() == expectedVersion, row -> row.setCurrentLoans(currentLoans)) == null) {
+            throw new OptimisticLockException("Los préstamos del miembro ID " + memberId + " fueron modificados por otro usuario");
+        }
+        logger.info("Préstamos actualizados para miembro ID: " + memberId);
+        return true;
+    }
+
+    @Override
+    public boolean delete(int id) {
+        if (mutate(id, row -> true, row -> row.setActive(false)) == null) {
+            return false;
+        }
+        logger.info("Miembro eliminado exitosamente ID: " + id);
+        return true;
+    }
+
+    /**
+     * Suma un préstamo si el miembro está activo y no alcanzó su límite
+     */
+    boolean addLoan(int memberId) {
+        return mutate(memberId, row -> row.isActive() && row.getCurrentLoans() < row.getMaxLoans(),
+                      row -> row.setCurrentLoans(row.getCurrentLoans() + 1)) != null;
+    }
+
+    /**
+     * Resta un préstamo si el miembro tiene alguno registrado
+     */
+    boolean removeLoan(int memberId) {
+        return mutate(memberId, row -> row.getCurrentLoans() > 0,
+                      row -> row.setCurrentLoans(row.getCurrentLoans() - 1)) != null;
+    }
+
+    /**
+     * Fila actual sin copiar, solo para lectura dentro del paquete
+     */
+    Member peek(int id) {
+        return members.get(id);
+    }
+
+    /**
+     * Aplica un cambio a la fila si cumple la condición, reintentando si otro hilo la
+     * reemplazó entre la lectura y la escritura. Devuelve la fila anterior o null.
+     */
+    private Member mutate(int id, Predicate<Member> condition, Consumer<Member> change) {
+        while (true) {
+            Member current = members.get(id);
+            if (current == null || !condition.test(current)) {
+                return null;
+            }
+            Member next = new Member(current);
+            change.accept(next);
+            next.setVersion(current.getVersion() + 1);
+            if (members.replace(id, current, next)) {
+                return current;
+            }
+        }
+    }
+
+    private List<Member> select(Predicate<Member> filter) {
+        List<Member> result = new ArrayList<>();
+        for (Member row : members.values()) {
+            if (filter.test(row)) {
+                result.add(new Member(row));
+            }
+        }
+        result.sort(BY_NAME);
+        return result;
+    }
+}
@@ -0,0 +1,377 @@
+package com.libronova.dataset;
+
+import com.libronova.config.DatabaseConfig;
+import com.libronova.dao.LoanDAO;
+import com.libronova.model.Book;
+import com.libronova.model.Loan;
+import com.libronova.model.Member;
+import com.libronova.util.Logger;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Generador determinista de bibliotecas sintéticas para pruebas de escala y benchmarks.
+ *
+ * Con la misma semilla y fecha de referencia produce exactamente las mismas filas. La
+ * popularidad de los títulos sigue una distribución de Zipf (los libros populares además tienen
+ * más ejemplares), la mezcla de membresías es 70% REGULAR, 22% PREMIUM y 8% VIP, y los préstamos
+ * cubren historyDays días hasta la fecha de referencia con una fracción overdueRatio devuelta
+ * tarde (con multa) o todavía vencida. Los préstamos abiertos respetan el stock de cada libro y
+ * el límite de cada miembro, y available_stock / current_loans salen ya cuadrados con ellos.
+ *
+ * Las filas no se guardan en memoria: los préstamos se simulan dos veces con la misma semilla,
+ * la primera solo para contar los abiertos y la segunda para emitirlos después de los libros y
+ * miembros, así que el consumo de memoria es de unos pocos enteros por libro y por miembro.
+ */
+public class DatasetGenerator {
+    private static final Logger logger = Logger.getInstance();
+
+    public static final double DEFAULT_ZIPF_EXPONENT = 1.0;
+    public static final double DEFAULT_OVERDUE_RATIO = 0.08;
+    public static final int DEFAULT_HISTORY_DAYS = 730;
+
+    private static final int LOAN_DAYS = 14;
+    private static final BigDecimal DAILY_FINE_RATE = new BigDecimal("5.00");
+    private static final int USER_ID = 1; // admin del esquema de ejemplo
+    private static final int MAX_DAYS_LATE = 30;
+    private static final int PLACEMENT_ATTEMPTS = 8;
+    private static final long BOOK_STREAM = 0x5DEECE66DL;
+    private static final long STOCK_STREAM = 0x2545F4914F6CDD1DL;
+    private static final long MEMBER_STREAM = 0x9E3779B97F4A7C15L;
+    private static final long LOAN_STREAM = 0xBF58476D1CE4E5B9L;
+
+    private static final String[] TITLE_NOUNS = {
+        "Sombra", "Viento", "Ciudad", "Memoria", "Río", "Jardín", "Silencio", "Noche", "Mar", "Camino",
+        "Espejo", "Tiempo", "Luz", "Piedra", "Invierno", "Laberinto", "Casa", "Isla", "Fuego", "Sueño"
+    };
+    private static final String[] TITLE_LINKS = { "de la", "del", "sin", "bajo la", "entre la", "contra el" };
+    private static final String[] FIRST_NAMES = {
+        "Ana", "Luis", "María", "Carlos", "Lucía", "Jorge", "Elena", "Pablo", "Sofía", "Diego",
+        "Valentina", "Andrés", "Camila", "Mateo", "Isabel", "Julián"
+    };
+    private static final String[] LAST_NAMES = {
+        "García", "Rodríguez", "López", "Martínez", "Gómez", "Pérez", "Sánchez", "Díaz", "Torres", "Ramírez",
+        "Flores", "Rivera", "Castro", "Morales", "Ortiz", "Vargas"
+    };
+    private static final String[] PUBLISHERS = {
+        "Cátedra", "Alfaguara", "Anagrama", "Debolsillo", "Planeta", "Tusquets", "Sudamericana", "Seix Barral"
+    };
+    private static final String[] CATEGORIES = {
+        "Literatura", "Ciencia Ficción", "Historia", "Ciencia", "Infantil", "Poesía", "Ensayo", "Biografía"
+    };
+
+    private final long seed;
+    private final int bookCount;
+    private final int memberCount;
+    private final int loanCount;
+    private final LocalDate referenceDate;
+    private final double zipfExponent;
+    private final double overdueRatio;
+    private final int historyDays;
+
+    public DatasetGenerator(long seed, int bookCount, int memberCount, int loanCount, LocalDate referenceDate) {
+        this(seed, bookCount, memberCount, loanCount, referenceDate,
+             DEFAULT_ZIPF_EXPONENT, DEFAULT_OVERDUE_RATIO, DEFAULT_HISTORY_DAYS);
+    }
+
+    public DatasetGenerator(long seed, int bookCount, int memberCount, int loanCount, LocalDate referenceDate,
+                            double zipfExponent, double overdueRatio, int historyDays) {
+        if (bookCount <= 0 || memberCount <= 0 || loanCount < 0) {
+            throw new IllegalArgumentException("El dataset necesita al menos un libro y un miembro");
+        }
+        if (overdueRatio < 0 || overdueRatio > 1) {
+            throw new IllegalArgumentException("La proporción de préstamos vencidos debe estar entre 0 y 1");
+        }
+        if (historyDays <= LOAN_DAYS) {
+            throw new IllegalArgumentException("El historial debe cubrir más de " + LOAN_DAYS + " días");
+        }
+        this.seed = seed;
+        this.bookCount = bookCount;
+        this.memberCount = memberCount;
+        this.loanCount = loanCount;
+        this.referenceDate = referenceDate;
+        this.zipfExponent = zipfExponent;
+        this.overdueRatio = overdueRatio;
+        this.historyDays = historyDays;
+    }
+
+    /**
+     * Genera el dataset con IDs desde 1 (tablas vacías)
+     */
+    public void generate(DatasetSink sink) throws SQLException, IOException {
+        generate(sink, IdOffsets.NONE);
+    }
+
+    /**
+     * Genera el dataset con IDs a continuación de los indicados
+     */
+    public void generate(DatasetSink sink, IdOffsets offsets) throws SQLException, IOException {
+        long start = System.nanoTime();
+        int stride = coprimeStride(bookCount);
+        ZipfDistribution popularity = new ZipfDistribution(bookCount, zipfExponent);
+        int[] stock = bookStock(stride);
+        String[] membershipTypes = membershipTypes();
+        int[] maxLoans = new int[memberCount];
+        for (int i = 0; i < memberCount; i++) {
+            maxLoans[i] = maxLoansByType(membershipTypes[i]);
+        }
+
+        int[] openByBook = new int[bookCount];
+        int[] openByMember = new int[memberCount];
+        simulateLoans(null, offsets, popularity, stride, stock, maxLoans, openByBook, openByMember);
+
+        emitBooks(sink, offsets, stock, openByBook);
+        emitMembers(sink, offsets, membershipTypes, openByMember);
+
+        Arrays.fill(openByBook, 0);
+        Arrays.fill(openByMember, 0);
+        simulateLoans(sink, offsets, popularity, stride, stock, maxLoans, openByBook, openByMember);
+
+        logger.info("Dataset generado: " + bookCount + " libros, " + memberCount + " miembros y " + loanCount +
+                    " préstamos en " + (System.nanoTime() - start) / 1_000_000 + " ms (semilla " + seed + ")");
+    }
+
+    /**
+     * Recorre los préstamos en orden de fecha; si sink es null solo actualiza los contadores
+     */
+    private void simulateLoans(DatasetSink sink, IdOffsets offsets, ZipfDistribution popularity, int stride,
+                               int[] stock, int[] maxLoans, int[] openByBook, int[] openByMember) throws SQLException, IOException {
+        SplittableRandom random = new SplittableRandom(seed ^ LOAN_STREAM);
+        LocalDate firstDay = referenceDate.minusDays(historyDays);
+
+        for (int k = 0; k < loanCount; k++) {
+            LocalDate loanDate = firstDay.plusDays((long) k * historyDays / loanCount);
+            LocalDate dueDate = loanDate.plusDays(LOAN_DAYS);
+            int book = bookAtRank(popularity.sample(random), stride);
+            int member = random.nextInt(memberCount);
+            boolean late = random.nextDouble() < overdueRatio;
+            LocalDate returnDate = late
+                ? dueDate.plusDays(1 + random.nextInt(MAX_DAYS_LATE))
+                : loanDate.plusDays(1 + random.nextInt(LOAN_DAYS));
+            String status = "RETURNED";
+
+            if (returnDate.isAfter(referenceDate)) {
+                // Sigue abierto: necesita un ejemplar libre y un miembro con cupo; si no, se devolvió hoy
+                int borrower = memberWithCapacity(member, maxLoans, openByMember);
+                if (borrower >= 0 && openByBook[book] < stock[book]) {
+                    member = borrower;
+                    openByBook[book]++;
+                    openByMember[member]++;
+                    status = dueDate.isBefore(referenceDate) ? "OVERDUE" : "ACTIVE";
+                    returnDate = null;
+                } else {
+                    returnDate = referenceDate;
+                }
+            }
+
+            if (sink != null) {
+                int id = offsets.loans + k + 1;
+                Loan loan = new Loan("LOAN-G" + pad(id, 9), offsets.books + book + 1, offsets.members + member + 1,
+                                     USER_ID, loanDate, dueDate);
+                loan.setId(id);
+                loan.setStatus(status);
+                loan.setReturnDate(returnDate);
+                if (returnDate != null && returnDate.isAfter(dueDate)) {
+                    long daysLate = returnDate.toEpochDay() - dueDate.toEpochDay();
+                    loan.setFineAmount(DAILY_FINE_RATE.multiply(BigDecimal.valueOf(daysLate)));
+                }
+                sink.loan(loan);
+            }
+        }
+    }
+
+    private void emitBooks(DatasetSink sink, IdOffsets offsets, int[] stock, int[] openByBook) throws SQLException, IOException {
+        SplittableRandom random = new SplittableRandom(seed ^ BOOK_STREAM);
+        int lastYear = referenceDate.getYear();
+        for (int i = 0; i < bookCount; i++) {
+            int id = offsets.books + i + 1;
+            String title = pick(random, TITLE_NOUNS) + " " + pick(random, TITLE_LINKS) + " "
+                + pick(random, TITLE_NOUNS).toLowerCase();
+            String author = pick(random, FIRST_NAMES) + " " + pick(random, LAST_NAMES);
+            LocalDate published = LocalDate.of(1900 + random.nextInt(lastYear - 1900), 1 + random.nextInt(12),
+                                               1 + random.nextInt(28));
+            Book book = new Book("979-9-" + pad(id, 9), title, author, pick(random, PUBLISHERS), published,
+                                 pick(random, CATEGORIES), stock[i]);
+            book.setId(id);
+            book.setAvailableStock(stock[i] - openByBook[i]);
+            sink.book(book);
+        }
+    }
+
+    private void emitMembers(DatasetSink sink, IdOffsets offsets, String[] membershipTypes,
+                             int[] openByMember) throws SQLException, IOException {
+        SplittableRandom random = new SplittableRandom(seed ^ MEMBER_STREAM);
+        for (int i = 0; i < memberCount; i++) {
+            int id = offsets.members + i + 1;
+            String memberId = "GEN" + pad(id, 7);
+            LocalDate birthDate = referenceDate.minusYears(16 + random.nextInt(65)).minusDays(random.nextInt(365));
+            Member member = new Member(memberId, pick(random, FIRST_NAMES), pick(random, LAST_NAMES),
+                                       memberId.toLowerCase() + "@libronova.test", "555-" + pad(random.nextInt(10000), 4),
+                                       "Calle " + (1 + random.nextInt(300)) + " #" + (1 + random.nextInt(99)),
+                                       birthDate, membershipTypes[i]);
+            member.setId(id);
+            member.setRegistrationDate(referenceDate.minusDays(historyDays + random.nextInt(365)));
+            member.setCurrentLoans(openByMember[i]);
+            sink.member(member);
+        }
+    }
+
+    /**
+     * Ejemplares por libro: de 1 a 3, y de 5 a 12 para el 1% más popular
+     */
+    private int[] bookStock(int stride) {
+        SplittableRandom random = new SplittableRandom(seed ^ STOCK_STREAM);
+        int popularRanks = Math.max(1, bookCount / 100);
+        int[] stock = new int[bookCount];
+        for (int rank = 0; rank < bookCount; rank++) {
+            stock[bookAtRank(rank, stride)] = 1 + random.nextInt(3) + (rank < popularRanks ? 4 + random.nextInt(6) : 0);
+        }
+        return stock;
+    }
+
+    private String[] membershipTypes() {
+        SplittableRandom random = new SplittableRandom(seed ^ MEMBER_STREAM ^ STOCK_STREAM);
+        String[] types = new String[memberCount];
+        for (int i = 0; i < memberCount; i++) {
+            double draw = random.nextDouble();
+            types[i] = draw < 0.70 ? "REGULAR" : draw < 0.92 ? "PREMIUM" : "VIP";
+        }
+        return types;
+    }
+
+    private int memberWithCapacity(int member, int[] maxLoans, int[] openByMember) {
+        for (int attempt = 0; attempt < PLACEMENT_ATTEMPTS; attempt++) {
+            int candidate = (member + attempt) % memberCount;
+            if (openByMember[candidate] < maxLoans[candidate]) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reparte los rangos de popularidad por todo el catálogo para que los libros populares no
+     * sean siempre los de ID más bajo
+     */
+    private int bookAtRank(int rank, int stride) {
+        return (int) ((long) rank * stride % bookCount);
+    }
+
+    private static int coprimeStride(int n) {
+        int stride = (int) (n * 0.618) | 1;
+        while (gcd(stride, n) != 1) {
+            stride += 2;
+        }
+        return stride;
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    private static int maxLoansByType(String membershipType) {
+        switch (membershipType) {
+            case "PREMIUM":
+                return 5;
+            case "VIP":
+                return 10;
+            default:
+                return 3;
+        }
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String pad(int value, int width) {
+        String digits = Integer.toString(value);
+        return digits.length() >= width ? digits : "0".repeat(width - digits.length()) + digits;
+    }
+
+    /**
+     * Último ID ya ocupado en cada tabla; las filas generadas empiezan en el siguiente
+     */
+    public static final class IdOffsets {
+        public static final IdOffsets NONE = new IdOffsets(0, 0, 0);
+
+        private final int books;
+        private final int members;
+        private final int loans;
+
+        public IdOffsets(int books, int members, int loans) {
+            this.books = books;
+            this.members = members;
+            this.loans = loans;
+        }
+    }
+
+    /**
+     * Uso: DatasetGenerator --books N --members N --loans N (--csv DIRECTORIO | --jdbc)
+     *      [--seed S] [--zipf S] [--overdue R] [--history-days D] [--date AAAA-MM-DD] [--batch N]
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String key = args[i];
+            if (!key.startsWith("--")) {
+                usage("Argumento inesperado: " + key);
+            }
+            boolean flag = i + 1 >= args.length || args[i + 1].startsWith("--");
+            options.put(key.substring(2), flag ? "true" : args[++i]);
+        }
+        if (!options.containsKey("books") || !options.containsKey("members") || !options.containsKey("loans")
+            || options.containsKey("csv") == options.containsKey("jdbc")) {
+            usage("Faltan --books, --members, --loans o el destino (--csv DIRECTORIO o --jdbc)");
+        }
+
+        DatasetGenerator generator = new DatasetGenerator(
+            Long.parseLong(options.getOrDefault("seed", "42")),
+            Integer.parseInt(options.get("books")),
+            Integer.parseInt(options.get("members")),
+            Integer.parseInt(options.get("loans")),
+            options.containsKey("date") ? LocalDate.parse(options.get("date")) : LocalDate.now(),
+            Double.parseDouble(options.getOrDefault("zipf", String.valueOf(DEFAULT_ZIPF_EXPONENT))),
+            Double.parseDouble(options.getOrDefault("overdue", String.valueOf(DEFAULT_OVERDUE_RATIO))),
+            Integer.parseInt(options.getOrDefault("history-days", String.valueOf(DEFAULT_HISTORY_DAYS))));
+
+        if (options.containsKey("csv")) {
+            try (CsvDatasetSink sink = new CsvDatasetSink(Path.of(options.get("csv")))) {
+                generator.generate(sink);
+            }
+            return;
+        }
+
+        if (Boolean.TRUE.equals(new LoanDAO().hasCounterTriggers())) {
+            usage("Los triggers de préstamos están instalados y descontarían el stock dos veces; " +
+                  "aplique la migración que los elimina antes de cargar el dataset");
+        }
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            IdOffsets offsets = JdbcDatasetSink.currentOffsets(conn);
+            try (JdbcDatasetSink sink = new JdbcDatasetSink(conn, Integer.parseInt(options.getOrDefault("batch", "1000")))) {
+                generator.generate(sink, offsets);
+            }
+        }
+    }
+
+    private static void usage(String message) {
+        System.err.println(message);
+        System.err.println("Uso: DatasetGenerator --books N --members N --loans N (--csv DIRECTORIO | --jdbc) " +
+                           "[--seed S] [--zipf S] [--overdue R] [--history-days D] [--date AAAA-MM-DD] [--batch N]");
+        System.exit(2);
+    }
+}
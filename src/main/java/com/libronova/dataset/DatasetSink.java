@@ -0,0 +1,40 @@
+package com.libronova.dataset;
+
+import com.libronova.model.Book;
+import com.libronova.model.Loan;
+import com.libronova.model.Member;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * Destino de las filas de DatasetGenerator. Recibe primero todos los libros, después todos los
+ * miembros y por último los préstamos, siempre con el ID ya asignado, de modo que se pueden
+ * insertar en ese orden sin violar las claves foráneas.
+ *
+ * Los destinos JDBC lanzan SQLException y los de ficheros IOException; el de repositorios no
+ * lanza excepciones comprobadas.
+ */
+public interface DatasetSink extends AutoCloseable {
+
+    /**
+     * Recibe un libro con su stock disponible ya descontado de los préstamos abiertos
+     */
+    void book(Book book) throws SQLException, IOException;
+
+    /**
+     * Recibe un miembro con su contador de préstamos abiertos
+     */
+    void member(Member member) throws SQLException, IOException;
+
+    /**
+     * Recibe un préstamo (ACTIVE, OVERDUE o RETURNED)
+     */
+    void loan(Loan loan) throws SQLException, IOException;
+
+    /**
+     * Vuelca lo pendiente y libera recursos
+     */
+    @Override
+    void close() throws SQLException, IOException;
+}
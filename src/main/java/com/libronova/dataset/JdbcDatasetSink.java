@@ -0,0 +1,170 @@
+package com.libronova.dataset;
+
+import com.libronova.model.Book;
+import com.libronova.model.Loan;
+import com.libronova.model.Member;
+import com.libronova.util.Logger;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+
+/**
+ * Inserta el dataset por JDBC en lotes de batchSize filas, con un commit por lote. En MySQL
+ * conviene añadir rewriteBatchedStatements=true a db.url para que cada lote viaje como un único
+ * INSERT multi-fila.
+ */
+public class JdbcDatasetSink implements DatasetSink {
+    private static final Logger logger = Logger.getInstance();
+    private static final String INSERT_BOOK =
+        "INSERT INTO books (id, isbn, title, author, publisher, publication_date, category, stock, available_stock, active) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_MEMBER =
+        "INSERT INTO members (id, member_id, first_name, last_name, email, phone, address, birth_date, " +
+        "registration_date, membership_type, active, max_loans, current_loans) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_LOAN =
+        "INSERT INTO loans (id, loan_id, book_id, member_id, user_id, loan_date, due_date, return_date, status, fine_amount) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final Connection conn;
+    private final int batchSize;
+    private final boolean previousAutoCommit;
+    private PreparedStatement current;
+    private String currentSql;
+    private int pending;
+    private long inserted;
+
+    public JdbcDatasetSink(Connection conn, int batchSize) throws SQLException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser positivo");
+        }
+        this.conn = conn;
+        this.batchSize = batchSize;
+        this.previousAutoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+    }
+
+    /**
+     * Lee el mayor ID de cada tabla para generar las filas a continuación
+     */
+    public static DatasetGenerator.IdOffsets currentOffsets(Connection conn) throws SQLException {
+        return new DatasetGenerator.IdOffsets(maxId(conn, "books"), maxId(conn, "members"),
+                                              Math.max(maxId(conn, "loans"), maxId(conn, "loans_history")));
+    }
+
+    @Override
+    public void book(Book book) throws SQLException {
+        PreparedStatement stmt = statement(INSERT_BOOK);
+        stmt.setInt(1, book.getId());
+        stmt.setString(2, book.getIsbn());
+        stmt.setString(3, book.getTitle());
+        stmt.setString(4, book.getAuthor());
+        stmt.setString(5, book.getPublisher());
+        stmt.setDate(6, Date.valueOf(book.getPublicationDate()));
+        stmt.setString(7, book.getCategory());
+        stmt.setInt(8, book.getStock());
+        stmt.setInt(9, book.getAvailableStock());
+        stmt.setBoolean(10, book.isActive());
+        add(stmt);
+    }
+
+    @Override
+    public void member(Member member) throws SQLException {
+        PreparedStatement stmt = statement(INSERT_MEMBER);
+        stmt.setInt(1, member.getId());
+        stmt.setString(2, member.getMemberId());
+        stmt.setString(3, member.getFirstName());
+        stmt.setString(4, member.getLastName());
+        stmt.setString(5, member.getEmail());
+        stmt.setString(6, member.getPhone());
+        stmt.setString(7, member.getAddress());
+        stmt.setDate(8, Date.valueOf(member.getBirthDate()));
+        stmt.setDate(9, Date.valueOf(member.getRegistrationDate()));
+        stmt.setString(10, member.getMembershipType());
+        stmt.setBoolean(11, member.isActive());
+        stmt.setInt(12, member.getMaxLoans());
+        stmt.setInt(13, member.getCurrentLoans());
+        add(stmt);
+    }
+
+    @Override
+    public void loan(Loan loan) throws SQLException {
+        PreparedStatement stmt = statement(INSERT_LOAN);
+        stmt.setInt(1, loan.getId());
+        stmt.setString(2, loan.getLoanId());
+        stmt.setInt(3, loan.getBookId());
+        stmt.setInt(4, loan.getMemberId());
+        stmt.setInt(5, loan.getUserId());
+        stmt.setDate(6, Date.valueOf(loan.getLoanDate()));
+        stmt.setDate(7, Date.valueOf(loan.getDueDate()));
+        if (loan.getReturnDate() != null) {
+            stmt.setDate(8, Date.valueOf(loan.getReturnDate()));
+        } else {
+            stmt.setNull(8, Types.DATE);
+        }
+        stmt.setString(9, loan.getStatus());
+        stmt.setBigDecimal(10, loan.getFineAmount());
+        add(stmt);
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+            if (current != null) {
+                current.close();
+            }
+        } finally {
+            conn.setAutoCommit(previousAutoCommit);
+        }
+        logger.info("Dataset insertado por JDBC: " + inserted + " filas");
+    }
+
+    /**
+     * Sentencia de la tabla actual; al pasar a otra tabla se vacía el lote pendiente
+     */
+    private PreparedStatement statement(String sql) throws SQLException {
+        if (!sql.equals(currentSql)) {
+            flush();
+            if (current != null) {
+                current.close();
+            }
+            current = conn.prepareStatement(sql);
+            currentSql = sql;
+        }
+        return current;
+    }
+
+    private void add(PreparedStatement stmt) throws SQLException {
+        stmt.addBatch();
+        if (++pending >= batchSize) {
+            flush();
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (pending == 0) {
+            return;
+        }
+        try {
+            current.executeBatch();
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        }
+        inserted += pending;
+        pending = 0;
+    }
+
+    private static int maxId(Connection conn, String table) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+}
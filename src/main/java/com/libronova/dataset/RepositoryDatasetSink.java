@@ -0,0 +1,61 @@
+package com.libronova.dataset;
+
+import com.libronova.dao.BookRepository;
+import com.libronova.dao.LoanRepository;
+import com.libronova.dao.MemberRepository;
+import com.libronova.model.Book;
+import com.libronova.model.Loan;
+import com.libronova.model.Member;
+
+/**
+ * Inserta el dataset a través de los repositorios de la aplicación (JDBC o en memoria), fila a
+ * fila. Los IDs los asigna el repositorio, así que los préstamos se reescriben con los IDs reales
+ * de su libro y su miembro; pensado para datasets pequeños y para el backend en memoria.
+ * Generar con IdOffsets.NONE.
+ */
+public class RepositoryDatasetSink implements DatasetSink {
+    private final BookRepository books;
+    private final MemberRepository members;
+    private final LoanRepository loans;
+    private final int[] bookIds;
+    private final int[] memberIds;
+
+    public RepositoryDatasetSink(BookRepository books, MemberRepository members, LoanRepository loans,
+                                 int bookCount, int memberCount) {
+        this.books = books;
+        this.members = members;
+        this.loans = loans;
+        this.bookIds = new int[bookCount];
+        this.memberIds = new int[memberCount];
+    }
+
+    @Override
+    public void book(Book book) {
+        int generatedId = book.getId();
+        if (!books.create(book)) {
+            throw new IllegalStateException("No se pudo insertar el libro " + book.getIsbn());
+        }
+        bookIds[generatedId - 1] = book.getId();
+    }
+
+    @Override
+    public void member(Member member) {
+        int generatedId = member.getId();
+        if (!members.create(member)) {
+            throw new IllegalStateException("No se pudo insertar el miembro " + member.getMemberId());
+        }
+        memberIds[generatedId - 1] = member.getId();
+    }
+
+    @Override
+    public void loan(Loan loan) {
+        loan.setBookId(bookIds[loan.getBookId() - 1]);
+        loan.setMemberId(memberIds[loan.getMemberId() - 1]);
+        if (!loans.create(loan)) {
+            throw new IllegalStateException("No se pudo insertar el préstamo " + loan.getLoanId());
+        }
+    }
+
+    @Override
+    public void close() {}
+}
@@ -0,0 +1,44 @@
+package com.libronova.dataset;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Distribución de Zipf sobre los rangos 0..n-1: el rango k sale con probabilidad proporcional
+ * a 1/(k+1)^s. Precalcula la función de distribución acumulada, así que cada muestra es una
+ * búsqueda binaria (n = un millón ocupa 8 MB).
+ */
+public final class ZipfDistribution {
+    private final double[] cumulative;
+
+    public ZipfDistribution(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("La distribución de Zipf necesita al menos un elemento");
+        }
+        if (exponent < 0) {
+            throw new IllegalArgumentException("El exponente de Zipf no puede ser negativo");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+    }
+
+    /**
+     * Devuelve un rango entre 0 (el más frecuente) y n-1
+     */
+    public int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+}
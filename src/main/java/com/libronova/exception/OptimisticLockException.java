@@ -0,0 +1,15 @@
+package com.libronova.exception;
+
+/**
+ * Excepción lanzada cuando una fila cambió desde que se leyó (conflicto de versión)
+ */
+public class OptimisticLockException extends LibroNovaException {
+    
+    public OptimisticLockException(String message) {
+        super(message);
+    }
+    
+    public OptimisticLockException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
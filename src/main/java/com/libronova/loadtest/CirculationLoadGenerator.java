@@ -0,0 +1,435 @@
+package com.libronova.loadtest;
+
+import com.libronova.config.ApplicationContext;
+import com.libronova.dataset.DatasetGenerator;
+import com.libronova.dataset.RepositoryDatasetSink;
+import com.libronova.dataset.ZipfDistribution;
+import com.libronova.metrics.LatencyHistogram;
+import com.libronova.model.Book;
+import com.libronova.model.Loan;
+import com.libronova.model.Member;
+import com.libronova.service.BookService;
+import com.libronova.service.LoanService;
+import com.libronova.service.MemberService;
+import com.libronova.util.Logger;
+import com.libronova.util.VirtualThreads;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prueba de carga que simula N ventanillas de circulación atendiendo a la vez.
+ *
+ * Cada ventanilla repite préstamos, devoluciones, búsquedas de libros y consultas de miembros
+ * según la mezcla configurada, con un tiempo de espera exponencial entre operaciones. Los libros
+ * se eligen con popularidad de Zipf, así que varias ventanillas compiten por los mismos
+ * ejemplares igual que en temporada alta. Cada ventanilla corre en un hilo virtual si la JVM los
+ * ofrece (Java 21+) y en un hilo de plataforma si no.
+ */
+public class CirculationLoadGenerator {
+    private static final Logger logger = Logger.getInstance();
+    private static final int USER_ID = 1;
+    private static final int MAX_SEARCH_TERMS = 500;
+
+    /**
+     * Operaciones que realiza una ventanilla
+     */
+    public enum Operation {
+        CHECKOUT("Préstamo"),
+        RETURN("Devolución"),
+        SEARCH("Búsqueda"),
+        MEMBER_LOOKUP("Consulta miembro");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final BookService bookService;
+    private final MemberService memberService;
+    private final LoanService loanService;
+    private final int desks;
+    private final long thinkMillis;
+    private final int[] mix;
+    private final long seed;
+    private final double zipfExponent;
+
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private volatile boolean running;
+    private volatile boolean recording;
+
+    private int[] bookIds;
+    private ZipfDistribution popularity;
+    private Member[] members;
+    private String[] searchTerms;
+
+    /**
+     * @param mix pesos relativos de préstamo, devolución, búsqueda y consulta de miembro
+     */
+    public CirculationLoadGenerator(BookService bookService, MemberService memberService, LoanService loanService,
+                                    int desks, long thinkMillis, int[] mix, long seed, double zipfExponent) {
+        if (desks <= 0) {
+            throw new IllegalArgumentException("Se necesita al menos una ventanilla");
+        }
+        if (mix.length != Operation.values().length) {
+            throw new IllegalArgumentException("La mezcla debe tener " + Operation.values().length + " pesos");
+        }
+        this.bookService = bookService;
+        this.memberService = memberService;
+        this.loanService = loanService;
+        this.desks = desks;
+        this.thinkMillis = thinkMillis;
+        this.mix = mix.clone();
+        this.seed = seed;
+        this.zipfExponent = zipfExponent;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    /**
+     * Ejecuta la prueba: calentamiento sin medir y después duration midiendo
+     */
+    public Result run(Duration warmup, Duration duration) throws InterruptedException {
+        loadCatalog();
+        running = true;
+        ExecutorService executor = VirtualThreads.newPerTaskExecutor("Ventanillas", desks);
+        try {
+            for (int desk = 0; desk < desks; desk++) {
+                int deskNumber = desk;
+                executor.execute(() -> runDesk(deskNumber));
+            }
+            Thread.sleep(warmup.toMillis());
+            recording = true;
+            long start = System.nanoTime();
+            Thread.sleep(duration.toMillis());
+            recording = false;
+            long elapsed = System.nanoTime() - start;
+            return new Result(stats, elapsed, desks);
+        } finally {
+            running = false;
+            executor.shutdown();
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warning("Algunas ventanillas no terminaron a tiempo");
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Lee de los servicios los libros, miembros y términos de búsqueda sobre los que se opera
+     */
+    private void loadCatalog() {
+        List<Book> books = bookService.getAllBooks();
+        List<Member> allMembers = memberService.getAllMembers();
+        if (books.isEmpty() || allMembers.isEmpty()) {
+            throw new IllegalStateException("La prueba de carga necesita libros y miembros; use --seed-books/--seed-members");
+        }
+
+        bookIds = new int[books.size()];
+        Set<String> terms = new LinkedHashSet<>();
+        for (int i = 0; i < books.size(); i++) {
+            bookIds[i] = books.get(i).getId();
+            for (String word : books.get(i).getTitle().split("\\s+")) {
+                if (word.length() > 3 && terms.size() < MAX_SEARCH_TERMS) {
+                    terms.add(word);
+                }
+            }
+        }
+        // Orden de popularidad reproducible pero independiente del orden alfabético
+        SplittableRandom shuffle = new SplittableRandom(seed);
+        for (int i = bookIds.length - 1; i > 0; i--) {
+            int j = shuffle.nextInt(i + 1);
+            int swap = bookIds[i];
+            bookIds[i] = bookIds[j];
+            bookIds[j] = swap;
+        }
+        popularity = new ZipfDistribution(bookIds.length, zipfExponent);
+        members = allMembers.toArray(new Member[0]);
+        searchTerms = terms.isEmpty() ? new String[] { "a" } : terms.toArray(new String[0]);
+        logger.info("Prueba de carga: " + bookIds.length + " libros, " + members.length + " miembros, " +
+                    desks + " ventanillas");
+    }
+
+    private void runDesk(int desk) {
+        SplittableRandom random = new SplittableRandom(seed * 31 + desk);
+        ArrayDeque<Integer> borrowers = new ArrayDeque<>();
+        while (running) {
+            Operation operation = pickOperation(random);
+            if (operation == Operation.RETURN && borrowers.isEmpty()) {
+                operation = Operation.CHECKOUT;
+            }
+            long start = System.nanoTime();
+            try {
+                execute(operation, random, borrowers);
+                if (recording) {
+                    stats.get(operation).success(System.nanoTime() - start);
+                }
+            } catch (Exception e) {
+                if (recording) {
+                    stats.get(operation).failure(System.nanoTime() - start, e);
+                }
+            }
+            think(random);
+        }
+    }
+
+    private void execute(Operation operation, SplittableRandom random, ArrayDeque<Integer> borrowers) throws Exception {
+        switch (operation) {
+            case CHECKOUT: {
+                Member member = members[random.nextInt(members.length)];
+                loanService.createLoan(bookIds[popularity.sample(random)], member.getId(), USER_ID);
+                borrowers.add(member.getId());
+                break;
+            }
+            case RETURN: {
+                // El socio vuelve a la ventanilla y devuelve el préstamo que vence antes
+                List<Loan> active = loanService.getActiveLoansByMember(borrowers.poll());
+                if (!active.isEmpty()) {
+                    loanService.returnBook(active.get(0).getId());
+                }
+                break;
+            }
+            case SEARCH:
+                bookService.searchBooks(searchTerms[random.nextInt(searchTerms.length)]);
+                break;
+            case MEMBER_LOOKUP: {
+                Member member = memberService.findMemberByMemberId(members[random.nextInt(members.length)].getMemberId());
+                loanService.getActiveLoansByMember(member.getId());
+                break;
+            }
+            default:
+                throw new IllegalStateException("Operación desconocida: " + operation);
+        }
+    }
+
+    private Operation pickOperation(SplittableRandom random) {
+        int total = 0;
+        for (int weight : mix) {
+            total += weight;
+        }
+        int draw = random.nextInt(total);
+        Operation[] operations = Operation.values();
+        for (int i = 0; i < operations.length; i++) {
+            draw -= mix[i];
+            if (draw < 0) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    /**
+     * Espera exponencial con media thinkMillis, como llegadas de público independientes
+     */
+    private void think(SplittableRandom random) {
+        if (thinkMillis <= 0) {
+            return;
+        }
+        long pause = (long) (-thinkMillis * Math.log(1 - random.nextDouble()));
+        try {
+            Thread.sleep(pause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    /**
+     * Latencias y errores de una operación; los errores se cuentan por tipo de excepción
+     */
+    static final class OperationStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final ConcurrentHashMap<String, LongAdder> errorsByType = new ConcurrentHashMap<>();
+
+        void success(long nanos) {
+            latency.record(nanos);
+        }
+
+        void failure(long nanos, Exception e) {
+            latency.record(nanos);
+            errors.increment();
+            errorsByType.computeIfAbsent(e.getClass().getSimpleName(), key -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Resultado de una ejecución
+     */
+    public static final class Result {
+        private final Map<Operation, OperationStats> stats;
+        private final long elapsedNanos;
+        private final int desks;
+
+        Result(Map<Operation, OperationStats> stats, long elapsedNanos, int desks) {
+            this.stats = stats;
+            this.elapsedNanos = elapsedNanos;
+            this.desks = desks;
+        }
+
+        public long getCount(Operation operation) {
+            return stats.get(operation).latency.getCount();
+        }
+
+        public long getErrors(Operation operation) {
+            return stats.get(operation).errors.sum();
+        }
+
+        public long getTotalCount() {
+            long total = 0;
+            for (Operation operation : Operation.values()) {
+                total += getCount(operation);
+            }
+            return total;
+        }
+
+        public double getThroughput() {
+            return getTotalCount() / (elapsedNanos / 1e9);
+        }
+
+        /**
+         * Percentil de latencia en milisegundos de una operación
+         */
+        public double getLatencyMillis(Operation operation, double percentile) {
+            return stats.get(operation).latency.getValueAtPercentile(percentile) / 1e6;
+        }
+
+        /**
+         * Errores por tipo de excepción de una operación
+         */
+        public Map<String, Long> getErrorsByType(Operation operation) {
+            Map<String, Long> result = new TreeMap<>();
+            stats.get(operation).errorsByType.forEach((type, count) -> result.put(type, count.sum()));
+            return result;
+        }
+
+        /**
+         * Tabla de resultados para la consola
+         */
+        public String format() {
+            StringBuilder report = new StringBuilder();
+            report.append(String.format("%d ventanillas, %.1f s medidos, %.1f ops/s en total%n",
+                                        desks, elapsedNanos / 1e9, getThroughput()));
+            report.append(String.format("%-17s %9s %9s %8s %9s %9s %9s %9s%n",
+                                        "Operación", "Total", "ops/s", "Error %", "p50 ms", "p99 ms", "p999 ms", "máx ms"));
+            LatencyHistogram all = new LatencyHistogram();
+            for (Operation operation : Operation.values()) {
+                OperationStats operationStats = stats.get(operation);
+                all.add(operationStats.latency);
+                appendRow(report, operation.getLabel(), operationStats.latency, getErrors(operation));
+            }
+            long totalErrors = 0;
+            for (Operation operation : Operation.values()) {
+                totalErrors += getErrors(operation);
+            }
+            appendRow(report, "Total", all, totalErrors);
+
+            for (Operation operation : Operation.values()) {
+                Map<String, Long> errors = getErrorsByType(operation);
+                if (!errors.isEmpty()) {
+                    report.append("Errores en ").append(operation.getLabel()).append(": ").append(errors)
+                          .append(System.lineSeparator());
+                }
+            }
+            return report.toString();
+        }
+
+        private void appendRow(StringBuilder report, String label, LatencyHistogram latency, long errors) {
+            long count = latency.getCount();
+            report.append(String.format("%-17s %9d %9.1f %8.2f %9.2f %9.2f %9.2f %9.2f%n",
+                                        label, count, count / (elapsedNanos / 1e9),
+                                        count == 0 ? 0.0 : 100.0 * errors / count,
+                                        latency.getValueAtPercentile(50) / 1e6,
+                                        latency.getValueAtPercentile(99) / 1e6,
+                                        latency.getValueAtPercentile(99.9) / 1e6,
+                                        latency.getMax() / 1e6));
+        }
+    }
+
+    /**
+     * Uso: CirculationLoadGenerator [--desks N] [--duration S] [--warmup S] [--think-ms MS]
+     *      [--mix P,D,B,C] [--seed S] [--zipf S] [--quiet]
+     *      [--seed-books N --seed-members N --seed-loans N]
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                usage("Argumento inesperado: " + args[i]);
+            }
+            boolean flag = i + 1 >= args.length || args[i + 1].startsWith("--");
+            options.put(args[i].substring(2), flag ? "true" : args[++i]);
+        }
+
+        String[] weights = options.getOrDefault("mix", "30,25,30,15").split(",");
+        if (weights.length != Operation.values().length) {
+            usage("--mix necesita " + Operation.values().length + " pesos: préstamo,devolución,búsqueda,consulta");
+        }
+        int[] mix = new int[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            mix[i] = Integer.parseInt(weights[i].trim());
+        }
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        PrintStream console = System.out;
+        if (options.containsKey("quiet")) {
+            // El Logger escribe cada operación en consola; con --quiet solo queda en app.log
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+
+        ApplicationContext context = ApplicationContext.getInstance();
+        context.registerManagementBeans();
+        if (options.containsKey("seed-books")) {
+            int books = Integer.parseInt(options.get("seed-books"));
+            int seededMembers = Integer.parseInt(options.getOrDefault("seed-members", String.valueOf(Math.max(1, books / 5))));
+            int loans = Integer.parseInt(options.getOrDefault("seed-loans", "0"));
+            try (RepositoryDatasetSink sink = new RepositoryDatasetSink(context.getBookDAO(), context.getMemberDAO(),
+                                                                        context.getLoanDAO(), books, seededMembers)) {
+                new DatasetGenerator(seed, books, seededMembers, loans, LocalDate.now()).generate(sink);
+            }
+        }
+
+        CirculationLoadGenerator generator = new CirculationLoadGenerator(
+            context.getBookService(), context.getMemberService(), context.getLoanService(),
+            Integer.parseInt(options.getOrDefault("desks", "20")),
+            Long.parseLong(options.getOrDefault("think-ms", "500")),
+            mix, seed,
+            Double.parseDouble(options.getOrDefault("zipf", String.valueOf(DatasetGenerator.DEFAULT_ZIPF_EXPONENT))));
+        Result result = generator.run(Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10"))),
+                                      Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60"))));
+        console.print(result.format());
+        if (!context.isInMemory()) {
+            console.println();
+            console.print(context.getDaoMetrics().format());
+        }
+    }
+
+    private static void usage(String message) {
+        System.err.println(message);
+        System.err.println("Uso: CirculationLoadGenerator [--desks N] [--duration S] [--warmup S] [--think-ms MS] " +
+                           "[--mix P,D,B,C] [--seed S] [--zipf S] [--quiet] " +
+                           "[--seed-books N --seed-members N --seed-loans N]");
+        System.exit(2);
+    }
+}
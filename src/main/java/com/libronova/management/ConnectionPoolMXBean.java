@@ -0,0 +1,47 @@
+package com.libronova.management;
+
+/**
+ * Estado del pool de conexiones (com.libronova:type=ConnectionPool)
+ */
+public interface ConnectionPoolMXBean {
+
+    int getActiveConnections();
+
+    int getIdleConnections();
+
+    /**
+     * Hilos esperando una conexión libre
+     */
+    int getWaiters();
+
+    int getMaxSize();
+
+    /**
+     * Cambia el tamaño máximo del pool en caliente
+     */
+    void setMaxSize(int maxSize);
+
+    long getBorrowTimeoutMillis();
+
+    void setBorrowTimeoutMillis(long timeoutMillis);
+
+    /**
+     * Préstamos que agotaron la espera sin conseguir conexión
+     */
+    long getBorrowTimeouts();
+
+    long getConnectionsOpened();
+
+    /**
+     * Conexiones libres descartadas porque no respondieron a isValid()
+     */
+    long getConnectionsDiscarded();
+
+    long getBorrowCount();
+
+    double getBorrowTimeMeanMillis();
+
+    double getBorrowTimeP99Millis();
+
+    double getBorrowTimeMaxMillis();
+}
@@ -0,0 +1,84 @@
+package com.libronova.management;
+
+import com.libronova.config.ConnectionPool;
+
+/**
+ * Expone un ConnectionPool por JMX
+ */
+public class ConnectionPoolMonitor implements ConnectionPoolMXBean {
+    private final ConnectionPool pool;
+
+    public ConnectionPoolMonitor(ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public int getActiveConnections() {
+        return pool.getActive();
+    }
+
+    @Override
+    public int getIdleConnections() {
+        return pool.getIdle();
+    }
+
+    @Override
+    public int getWaiters() {
+        return pool.getWaiting();
+    }
+
+    @Override
+    public int getMaxSize() {
+        return pool.getMaxSize();
+    }
+
+    @Override
+    public void setMaxSize(int maxSize) {
+        pool.setMaxSize(maxSize);
+    }
+
+    @Override
+    public long getBorrowTimeoutMillis() {
+        return pool.getTimeoutMillis();
+    }
+
+    @Override
+    public void setBorrowTimeoutMillis(long timeoutMillis) {
+        pool.setTimeoutMillis(timeoutMillis);
+    }
+
+    @Override
+    public long getBorrowTimeouts() {
+        return pool.getTimeouts();
+    }
+
+    @Override
+    public long getConnectionsOpened() {
+        return pool.getOpened();
+    }
+
+    @Override
+    public long getConnectionsDiscarded() {
+        return pool.getDiscarded();
+    }
+
+    @Override
+    public long getBorrowCount() {
+        return pool.getBorrowTime().getCount();
+    }
+
+    @Override
+    public double getBorrowTimeMeanMillis() {
+        return pool.getBorrowTime().getMean() / 1_000_000.0;
+    }
+
+    @Override
+    public double getBorrowTimeP99Millis() {
+        return pool.getBorrowTime().getValueAtPercentile(99) / 1_000_000.0;
+    }
+
+    @Override
+    public double getBorrowTimeMaxMillis() {
+        return pool.getBorrowTime().getMax() / 1_000_000.0;
+    }
+}
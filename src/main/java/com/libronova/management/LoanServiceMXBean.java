@@ -0,0 +1,25 @@
+package com.libronova.management;
+
+/**
+ * Ritmo de préstamos y devoluciones (com.libronova:type=LoanService)
+ */
+public interface LoanServiceMXBean {
+
+    long getCheckouts();
+
+    long getReturns();
+
+    /**
+     * Préstamos por segundo en los últimos 10 segundos
+     */
+    double getCheckoutsPerSecond();
+
+    /**
+     * Devoluciones por segundo en los últimos 10 segundos
+     */
+    double getReturnsPerSecond();
+
+    double getCheckoutsPerSecondLastMinute();
+
+    double getReturnsPerSecondLastMinute();
+}
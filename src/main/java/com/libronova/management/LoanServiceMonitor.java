@@ -0,0 +1,50 @@
+package com.libronova.management;
+
+import com.libronova.service.LoanService;
+
+import java.util.function.Supplier;
+
+/**
+ * Expone por JMX los contadores de LoanService; el servicio se obtiene en cada lectura para no
+ * crearlo al registrar el bean
+ */
+public class LoanServiceMonitor implements LoanServiceMXBean {
+    private static final int SHORT_WINDOW_SECONDS = 10;
+    private static final int LONG_WINDOW_SECONDS = 60;
+
+    private final Supplier<LoanService> loanService;
+
+    public LoanServiceMonitor(Supplier<LoanService> loanService) {
+        this.loanService = loanService;
+    }
+
+    @Override
+    public long getCheckouts() {
+        return loanService.get().getCheckoutMeter().getCount();
+    }
+
+    @Override
+    public long getReturns() {
+        return loanService.get().getReturnMeter().getCount();
+    }
+
+    @Override
+    public double getCheckoutsPerSecond() {
+        return loanService.get().getCheckoutMeter().getRatePerSecond(SHORT_WINDOW_SECONDS);
+    }
+
+    @Override
+    public double getReturnsPerSecond() {
+        return loanService.get().getReturnMeter().getRatePerSecond(SHORT_WINDOW_SECONDS);
+    }
+
+    @Override
+    public double getCheckoutsPerSecondLastMinute() {
+        return loanService.get().getCheckoutMeter().getRatePerSecond(LONG_WINDOW_SECONDS);
+    }
+
+    @Override
+    public double getReturnsPerSecondLastMinute() {
+        return loanService.get().getReturnMeter().getRatePerSecond(LONG_WINDOW_SECONDS);
+    }
+}
@@ -0,0 +1,20 @@
+package com.libronova.management;
+
+/**
+ * Actividad del log de la aplicación (com.libronova:type=Logger)
+ */
+public interface LoggerMXBean {
+
+    /**
+     * Hilos escribiendo o esperando para escribir en el log
+     */
+    int getPendingWrites();
+
+    long getInfoCount();
+
+    long getWarningCount();
+
+    long getErrorCount();
+
+    long getDebugCount();
+}
@@ -0,0 +1,39 @@
+package com.libronova.management;
+
+import com.libronova.util.Logger;
+
+/**
+ * Expone el Logger por JMX
+ */
+public class LoggerMonitor implements LoggerMXBean {
+    private final Logger logger;
+
+    public LoggerMonitor(Logger logger) {
+        this.logger = logger;
+    }
+
+    @Override
+    public int getPendingWrites() {
+        return logger.getPendingWrites();
+    }
+
+    @Override
+    public long getInfoCount() {
+        return logger.getCount("INFO");
+    }
+
+    @Override
+    public long getWarningCount() {
+        return logger.getCount("WARNING");
+    }
+
+    @Override
+    public long getErrorCount() {
+        return logger.getCount("ERROR");
+    }
+
+    @Override
+    public long getDebugCount() {
+        return logger.getCount("DEBUG");
+    }
+}
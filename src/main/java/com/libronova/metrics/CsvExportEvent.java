@@ -0,0 +1,32 @@
+package com.libronova.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR por cada exportación CSV
+ */
+@Name("com.libronova.CsvExport")
+@Label("Exportación CSV")
+@Category({"LibroNova", "Informes"})
+public class CsvExportEvent extends Event {
+
+    @Label("Informe")
+    public String report;
+
+    @Label("Archivo")
+    public String path;
+
+    @Label("Filas")
+    public long rows;
+
+    @Label("Tamaño")
+    @DataAmount
+    public long bytes;
+
+    @Label("Correcta")
+    public boolean succeeded;
+}
@@ -0,0 +1,190 @@
+package com.libronova.metrics;
+
+import com.libronova.util.Logger;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencias, filas y errores por método de los repositorios.
+ *
+ * Cada operación (por ejemplo "BookDAO.findByIsbn") tiene su propio LatencyHistogram y sus
+ * contadores; registrar no toma ningún bloqueo, así que el coste por llamada es de unos pocos
+ * incrementos atómicos. Los DAO capturan las SQLException y devuelven null, false o una lista
+ * vacía, por lo que marcan el error con markFailed() para que quien mide la llamada lo cuente.
+ */
+public class DaoMetrics {
+    private static final Logger logger = Logger.getInstance();
+    private static final ThreadLocal<boolean[]> FAILED = ThreadLocal.withInitial(() -> new boolean[1]);
+    private static final ThreadLocal<long[]> FAILURE_COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final ConcurrentHashMap<String, OperationStats> operations = new ConcurrentHashMap<>();
+    private ScheduledExecutorService dumper;
+
+    /**
+     * Marca como fallida la operación en curso en este hilo
+     */
+    public static void markFailed() {
+        FAILED.get()[0] = true;
+        FAILURE_COUNT.get()[0]++;
+    }
+
+    /**
+     * Limpia la marca de error del hilo antes de medir una operación
+     */
+    public static void clearFailed() {
+        FAILED.get()[0] = false;
+    }
+
+    /**
+     * Devuelve y limpia la marca de error del hilo
+     */
+    public static boolean consumeFailed() {
+        boolean[] flag = FAILED.get();
+        boolean failed = flag[0];
+        flag[0] = false;
+        return failed;
+    }
+
+    /**
+     * Operaciones marcadas como fallidas en este hilo desde que arrancó. A diferencia de la marca
+     * de consumeFailed(), nadie la limpia: una tarea larga compara el valor antes y después para
+     * saber si algún DAO se tragó un error por el camino
+     */
+    public static long failureCount() {
+        return FAILURE_COUNT.get()[0];
+    }
+
+    /**
+     * Registra una ejecución de la operación
+     *
+     * @param rows filas devueltas o afectadas; negativo si no aplica
+     */
+    public void record(String operation, long nanos, long rows, boolean failed) {
+        OperationStats stats = operations.get(operation);
+        if (stats == null) {
+            stats = operations.computeIfAbsent(operation, key -> new OperationStats());
+        }
+        stats.latency.record(nanos);
+        if (rows > 0) {
+            stats.rows.add(rows);
+        }
+        if (failed) {
+            stats.errors.increment();
+        }
+    }
+
+    /**
+     * Publica bajo el nombre indicado un histograma que mantiene otro componente (por ejemplo,
+     * la espera del pool de conexiones), para que aparezca en la misma tabla
+     */
+    public void register(String operation, LatencyHistogram latency) {
+        operations.putIfAbsent(operation, new OperationStats(latency));
+    }
+
+    /**
+     * Estadísticas de una operación, o null si aún no se ha ejecutado
+     */
+    public OperationStats get(String operation) {
+        return operations.get(operation);
+    }
+
+    /**
+     * Estadísticas de todas las operaciones ejecutadas, ordenadas por nombre
+     */
+    public Map<String, OperationStats> getAll() {
+        return new TreeMap<>(operations);
+    }
+
+    /**
+     * Tabla con llamadas, errores, filas y percentiles (ms) de cada operación
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-40s %9s %7s %10s %9s %9s %9s %9s%n",
+                "Operación", "Llamadas", "Errores", "Filas", "p50", "p99", "p99.9", "Máx"));
+        for (Map.Entry<String, OperationStats> entry : getAll().entrySet()) {
+            OperationStats stats = entry.getValue();
+            LatencyHistogram latency = stats.getLatency();
+            sb.append(String.format("%-40s %9d %7d %10d %9.3f %9.3f %9.3f %9.3f%n",
+                    entry.getKey(), stats.getCalls(), stats.getErrors(), stats.getRows(),
+                    millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(99)),
+                    millis(latency.getValueAtPercentile(99.9)), millis(latency.getMax())));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Vuelca la tabla al log periódicamente en un hilo de fondo
+     */
+    public synchronized void startPeriodicDump(long intervalSeconds) {
+        if (dumper != null || intervalSeconds <= 0) {
+            return;
+        }
+        dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "libronova-metrics-dao-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleWithFixedDelay(this::dump, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        logger.info("Volcado de métricas de repositorios cada " + intervalSeconds + " segundos");
+    }
+
+    /**
+     * Detiene el volcado periódico
+     */
+    public synchronized void stopPeriodicDump() {
+        if (dumper != null) {
+            dumper.shutdownNow();
+            dumper = null;
+        }
+    }
+
+    private void dump() {
+        if (!operations.isEmpty()) {
+            logger.info("Métricas de repositorios:\n" + format());
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Latencia y contadores acumulados de una operación
+     */
+    public static class OperationStats {
+        private final LatencyHistogram latency;
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        OperationStats() {
+            this(new LatencyHistogram());
+        }
+
+        OperationStats(LatencyHistogram latency) {
+            this.latency = latency;
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getCalls() {
+            return latency.getCount();
+        }
+
+        public long getRows() {
+            return rows.sum();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+    }
+}
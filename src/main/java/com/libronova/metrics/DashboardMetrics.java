@@ -0,0 +1,243 @@
+package com.libronova.metrics;
+
+import com.libronova.model.LoanStatistics;
+import com.libronova.util.Logger;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Contadores en memoria para el panel en vivo.
+ *
+ * Se siembran una vez con consultas agregadas y después se actualizan con cada préstamo,
+ * devolución, barrido de vencidos y recálculo de multas mediante LongAdder, sin bloqueos ni consultas por refresco.
+ * Una reconciliación periódica corrige cualquier desviación frente a la base de datos
+ * (por ejemplo, cambios hechos por otra instancia o por procedimientos almacenados).
+ */
+public class DashboardMetrics {
+    private static final Logger logger = Logger.getInstance();
+
+    private final Supplier<LoanStatistics> loanStatisticsSource;
+    private final Supplier<Map<String, Long>> availabilitySource;
+    private final IntFunction<String> categoryResolver;
+
+    private final LongAdder activeLoans = new LongAdder();
+    private final LongAdder overdueLoans = new LongAdder();
+    private final LongAdder finesOutstandingCents = new LongAdder();
+    private final ConcurrentHashMap<String, LongAdder> availableByCategory = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, String> categoryByBook = new ConcurrentHashMap<>();
+
+    private volatile boolean seeded;
+    private volatile LocalDateTime lastReconciledAt;
+    private ScheduledExecutorService reconciler;
+
+    /**
+     * @param loanStatisticsSource consulta agregada de préstamos
+     * @param availabilitySource   ejemplares disponibles por categoría
+     * @param categoryResolver     categoría de un libro a partir de su ID (se cachea)
+     */
+    public DashboardMetrics(Supplier<LoanStatistics> loanStatisticsSource,
+                            Supplier<Map<String, Long>> availabilitySource,
+                            IntFunction<String> categoryResolver) {
+        this.loanStatisticsSource = loanStatisticsSource;
+        this.availabilitySource = availabilitySource;
+        this.categoryResolver = categoryResolver;
+    }
+
+    /**
+     * Registra un préstamo nuevo
+     */
+    public void onLoanCreated(int bookId) {
+        if (!seeded) {
+            return; // La siembra leerá el estado ya confirmado en la base de datos
+        }
+        activeLoans.increment();
+        adjustAvailable(bookId, -1);
+    }
+
+    /**
+     * Registra una devolución
+     */
+    public void onLoanReturned(int bookId, boolean wasOverdue, BigDecimal previousFine) {
+        if (!seeded) {
+            return;
+        }
+        if (wasOverdue) {
+            overdueLoans.decrement();
+        } else {
+            activeLoans.decrement();
+        }
+        if (previousFine != null) {
+            finesOutstandingCents.add(-toCents(previousFine));
+        }
+        adjustAvailable(bookId, 1);
+    }
+
+    /**
+     * Registra el cambio de la multa de un préstamo vencido al recalcularla
+     */
+    public void onFineChanged(BigDecimal delta) {
+        if (!seeded) {
+            return;
+        }
+        finesOutstandingCents.add(toCents(delta));
+    }
+
+    /**
+     * Registra préstamos activos que el barrido marcó como vencidos
+     */
+    public void onLoansMarkedOverdue(int count) {
+        if (!seeded) {
+            return;
+        }
+        activeLoans.add(-count);
+        overdueLoans.add(count);
+    }
+
+    /**
+     * Devuelve una instantánea de los contadores, sembrándolos en el primer uso
+     */
+    public Snapshot snapshot() {
+        if (!seeded) {
+            synchronized (this) {
+                if (!seeded) {
+                    reconcile();
+                }
+            }
+        }
+        Map<String, Long> available = new TreeMap<>();
+        availableByCategory.forEach((category, adder) -> available.put(category, adder.sum()));
+        return new Snapshot(activeLoans.sum(), overdueLoans.sum(),
+                BigDecimal.valueOf(finesOutstandingCents.sum(), 2), available, lastReconciledAt);
+    }
+
+    /**
+     * Ajusta los contadores a los valores actuales de la base de datos.
+     *
+     * Se suma la diferencia en lugar de reiniciar, de modo que las actualizaciones concurrentes
+     * no se pierden; una carrera puntual queda corregida en la siguiente reconciliación.
+     */
+    public synchronized void reconcile() {
+        try {
+            LoanStatistics statistics = loanStatisticsSource.get();
+            Map<String, Long> available = availabilitySource.get();
+            if (statistics == null || available == null) {
+                logger.warning("No se pudieron reconciliar las métricas del panel");
+                return;
+            }
+
+            align(activeLoans, statistics.getActiveLoans());
+            align(overdueLoans, statistics.getOverdueLoans());
+            align(finesOutstandingCents, toCents(statistics.getFinesOutstanding()));
+
+            availableByCategory.keySet().retainAll(available.keySet());
+            available.forEach((category, count) ->
+                align(availableByCategory.computeIfAbsent(category, key -> new LongAdder()), count));
+
+            categoryByBook.clear(); // Recoger cambios de categoría de los libros
+            seeded = true;
+            lastReconciledAt = LocalDateTime.now();
+        } catch (Exception e) {
+            logger.error("Error al reconciliar métricas del panel: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Inicia la reconciliación periódica en un hilo de fondo
+     */
+    public synchronized void startReconciliation(long intervalSeconds) {
+        if (reconciler != null || intervalSeconds <= 0) {
+            return;
+        }
+        reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "libronova-metrics-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reconciler.scheduleWithFixedDelay(this::reconcile, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        logger.info("Reconciliación de métricas cada " + intervalSeconds + " segundos");
+    }
+
+    /**
+     * Detiene la reconciliación periódica
+     */
+    public synchronized void stopReconciliation() {
+        if (reconciler != null) {
+            reconciler.shutdownNow();
+            reconciler = null;
+        }
+    }
+
+    private void adjustAvailable(int bookId, int delta) {
+        String category = categoryByBook.get(bookId);
+        if (category == null) {
+            // Se resuelve fuera de computeIfAbsent para no bloquear el mapa durante la consulta
+            category = categoryResolver.apply(bookId);
+            if (category != null) {
+                categoryByBook.putIfAbsent(bookId, category);
+            }
+        }
+        if (category != null) {
+            availableByCategory.computeIfAbsent(category, key -> new LongAdder()).add(delta);
+        }
+    }
+
+    private static void align(LongAdder adder, long target) {
+        adder.add(target - adder.sum());
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    /**
+     * Instantánea inmutable de los contadores del panel
+     */
+    public static class Snapshot {
+        private final long activeLoans;
+        private final long overdueLoans;
+        private final BigDecimal finesOutstanding;
+        private final Map<String, Long> availableByCategory;
+        private final LocalDateTime lastReconciledAt;
+
+        public Snapshot(long activeLoans, long overdueLoans, BigDecimal finesOutstanding,
+                        Map<String, Long> availableByCategory, LocalDateTime lastReconciledAt) {
+            this.activeLoans = activeLoans;
+            this.overdueLoans = overdueLoans;
+            this.finesOutstanding = finesOutstanding;
+            this.availableByCategory = Collections.unmodifiableMap(availableByCategory);
+            this.lastReconciledAt = lastReconciledAt;
+        }
+
+        public long getActiveLoans() {
+            return activeLoans;
+        }
+
+        public long getOverdueLoans() {
+            return overdueLoans;
+        }
+
+        public BigDecimal getFinesOutstanding() {
+            return finesOutstanding;
+        }
+
+        public Map<String, Long> getAvailableByCategory() {
+            return availableByCategory;
+        }
+
+        public LocalDateTime getLastReconciledAt() {
+            return lastReconciledAt;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.libronova.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR por cada préstamo o devolución de LoanService
+ */
+@Name("com.libronova.LoanOperation")
+@Label("Operación de préstamo")
+@Category({"LibroNova", "Préstamos"})
+public class LoanOperationEvent extends Event {
+
+    @Label("Operación")
+    public String operation;
+
+    @Label("Préstamo")
+    public String loanId;
+
+    @Label("ID de libro")
+    public int bookId;
+
+    @Label("ID de miembro")
+    public int memberId;
+
+    @Label("Resultado")
+    public String outcome;
+}
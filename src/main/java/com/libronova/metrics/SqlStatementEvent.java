@@ -0,0 +1,30 @@
+package com.libronova.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR por cada ejecución de una sentencia preparada de los DAO.
+ *
+ * La duración abarca la ejecución y, en las consultas, la lectura del ResultSet hasta cerrarlo.
+ */
+@Name("com.libronova.SqlStatement")
+@Label("Sentencia SQL")
+@Category({"LibroNova", "Base de datos"})
+@Description("Ejecución de una sentencia de un DAO")
+public class SqlStatementEvent extends Event {
+
+    @Label("Sentencia")
+    @Description("Constante SQL del DAO, por ejemplo LoanDAO.SEARCH_LOANS")
+    public String sqlId;
+
+    @Label("Filas")
+    @Description("Filas leídas o afectadas")
+    public long rows;
+
+    @Label("Fallida")
+    public boolean failed;
+}
@@ -0,0 +1,59 @@
+package com.libronova.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cuenta eventos y calcula su ritmo por segundo sobre una ventana deslizante de hasta 60 s.
+ *
+ * Cada segundo tiene su casilla en un anillo; al entrar en un segundo nuevo la casilla se
+ * reinicia con un compareAndSet, así que registrar no toma bloqueos. Si dos hilos cruzan el
+ * cambio de segundo a la vez puede perderse algún evento de la ventana (nunca del total).
+ */
+public class ThroughputMeter {
+    private static final int SLOTS = 61;
+    private static final int MAX_WINDOW_SECONDS = SLOTS - 1;
+
+    private final LongAdder total = new LongAdder();
+    private final AtomicLongArray seconds = new AtomicLongArray(SLOTS);
+    private final AtomicLongArray counts = new AtomicLongArray(SLOTS);
+
+    /**
+     * Registra un evento
+     */
+    public void mark() {
+        total.increment();
+        long second = System.currentTimeMillis() / 1000;
+        int slot = (int) (second % SLOTS);
+        long stamp = seconds.get(slot);
+        if (stamp != second && seconds.compareAndSet(slot, stamp, second)) {
+            counts.set(slot, 0);
+        }
+        counts.incrementAndGet(slot);
+    }
+
+    /**
+     * Eventos registrados desde la creación
+     */
+    public long getCount() {
+        return total.sum();
+    }
+
+    /**
+     * Media de eventos por segundo en los últimos segundos completos (1-60); el segundo en curso
+     * no cuenta porque aún está a medias
+     */
+    public double getRatePerSecond(int windowSeconds) {
+        int window = Math.max(1, Math.min(windowSeconds, MAX_WINDOW_SECONDS));
+        long now = System.currentTimeMillis() / 1000;
+        long events = 0;
+        for (int i = 1; i <= window; i++) {
+            long second = now - i;
+            int slot = (int) (second % SLOTS);
+            if (seconds.get(slot) == second) {
+                events += counts.get(slot);
+            }
+        }
+        return (double) events / window;
+    }
+}
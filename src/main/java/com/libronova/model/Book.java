@@ -16,6 +16,7 @@ public class Book {
     private int stock;
     private int availableStock;
     private boolean active;
+    private int version; // Control de concurrencia optimista
 
     // Constructores
     public Book() {}
@@ -33,6 +34,23 @@ public class Book {
         this.active = true;
     }
 
+    /**
+     * Crea una copia independiente de otro libro
+     */
+    public Book(Book other) {
+        this.id = other.id;
+        this.isbn = other.isbn;
+        this.title = other.title;
+        this.author = other.author;
+        this.publisher = other.publisher;
+        this.publicationDate = other.publicationDate;
+        this.category = other.category;
+        this.stock = other.stock;
+        this.availableStock = other.availableStock;
+        this.active = other.active;
+        this.version = other.version;
+    }
+
     // Getters y Setters
     public int getId() {
         return id;
@@ -114,6 +132,14 @@ public class Book {
         this.active = active;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     /**
      * Verifica si hay stock disponible para préstamo
      */
@@ -21,6 +21,7 @@ public class Loan {
     private String notes;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private int version; // Control de concurrencia optimista
 
     // Constructores
     public Loan() {}
@@ -39,6 +40,26 @@ public class Loan {
         this.updatedAt = LocalDateTime.now();
     }
 
+    /**
+     * Crea una copia independiente de otro préstamo
+     */
+    public Loan(Loan other) {
+        this.id = other.id;
+        this.loanId = other.loanId;
+        this.bookId = other.bookId;
+        this.memberId = other.memberId;
+        this.userId = other.userId;
+        this.loanDate = other.loanDate;
+        this.dueDate = other.dueDate;
+        this.returnDate = other.returnDate;
+        this.status = other.status;
+        this.fineAmount = other.fineAmount;
+        this.notes = other.notes;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.version = other.version;
+    }
+
     // Getters y Setters
     public int getId() {
         return id;
@@ -144,6 +165,14 @@ public class Loan {
         this.updatedAt = updatedAt;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     /**
      * Verifica si el préstamo está activo
      */
@@ -0,0 +1,97 @@
+package com.libronova.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Estadísticas agregadas de préstamos calculadas en la base de datos
+ */
+public class LoanStatistics {
+    private long activeLoans;
+    private long overdueLoans;
+    private long returnedLoans;
+    private BigDecimal finesOutstanding = BigDecimal.ZERO;
+    private final Map<String, Long> openLoansByCategory = new TreeMap<>();
+    private final Map<String, Long> openLoansByMembershipType = new TreeMap<>();
+    private LocalDateTime generatedAt = LocalDateTime.now();
+
+    // Getters y Setters
+    public long getActiveLoans() {
+        return activeLoans;
+    }
+
+    public void setActiveLoans(long activeLoans) {
+        this.activeLoans = activeLoans;
+    }
+
+    public long getOverdueLoans() {
+        return overdueLoans;
+    }
+
+    public void setOverdueLoans(long overdueLoans) {
+        this.overdueLoans = overdueLoans;
+    }
+
+    public long getReturnedLoans() {
+        return returnedLoans;
+    }
+
+    public void setReturnedLoans(long returnedLoans) {
+        this.returnedLoans = returnedLoans;
+    }
+
+    public BigDecimal getFinesOutstanding() {
+        return finesOutstanding;
+    }
+
+    public void setFinesOutstanding(BigDecimal finesOutstanding) {
+        this.finesOutstanding = finesOutstanding;
+    }
+
+    public Map<String, Long> getOpenLoansByCategory() {
+        return Collections.unmodifiableMap(openLoansByCategory);
+    }
+
+    public void putOpenLoansByCategory(String category, long count) {
+        openLoansByCategory.put(category, count);
+    }
+
+    public Map<String, Long> getOpenLoansByMembershipType() {
+        return Collections.unmodifiableMap(openLoansByMembershipType);
+    }
+
+    public void putOpenLoansByMembershipType(String membershipType, long count) {
+        openLoansByMembershipType.put(membershipType, count);
+    }
+
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public void setGeneratedAt(LocalDateTime generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+
+    /**
+     * Préstamos sin devolver (activos más vencidos)
+     */
+    public long getOpenLoans() {
+        return activeLoans + overdueLoans;
+    }
+
+    @Override
+    public String toString() {
+        return "LoanStatistics{" +
+                "activeLoans=" + activeLoans +
+                ", overdueLoans=" + overdueLoans +
+                ", returnedLoans=" + returnedLoans +
+                ", finesOutstanding=" + finesOutstanding +
+                ", openLoansByCategory=" + openLoansByCategory +
+                ", openLoansByMembershipType=" + openLoansByMembershipType +
+                ", generatedAt=" + generatedAt +
+                '}';
+    }
+}
@@ -19,6 +19,7 @@ public class Member {
     private boolean active;
     private int maxLoans; // Máximo de préstamos simultáneos
     private int currentLoans; // Préstamos actuales
+    private int version; // Control de concurrencia optimista
 
     // Constructores
     public Member() {}
@@ -39,6 +40,26 @@ public class Member {
         this.currentLoans = 0;
     }
 
+    /**
+     * Crea una copia independiente de otro miembro
+     */
+    public Member(Member other) {
+        this.id = other.id;
+        this.memberId = other.memberId;
+        this.firstName = other.firstName;
+        this.lastName = other.lastName;
+        this.email = other.email;
+        this.phone = other.phone;
+        this.address = other.address;
+        this.birthDate = other.birthDate;
+        this.registrationDate = other.registrationDate;
+        this.membershipType = other.membershipType;
+        this.active = other.active;
+        this.maxLoans = other.maxLoans;
+        this.currentLoans = other.currentLoans;
+        this.version = other.version;
+    }
+
     // Getters y Setters
     public int getId() {
         return id;
@@ -145,6 +166,14 @@ public class Member {
         this.currentLoans = currentLoans;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     /**
      * Obtiene el nombre completo del miembro
      */
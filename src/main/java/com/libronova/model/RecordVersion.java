@@ -0,0 +1,34 @@
+package com.libronova.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Versión y fecha de última modificación de una fila, sin el resto de columnas. Basta para
+ * saber si una copia que ya tiene el cliente sigue vigente.
+ */
+public class RecordVersion {
+    private final int id;
+    private final int version;
+    private final LocalDateTime updatedAt;
+
+    public RecordVersion(int id, int version, LocalDateTime updatedAt) {
+        this.id = id;
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Última modificación, o null si el almacenamiento no la registra
+     */
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,132 @@
+package com.libronova.scheduler;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+
+/**
+ * Expresión cron de cinco campos: minuto, hora, día del mes, mes y día de la semana (0 o 7 =
+ * domingo). Cada campo admite *, valores, rangos (1-5), listas (1,15) y pasos (*&#47;15, 8-18/2).
+ *
+ * Como en cron, si se restringen a la vez el día del mes y el de la semana basta con que
+ * coincida uno de los dos.
+ */
+public final class CronExpression {
+    private static final int MAX_YEARS_AHEAD = 5;
+
+    private final String expression;
+    private final BitSet minutes;
+    private final BitSet hours;
+    private final BitSet daysOfMonth;
+    private final BitSet months;
+    private final BitSet daysOfWeek;
+    private final boolean anyDayOfMonth;
+    private final boolean anyDayOfWeek;
+
+    private CronExpression(String expression, String[] fields) {
+        this.expression = expression;
+        this.minutes = parseField(fields[0], 0, 59, "minuto");
+        this.hours = parseField(fields[1], 0, 23, "hora");
+        this.daysOfMonth = parseField(fields[2], 1, 31, "día del mes");
+        this.months = parseField(fields[3], 1, 12, "mes");
+        this.daysOfWeek = parseField(fields[4], 0, 7, "día de la semana");
+        if (daysOfWeek.get(7)) {
+            daysOfWeek.set(0);
+        }
+        this.anyDayOfMonth = "*".equals(fields[2]);
+        this.anyDayOfWeek = "*".equals(fields[4]);
+    }
+
+    /**
+     * Interpreta una expresión; lanza IllegalArgumentException si no es válida
+     */
+    public static CronExpression parse(String expression) {
+        String[] fields = expression.trim().split("\\s+");
+        if (fields.length != 5) {
+            throw new IllegalArgumentException("La expresión cron necesita 5 campos: '" + expression + "'");
+        }
+        return new CronExpression(expression.trim(), fields);
+    }
+
+    /**
+     * Primer minuto estrictamente posterior a after que cumple la expresión
+     */
+    public LocalDateTime next(LocalDateTime after) {
+        LocalDateTime candidate = after.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        LocalDateTime limit = candidate.plusYears(MAX_YEARS_AHEAD);
+        while (candidate.isBefore(limit)) {
+            if (!months.get(candidate.getMonthValue())) {
+                candidate = candidate.withDayOfMonth(1).toLocalDate().plusMonths(1).atStartOfDay();
+            } else if (!matchesDay(candidate.toLocalDate())) {
+                candidate = candidate.toLocalDate().plusDays(1).atStartOfDay();
+            } else if (!hours.get(candidate.getHour())) {
+                candidate = candidate.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+            } else if (!minutes.get(candidate.getMinute())) {
+                candidate = candidate.plusMinutes(1);
+            } else {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("La expresión cron '" + expression + "' no se cumple en "
+                                        + MAX_YEARS_AHEAD + " años");
+    }
+
+    private boolean matchesDay(LocalDate date) {
+        boolean dayOfMonth = daysOfMonth.get(date.getDayOfMonth());
+        boolean dayOfWeek = daysOfWeek.get(date.getDayOfWeek().getValue() % 7);
+        if (anyDayOfMonth || anyDayOfWeek) {
+            return dayOfMonth && dayOfWeek;
+        }
+        return dayOfMonth || dayOfWeek;
+    }
+
+    private static BitSet parseField(String field, int min, int max, String name) {
+        BitSet values = new BitSet(max + 1);
+        for (String part : field.split(",")) {
+            int step = 1;
+            String range = part;
+            int slash = part.indexOf('/');
+            if (slash >= 0) {
+                step = parseNumber(part.substring(slash + 1), 1, max, name);
+                range = part.substring(0, slash);
+            }
+            int from;
+            int to;
+            if ("*".equals(range)) {
+                from = min;
+                to = max;
+            } else if (range.indexOf('-') > 0) {
+                from = parseNumber(range.substring(0, range.indexOf('-')), min, max, name);
+                to = parseNumber(range.substring(range.indexOf('-') + 1), min, max, name);
+            } else {
+                from = parseNumber(range, min, max, name);
+                to = slash >= 0 ? max : from;
+            }
+            if (from > to) {
+                throw new IllegalArgumentException("Rango de " + name + " no válido: " + part);
+            }
+            for (int value = from; value <= to; value += step) {
+                values.set(value);
+            }
+        }
+        return values;
+    }
+
+    private static int parseNumber(String text, int min, int max, String name) {
+        try {
+            int value = Integer.parseInt(text);
+            if (value < min || value > max) {
+                throw new IllegalArgumentException("Valor de " + name + " fuera de rango (" + min + "-" + max + "): " + text);
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor de " + name + " no válido: " + text);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
@@ -0,0 +1,58 @@
+package com.libronova.scheduler;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Resultado de una ejecución (o de un disparo omitido) de una tarea programada
+ */
+public class JobRun {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * Resultado de la ejecución
+     */
+    public enum Status {
+        SUCCEEDED, FAILED, SKIPPED
+    }
+
+    private final String jobName;
+    private final LocalDateTime startedAt;
+    private final long durationMillis;
+    private final Status status;
+    private final String message;
+
+    public JobRun(String jobName, LocalDateTime startedAt, long durationMillis, Status status, String message) {
+        this.jobName = jobName;
+        this.startedAt = startedAt;
+        this.durationMillis = durationMillis;
+        this.status = status;
+        this.message = message;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return startedAt.format(DATE_FORMAT) + " " + jobName + " " + status + " (" + durationMillis + " ms)"
+               + (message != null ? ": " + message : "");
+    }
+}
@@ -0,0 +1,301 @@
+package com.libronova.scheduler;
+
+import com.libronova.config.DatabaseConfig;
+import com.libronova.dao.LeaseFence;
+import com.libronova.metrics.DaoMetrics;
+import com.libronova.util.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Planificador de tareas en segundo plano con disparadores cron.
+ *
+ * Un hilo temporizador calcula el siguiente disparo de cada tarea y le suma un retraso
+ * aleatorio de hasta maxJitter, para que varias instancias no golpeen la base de datos en el
+ * mismo segundo. La ejecución ocurre en un pool acotado de hilos de baja prioridad que usan el
+ * pool de conexiones de segundo plano (db.pool.background.size), no el de las ventanillas.
+ *
+ * Una tarea nunca se solapa consigo misma: si al dispararse sigue en curso la ejecución
+ * anterior, el disparo se anota como SKIPPED. Una ejecución en la que algún DAO capturó un error
+ * de base de datos se anota como FAILED aunque la tarea termine. Se conservan las últimas historySize ejecuciones
+ * de cada tarea.
+ *
+ * Con una LeaderElection solo dispara la instancia líder; antes de cada ejecución se valida su
+ * fencing token, que además se fija en LeaseFence para que las escrituras de la tarea lo
+ * comprueben en la propia sentencia. Si pierde el lease, se interrumpen las tareas en curso.
+ */
+public class JobScheduler {
+    private static final Logger logger = Logger.getInstance();
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer;
+    private final ThreadPoolExecutor workers;
+    private final long maxJitterMillis;
+    private final int historySize;
+    private volatile boolean started;
+    private volatile LeaderElection leaderElection;
+
+    /**
+     * @param maxJitterMillis retraso aleatorio máximo de cada disparo; conviene que sea menor de
+     *                        un minuto para no saltarse disparos de las expresiones por minuto
+     */
+    public JobScheduler(int workerThreads, long maxJitterMillis, int historySize) {
+        if (workerThreads < 1 || historySize < 1) {
+            throw new IllegalArgumentException("El planificador necesita al menos un hilo y una entrada de historial");
+        }
+        this.maxJitterMillis = Math.max(0, maxJitterMillis);
+        this.historySize = historySize;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "libronova-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(workerThreads), runnable -> {
+                Thread thread = new Thread(() -> {
+                    DatabaseConfig.useBackgroundPool();
+                    runnable.run();
+                }, "libronova-job-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+    }
+
+    /**
+     * Registra una tarea; si el planificador ya está en marcha se programa al momento
+     */
+    public void schedule(String name, CronExpression cron, Callable<String> task) {
+        Job job = new Job(name, cron, task);
+        if (jobs.putIfAbsent(name, job) != null) {
+            throw new IllegalArgumentException("Ya existe una tarea llamada " + name);
+        }
+        if (started) {
+            scheduleNext(job);
+        }
+    }
+
+    /**
+     * Limita la ejecución a la instancia líder; debe indicarse antes de start()
+     */
+    public void setLeaderElection(LeaderElection leaderElection) {
+        if (started) {
+            throw new IllegalStateException("La elección de líder debe configurarse antes de arrancar");
+        }
+        this.leaderElection = leaderElection;
+        leaderElection.setOnLeadershipLost(this::interruptRunningJobs);
+    }
+
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        if (leaderElection != null) {
+            leaderElection.start();
+        }
+        for (Job job : jobs.values()) {
+            scheduleNext(job);
+        }
+        logger.info("Planificador de tareas iniciado con " + jobs.size() + " tareas");
+    }
+
+    /**
+     * Deja de disparar tareas y espera hasta timeoutSeconds a que terminen las que están en curso
+     */
+    public void stop(int timeoutSeconds) {
+        timer.shutdownNow();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(timeoutSeconds, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        if (leaderElection != null) {
+            leaderElection.stop();
+        }
+        logger.info("Planificador de tareas detenido");
+    }
+
+    /**
+     * Lanza una tarea ahora mismo, sin retraso aleatorio; devuelve false si se omitió o si esta
+     * instancia no es la líder
+     */
+    public boolean runNow(String name) {
+        return fire(requireJob(name));
+    }
+
+    public List<String> getJobNames() {
+        return new ArrayList<>(jobs.keySet());
+    }
+
+    /**
+     * Próximo disparo previsto (sin el retraso aleatorio), o null si no está programada
+     */
+    public LocalDateTime getNextRun(String name) {
+        return requireJob(name).nextRun;
+    }
+
+    public boolean isRunning(String name) {
+        return requireJob(name).running.get();
+    }
+
+    /**
+     * Últimas ejecuciones de la tarea, de la más antigua a la más reciente
+     */
+    public List<JobRun> getHistory(String name) {
+        Job job = requireJob(name);
+        synchronized (job.history) {
+            return new ArrayList<>(job.history);
+        }
+    }
+
+    private void scheduleNext(Job job) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = job.cron.next(now);
+        long jitter = maxJitterMillis > 0 ? ThreadLocalRandom.current().nextLong(maxJitterMillis + 1) : 0;
+        job.nextRun = next;
+        try {
+            timer.schedule(() -> {
+                fire(job);
+                scheduleNext(job);
+            }, Duration.between(now, next).toMillis() + jitter, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Planificador detenido
+            job.nextRun = null;
+        }
+    }
+
+    private boolean fire(Job job) {
+        LeaderElection election = leaderElection;
+        if (election != null && !election.isLeader()) {
+            // Otra instancia ejecuta las tareas
+            return false;
+        }
+        if (!job.running.compareAndSet(false, true)) {
+            record(job, new JobRun(job.name, LocalDateTime.now(), 0, JobRun.Status.SKIPPED,
+                                   "la ejecución anterior sigue en curso"));
+            return false;
+        }
+        try {
+            job.current = workers.submit(() -> execute(job));
+            return true;
+        } catch (RejectedExecutionException e) {
+            job.running.set(false);
+            record(job, new JobRun(job.name, LocalDateTime.now(), 0, JobRun.Status.SKIPPED,
+                                   "no hay hilos libres en el planificador"));
+            return false;
+        }
+    }
+
+    private void execute(Job job) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        LeaderElection election = leaderElection;
+        if (election != null && !election.validate()) {
+            record(job, new JobRun(job.name, startedAt, 0, JobRun.Status.SKIPPED,
+                                   "esta instancia ya no tiene el lease de líder"));
+            job.running.set(false);
+            return;
+        }
+        if (election != null) {
+            LeaseFence.set(election.getLeaseName(), election.getFencingToken());
+        }
+        long failuresBefore = DaoMetrics.failureCount();
+        try {
+            String summary = job.task.call();
+            long failures = DaoMetrics.failureCount() - failuresBefore;
+            if (failures > 0) {
+                // Los DAO capturan la SQLException; sin esto un "0 préstamos" pasaría por éxito
+                logger.error("Tarea programada " + job.name + " con " + failures + " operaciones de base de datos fallidas");
+                record(job, new JobRun(job.name, startedAt, elapsedMillis(start), JobRun.Status.FAILED,
+                                       failures + " operaciones de base de datos fallidas; " + summary));
+            } else {
+                record(job, new JobRun(job.name, startedAt, elapsedMillis(start), JobRun.Status.SUCCEEDED, summary));
+            }
+        } catch (Exception e) {
+            logger.error("Tarea programada " + job.name + " fallida: " + e.getMessage(), e);
+            record(job, new JobRun(job.name, startedAt, elapsedMillis(start), JobRun.Status.FAILED, e.getMessage()));
+        } finally {
+            LeaseFence.clear();
+            job.running.set(false);
+        }
+    }
+
+    private void record(Job job, JobRun run) {
+        synchronized (job.history) {
+            if (job.history.size() >= historySize) {
+                job.history.removeFirst();
+            }
+            job.history.addLast(run);
+        }
+        if (run.getStatus() == JobRun.Status.SKIPPED) {
+            logger.warning("Tarea programada omitida: " + run);
+        } else {
+            logger.info("Tarea programada: " + run);
+        }
+    }
+
+    /**
+     * Interrumpe las tareas en curso; las que comprueban la interrupción paran en su siguiente lote
+     */
+    private void interruptRunningJobs() {
+        for (Job job : jobs.values()) {
+            Future<?> current = job.current;
+            if (current != null && job.running.get()) {
+                logger.warning("Interrumpiendo la tarea " + job.name + " por pérdida del lease de líder");
+                current.cancel(true);
+            }
+        }
+    }
+
+    private Job requireJob(String name) {
+        Job job = jobs.get(name);
+        if (job == null) {
+            throw new IllegalArgumentException("Tarea desconocida: " + name);
+        }
+        return job;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static final class Job {
+        final String name;
+        final CronExpression cron;
+        final Callable<String> task;
+        final AtomicBoolean running = new AtomicBoolean();
+        final Deque<JobRun> history = new ArrayDeque<>();
+        volatile LocalDateTime nextRun;
+        volatile Future<?> current;
+
+        Job(String name, CronExpression cron, Callable<String> task) {
+            this.name = name;
+            this.cron = cron;
+            this.task = task;
+        }
+    }
+}
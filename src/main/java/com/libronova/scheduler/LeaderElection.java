@@ -0,0 +1,169 @@
+package com.libronova.scheduler;
+
+import com.libronova.config.DatabaseConfig;
+import com.libronova.dao.LeaseDAO;
+import com.libronova.util.Logger;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Elección de líder entre instancias que comparten la base de datos, mediante un lease en
+ * job_leases. Cada latido (un tercio de la duración del lease) el líder lo renueva y las demás
+ * instancias intentan tomarlo; si el líder muere, otra lo toma como mucho un latido después de
+ * que caduque. Al detenerse, el líder lo libera para que el relevo sea inmediato.
+ *
+ * Cada vez que el lease cambia de manos aumenta su fencing token. Una instancia deja de
+ * considerarse líder en cuanto falla una renovación o pasa su plazo local sin renovar (por
+ * ejemplo, tras una pausa larga), y validate() comprueba en la base de datos que su token sigue
+ * siendo el vigente antes de empezar una tarea.
+ */
+public class LeaderElection {
+    private static final Logger logger = Logger.getInstance();
+
+    private final LeaseDAO leaseDAO;
+    private final String leaseName;
+    private final String holder;
+    private final long leaseMillis;
+    private final ScheduledExecutorService heartbeat;
+    private volatile long fencingToken = -1;
+    private volatile long leaderUntilNanos;
+    private volatile Runnable onLeadershipLost = () -> { };
+
+    public LeaderElection(LeaseDAO leaseDAO, String leaseName, String holder, long leaseMillis) {
+        if (leaseMillis < 3) {
+            throw new IllegalArgumentException("La duración del lease debe ser de al menos 3 ms");
+        }
+        this.leaseDAO = leaseDAO;
+        this.leaseName = leaseName;
+        this.holder = holder;
+        this.leaseMillis = leaseMillis;
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            // Los latidos no deben competir por conexiones con las ventanillas
+            Thread thread = new Thread(() -> {
+                DatabaseConfig.useBackgroundPool();
+                runnable.run();
+            }, "libronova-leader-" + leaseName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Identificador de esta instancia: host y PID
+     */
+    public static String defaultHolder() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "desconocido";
+        }
+        return host + "-" + ManagementFactory.getRuntimeMXBean().getPid();
+    }
+
+    /**
+     * Acción que se ejecuta (en el hilo del latido) cuando esta instancia deja de ser líder
+     */
+    public void setOnLeadershipLost(Runnable onLeadershipLost) {
+        this.onLeadershipLost = onLeadershipLost;
+    }
+
+    public void start() {
+        long interval = Math.max(1, leaseMillis / 3);
+        heartbeat.scheduleWithFixedDelay(this::beat, 0, interval, TimeUnit.MILLISECONDS);
+        logger.info("Elección de líder iniciada para " + leaseName + " como " + holder);
+    }
+
+    /**
+     * Intenta tomar el lease en el hilo actual y, si lo consigue, arranca los latidos que lo
+     * renuevan. Si lo tiene otra instancia devuelve false sin arrancar nada
+     */
+    public boolean tryStart() {
+        beat();
+        if (!isLeader()) {
+            heartbeat.shutdownNow();
+            return false;
+        }
+        long interval = Math.max(1, leaseMillis / 3);
+        heartbeat.scheduleWithFixedDelay(this::beat, interval, interval, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    /**
+     * Detiene los latidos y libera el lease si esta instancia lo tiene
+     */
+    public void stop() {
+        heartbeat.shutdownNow();
+        try {
+            heartbeat.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long token = fencingToken;
+        if (token > 0) {
+            fencingToken = -1;
+            leaseDAO.release(leaseName, holder, token);
+            logger.info("Lease " + leaseName + " liberado por " + holder);
+        }
+    }
+
+    /**
+     * Indica si esta instancia es la líder según su último latido, sin consultar la base de datos
+     */
+    public boolean isLeader() {
+        return fencingToken > 0 && System.nanoTime() - leaderUntilNanos < 0;
+    }
+
+    /**
+     * Comprueba en la base de datos que el lease sigue vigente con el token de esta instancia
+     */
+    public boolean validate() {
+        long token = fencingToken;
+        return isLeader() && leaseDAO.findCurrentToken(leaseName) == token;
+    }
+
+    /**
+     * Fencing token actual, o -1 si no es líder
+     */
+    public long getFencingToken() {
+        return isLeader() ? fencingToken : -1;
+    }
+
+    public String getLeaseName() {
+        return leaseName;
+    }
+
+    public String getHolder() {
+        return holder;
+    }
+
+    /**
+     * Un latido: renueva el lease si es líder o intenta tomarlo si no
+     */
+    void beat() {
+        // El plazo local se cuenta desde antes de la consulta, así nunca supera al de la base de datos
+        long sentAt = System.nanoTime();
+        long token = fencingToken;
+        if (token > 0) {
+            if (leaseDAO.renew(leaseName, holder, token, leaseMillis)) {
+                leaderUntilNanos = sentAt + TimeUnit.MILLISECONDS.toNanos(leaseMillis);
+                return;
+            }
+            fencingToken = -1;
+            logger.warning("Lease " + leaseName + " perdido por " + holder + " (token " + token + ")");
+            onLeadershipLost.run();
+            return;
+        }
+        long acquired = leaseDAO.tryAcquire(leaseName, holder, leaseMillis);
+        if (acquired > 0) {
+            leaderUntilNanos = sentAt + TimeUnit.MILLISECONDS.toNanos(leaseMillis);
+            fencingToken = acquired;
+            logger.info("Lease " + leaseName + " adquirido por " + holder + " (token " + acquired + ")");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.libronova.scheduler;
+
+import com.libronova.dao.LeaseDAO;
+import com.libronova.util.Logger;
+
+/**
+ * Reserva para esta instancia un número de nodo libre (prefix + número) en job_leases y lo
+ * mantiene con los latidos de una LeaderElection, de modo que dos instancias que comparten la
+ * base de datos nunca tienen a la vez el mismo nodo.
+ *
+ * Si la instancia muere, su nodo queda libre cuando caduca el lease. Si deja de renovarlo (por
+ * ejemplo, tras una pausa larga) isHeld() devuelve false hasta que lo recupere en otro latido, y
+ * quien use el nodo debe dejar de hacerlo mientras tanto.
+ */
+public class NodeLease {
+    private static final Logger logger = Logger.getInstance();
+
+    private final LeaderElection election;
+    private final long node;
+
+    private NodeLease(LeaderElection election, long node) {
+        this.election = election;
+        this.node = node;
+    }
+
+    /**
+     * Reserva el primer nodo libre entre 0 y maxNode
+     *
+     * @throws IllegalStateException si no hay nodos libres o no se pudo consultar job_leases
+     */
+    public static NodeLease claim(LeaseDAO leaseDAO, String prefix, long maxNode, String holder, long leaseMillis) {
+        for (long node = 0; node <= maxNode; node++) {
+            String name = prefix + node;
+            long current = leaseDAO.findCurrentToken(name);
+            if (current < 0) {
+                throw new IllegalStateException("No se pudo consultar el lease " + name + " en job_leases");
+            }
+            if (current > 0) {
+                continue;
+            }
+            LeaderElection election = new LeaderElection(leaseDAO, name, holder, leaseMillis);
+            if (election.tryStart()) {
+                logger.info("Nodo " + node + " reservado por " + holder + " (lease " + name + ")");
+                return new NodeLease(election, node);
+            }
+        }
+        throw new IllegalStateException("No quedan nodos libres en job_leases con el prefijo " + prefix);
+    }
+
+    public long getNode() {
+        return node;
+    }
+
+    /**
+     * Indica si el nodo sigue reservado para esta instancia según su último latido
+     */
+    public boolean isHeld() {
+        return election.isLeader();
+    }
+
+    /**
+     * Detiene los latidos y libera el nodo
+     */
+    public void release() {
+        election.stop();
+    }
+}
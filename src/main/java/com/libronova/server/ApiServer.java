@@ -0,0 +1,632 @@
+package com.libronova.server;
+
+import com.libronova.exception.BookNotFoundException;
+import com.libronova.exception.InsufficientStockException;
+import com.libronova.exception.LibroNovaException;
+import com.libronova.exception.MemberLimitExceededException;
+import com.libronova.exception.MemberNotFoundException;
+import com.libronova.exception.OptimisticLockException;
+import com.libronova.metrics.DaoMetrics;
+import com.libronova.model.Book;
+import com.libronova.model.Loan;
+import com.libronova.model.Member;
+import com.libronova.model.RecordVersion;
+import com.libronova.service.BookService;
+import com.libronova.service.LoanService;
+import com.libronova.service.MemberService;
+import com.libronova.util.Logger;
+import com.libronova.util.Pages;
+import com.libronova.util.VirtualThreads;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * API HTTP/JSON sin interfaz gráfica sobre el servidor HTTP del JDK, para quioscos de autoservicio
+ * y el catálogo web. Usa los mismos servicios que la aplicación de escritorio.
+ *
+ * Cada petición se atiende en su propio hilo virtual (Java 21+; con Java 17, en un pool de
+ * server.threads hilos). Las respuestas se escriben con codificación chunked.
+ *
+ * Rutas (todas bajo /api):
+ * <pre>
+ * GET  /books?q=&amp;category=&amp;available=true   GET /books/{id}   GET /books/isbn/{isbn}
+ * GET  /members?q=&amp;active=true                GET /members/{id}
+ * GET  /loans?status=active|overdue&amp;memberId=&amp;bookId=&amp;q=   GET /loans/{id}
+ * POST /loans {"bookId":1,"memberId":2,"userId":1} (devuelve el préstamo creado)   POST /loans/{id}/return
+ * GET  /search?q=                               GET /statistics
+ * </pre>
+ * GET /health responde 200 sin tocar la base de datos.
+ *
+ * Los listados se devuelven por páginas (offset y limit, 100 filas por defecto y 1000 como
+ * máximo); los completos se paginan en la consulta SQL y los filtrados, que ya son acotados, en
+ * memoria. Si la página está llena, X-Next-Offset indica dónde empieza la siguiente.
+ *
+ * Las fichas individuales de libros, miembros y préstamos llevan ETag (tipo, ID y versión) y
+ * Last-Modified (updated_at). Si el cliente ya tiene la versión vigente se responde 304 tras
+ * consultar solo version y updated_at, o sin consultar nada si la versión está en la caché.
+ *
+ * Con setMaxConcurrentRequests solo se atienden a la vez tantas peticiones como conexiones tiene
+ * el pool; las demás esperan un poco y, si no hay hueco, reciben 503 con Retry-After en lugar de
+ * agotar el pool. Si algún DAO capturó un error de base de datos durante la petición, la
+ * respuesta es 503 aunque el servicio haya devuelto una lista vacía o un "no encontrado".
+ */
+public class ApiServer {
+    private static final Logger logger = Logger.getInstance();
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+    private static final int DEFAULT_USER_ID = 1;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+    private static final String BOOKS = "book";
+    private static final String MEMBERS = "member";
+    private static final String LOANS = "loan";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final String FAILURES_BEFORE = "libronova.daoFailures";
+    private static final String DATABASE_UNAVAILABLE = "Base de datos no disponible";
+
+    private final BookService bookService;
+    private final MemberService memberService;
+    private final LoanService loanService;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final VersionCache versions;
+    private volatile Semaphore admissions;
+    private volatile long admissionWaitMillis;
+
+    public ApiServer(BookService bookService, MemberService memberService, LoanService loanService,
+                     InetSocketAddress address, int backlog, int fallbackThreads) throws IOException {
+        this(bookService, memberService, loanService, address, backlog, fallbackThreads, 0, 0);
+    }
+
+    /**
+     * @param versionCacheMillis vigencia de las versiones cacheadas para GET condicionales (0 = sin caché)
+     */
+    public ApiServer(BookService bookService, MemberService memberService, LoanService loanService,
+                     InetSocketAddress address, int backlog, int fallbackThreads,
+                     long versionCacheMillis, int versionCacheEntries) throws IOException {
+        this.versions = new VersionCache(versionCacheMillis, versionCacheEntries);
+        this.bookService = bookService;
+        this.memberService = memberService;
+        this.loanService = loanService;
+        this.server = HttpServer.create(address, backlog);
+        this.executor = VirtualThreads.newPerTaskExecutor("Peticiones HTTP", fallbackThreads);
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+        server.createContext("/health", exchange -> {
+            try {
+                send(exchange, 200, json -> json.beginObject().name("status").value("UP").endObject());
+            } finally {
+                exchange.close();
+            }
+        });
+    }
+
+    /**
+     * Limita las peticiones de /api atendidas a la vez; las que no consiguen turno en waitMillis
+     * reciben 503 (0 = sin límite). Debe indicarse antes de start()
+     */
+    public void setMaxConcurrentRequests(int maxRequests, long waitMillis) {
+        this.admissions = maxRequests > 0 ? new Semaphore(maxRequests, true) : null;
+        this.admissionWaitMillis = Math.max(0, waitMillis);
+    }
+
+    public void start() {
+        server.start();
+        logger.info("API HTTP escuchando en el puerto " + getPort());
+    }
+
+    /**
+     * Deja de aceptar conexiones y espera hasta delaySeconds a que terminen las peticiones en curso
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("API HTTP detenida");
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Escribe el cuerpo JSON de una respuesta
+     */
+    interface JsonBody {
+        void write(JsonWriter json) throws IOException;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        Semaphore limit = admissions;
+        if (limit != null && !admit(limit)) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            sendError(exchange, 503, "Servidor ocupado, vuelva a intentarlo");
+            exchange.close();
+            return;
+        }
+        exchange.setAttribute(FAILURES_BEFORE, DaoMetrics.failureCount());
+        try {
+            route(exchange, segments(exchange), exchange.getRequestMethod());
+        } catch (DatabaseUnavailableException e) {
+            sendError(exchange, 503, DATABASE_UNAVAILABLE);
+        } catch (BookNotFoundException | MemberNotFoundException e) {
+            sendError(exchange, 404, e.getMessage());
+        } catch (InsufficientStockException | MemberLimitExceededException | OptimisticLockException
+                 | IllegalStateException e) {
+            sendError(exchange, 409, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (LibroNovaException e) {
+            sendError(exchange, 422, e.getMessage());
+        } catch (IOException e) {
+            logger.warning("Petición HTTP interrumpida: " + e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error al atender " + exchange.getRequestMethod() + " " + exchange.getRequestURI() + ": "
+                         + e.getMessage(), e);
+            sendError(exchange, 500, "Error interno del servidor");
+        } finally {
+            exchange.close();
+            if (limit != null) {
+                limit.release();
+            }
+        }
+    }
+
+    private boolean admit(Semaphore limit) {
+        try {
+            return limit.tryAcquire(admissionWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void route(HttpExchange exchange, List<String> path, String method) throws Exception {
+        Map<String, String> query = query(exchange);
+        String resource = path.isEmpty() ? "" : path.get(0);
+        boolean get = "GET".equals(method);
+
+        if (get && "books".equals(resource)) {
+            if (path.size() == 1) {
+                int offset = offset(query);
+                int limit = limit(query);
+                sendPage(exchange, findBooks(query, offset, limit), offset, limit, ModelJson::book);
+            } else if (path.size() == 3 && "isbn".equals(path.get(1))) {
+                Book book = bookService.findBookByIsbn(path.get(2));
+                send(exchange, 200, json -> ModelJson.book(json, book));
+            } else if (path.size() == 2) {
+                int bookId = id(path.get(1));
+                RecordVersion cached = versions.get(BOOKS, bookId, bookService::getBookVersion);
+                if (!notModified(exchange, BOOKS, cached)) {
+                    Book book = bookService.findBookById(bookId);
+                    sendVersioned(exchange, BOOKS, book.getId(), book.getVersion(), cached,
+                                  json -> ModelJson.book(json, book));
+                }
+            } else {
+                sendError(exchange, 404, "Ruta no encontrada");
+            }
+        } else if (get && "members".equals(resource)) {
+            if (path.size() == 1) {
+                int offset = offset(query);
+                int limit = limit(query);
+                sendPage(exchange, findMembers(query, offset, limit), offset, limit, ModelJson::member);
+            } else if (path.size() == 2) {
+                int memberId = id(path.get(1));
+                RecordVersion cached = versions.get(MEMBERS, memberId, memberService::getMemberVersion);
+                if (!notModified(exchange, MEMBERS, cached)) {
+                    Member member = memberService.findMemberById(memberId);
+                    sendVersioned(exchange, MEMBERS, member.getId(), member.getVersion(), cached,
+                                  json -> ModelJson.member(json, member));
+                }
+            } else {
+                sendError(exchange, 404, "Ruta no encontrada");
+            }
+        } else if ("loans".equals(resource)) {
+            routeLoans(exchange, path, method, query);
+        } else if (get && "search".equals(resource) && path.size() == 1) {
+            String term = required(query, "q");
+            List<Book> books = bookService.searchBooks(term);
+            List<Member> members = memberService.searchMembers(term);
+            List<Loan> loans = loanService.searchLoans(term);
+            send(exchange, 200, json -> {
+                json.beginObject().name("books");
+                array(json, books, ModelJson::book);
+                json.name("members");
+                array(json, members, ModelJson::member);
+                json.name("loans");
+                array(json, loans, ModelJson::loan);
+                json.endObject();
+            });
+        } else if (get && "statistics".equals(resource) && path.size() == 1) {
+            send(exchange, 200, json -> ModelJson.statistics(json, loanService.getStatistics(),
+                                                             loanService.getDashboardSnapshot()));
+        } else {
+            sendError(exchange, get || "POST".equals(method) ? 404 : 405, "Ruta no encontrada");
+        }
+    }
+
+    private void routeLoans(HttpExchange exchange, List<String> path, String method, Map<String, String> query)
+            throws Exception {
+        if ("GET".equals(method) && path.size() == 1) {
+            int offset = offset(query);
+            int limit = limit(query);
+            sendPage(exchange, findLoans(query, offset, limit), offset, limit, ModelJson::loan);
+        } else if ("GET".equals(method) && path.size() == 2) {
+            int loanId = id(path.get(1));
+            RecordVersion cached = versions.get(LOANS, loanId, loanService::getLoanVersion);
+            if (notModified(exchange, LOANS, cached)) {
+                return;
+            }
+            Loan loan = loanService.findLoanById(loanId);
+            if (loan == null) {
+                sendError(exchange, 404, "Préstamo no encontrado con ID: " + loanId);
+            } else {
+                sendVersioned(exchange, LOANS, loan.getId(), loan.getVersion(), cached,
+                              json -> ModelJson.loan(json, loan));
+            }
+        } else if ("POST".equals(method) && path.size() == 1) {
+            Map<String, String> body = JsonReader.parseObject(readBody(exchange));
+            int bookId = id(required(body, "bookId"));
+            int memberId = id(required(body, "memberId"));
+            String userId = body.get("userId");
+            bookService.findBookById(bookId);
+            memberService.findMemberById(memberId);
+            Loan created = loanService.checkoutLoan(bookId, memberId, userId != null ? id(userId) : DEFAULT_USER_ID);
+            versions.invalidate(BOOKS, bookId);
+            versions.invalidate(MEMBERS, memberId);
+            // Se relee para devolver la versión y los valores por defecto que puso la base de datos
+            Loan stored = loanService.findLoanById(created.getId());
+            Loan loan = stored != null ? stored : created;
+            exchange.getResponseHeaders().set("Location", "/api/loans/" + loan.getId());
+            send(exchange, 201, json -> ModelJson.loan(json, loan));
+        } else if ("POST".equals(method) && path.size() == 3 && "return".equals(path.get(2))) {
+            int loanId = id(path.get(1));
+            if (loanService.findLoanById(loanId) == null) {
+                sendError(exchange, 404, "Préstamo no encontrado con ID: " + loanId);
+                return;
+            }
+            loanService.returnBook(loanId);
+            Loan loan = loanService.findLoanById(loanId);
+            versions.invalidate(LOANS, loanId);
+            versions.invalidate(BOOKS, loan.getBookId());
+            versions.invalidate(MEMBERS, loan.getMemberId());
+            send(exchange, 200, json -> ModelJson.loan(json, loan));
+        } else {
+            sendError(exchange, 404, "Ruta no encontrada");
+        }
+    }
+
+    private List<Book> findBooks(Map<String, String> query, int offset, int limit) {
+        if (query.containsKey("q")) {
+            return Pages.slice(bookService.searchBooks(query.get("q")), offset, limit);
+        }
+        if (query.containsKey("category")) {
+            return Pages.slice(bookService.getBooksByCategory(query.get("category")), offset, limit);
+        }
+        return Boolean.parseBoolean(query.get("available"))
+            ? bookService.getAvailableBooks(offset, limit)
+            : bookService.getAllBooks(offset, limit);
+    }
+
+    private List<Member> findMembers(Map<String, String> query, int offset, int limit) {
+        if (query.containsKey("q")) {
+            return Pages.slice(memberService.searchMembers(query.get("q")), offset, limit);
+        }
+        return Boolean.parseBoolean(query.get("active"))
+            ? memberService.getActiveMembers(offset, limit)
+            : memberService.getAllMembers(offset, limit);
+    }
+
+    private List<Loan> findLoans(Map<String, String> query, int offset, int limit) {
+        if (query.containsKey("q")) {
+            return Pages.slice(loanService.searchLoans(query.get("q")), offset, limit);
+        }
+        // Los historiales se acotan por loan_date para que MySQL solo lea las particiones del rango
+        if (query.containsKey("memberId")) {
+            return Pages.slice(loanService.getLoansByMember(id(query.get("memberId")), historyFrom(query), historyTo(query)),
+                               offset, limit);
+        }
+        if (query.containsKey("bookId")) {
+            return Pages.slice(loanService.getLoansByBook(id(query.get("bookId")), historyFrom(query), historyTo(query)),
+                               offset, limit);
+        }
+        String status = query.getOrDefault("status", "active");
+        if ("overdue".equalsIgnoreCase(status)) {
+            return loanService.getOverdueLoans(offset, limit);
+        }
+        if ("active".equalsIgnoreCase(status)) {
+            return loanService.getActiveLoans(offset, limit);
+        }
+        throw new IllegalArgumentException("Estado de préstamo no admitido: " + status);
+    }
+
+    private static int offset(Map<String, String> query) {
+        int offset = number(query, "offset", 0);
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset no puede ser negativo");
+        }
+        return offset;
+    }
+
+    private static int limit(Map<String, String> query) {
+        int limit = number(query, "limit", DEFAULT_PAGE_SIZE);
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit debe ser al menos 1");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Añade ETag y Last-Modified a partir de la versión de la fila y responde 304 si el cliente ya
+     * tiene esa versión (If-None-Match, o If-Modified-Since cuando no hay ETag). Con null no hace
+     * nada y la ruta sigue adelante para devolver el 404 habitual.
+     */
+    private static boolean notModified(HttpExchange exchange, String kind, RecordVersion current)
+            throws IOException {
+        if (current == null) {
+            return false;
+        }
+        String etag = etag(kind, current.getId(), current.getVersion());
+        Headers request = exchange.getRequestHeaders();
+        String ifNoneMatch = request.getFirst("If-None-Match");
+        boolean matches;
+        if (ifNoneMatch != null) {
+            matches = etagMatches(ifNoneMatch, etag);
+        } else {
+            matches = notModifiedSince(request.getFirst("If-Modified-Since"), current.getUpdatedAt());
+        }
+        if (!matches) {
+            return false;
+        }
+        validators(exchange, etag, current.getUpdatedAt());
+        exchange.sendResponseHeaders(304, -1);
+        return true;
+    }
+
+    /**
+     * Envía la fila recién leída con sus validadores. Last-Modified solo se incluye si la versión
+     * cacheada coincide con la leída; si no, la caché estaba desfasada y se descarta.
+     */
+    private void sendVersioned(HttpExchange exchange, String kind, int id, int version, RecordVersion cached,
+                               JsonBody body) throws IOException {
+        LocalDateTime updatedAt = null;
+        if (cached != null && cached.getVersion() == version) {
+            updatedAt = cached.getUpdatedAt();
+        } else {
+            versions.invalidate(kind, id);
+        }
+        validators(exchange, etag(kind, id, version), updatedAt);
+        send(exchange, 200, body);
+    }
+
+    private static void validators(HttpExchange exchange, String etag, LocalDateTime updatedAt) {
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("ETag", etag);
+        headers.set("Cache-Control", "no-cache");
+        if (updatedAt != null) {
+            headers.set("Last-Modified", HTTP_DATE.format(updatedAt.atZone(ZoneId.systemDefault())));
+        }
+    }
+
+    static String etag(String kind, int id, int version) {
+        return "\"" + kind + "-" + id + "-v" + version + "\"";
+    }
+
+    static boolean etagMatches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if ("*".equals(tag) || etag.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean notModifiedSince(String ifModifiedSince, LocalDateTime updatedAt) {
+        if (ifModifiedSince == null || updatedAt == null) {
+            return false;
+        }
+        try {
+            ZonedDateTime since = ZonedDateTime.parse(ifModifiedSince, HTTP_DATE);
+            return !updatedAt.atZone(ZoneId.systemDefault()).truncatedTo(ChronoUnit.SECONDS).isAfter(since);
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    interface ElementWriter<T> {
+        void write(JsonWriter json, T element) throws IOException;
+    }
+
+    /**
+     * Envía una página de un listado; si está llena, X-Next-Offset indica la siguiente
+     */
+    private static <T> void sendPage(HttpExchange exchange, List<T> elements, int offset, int limit,
+                                     ElementWriter<T> writer) throws IOException {
+        if (elements.size() >= limit) {
+            exchange.getResponseHeaders().set("X-Next-Offset", String.valueOf(offset + elements.size()));
+        }
+        send(exchange, 200, json -> array(json, elements, writer));
+    }
+
+    private static <T> void array(JsonWriter json, List<T> elements, ElementWriter<T> writer) throws IOException {
+        json.beginArray();
+        for (T element : elements) {
+            writer.write(json, element);
+        }
+        json.endArray();
+    }
+
+    /**
+     * Envía una respuesta JSON en streaming (sin Content-Length)
+     */
+    static void send(HttpExchange exchange, int status, JsonBody body) throws IOException {
+        if (status < 500 && databaseFailed(exchange)) {
+            throw new DatabaseUnavailableException();
+        }
+        exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+        exchange.sendResponseHeaders(status, 0);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+            JsonWriter json = new JsonWriter(out);
+            body.write(json);
+            json.flush();
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) {
+        if (status < 500 && databaseFailed(exchange)) {
+            // El "no encontrado" o el conflicto venían de una consulta que falló
+            status = 503;
+            message = DATABASE_UNAVAILABLE;
+        }
+        int code = status;
+        String text = message;
+        try {
+            send(exchange, code, json -> json.beginObject()
+                .name("status").value(code)
+                .name("error").value(text != null ? text : "Error")
+                .endObject());
+        } catch (IOException | IllegalStateException e) {
+            // Cabeceras ya enviadas o conexión cerrada por el cliente
+        }
+    }
+
+    /**
+     * Indica si algún DAO capturó un error de base de datos en esta petición
+     */
+    private static boolean databaseFailed(HttpExchange exchange) {
+        Object before = exchange.getAttribute(FAILURES_BEFORE);
+        return before != null && DaoMetrics.failureCount() > (Long) before;
+    }
+
+    /**
+     * La petición tropezó con un error de base de datos antes de empezar a responder
+     */
+    private static final class DatabaseUnavailableException extends RuntimeException {
+        DatabaseUnavailableException() {
+            super(DATABASE_UNAVAILABLE);
+        }
+    }
+
+    private static List<String> segments(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getRawPath().substring("/api/".length());
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(URLDecoder.decode(segment, StandardCharsets.UTF_8));
+            }
+        }
+        return segments;
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> values = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null || raw.isEmpty()) {
+            return values;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            values.put(name, value);
+        }
+        return values;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                throw new IllegalArgumentException("Cuerpo de la petición demasiado grande");
+            }
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String required(Map<String, String> values, String name) {
+        String value = values.get(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Falta el parámetro " + name);
+        }
+        return value;
+    }
+
+    private static int number(Map<String, String> values, String name, int defaultValue) {
+        String value = values.get(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor no válido para " + name + ": " + value);
+        }
+    }
+
+    /**
+     * Inicio del historial (from, incluido); por defecto, los últimos LoanService.getHistoryDays() días
+     */
+    private static LocalDate historyFrom(Map<String, String> query) {
+        return date(query, "from", LocalDate.now().minusDays(LoanService.getHistoryDays()));
+    }
+
+    /**
+     * Fin del historial (to, excluido); por defecto, mañana
+     */
+    private static LocalDate historyTo(Map<String, String> query) {
+        return date(query, "to", LocalDate.now().plusDays(1));
+    }
+
+    private static LocalDate date(Map<String, String> values, String name, LocalDate defaultValue) {
+        String value = values.get(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Fecha no válida para " + name + " (AAAA-MM-DD): " + value);
+        }
+    }
+
+    private static int id(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Identificador no válido: " + value);
+        }
+    }
+}
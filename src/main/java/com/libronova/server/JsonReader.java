@@ -0,0 +1,118 @@
+package com.libronova.server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Lector mínimo de objetos JSON planos ({"bookId": 12, "notes": "..."}), suficiente para los
+ * cuerpos de las peticiones de la API. Los valores se devuelven como texto (null para null);
+ * objetos y arrays anidados no se admiten.
+ */
+final class JsonReader {
+    private final String text;
+    private int pos;
+
+    private JsonReader(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Lee un objeto plano; lanza IllegalArgumentException si el JSON no es válido
+     */
+    static Map<String, String> parseObject(String json) {
+        JsonReader reader = new JsonReader(json);
+        Map<String, String> values = new LinkedHashMap<>();
+        reader.expect('{');
+        if (reader.peek() != '}') {
+            do {
+                String name = reader.string();
+                reader.expect(':');
+                values.put(name, reader.scalar());
+            } while (reader.consume(','));
+        }
+        reader.expect('}');
+        if (reader.peek() != 0) {
+            throw reader.error("contenido después del objeto");
+        }
+        return values;
+    }
+
+    private String scalar() {
+        char c = peek();
+        if (c == '"') {
+            return string();
+        }
+        int start = pos;
+        while (pos < text.length() && ",} \t\r\n".indexOf(text.charAt(pos)) < 0) {
+            pos++;
+        }
+        String literal = text.substring(start, pos);
+        if ("null".equals(literal)) {
+            return null;
+        }
+        if ("true".equals(literal) || "false".equals(literal) || literal.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) {
+            return literal;
+        }
+        throw error("valor no admitido '" + literal + "'");
+    }
+
+    private String string() {
+        expect('"');
+        StringBuilder sb = new StringBuilder();
+        while (pos < text.length()) {
+            char c = text.charAt(pos++);
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos >= text.length()) {
+                break;
+            }
+            char escaped = text.charAt(pos++);
+            switch (escaped) {
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                case 't': sb.append('\t'); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'u':
+                    if (pos + 4 > text.length()) {
+                        throw error("escape \\u incompleto");
+                    }
+                    sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    pos += 4;
+                    break;
+                default: sb.append(escaped);
+            }
+        }
+        throw error("cadena sin cerrar");
+    }
+
+    private char peek() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+        return pos < text.length() ? text.charAt(pos) : 0;
+    }
+
+    private boolean consume(char c) {
+        if (peek() == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!consume(c)) {
+            throw error("se esperaba '" + c + "'");
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("JSON no válido en la posición " + pos + ": " + message);
+    }
+}
@@ -0,0 +1,148 @@
+package com.libronova.server;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.temporal.Temporal;
+
+/**
+ * Escritor JSON en streaming: cada valor se escribe directamente en el Writer, de modo que un
+ * listado de miles de filas no se construye entero en memoria antes de enviarlo.
+ *
+ * Solo comprueba lo imprescindible (comas entre elementos); el orden de las llamadas es
+ * responsabilidad de quien escribe.
+ */
+public class JsonWriter {
+    private static final int MAX_DEPTH = 32;
+
+    private final Writer out;
+    private final boolean[] hasElements = new boolean[MAX_DEPTH];
+    private int depth;
+    private boolean afterName;
+
+    public JsonWriter(Writer out) {
+        this.out = out;
+    }
+
+    public JsonWriter beginObject() throws IOException {
+        return open('{');
+    }
+
+    public JsonWriter endObject() throws IOException {
+        return close('}');
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        return open('[');
+    }
+
+    public JsonWriter endArray() throws IOException {
+        return close(']');
+    }
+
+    /**
+     * Nombre de la siguiente propiedad del objeto abierto
+     */
+    public JsonWriter name(String name) throws IOException {
+        separate();
+        string(name);
+        out.write(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        separate();
+        string(value);
+        return this;
+    }
+
+    public JsonWriter value(long value) throws IOException {
+        separate();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    public JsonWriter value(boolean value) throws IOException {
+        separate();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    public JsonWriter value(BigDecimal value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        separate();
+        out.write(value.toPlainString());
+        return this;
+    }
+
+    /**
+     * Fechas y horas en formato ISO-8601
+     */
+    public JsonWriter value(Temporal value) throws IOException {
+        return value == null ? nullValue() : value(value.toString());
+    }
+
+    public JsonWriter nullValue() throws IOException {
+        separate();
+        out.write("null");
+        return this;
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private JsonWriter open(char bracket) throws IOException {
+        separate();
+        out.write(bracket);
+        hasElements[++depth] = false;
+        return this;
+    }
+
+    private JsonWriter close(char bracket) throws IOException {
+        out.write(bracket);
+        depth--;
+        return this;
+    }
+
+    /**
+     * Escribe la coma que precede a un elemento, salvo si es el primero o el valor de un nombre
+     */
+    private void separate() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (hasElements[depth]) {
+            out.write(',');
+        }
+        hasElements[depth] = true;
+    }
+
+    private void string(String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.write("\\\""); break;
+                case '\\': out.write("\\\\"); break;
+                case '\n': out.write("\\n"); break;
+                case '\r': out.write("\\r"); break;
+                case '\t': out.write("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+}
@@ -0,0 +1,95 @@
+package com.libronova.server;
+
+import com.libronova.metrics.DashboardMetrics;
+import com.libronova.model.Book;
+import com.libronova.model.Loan;
+import com.libronova.model.LoanStatistics;
+import com.libronova.model.Member;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Representación JSON de los modelos que expone la API
+ */
+final class ModelJson {
+
+    private ModelJson() {}
+
+    static void book(JsonWriter json, Book book) throws IOException {
+        json.beginObject()
+            .name("id").value(book.getId())
+            .name("isbn").value(book.getIsbn())
+            .name("title").value(book.getTitle())
+            .name("author").value(book.getAuthor())
+            .name("publisher").value(book.getPublisher())
+            .name("publicationDate").value(book.getPublicationDate())
+            .name("category").value(book.getCategory())
+            .name("stock").value(book.getStock())
+            .name("availableStock").value(book.getAvailableStock())
+            .name("active").value(book.isActive())
+            .name("version").value(book.getVersion())
+            .endObject();
+    }
+
+    static void member(JsonWriter json, Member member) throws IOException {
+        json.beginObject()
+            .name("id").value(member.getId())
+            .name("memberId").value(member.getMemberId())
+            .name("firstName").value(member.getFirstName())
+            .name("lastName").value(member.getLastName())
+            .name("email").value(member.getEmail())
+            .name("phone").value(member.getPhone())
+            .name("address").value(member.getAddress())
+            .name("birthDate").value(member.getBirthDate())
+            .name("registrationDate").value(member.getRegistrationDate())
+            .name("membershipType").value(member.getMembershipType())
+            .name("active").value(member.isActive())
+            .name("maxLoans").value(member.getMaxLoans())
+            .name("currentLoans").value(member.getCurrentLoans())
+            .name("version").value(member.getVersion())
+            .endObject();
+    }
+
+    static void loan(JsonWriter json, Loan loan) throws IOException {
+        json.beginObject()
+            .name("id").value(loan.getId())
+            .name("loanId").value(loan.getLoanId())
+            .name("bookId").value(loan.getBookId())
+            .name("memberId").value(loan.getMemberId())
+            .name("userId").value(loan.getUserId())
+            .name("loanDate").value(loan.getLoanDate())
+            .name("dueDate").value(loan.getDueDate())
+            .name("returnDate").value(loan.getReturnDate())
+            .name("status").value(loan.getStatus())
+            .name("fineAmount").value(loan.getFineAmount())
+            .name("notes").value(loan.getNotes())
+            .name("version").value(loan.getVersion())
+            .endObject();
+    }
+
+    static void statistics(JsonWriter json, LoanStatistics statistics, DashboardMetrics.Snapshot live)
+            throws IOException {
+        json.beginObject()
+            .name("activeLoans").value(statistics.getActiveLoans())
+            .name("overdueLoans").value(statistics.getOverdueLoans())
+            .name("returnedLoans").value(statistics.getReturnedLoans())
+            .name("finesOutstanding").value(statistics.getFinesOutstanding())
+            .name("openLoansByCategory");
+        counts(json, statistics.getOpenLoansByCategory());
+        json.name("openLoansByMembershipType");
+        counts(json, statistics.getOpenLoansByMembershipType());
+        json.name("availableByCategory");
+        counts(json, live.getAvailableByCategory());
+        json.name("generatedAt").value(statistics.getGeneratedAt())
+            .endObject();
+    }
+
+    private static void counts(JsonWriter json, Map<String, Long> counts) throws IOException {
+        json.beginObject();
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            json.name(entry.getKey()).value(entry.getValue());
+        }
+        json.endObject();
+    }
+}
@@ -0,0 +1,62 @@
+package com.libronova.server;
+
+import com.libronova.model.RecordVersion;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.IntFunction;
+
+/**
+ * Caché de versiones de fila para las peticiones condicionales. Una entrada vale durante ttl;
+ * las escrituras hechas por la propia API la invalidan al momento, pero las de la aplicación de
+ * escritorio solo se ven al caducar, así que un 304 puede llegar con hasta ttl de retraso.
+ */
+final class VersionCache {
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    VersionCache(long ttlMillis, int maxEntries) {
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Versión de la fila, desde la caché si está vigente o consultando el repositorio si no
+     */
+    RecordVersion get(String kind, int id, IntFunction<RecordVersion> loader) {
+        if (ttlNanos <= 0) {
+            return loader.apply(id);
+        }
+        String key = kind + '/' + id;
+        long now = System.nanoTime();
+        Entry entry = entries.get(key);
+        if (entry != null && now - entry.loadedAt < ttlNanos) {
+            return entry.version;
+        }
+        RecordVersion version = loader.apply(id);
+        if (version == null) {
+            entries.remove(key);
+            return null;
+        }
+        if (entries.size() >= maxEntries) {
+            entries.clear();
+        }
+        entries.put(key, new Entry(version, now));
+        return version;
+    }
+
+    void invalidate(String kind, int id) {
+        entries.remove(kind + '/' + id);
+    }
+
+    private static final class Entry {
+        final RecordVersion version;
+        final long loadedAt;
+
+        Entry(RecordVersion version, long loadedAt) {
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.libronova.service;
 
-import com.libronova.dao.BookDAO;
+import com.libronova.config.ApplicationContext;
+import com.libronova.dao.BookRepository;
 import com.libronova.exception.BookNotFoundException;
 import com.libronova.exception.InsufficientStockException;
+import com.libronova.exception.LibroNovaException;
+import com.libronova.exception.OptimisticLockException;
 import com.libronova.model.Book;
+import com.libronova.model.RecordVersion;
 import com.libronova.util.Logger;
 
 import java.time.LocalDate;
@@ -13,11 +17,15 @@ import java.util.List;
  * Servicio para la gestión de libros con validaciones de negocio
  */
 public class BookService {
-    private final BookDAO bookDAO;
+    private final BookRepository bookDAO;
     private static final Logger logger = Logger.getInstance();
 
     public BookService() {
-        this.bookDAO = new BookDAO();
+        this(ApplicationContext.getInstance().getBookDAO());
+    }
+
+    public BookService(BookRepository bookDAO) {
+        this.bookDAO = bookDAO;
     }
 
     /**
@@ -55,6 +63,13 @@ public class BookService {
         return book;
     }
 
+    /**
+     * Versión actual de un libro (para validar copias en caché), o null si no existe
+     */
+    public RecordVersion getBookVersion(int id) {
+        return bookDAO.findVersion(id);
+    }
+
     /**
      * Busca un libro por ISBN
      */
@@ -73,6 +88,13 @@ public class BookService {
         return bookDAO.findAll();
     }
 
+    /**
+     * Obtiene una página de los libros: salta offset filas y devuelve como mucho limit
+     */
+    public List<Book> getAllBooks(int offset, int limit) {
+        return bookDAO.findAllPage(offset, limit);
+    }
+
     /**
      * Busca libros por categoría
      */
@@ -87,6 +109,13 @@ public class BookService {
         return bookDAO.findAvailable();
     }
 
+    /**
+     * Obtiene una página de los libros disponibles para préstamo
+     */
+    public List<Book> getAvailableBooks(int offset, int limit) {
+        return bookDAO.findAvailablePage(offset, limit);
+    }
+
     /**
      * Busca libros por término de búsqueda
      */
@@ -95,9 +124,14 @@ public class BookService {
     }
 
     /**
-     * Actualiza un libro
+     * Actualiza un libro con la versión con la que se leyó.
+     *
+     * Si otro usuario lo modificó desde entonces (también un préstamo o una devolución) se lanza
+     * OptimisticLockException sin reintentar, y hay que volver a leerlo antes de editarlo. El stock
+     * disponible no se toma del libro recibido: se recalcula sobre la fila actual con la variación
+     * del stock total.
      */
-    public boolean updateBook(Book book) throws BookNotFoundException {
+    public boolean updateBook(Book book) throws BookNotFoundException, OptimisticLockException {
         try {
             // Validar que el libro existe
             Book existingBook = bookDAO.findById(book.getId());
@@ -105,6 +139,10 @@ public class BookService {
                 throw new BookNotFoundException("Libro no encontrado con ID: " + book.getId());
             }
 
+            // Con otra versión la escritura se rechaza igualmente en el WHERE del UPDATE
+            int stockDelta = book.getStock() - existingBook.getStock();
+            book.setAvailableStock(existingBook.getAvailableStock() + stockDelta);
+
             // Validar datos del libro
             validateBookData(book);
 
@@ -174,19 +212,21 @@ public class BookService {
     /**
      * Reduce el stock disponible al realizar un préstamo
      */
-    public boolean borrowBook(int bookId) throws BookNotFoundException, InsufficientStockException {
+    public boolean borrowBook(int bookId) throws LibroNovaException {
         try {
-            Book book = bookDAO.findById(bookId);
-            if (book == null) {
-                throw new BookNotFoundException("Libro no encontrado con ID: " + bookId);
-            }
+            boolean result = OptimisticRetry.execute("prestar libro " + bookId, () -> {
+                Book book = bookDAO.findById(bookId);
+                if (book == null) {
+                    throw new BookNotFoundException("Libro no encontrado con ID: " + bookId);
+                }
 
-            if (!book.isAvailable()) {
-                throw new InsufficientStockException("El libro no está disponible para préstamo");
-            }
+                if (!book.isAvailable()) {
+                    throw new InsufficientStockException("El libro no está disponible para préstamo");
+                }
 
-            book.borrowBook();
-            boolean result = bookDAO.updateStock(bookId, book.getAvailableStock());
+                book.borrowBook();
+                return bookDAO.updateStock(bookId, book.getAvailableStock(), book.getVersion());
+            });
             
             if (result) {
                 logger.info("Stock reducido para libro ID: " + bookId);
@@ -201,15 +241,17 @@ public class BookService {
     /**
      * Aumenta el stock disponible al devolver un libro
      */
-    public boolean returnBook(int bookId) throws BookNotFoundException {
+    public boolean returnBook(int bookId) throws BookNotFoundException, OptimisticLockException {
         try {
-            Book book = bookDAO.findById(bookId);
-            if (book == null) {
-                throw new BookNotFoundException("Libro no encontrado con ID: " + bookId);
-            }
+            boolean result = OptimisticRetry.execute("devolver libro " + bookId, () -> {
+                Book book = bookDAO.findById(bookId);
+                if (book == null) {
+                    throw new BookNotFoundException("Libro no encontrado con ID: " + bookId);
+                }
 
-            book.returnBook();
-            boolean result = bookDAO.updateStock(bookId, book.getAvailableStock());
+                book.returnBook();
+                return bookDAO.updateStock(bookId, book.getAvailableStock(), book.getVersion());
+            });
             
             if (result) {
                 logger.info("Stock aumentado para libro ID: " + bookId);
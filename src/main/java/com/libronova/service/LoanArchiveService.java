@@ -0,0 +1,54 @@
+package com.libronova.service;
+
+import com.libronova.dao.LoanRepository;
+import com.libronova.util.Logger;
+
+import java.time.LocalDate;
+
+/**
+ * Archiva en loans_history los préstamos devueltos hace más de archive.loans.min.age.days días.
+ *
+ * Se mueven por lotes de archive.loans.batch.size filas, cada uno en su propia transacción,
+ * para que los bloqueos sobre loans duren poco y el trabajo pueda convivir con los préstamos
+ * en curso. Los préstamos archivados siguen apareciendo en el historial de cada miembro.
+ */
+public class LoanArchiveService {
+    private static final Logger logger = Logger.getInstance();
+
+    private final LoanRepository loanDAO;
+    private final int minAgeDays;
+    private final int batchSize;
+
+    public LoanArchiveService(LoanRepository loanDAO, int minAgeDays, int batchSize) {
+        if (minAgeDays < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("La antigüedad mínima y el tamaño de lote deben ser positivos");
+        }
+        this.loanDAO = loanDAO;
+        this.minAgeDays = minAgeDays;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Archiva todos los préstamos que cumplen la antigüedad; devuelve cuántos se movieron
+     */
+    public int archiveReturnedLoans() {
+        LocalDate cutoff = LocalDate.now().minusDays(minAgeDays);
+        int total = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            int moved = loanDAO.archiveReturnedBefore(cutoff, batchSize);
+            if (moved < 0) {
+                logger.warning("Archivo de préstamos interrumpido por un error tras mover " + total);
+                break;
+            }
+            total += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            logger.info("Archivo de préstamos completado: " + total + " préstamos devueltos antes de " + cutoff);
+        }
+        return total;
+    }
+}
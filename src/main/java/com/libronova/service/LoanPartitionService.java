@@ -0,0 +1,83 @@
+package com.libronova.service;
+
+import com.libronova.dao.LoanPartitionDAO;
+import com.libronova.util.Logger;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mantiene las particiones mensuales de loans cuando está aplicada la migración opcional V6.
+ *
+ * Crea por adelantado las particiones de los próximos loans.partitioning.months.ahead meses
+ * para que p_future siga vacía y dividirla sea inmediato. Si loans.partitioning.retention.months
+ * es positivo, elimina con DROP PARTITION los meses más antiguos que no tengan préstamos abiertos;
+ * sus préstamos devueltos se pierden, por lo que conviene archivarlos antes en loans_history.
+ */
+public class LoanPartitionService {
+    private static final Logger logger = Logger.getInstance();
+
+    private final LoanPartitionDAO partitionDAO;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public LoanPartitionService(LoanPartitionDAO partitionDAO, int monthsAhead, int retentionMonths) {
+        if (monthsAhead < 1 || retentionMonths < 0) {
+            throw new IllegalArgumentException("Los meses por adelantado deben ser positivos y la retención no negativa");
+        }
+        this.partitionDAO = partitionDAO;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    /**
+     * Añade los meses que falten y aplica la retención; devuelve false si algún paso falló
+     */
+    public boolean maintain() {
+        List<YearMonth> months = partitionDAO.findMonthlyPartitions();
+        if (months == null) {
+            return false;
+        }
+        if (months.isEmpty()) {
+            return true; // loans no está particionada
+        }
+
+        YearMonth current = YearMonth.now();
+        boolean ok = partitionDAO.addMonthlyPartitions(missingMonths(months, current.plusMonths(monthsAhead)));
+        if (retentionMonths > 0) {
+            ok &= dropExpired(months, current.minusMonths(retentionMonths));
+        }
+        return ok;
+    }
+
+    private boolean dropExpired(List<YearMonth> months, YearMonth oldestKept) {
+        boolean ok = true;
+        for (YearMonth month : months) {
+            if (!month.isBefore(oldestKept)) {
+                break;
+            }
+            long open = partitionDAO.countOpenLoans(month);
+            if (open < 0) {
+                ok = false;
+            } else if (open > 0) {
+                logger.warning("Se conserva la partición de " + month + ": tiene " + open + " préstamos sin devolver");
+            } else {
+                ok &= partitionDAO.dropMonthlyPartition(month);
+            }
+        }
+        return ok;
+    }
+
+    /**
+     * Meses posteriores al último existente hasta el indicado (incluido)
+     */
+    static List<YearMonth> missingMonths(List<YearMonth> existing, YearMonth until) {
+        List<YearMonth> missing = new ArrayList<>();
+        YearMonth last = existing.get(existing.size() - 1);
+        for (YearMonth month = last.plusMonths(1); !month.isAfter(until); month = month.plusMonths(1)) {
+            missing.add(month);
+        }
+        return missing;
+    }
+}
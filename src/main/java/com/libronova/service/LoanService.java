@@ -1,80 +1,118 @@
 package com.libronova.service;
 
-import com.libronova.dao.LoanDAO;
+import com.libronova.config.ApplicationContext;
+import com.libronova.config.DatabaseConfig;
+import com.libronova.dao.LoanRepository;
+import com.libronova.exception.OptimisticLockException;
+import com.libronova.metrics.DashboardMetrics;
+import com.libronova.metrics.LoanOperationEvent;
+import com.libronova.metrics.ThroughputMeter;
 import com.libronova.model.Loan;
+import com.libronova.model.LoanStatistics;
+import com.libronova.model.RecordVersion;
+import com.libronova.util.LoanIdGenerator;
 import com.libronova.util.Logger;
+import com.libronova.util.ProgressListener;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.UUID;
 
 /**
  * Servicio para la gestión de préstamos con validaciones de negocio
  */
 public class LoanService {
-    private final LoanDAO loanDAO;
+    private final LoanRepository loanDAO;
     private final BookService bookService;
     private final MemberService memberService;
+    private final DashboardMetrics dashboardMetrics;
+    private final LoanIdGenerator loanIdGenerator;
+    private final CounterMode counterMode;
+    private final ThroughputMeter checkouts = new ThroughputMeter();
+    private final ThroughputMeter returns = new ThroughputMeter();
     private static final Logger logger = Logger.getInstance();
 
     // Configuración de préstamos
     private static final int LOAN_DAYS = 14; // Días de préstamo por defecto
     private static final BigDecimal DAILY_FINE_RATE = new BigDecimal("5.00"); // Multa diaria
+    private static final int HISTORY_DAYS = 365; // Ventana por defecto de los historiales
+    private static final long RECONCILE_INTERVAL_SECONDS =
+        DatabaseConfig.getIntProperty("metrics.reconcile.interval.seconds", 300);
 
     public LoanService() {
-        this.loanDAO = new LoanDAO();
-        this.bookService = new BookService();
-        this.memberService = new MemberService();
+        this(ApplicationContext.getInstance().getLoanDAO(),
+             ApplicationContext.getInstance().getBookService(),
+             ApplicationContext.getInstance().getMemberService(),
+             ApplicationContext.getInstance().getDashboardMetrics(),
+             ApplicationContext.getInstance().getLoanIdGenerator(),
+             ApplicationContext.getInstance().getLoanCounterMode());
+    }
+
+    public LoanService(LoanRepository loanDAO, BookService bookService, MemberService memberService,
+                       DashboardMetrics dashboardMetrics, LoanIdGenerator loanIdGenerator,
+                       CounterMode counterMode) {
+        this.loanDAO = loanDAO;
+        this.bookService = bookService;
+        this.memberService = memberService;
+        this.dashboardMetrics = dashboardMetrics;
+        this.loanIdGenerator = loanIdGenerator;
+        this.counterMode = counterMode;
     }
 
     /**
      * Crea un nuevo préstamo con validaciones
      */
     public boolean createLoan(int bookId, int memberId, int userId) throws Exception {
-        try {
-            // Validar que el libro existe y está disponible
-            bookService.validateStockAvailability(bookId, 1);
-
-            // Validar que el miembro puede realizar préstamos
-            memberService.validateMemberCanBorrow(memberId);
+        checkoutLoan(bookId, memberId, userId);
+        return true;
+    }
 
+    /**
+     * Crea un nuevo préstamo con validaciones y lo devuelve con el ID asignado por la base de datos
+     */
+    public Loan checkoutLoan(int bookId, int memberId, int userId) throws Exception {
+        LoanOperationEvent event = beginEvent("createLoan", bookId, memberId);
+        try {
             // Crear el préstamo
-            String loanId = generateLoanId();
+            String loanId = loanIdGenerator.nextId();
+            event.loanId = loanId;
             LocalDate loanDate = LocalDate.now();
             LocalDate dueDate = loanDate.plusDays(LOAN_DAYS);
 
             Loan loan = new Loan(loanId, bookId, memberId, userId, loanDate, dueDate);
 
-            // Crear el préstamo en la base de datos
-            boolean loanCreated = loanDAO.create(loan);
-            if (!loanCreated) {
-                throw new RuntimeException("Error al crear el préstamo en la base de datos");
-            }
+            if (counterMode == CounterMode.APPLICATION) {
+                // Una sola transacción: los contadores se validan y actualizan en el mismo UPDATE
+                if (!loanDAO.checkout(loan)) {
+                    // Determinar el motivo del rechazo para informar la excepción adecuada
+                    bookService.validateStockAvailability(bookId, 1);
+                    memberService.validateMemberCanBorrow(memberId);
+                    throw new RuntimeException("Error al crear el préstamo en la base de datos");
+                }
+            } else {
+                // Validar que el libro existe y está disponible
+                bookService.validateStockAvailability(bookId, 1);
 
-            // Actualizar stock del libro
-            boolean stockUpdated = bookService.borrowBook(bookId);
-            if (!stockUpdated) {
-                // Si falla la actualización del stock, eliminar el préstamo
-                loanDAO.delete(loan.getId());
-                throw new RuntimeException("Error al actualizar el stock del libro");
-            }
+                // Validar que el miembro puede realizar préstamos
+                memberService.validateMemberCanBorrow(memberId);
 
-            // Actualizar contador de préstamos del miembro
-            boolean memberUpdated = memberService.incrementMemberLoans(memberId);
-            if (!memberUpdated) {
-                // Si falla la actualización del miembro, revertir cambios
-                bookService.returnBook(bookId);
-                loanDAO.delete(loan.getId());
-                throw new RuntimeException("Error al actualizar el contador de préstamos del miembro");
+                // Los triggers de la base de datos actualizan el stock y el contador del miembro
+                boolean loanCreated = loanDAO.create(loan);
+                if (!loanCreated) {
+                    throw new RuntimeException("Error al crear el préstamo en la base de datos");
+                }
             }
 
+            dashboardMetrics.onLoanCreated(bookId);
+            checkouts.mark();
             logger.info("Préstamo creado exitosamente: " + loanId);
-            return true;
+            commitEvent(event, "OK");
+            return loan;
 
         } catch (Exception e) {
             logger.error("Error al crear préstamo: " + e.getMessage(), e);
+            commitEvent(event, e.getClass().getSimpleName());
             throw e;
         }
     }
@@ -86,6 +124,13 @@ public class LoanService {
         return loanDAO.findById(id);
     }
 
+    /**
+     * Versión actual de un préstamo (para validar copias en caché), o null si no existe
+     */
+    public RecordVersion getLoanVersion(int id) {
+        return loanDAO.findVersion(id);
+    }
+
     /**
      * Busca un préstamo por loan_id
      */
@@ -100,6 +145,13 @@ public class LoanService {
         return loanDAO.findActiveLoans();
     }
 
+    /**
+     * Obtiene una página de los préstamos activos: salta offset filas y devuelve como mucho limit
+     */
+    public List<Loan> getActiveLoans(int offset, int limit) {
+        return loanDAO.findActiveLoansPage(offset, limit);
+    }
+
     /**
      * Obtiene préstamos vencidos
      */
@@ -107,6 +159,13 @@ public class LoanService {
         return loanDAO.findOverdueLoans();
     }
 
+    /**
+     * Obtiene una página de los préstamos vencidos
+     */
+    public List<Loan> getOverdueLoans(int offset, int limit) {
+        return loanDAO.findOverdueLoansPage(offset, limit);
+    }
+
     /**
      * Obtiene préstamos de un miembro
      */
@@ -114,6 +173,13 @@ public class LoanService {
         return loanDAO.findByMember(memberId);
     }
 
+    /**
+     * Obtiene préstamos de un miembro realizados entre dos fechas (to excluida)
+     */
+    public List<Loan> getLoansByMember(int memberId, LocalDate from, LocalDate to) {
+        return loanDAO.findByMember(memberId, from, to);
+    }
+
     /**
      * Obtiene préstamos activos de un miembro
      */
@@ -128,6 +194,13 @@ public class LoanService {
         return loanDAO.findByBook(bookId);
     }
 
+    /**
+     * Obtiene préstamos de un libro realizados entre dos fechas (to excluida)
+     */
+    public List<Loan> getLoansByBook(int bookId, LocalDate from, LocalDate to) {
+        return loanDAO.findByBook(bookId, from, to);
+    }
+
     /**
      * Busca préstamos por término de búsqueda
      */
@@ -139,49 +212,75 @@ public class LoanService {
      * Devuelve un libro (marca el préstamo como devuelto)
      */
     public boolean returnBook(int loanId) throws Exception {
+        LoanOperationEvent event = beginEvent("returnBook", 0, 0);
         try {
-            Loan loan = loanDAO.findById(loanId);
-            if (loan == null) {
-                throw new RuntimeException("Préstamo no encontrado con ID: " + loanId);
-            }
+            // Si otra ventanilla devuelve el mismo préstamo a la vez, el reintento lo verá devuelto
+            ReturnOutcome outcome = OptimisticRetry.execute("devolver préstamo " + loanId, () -> {
+                Loan current = loanDAO.findById(loanId);
+                if (current == null) {
+                    throw new RuntimeException("Préstamo no encontrado con ID: " + loanId);
+                }
 
-            if (loan.isReturned()) {
-                throw new IllegalStateException("El libro ya ha sido devuelto");
-            }
+                if (current.isReturned()) {
+                    throw new IllegalStateException("El libro ya ha sido devuelto");
+                }
 
-            // Marcar préstamo como devuelto
-            loan.markAsReturned();
-            
-            // Calcular multa si aplica
-            if (loan.isOverdue()) {
-                BigDecimal fineAmount = loan.calculateFine(DAILY_FINE_RATE);
-                loan.setFineAmount(fineAmount);
-                logger.info("Multa calculada para préstamo " + loan.getLoanId() + ": $" + fineAmount);
-            }
+                boolean overdue = "OVERDUE".equals(current.getStatus());
+                BigDecimal fine = current.getFineAmount();
 
-            // Actualizar en la base de datos
-            boolean loanUpdated = loanDAO.update(loan);
-            if (!loanUpdated) {
-                throw new RuntimeException("Error al actualizar el préstamo");
-            }
+                // Marcar préstamo como devuelto
+                current.markAsReturned();
 
-            // Actualizar stock del libro
-            boolean stockUpdated = bookService.returnBook(loan.getBookId());
-            if (!stockUpdated) {
-                logger.warning("Error al actualizar el stock del libro, pero el préstamo fue marcado como devuelto");
-            }
+                // Calcular multa si aplica
+                if (current.isOverdue()) {
+                    BigDecimal fineAmount = current.calculateFine(DAILY_FINE_RATE);
+                    current.setFineAmount(fineAmount);
+                    logger.info("Multa calculada para préstamo " + current.getLoanId() + ": $" + fineAmount);
+                }
+
+                // Actualizar en la base de datos
+                boolean updated = counterMode == CounterMode.APPLICATION
+                    ? loanDAO.checkin(current)
+                    : loanDAO.update(current);
+                if (!updated) {
+                    throw new RuntimeException("Error al actualizar el préstamo");
+                }
+                return new ReturnOutcome(current, overdue, fine);
+            });
+            Loan loan = outcome.loan;
+            event.loanId = loan.getLoanId();
+            event.bookId = loan.getBookId();
+            event.memberId = loan.getMemberId();
+            boolean wasOverdue = outcome.wasOverdue;
+            BigDecimal previousFine = outcome.previousFine;
+            dashboardMetrics.onLoanReturned(loan.getBookId(), wasOverdue, wasOverdue ? previousFine : null);
+
+            // tr_loan_returned solo restituye contadores desde ACTIVE; un vencido se corrige aquí
+            if (counterMode == CounterMode.TRIGGER && wasOverdue) {
+                // Actualizar stock del libro
+                boolean stockUpdated = bookService.returnBook(loan.getBookId());
+                if (!stockUpdated) {
+                    logger.warning("Error al actualizar el stock del libro, pero el préstamo fue marcado como devuelto");
+                }
 
-            // Actualizar contador de préstamos del miembro
-            boolean memberUpdated = memberService.decrementMemberLoans(loan.getMemberId());
-            if (!memberUpdated) {
-                logger.warning("Error al actualizar el contador de préstamos del miembro, pero el préstamo fue marcado como devuelto");
+                // Actualizar contador de préstamos del miembro
+                boolean memberUpdated = memberService.decrementMemberLoans(loan.getMemberId());
+                if (!memberUpdated) {
+                    logger.warning("Error al actualizar el contador de préstamos del miembro, pero el préstamo fue marcado como devuelto");
+                }
             }
 
+            returns.mark();
             logger.info("Libro devuelto exitosamente: " + loan.getLoanId());
+            commitEvent(event, "OK");
             return true;
 
         } catch (Exception e) {
             logger.error("Error al devolver libro: " + e.getMessage(), e);
+            if (event.loanId == null) {
+                event.loanId = String.valueOf(loanId);
+            }
+            commitEvent(event, e.getClass().getSimpleName());
             throw e;
         }
     }
@@ -191,26 +290,116 @@ public class LoanService {
      */
     public void updateOverdueLoans() {
         try {
-            List<Loan> activeLoans = loanDAO.findActiveLoans();
-            int updatedCount = 0;
-
-            for (Loan loan : activeLoans) {
-                if (loan.isOverdue()) {
-                    loan.markAsOverdue();
-                    loanDAO.updateStatus(loan.getId(), "OVERDUE");
-                    updatedCount++;
+            updateOverdueLoans(ProgressListener.NONE);
+        } catch (Exception e) {
+            logger.error("Error al actualizar préstamos vencidos: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Marca préstamos vencidos como OVERDUE informando del avance; devuelve cuántos se marcaron.
+     * A diferencia de la versión sin argumentos, los errores se propagan (modo por lotes).
+     */
+    public int updateOverdueLoans(ProgressListener progress) {
+        List<Loan> activeLoans = loanDAO.findActiveLoans();
+        int updatedCount = 0;
+
+        for (int i = 0; i < activeLoans.size(); i++) {
+            if (Thread.currentThread().isInterrupted()) {
+                logger.warning("Barrido de vencidos interrumpido tras revisar " + i + " préstamos");
+                break;
+            }
+            Loan loan = activeLoans.get(i);
+            if (loan.isOverdue()) {
+                loan.markAsOverdue();
+                try {
+                    if (loanDAO.updateStatus(loan.getId(), "OVERDUE", loan.getVersion())) {
+                        updatedCount++;
+                    }
+                } catch (OptimisticLockException e) {
+                    // Devuelto o modificado mientras tanto; el siguiente barrido lo revisará
+                    logger.info("Préstamo omitido en el barrido de vencidos: " + e.getMessage());
                 }
             }
+            progress.onProgress(i + 1, activeLoans.size());
+        }
 
-            if (updatedCount > 0) {
-                logger.info("Se actualizaron " + updatedCount + " préstamos vencidos");
+        if (updatedCount > 0) {
+            dashboardMetrics.onLoansMarkedOverdue(updatedCount);
+            logger.info("Se actualizaron " + updatedCount + " préstamos vencidos");
+        }
+        return updatedCount;
+    }
+
+    /**
+     * Recalcula la multa acumulada de los préstamos vencidos y guarda las que cambiaron;
+     * devuelve cuántas se actualizaron
+     */
+    public int updateFines(ProgressListener progress) {
+        List<Loan> overdueLoans = loanDAO.findOverdueLoans();
+        int updatedCount = 0;
+
+        for (int i = 0; i < overdueLoans.size(); i++) {
+            if (Thread.currentThread().isInterrupted()) {
+                logger.warning("Recálculo de multas interrumpido tras revisar " + i + " préstamos");
+                break;
+            }
+            Loan loan = overdueLoans.get(i);
+            BigDecimal fine = loan.calculateFine(DAILY_FINE_RATE);
+            if (fine.compareTo(loan.getFineAmount()) != 0 && loanDAO.updateFine(loan.getId(), fine)) {
+                // La devolución descuenta del panel la multa guardada, así que cada cambio debe sumarse
+                dashboardMetrics.onFineChanged(fine.subtract(loan.getFineAmount()));
+                updatedCount++;
             }
+            progress.onProgress(i + 1, overdueLoans.size());
+        }
 
-        } catch (Exception e) {
-            logger.error("Error al actualizar préstamos vencidos: " + e.getMessage(), e);
+        logger.info("Multas recalculadas: " + updatedCount + " de " + overdueLoans.size() + " préstamos vencidos");
+        return updatedCount;
+    }
+
+    /**
+     * Obtiene los contadores del panel en vivo sin consultar la base de datos en cada refresco
+     */
+    public DashboardMetrics.Snapshot getDashboardSnapshot() {
+        dashboardMetrics.startReconciliation(RECONCILE_INTERVAL_SECONDS);
+        return dashboardMetrics.snapshot();
+    }
+
+    /**
+     * Inicia el evento JFR de una operación; sin grabación activa no registra nada
+     */
+    private static LoanOperationEvent beginEvent(String operation, int bookId, int memberId) {
+        LoanOperationEvent event = new LoanOperationEvent();
+        event.operation = operation;
+        event.bookId = bookId;
+        event.memberId = memberId;
+        event.begin();
+        return event;
+    }
+
+    private static void commitEvent(LoanOperationEvent event, String outcome) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.outcome = outcome;
+            event.commit();
         }
     }
 
+    /**
+     * Préstamos creados por esta instancia del servicio
+     */
+    public ThroughputMeter getCheckoutMeter() {
+        return checkouts;
+    }
+
+    /**
+     * Devoluciones registradas por esta instancia del servicio
+     */
+    public ThroughputMeter getReturnMeter() {
+        return returns;
+    }
+
     /**
      * Calcula la multa de un préstamo
      */
@@ -223,32 +412,23 @@ public class LoanService {
         return loan.calculateFine(DAILY_FINE_RATE);
     }
 
+    /**
+     * Obtiene las estadísticas agregadas de préstamos (un solo viaje a la base de datos)
+     */
+    public LoanStatistics getStatistics() {
+        LoanStatistics statistics = loanDAO.getStatistics();
+        if (statistics == null) {
+            throw new RuntimeException("Error al obtener estadísticas de préstamos");
+        }
+        return statistics;
+    }
+
     /**
      * Obtiene estadísticas de préstamos
      */
     public String getLoanStatistics() {
         try {
-            List<Loan> activeLoans = loanDAO.findActiveLoans();
-            List<Loan> overdueLoans = loanDAO.findOverdueLoans();
-
-            int totalActive = activeLoans.size();
-            int totalOverdue = overdueLoans.size();
-
-            BigDecimal totalFines = BigDecimal.ZERO;
-            for (Loan loan : overdueLoans) {
-                totalFines = totalFines.add(loan.getFineAmount());
-            }
-
-            return String.format(
-                "=== ESTADÍSTICAS DE PRÉSTAMOS ===\n" +
-                "Préstamos activos: %d\n" +
-                "Préstamos vencidos: %d\n" +
-                "Total de multas: $%.2f\n" +
-                "Fecha de consulta: %s",
-                totalActive, totalOverdue, totalFines, 
-                LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"))
-            );
-
+            return formatStatistics(getStatistics());
         } catch (Exception e) {
             logger.error("Error al obtener estadísticas: " + e.getMessage(), e);
             return "Error al obtener estadísticas de préstamos";
@@ -256,10 +436,35 @@ public class LoanService {
     }
 
     /**
-     * Genera un ID único para el préstamo
+     * Da formato de texto a las estadísticas de préstamos
      */
-    private String generateLoanId() {
-        return "LOAN-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    static String formatStatistics(LoanStatistics statistics) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(
+            "=== ESTADÍSTICAS DE PRÉSTAMOS ===\n" +
+            "Préstamos activos: %d\n" +
+            "Préstamos vencidos: %d\n" +
+            "Préstamos devueltos: %d\n" +
+            "Total de multas: $%.2f\n",
+            statistics.getActiveLoans(), statistics.getOverdueLoans(), statistics.getReturnedLoans(),
+            statistics.getFinesOutstanding()
+        ));
+
+        if (!statistics.getOpenLoansByCategory().isEmpty()) {
+            sb.append("\nPréstamos en curso por categoría:\n");
+            statistics.getOpenLoansByCategory().forEach((category, count) ->
+                sb.append("  ").append(category).append(": ").append(count).append("\n"));
+        }
+
+        if (!statistics.getOpenLoansByMembershipType().isEmpty()) {
+            sb.append("\nPréstamos en curso por tipo de membresía:\n");
+            statistics.getOpenLoansByMembershipType().forEach((type, count) ->
+                sb.append("  ").append(type).append(": ").append(count).append("\n"));
+        }
+
+        sb.append("Fecha de consulta: ")
+          .append(statistics.getGeneratedAt().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
+        return sb.toString();
     }
 
     /**
@@ -275,4 +480,40 @@ public class LoanService {
     public static BigDecimal getDailyFineRate() {
         return DAILY_FINE_RATE;
     }
+
+    /**
+     * Días que abarcan por defecto los historiales de un miembro o de un libro
+     */
+    public static int getHistoryDays() {
+        return HISTORY_DAYS;
+    }
+
+    /**
+     * Quién mantiene available_stock y current_loans al prestar y devolver
+     */
+    public enum CounterMode {
+        /** La aplicación, en la misma transacción que el préstamo (requiere la migración V3) */
+        APPLICATION,
+        /** Los triggers tr_loan_created y tr_loan_returned del esquema original */
+        TRIGGER
+    }
+
+    public CounterMode getCounterMode() {
+        return counterMode;
+    }
+
+    /**
+     * Resultado de marcar un préstamo como devuelto, con su estado anterior
+     */
+    private static final class ReturnOutcome {
+        private final Loan loan;
+        private final boolean wasOverdue;
+        private final BigDecimal previousFine;
+
+        ReturnOutcome(Loan loan, boolean wasOverdue, BigDecimal previousFine) {
+            this.loan = loan;
+            this.wasOverdue = wasOverdue;
+            this.previousFine = previousFine;
+        }
+    }
 }
@@ -1,9 +1,12 @@
 package com.libronova.service;
 
-import com.libronova.dao.MemberDAO;
+import com.libronova.config.ApplicationContext;
+import com.libronova.dao.MemberRepository;
 import com.libronova.exception.MemberNotFoundException;
 import com.libronova.exception.MemberLimitExceededException;
+import com.libronova.exception.OptimisticLockException;
 import com.libronova.model.Member;
+import com.libronova.model.RecordVersion;
 import com.libronova.util.Logger;
 
 import java.time.LocalDate;
@@ -14,11 +17,15 @@ import java.util.List;
  * Servicio para la gestión de miembros con validaciones de negocio
  */
 public class MemberService {
-    private final MemberDAO memberDAO;
+    private final MemberRepository memberDAO;
     private static final Logger logger = Logger.getInstance();
 
     public MemberService() {
-        this.memberDAO = new MemberDAO();
+        this(ApplicationContext.getInstance().getMemberDAO());
+    }
+
+    public MemberService(MemberRepository memberDAO) {
+        this.memberDAO = memberDAO;
     }
 
     /**
@@ -56,6 +63,13 @@ public class MemberService {
         return member;
     }
 
+    /**
+     * Versión actual de un miembro (para validar copias en caché), o null si no existe
+     */
+    public RecordVersion getMemberVersion(int id) {
+        return memberDAO.findVersion(id);
+    }
+
     /**
      * Busca un miembro por member_id
      */
@@ -74,6 +88,13 @@ public class MemberService {
         return memberDAO.findAll();
     }
 
+    /**
+     * Obtiene una página de los miembros: salta offset filas y devuelve como mucho limit
+     */
+    public List<Member> getAllMembers(int offset, int limit) {
+        return memberDAO.findAllPage(offset, limit);
+    }
+
     /**
      * Obtiene miembros que pueden realizar préstamos
      */
@@ -81,6 +102,13 @@ public class MemberService {
         return memberDAO.findActiveMembers();
     }
 
+    /**
+     * Obtiene una página de los miembros que pueden realizar préstamos
+     */
+    public List<Member> getActiveMembers(int offset, int limit) {
+        return memberDAO.findActiveMembersPage(offset, limit);
+    }
+
     /**
      * Busca miembros por término de búsqueda
      */
@@ -89,19 +117,23 @@ public class MemberService {
     }
 
     /**
-     * Actualiza un miembro
+     * Actualiza un miembro con la versión con la que se leyó.
+     *
+     * Si otro usuario lo modificó desde entonces (también un préstamo o una devolución, que cambian
+     * current_loans) se lanza OptimisticLockException sin reintentar, y hay que volver a leerlo
+     * antes de editarlo.
      */
-    public boolean updateMember(Member member) throws MemberNotFoundException {
+    public boolean updateMember(Member member) throws MemberNotFoundException, OptimisticLockException {
         try {
+            // Validar datos del miembro
+            validateMemberData(member);
+
             // Validar que el miembro existe
             Member existingMember = memberDAO.findById(member.getId());
             if (existingMember == null) {
                 throw new MemberNotFoundException("Miembro no encontrado con ID: " + member.getId());
             }
 
-            // Validar datos del miembro
-            validateMemberData(member);
-
             // Validar que el member_id sea único (si cambió)
             if (!existingMember.getMemberId().equals(member.getMemberId())) {
                 if (memberDAO.findByMemberId(member.getMemberId()) != null) {
@@ -178,15 +210,17 @@ public class MemberService {
     /**
      * Incrementa el contador de préstamos de un miembro
      */
-    public boolean incrementMemberLoans(int memberId) throws MemberNotFoundException {
+    public boolean incrementMemberLoans(int memberId) throws MemberNotFoundException, OptimisticLockException {
         try {
-            Member member = memberDAO.findById(memberId);
-            if (member == null) {
-                throw new MemberNotFoundException("Miembro no encontrado con ID: " + memberId);
-            }
+            boolean result = OptimisticRetry.execute("incrementar préstamos del miembro " + memberId, () -> {
+                Member member = memberDAO.findById(memberId);
+                if (member == null) {
+                    throw new MemberNotFoundException("Miembro no encontrado con ID: " + memberId);
+                }
 
-            member.incrementLoans();
-            boolean result = memberDAO.updateCurrentLoans(memberId, member.getCurrentLoans());
+                member.incrementLoans();
+                return memberDAO.updateCurrentLoans(memberId, member.getCurrentLoans(), member.getVersion());
+            });
             
             if (result) {
                 logger.info("Préstamos incrementados para miembro ID: " + memberId);
@@ -201,15 +235,17 @@ public class MemberService {
     /**
      * Decrementa el contador de préstamos de un miembro
      */
-    public boolean decrementMemberLoans(int memberId) throws MemberNotFoundException {
+    public boolean decrementMemberLoans(int memberId) throws MemberNotFoundException, OptimisticLockException {
         try {
-            Member member = memberDAO.findById(memberId);
-            if (member == null) {
-                throw new MemberNotFoundException("Miembro no encontrado con ID: " + memberId);
-            }
+            boolean result = OptimisticRetry.execute("decrementar préstamos del miembro " + memberId, () -> {
+                Member member = memberDAO.findById(memberId);
+                if (member == null) {
+                    throw new MemberNotFoundException("Miembro no encontrado con ID: " + memberId);
+                }
 
-            member.decrementLoans();
-            boolean result = memberDAO.updateCurrentLoans(memberId, member.getCurrentLoans());
+                member.decrementLoans();
+                return memberDAO.updateCurrentLoans(memberId, member.getCurrentLoans(), member.getVersion());
+            });
             
             if (result) {
                 logger.info("Préstamos decrementados para miembro ID: " + memberId);
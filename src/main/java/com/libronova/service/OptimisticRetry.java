@@ -0,0 +1,65 @@
+package com.libronova.service;
+
+import com.libronova.config.DatabaseConfig;
+import com.libronova.exception.OptimisticLockException;
+import com.libronova.util.Logger;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reintento acotado de operaciones de lectura-modificación-escritura con bloqueo optimista.
+ *
+ * Cada intento debe volver a leer la fila, aplicar el cambio y escribir condicionado a la
+ * versión leída. Si otro usuario la modificó entre medias, el intento se repite con una
+ * pequeña espera aleatoria; agotados los reintentos se propaga el conflicto.
+ */
+final class OptimisticRetry {
+    private static final Logger logger = Logger.getInstance();
+    private static final int MAX_RETRIES = DatabaseConfig.getIntProperty("db.optimistic.max.retries", 3);
+    private static final long BASE_BACKOFF_MILLIS = 5;
+
+    /**
+     * Un intento de la operación
+     */
+    @FunctionalInterface
+    interface Attempt<T, E extends Exception> {
+        T run() throws E, OptimisticLockException;
+    }
+
+    private OptimisticRetry() {}
+
+    /**
+     * Ejecuta la operación reintentando ante conflictos de versión
+     */
+    static <T, E extends Exception> T execute(String operation, Attempt<T, E> attempt)
+            throws E, OptimisticLockException {
+        return execute(operation, MAX_RETRIES, attempt);
+    }
+
+    static <T, E extends Exception> T execute(String operation, int maxRetries, Attempt<T, E> attempt)
+            throws E, OptimisticLockException {
+        for (int retry = 0; ; retry++) {
+            try {
+                return attempt.run();
+            } catch (OptimisticLockException e) {
+                if (retry >= maxRetries) {
+                    logger.warning("Conflicto de concurrencia persistente en " + operation + ": " + e.getMessage());
+                    throw e;
+                }
+                logger.info("Conflicto de versión en " + operation + ", reintento " + (retry + 1));
+                backoff(retry);
+            }
+        }
+    }
+
+    private static void backoff(int retry) throws OptimisticLockException {
+        long bound = BASE_BACKOFF_MILLIS << Math.min(retry, 4);
+        try {
+            TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OptimisticLockException("Reintento interrumpido", e);
+        }
+    }
+}
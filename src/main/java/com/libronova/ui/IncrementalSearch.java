@@ -0,0 +1,160 @@
+package com.libronova.ui;
+
+import com.libronova.util.CancellableQuery;
+import com.libronova.util.Logger;
+import com.libronova.util.SearchText;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Lógica de búsqueda incremental independiente de Swing.
+ *
+ * Cada nueva búsqueda invalida la anterior (las respuestas obsoletas se descartan y su
+ * sentencia SQL se cancela con CancellableQuery, no solo se interrumpe el hilo) y,
+ * cuando el término nuevo extiende al último consultado, se filtra localmente el
+ * resultado previo en lugar de volver a consultar la base de datos. El término se normaliza con
+ * SearchText, la misma comparación que usan los repositorios en memoria.
+ */
+public class IncrementalSearch<T> {
+    private static final Logger logger = Logger.getInstance();
+
+    private final Function<String, List<T>> query;
+    private final BiPredicate<T, String> matcher;
+    private final ExecutorService executor;
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile String lastTerm;
+    private volatile List<T> lastResults = Collections.emptyList();
+    private Future<?> inFlight;
+    private CancellableQuery inFlightQuery;
+
+    /**
+     * @param query    consulta completa contra el servicio (se ejecuta fuera del hilo de eventos)
+     * @param matcher  filtro local equivalente a la consulta, o null si no puede replicarse
+     * @param executor ejecutor en segundo plano para consultas y filtrados
+     */
+    public IncrementalSearch(Function<String, List<T>> query, BiPredicate<T, String> matcher,
+                             ExecutorService executor) {
+        this.query = query;
+        this.matcher = matcher;
+        this.executor = executor;
+    }
+
+    /**
+     * Lanza una búsqueda, cancelando la que estuviera en curso
+     */
+    public synchronized void search(String term, Consumer<Result<T>> onResult) {
+        final long current = generation.incrementAndGet();
+        cancelInFlight();
+
+        final String normalized = SearchText.normalize(term);
+        final String previousTerm = lastTerm;
+        final List<T> previousResults = lastResults;
+
+        final CancellableQuery cancellable = new CancellableQuery();
+        inFlightQuery = cancellable;
+        inFlight = executor.submit(() -> {
+            long start = System.nanoTime();
+            try {
+                boolean narrowed = matcher != null && previousTerm != null
+                        && normalized.startsWith(previousTerm);
+                List<T> results = narrowed
+                        ? filter(previousResults, normalized)
+                        : cancellable.run(() -> query.apply(term));
+
+                if (current != generation.get() || Thread.currentThread().isInterrupted()) {
+                    return; // Respuesta obsoleta: ya hay una búsqueda más reciente
+                }
+
+                synchronized (this) {
+                    lastTerm = normalized;
+                    lastResults = results;
+                }
+                long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+                onResult.accept(new Result<>(term, results, narrowed, elapsedMs));
+            } catch (Exception e) {
+                if (current == generation.get()) {
+                    logger.error("Error en búsqueda incremental: " + e.getMessage(), e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Invalida la búsqueda en curso y olvida el último resultado
+     */
+    public synchronized void reset() {
+        generation.incrementAndGet();
+        cancelInFlight();
+        inFlight = null;
+        inFlightQuery = null;
+        lastTerm = null;
+        lastResults = Collections.emptyList();
+    }
+
+    /**
+     * Cancela la búsqueda en curso: interrumpe su tarea y cancela su sentencia en el servidor
+     */
+    private void cancelInFlight() {
+        if (inFlight != null) {
+            inFlight.cancel(true);
+        }
+        if (inFlightQuery != null) {
+            inFlightQuery.cancel();
+        }
+    }
+
+    /**
+     * Filtra localmente un resultado previo con el término normalizado
+     */
+    private List<T> filter(List<T> source, String normalizedTerm) {
+        List<T> filtered = new ArrayList<>();
+        for (T item : source) {
+            if (matcher.test(item, normalizedTerm)) {
+                filtered.add(item);
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * Resultado de una búsqueda entregada al consumidor
+     */
+    public static class Result<T> {
+        private final String term;
+        private final List<T> items;
+        private final boolean narrowed;
+        private final long elapsedMs;
+
+        public Result(String term, List<T> items, boolean narrowed, long elapsedMs) {
+            this.term = term;
+            this.items = items;
+            this.narrowed = narrowed;
+            this.elapsedMs = elapsedMs;
+        }
+
+        public String getTerm() {
+            return term;
+        }
+
+        public List<T> getItems() {
+            return items;
+        }
+
+        public boolean isNarrowed() {
+            return narrowed;
+        }
+
+        public long getElapsedMs() {
+            return elapsedMs;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.libronova.ui;
 
+import com.libronova.config.ApplicationContext;
+import com.libronova.config.DatabaseConfig;
+import com.libronova.metrics.DashboardMetrics;
 import com.libronova.model.Book;
 import com.libronova.model.Member;
 import com.libronova.model.Loan;
@@ -8,6 +11,7 @@ import com.libronova.service.MemberService;
 import com.libronova.service.LoanService;
 import com.libronova.util.Logger;
 import com.libronova.util.CSVExporter;
+import com.libronova.util.SearchText;
 
 import javax.swing.*;
 import java.time.LocalDate;
@@ -18,15 +22,28 @@ import java.util.List;
  * Interfaz de usuario principal del sistema LibroNova
  */
 public class LibroNovaUI {
-    private final BookService bookService;
-    private final MemberService memberService;
-    private final LoanService loanService;
+    private final ApplicationContext context;
     private static final Logger logger = Logger.getInstance();
 
     public LibroNovaUI() {
-        this.bookService = new BookService();
-        this.memberService = new MemberService();
-        this.loanService = new LoanService();
+        this(ApplicationContext.getInstance());
+    }
+
+    public LibroNovaUI(ApplicationContext context) {
+        this.context = context;
+    }
+
+    // Los servicios se obtienen al usarse: el menú principal no necesita ninguno
+    private BookService bookService() {
+        return context.getBookService();
+    }
+
+    private MemberService memberService() {
+        return context.getMemberService();
+    }
+
+    private LoanService loanService() {
+        return context.getLoanService();
     }
 
     /**
@@ -193,7 +210,10 @@ public class LibroNovaUI {
                 "Buscar Préstamo",
                 "Listar Préstamos Activos",
                 "Listar Préstamos Vencidos",
+                "Historial de Miembro",
+                "Historial de Libro",
                 "Estadísticas",
+                "Panel en Vivo",
                 "Volver al Menú Principal"
             };
 
@@ -225,9 +245,18 @@ public class LibroNovaUI {
                     listOverdueLoans();
                     break;
                 case 5:
-                    showLoanStatistics();
+                    showMemberHistory();
                     break;
                 case 6:
+                    showBookHistory();
+                    break;
+                case 7:
+                    showLoanStatistics();
+                    break;
+                case 8:
+                    showDashboard();
+                    break;
+                case 9:
                 case JOptionPane.CLOSED_OPTION:
                     return;
                 default:
@@ -278,6 +307,7 @@ public class LibroNovaUI {
     private void showConfigMenu() {
         String[] options = {
             "Ver Configuración",
+            "Archivar Préstamos Devueltos",
             "Volver al Menú Principal"
         };
 
@@ -297,6 +327,9 @@ public class LibroNovaUI {
                 showConfiguration();
                 break;
             case 1:
+                archiveReturnedLoans();
+                break;
+            case 2:
             case JOptionPane.CLOSED_OPTION:
                 return;
             default:
@@ -331,7 +364,7 @@ public class LibroNovaUI {
 
             Book book = new Book(isbn, title, author, publisher, LocalDate.now(), category, stock);
             
-            if (bookService.createBook(book)) {
+            if (bookService().createBook(book)) {
                 JOptionPane.showMessageDialog(null, "Libro agregado exitosamente!");
             } else {
                 JOptionPane.showMessageDialog(null, "Error al agregar el libro.");
@@ -344,23 +377,18 @@ public class LibroNovaUI {
     }
 
     /**
-     * Busca un libro
+     * Busca un libro mientras el usuario escribe
      */
     private void searchBook() {
-        String searchTerm = JOptionPane.showInputDialog("Ingrese el término de búsqueda (título, autor o ISBN):");
-        if (searchTerm == null || searchTerm.trim().isEmpty()) return;
-
-        try {
-            List<Book> books = bookService.searchBooks(searchTerm);
-            if (books.isEmpty()) {
-                JOptionPane.showMessageDialog(null, "No se encontraron libros con ese criterio.");
-            } else {
-                showBookList(books, "Resultados de Búsqueda");
-            }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(null, "Error: " + e.getMessage());
-            logger.error("Error al buscar libros: " + e.getMessage(), e);
-        }
+        new LiveSearchDialog<Book>(
+            "Buscar Libro (título, autor o ISBN)",
+            executor -> new IncrementalSearch<>(
+                bookService()::searchBooks,
+                (book, term) -> SearchText.containsAny(term, book.getTitle(), book.getAuthor(), book.getIsbn()),
+                executor),
+            book -> book.getId() + " - " + book.getTitle() + " (" + book.getAuthor() + ") - Disponible: " + book.getAvailableStock(),
+            book -> formatBook(book)
+        ).show();
     }
 
     /**
@@ -368,7 +396,7 @@ public class LibroNovaUI {
      */
     private void listBooks() {
         try {
-            List<Book> books = bookService.getAllBooks();
+            List<Book> books = bookService().getAllBooks();
             if (books.isEmpty()) {
                 JOptionPane.showMessageDialog(null, "No hay libros registrados.");
             } else {
@@ -388,21 +416,28 @@ public class LibroNovaUI {
         sb.append("=== ").append(title).append(" ===\n\n");
         
         for (Book book : books) {
-            sb.append("ID: ").append(book.getId()).append("\n");
-            sb.append("ISBN: ").append(book.getIsbn()).append("\n");
-            sb.append("Título: ").append(book.getTitle()).append("\n");
-            sb.append("Autor: ").append(book.getAuthor()).append("\n");
-            sb.append("Editorial: ").append(book.getPublisher()).append("\n");
-            sb.append("Categoría: ").append(book.getCategory()).append("\n");
-            sb.append("Stock: ").append(book.getStock()).append("\n");
-            sb.append("Disponible: ").append(book.getAvailableStock()).append("\n");
-            sb.append("Estado: ").append(book.isActive() ? "Activo" : "Inactivo").append("\n");
-            sb.append("---\n");
+            sb.append(formatBook(book));
         }
 
         JOptionPane.showMessageDialog(null, sb.toString());
     }
 
+    /**
+     * Formatea el detalle de un libro
+     */
+    private String formatBook(Book book) {
+        return "ID: " + book.getId() + "\n" +
+               "ISBN: " + book.getIsbn() + "\n" +
+               "Título: " + book.getTitle() + "\n" +
+               "Autor: " + book.getAuthor() + "\n" +
+               "Editorial: " + book.getPublisher() + "\n" +
+               "Categoría: " + book.getCategory() + "\n" +
+               "Stock: " + book.getStock() + "\n" +
+               "Disponible: " + book.getAvailableStock() + "\n" +
+               "Estado: " + (book.isActive() ? "Activo" : "Inactivo") + "\n" +
+               "---\n";
+    }
+
     /**
      * Actualiza un libro
      */
@@ -412,7 +447,7 @@ public class LibroNovaUI {
             if (idStr == null || idStr.trim().isEmpty()) return;
 
             int id = Integer.parseInt(idStr);
-            Book book = bookService.findBookById(id);
+            Book book = bookService().findBookById(id);
 
             String title = JOptionPane.showInputDialog("Título actual: " + book.getTitle() + "\nIngrese el nuevo título:");
             if (title != null && !title.trim().isEmpty()) {
@@ -424,7 +459,7 @@ public class LibroNovaUI {
                 book.setAuthor(author);
             }
 
-            if (bookService.updateBook(book)) {
+            if (bookService().updateBook(book)) {
                 JOptionPane.showMessageDialog(null, "Libro actualizado exitosamente!");
             } else {
                 JOptionPane.showMessageDialog(null, "Error al actualizar el libro.");
@@ -454,7 +489,7 @@ public class LibroNovaUI {
             );
 
             if (confirm == JOptionPane.YES_OPTION) {
-                if (bookService.deleteBook(id)) {
+                if (bookService().deleteBook(id)) {
                     JOptionPane.showMessageDialog(null, "Libro eliminado exitosamente!");
                 } else {
                     JOptionPane.showMessageDialog(null, "Error al eliminar el libro.");
@@ -505,7 +540,7 @@ public class LibroNovaUI {
 
             Member member = new Member(memberId, firstName, lastName, email, phone, address, LocalDate.now(), membershipType);
             
-            if (memberService.createMember(member)) {
+            if (memberService().createMember(member)) {
                 JOptionPane.showMessageDialog(null, "Miembro agregado exitosamente!");
             } else {
                 JOptionPane.showMessageDialog(null, "Error al agregar el miembro.");
@@ -518,23 +553,19 @@ public class LibroNovaUI {
     }
 
     /**
-     * Busca un miembro
+     * Busca un miembro mientras el usuario escribe
      */
     private void searchMember() {
-        String searchTerm = JOptionPane.showInputDialog("Ingrese el término de búsqueda (nombre, apellido, ID o email):");
-        if (searchTerm == null || searchTerm.trim().isEmpty()) return;
-
-        try {
-            List<Member> members = memberService.searchMembers(searchTerm);
-            if (members.isEmpty()) {
-                JOptionPane.showMessageDialog(null, "No se encontraron miembros con ese criterio.");
-            } else {
-                showMemberList(members, "Resultados de Búsqueda");
-            }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(null, "Error: " + e.getMessage());
-            logger.error("Error al buscar miembros: " + e.getMessage(), e);
-        }
+        new LiveSearchDialog<Member>(
+            "Buscar Miembro (nombre, apellido, ID o email)",
+            executor -> new IncrementalSearch<>(
+                memberService()::searchMembers,
+                (member, term) -> SearchText.containsAny(term, member.getFirstName(), member.getLastName(),
+                    member.getMemberId(), member.getEmail()),
+                executor),
+            member -> member.getId() + " - " + member.getMemberId() + " - " + member.getFullName() + " <" + member.getEmail() + ">",
+            member -> formatMember(member)
+        ).show();
     }
 
     /**
@@ -542,7 +573,7 @@ public class LibroNovaUI {
      */
     private void listMembers() {
         try {
-            List<Member> members = memberService.getAllMembers();
+            List<Member> members = memberService().getAllMembers();
             if (members.isEmpty()) {
                 JOptionPane.showMessageDialog(null, "No hay miembros registrados.");
             } else {
@@ -562,20 +593,27 @@ public class LibroNovaUI {
         sb.append("=== ").append(title).append(" ===\n\n");
         
         for (Member member : members) {
-            sb.append("ID: ").append(member.getId()).append("\n");
-            sb.append("ID Miembro: ").append(member.getMemberId()).append("\n");
-            sb.append("Nombre: ").append(member.getFullName()).append("\n");
-            sb.append("Email: ").append(member.getEmail()).append("\n");
-            sb.append("Teléfono: ").append(member.getPhone()).append("\n");
-            sb.append("Tipo: ").append(member.getMembershipType()).append("\n");
-            sb.append("Préstamos: ").append(member.getCurrentLoans()).append("/").append(member.getMaxLoans()).append("\n");
-            sb.append("Estado: ").append(member.isActive() ? "Activo" : "Inactivo").append("\n");
-            sb.append("---\n");
+            sb.append(formatMember(member));
         }
 
         JOptionPane.showMessageDialog(null, sb.toString());
     }
 
+    /**
+     * Formatea el detalle de un miembro
+     */
+    private String formatMember(Member member) {
+        return "ID: " + member.getId() + "\n" +
+               "ID Miembro: " + member.getMemberId() + "\n" +
+               "Nombre: " + member.getFullName() + "\n" +
+               "Email: " + member.getEmail() + "\n" +
+               "Teléfono: " + member.getPhone() + "\n" +
+               "Tipo: " + member.getMembershipType() + "\n" +
+               "Préstamos: " + member.getCurrentLoans() + "/" + member.getMaxLoans() + "\n" +
+               "Estado: " + (member.isActive() ? "Activo" : "Inactivo") + "\n" +
+               "---\n";
+    }
+
     /**
      * Actualiza un miembro
      */
@@ -585,7 +623,7 @@ public class LibroNovaUI {
             if (idStr == null || idStr.trim().isEmpty()) return;
 
             int id = Integer.parseInt(idStr);
-            Member member = memberService.findMemberById(id);
+            Member member = memberService().findMemberById(id);
 
             String firstName = JOptionPane.showInputDialog("Nombre actual: " + member.getFirstName() + "\nIngrese el nuevo nombre:");
             if (firstName != null && !firstName.trim().isEmpty()) {
@@ -597,7 +635,7 @@ public class LibroNovaUI {
                 member.setLastName(lastName);
             }
 
-            if (memberService.updateMember(member)) {
+            if (memberService().updateMember(member)) {
                 JOptionPane.showMessageDialog(null, "Miembro actualizado exitosamente!");
             } else {
                 JOptionPane.showMessageDialog(null, "Error al actualizar el miembro.");
@@ -627,7 +665,7 @@ public class LibroNovaUI {
             );
 
             if (confirm == JOptionPane.YES_OPTION) {
-                if (memberService.deleteMember(id)) {
+                if (memberService().deleteMember(id)) {
                     JOptionPane.showMessageDialog(null, "Miembro eliminado exitosamente!");
                 } else {
                     JOptionPane.showMessageDialog(null, "Error al eliminar el miembro.");
@@ -655,7 +693,7 @@ public class LibroNovaUI {
             int memberId = Integer.parseInt(memberIdStr);
             int userId = 1; // Usuario por defecto
 
-            if (loanService.createLoan(bookId, memberId, userId)) {
+            if (loanService().createLoan(bookId, memberId, userId)) {
                 JOptionPane.showMessageDialog(null, "Préstamo realizado exitosamente!");
             } else {
                 JOptionPane.showMessageDialog(null, "Error al realizar el préstamo.");
@@ -677,7 +715,7 @@ public class LibroNovaUI {
 
             int loanId = Integer.parseInt(loanIdStr);
 
-            if (loanService.returnBook(loanId)) {
+            if (loanService().returnBook(loanId)) {
                 JOptionPane.showMessageDialog(null, "Libro devuelto exitosamente!");
             } else {
                 JOptionPane.showMessageDialog(null, "Error al devolver el libro.");
@@ -690,23 +728,16 @@ public class LibroNovaUI {
     }
 
     /**
-     * Busca un préstamo
+     * Busca un préstamo mientras el usuario escribe
      */
     private void searchLoan() {
-        String searchTerm = JOptionPane.showInputDialog("Ingrese el término de búsqueda:");
-        if (searchTerm == null || searchTerm.trim().isEmpty()) return;
-
-        try {
-            List<Loan> loans = loanService.searchLoans(searchTerm);
-            if (loans.isEmpty()) {
-                JOptionPane.showMessageDialog(null, "No se encontraron préstamos con ese criterio.");
-            } else {
-                showLoanList(loans, "Resultados de Búsqueda");
-            }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(null, "Error: " + e.getMessage());
-            logger.error("Error al buscar préstamos: " + e.getMessage(), e);
-        }
+        // La búsqueda de préstamos cruza miembros y libros en SQL, por lo que no se filtra localmente
+        new LiveSearchDialog<Loan>(
+            "Buscar Préstamo",
+            executor -> new IncrementalSearch<>(loanService()::searchLoans, null, executor),
+            loan -> loan.getId() + " - " + loan.getLoanId() + " - " + loan.getStatus() + " - vence " + loan.getDueDate(),
+            loan -> formatLoan(loan)
+        ).show();
     }
 
     /**
@@ -714,7 +745,7 @@ public class LibroNovaUI {
      */
     private void listActiveLoans() {
         try {
-            List<Loan> loans = loanService.getActiveLoans();
+            List<Loan> loans = loanService().getActiveLoans();
             if (loans.isEmpty()) {
                 JOptionPane.showMessageDialog(null, "No hay préstamos activos.");
             } else {
@@ -731,7 +762,7 @@ public class LibroNovaUI {
      */
     private void listOverdueLoans() {
         try {
-            List<Loan> loans = loanService.getOverdueLoans();
+            List<Loan> loans = loanService().getOverdueLoans();
             if (loans.isEmpty()) {
                 JOptionPane.showMessageDialog(null, "No hay préstamos vencidos.");
             } else {
@@ -751,23 +782,90 @@ public class LibroNovaUI {
         sb.append("=== ").append(title).append(" ===\n\n");
         
         for (Loan loan : loans) {
-            sb.append("ID: ").append(loan.getId()).append("\n");
-            sb.append("ID Préstamo: ").append(loan.getLoanId()).append("\n");
-            sb.append("Libro ID: ").append(loan.getBookId()).append("\n");
-            sb.append("Miembro ID: ").append(loan.getMemberId()).append("\n");
-            sb.append("Fecha Préstamo: ").append(loan.getLoanDate()).append("\n");
-            sb.append("Fecha Vencimiento: ").append(loan.getDueDate()).append("\n");
-            if (loan.getReturnDate() != null) {
-                sb.append("Fecha Devolución: ").append(loan.getReturnDate()).append("\n");
+            sb.append(formatLoan(loan));
+        }
+
+        JOptionPane.showMessageDialog(null, sb.toString());
+    }
+
+    /**
+     * Formatea el detalle de un préstamo
+     */
+    private String formatLoan(Loan loan) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("ID: ").append(loan.getId()).append("\n");
+        sb.append("ID Préstamo: ").append(loan.getLoanId()).append("\n");
+        sb.append("Libro ID: ").append(loan.getBookId()).append("\n");
+        sb.append("Miembro ID: ").append(loan.getMemberId()).append("\n");
+        sb.append("Fecha Préstamo: ").append(loan.getLoanDate()).append("\n");
+        sb.append("Fecha Vencimiento: ").append(loan.getDueDate()).append("\n");
+        if (loan.getReturnDate() != null) {
+            sb.append("Fecha Devolución: ").append(loan.getReturnDate()).append("\n");
+        }
+        sb.append("Estado: ").append(loan.getStatus()).append("\n");
+        if (loan.getFineAmount().compareTo(java.math.BigDecimal.ZERO) > 0) {
+            sb.append("Multa: $").append(loan.getFineAmount()).append("\n");
+        }
+        sb.append("---\n");
+        return sb.toString();
+    }
+
+    /**
+     * Muestra los préstamos de un miembro en un rango de fechas
+     */
+    private void showMemberHistory() {
+        try {
+            String idStr = JOptionPane.showInputDialog("Ingrese el ID del miembro:");
+            if (idStr == null || idStr.trim().isEmpty()) return;
+
+            int memberId = Integer.parseInt(idStr.trim());
+            LocalDate from = askHistoryStart();
+            if (from == null) return;
+
+            List<Loan> loans = loanService().getLoansByMember(memberId, from, LocalDate.now().plusDays(1));
+            if (loans.isEmpty()) {
+                JOptionPane.showMessageDialog(null, "El miembro no tiene préstamos desde " + from + ".");
+            } else {
+                showLoanList(loans, "Historial del Miembro " + memberId + " desde " + from);
             }
-            sb.append("Estado: ").append(loan.getStatus()).append("\n");
-            if (loan.getFineAmount().compareTo(java.math.BigDecimal.ZERO) > 0) {
-                sb.append("Multa: $").append(loan.getFineAmount()).append("\n");
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(null, "Error: " + e.getMessage());
+            logger.error("Error al mostrar el historial del miembro: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Muestra los préstamos de un libro en un rango de fechas
+     */
+    private void showBookHistory() {
+        try {
+            String idStr = JOptionPane.showInputDialog("Ingrese el ID del libro:");
+            if (idStr == null || idStr.trim().isEmpty()) return;
+
+            int bookId = Integer.parseInt(idStr.trim());
+            LocalDate from = askHistoryStart();
+            if (from == null) return;
+
+            List<Loan> loans = loanService().getLoansByBook(bookId, from, LocalDate.now().plusDays(1));
+            if (loans.isEmpty()) {
+                JOptionPane.showMessageDialog(null, "El libro no tiene préstamos desde " + from + ".");
+            } else {
+                showLoanList(loans, "Historial del Libro " + bookId + " desde " + from);
             }
-            sb.append("---\n");
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(null, "Error: " + e.getMessage());
+            logger.error("Error al mostrar el historial del libro: " + e.getMessage(), e);
         }
+    }
 
-        JOptionPane.showMessageDialog(null, sb.toString());
+    /**
+     * Pide la fecha de inicio de un historial; null si se cancela
+     */
+    private LocalDate askHistoryStart() {
+        LocalDate defaultFrom = LocalDate.now().minusDays(LoanService.getHistoryDays());
+        String fromStr = JOptionPane.showInputDialog("Desde (AAAA-MM-DD):", defaultFrom.toString());
+        if (fromStr == null) return null;
+        return fromStr.trim().isEmpty() ? defaultFrom : LocalDate.parse(fromStr.trim());
     }
 
     /**
@@ -775,7 +873,7 @@ public class LibroNovaUI {
      */
     private void showLoanStatistics() {
         try {
-            String stats = loanService.getLoanStatistics();
+            String stats = loanService().getLoanStatistics();
             JOptionPane.showMessageDialog(null, stats);
         } catch (Exception e) {
             JOptionPane.showMessageDialog(null, "Error: " + e.getMessage());
@@ -783,12 +881,60 @@ public class LibroNovaUI {
         }
     }
 
+    /**
+     * Muestra el panel en vivo a partir de los contadores en memoria
+     */
+    private void showDashboard() {
+        try {
+            DashboardMetrics.Snapshot snapshot = loanService().getDashboardSnapshot();
+            StringBuilder sb = new StringBuilder();
+            sb.append("=== PANEL EN VIVO ===\n\n");
+            sb.append("Préstamos activos: ").append(snapshot.getActiveLoans()).append("\n");
+            sb.append("Préstamos vencidos: ").append(snapshot.getOverdueLoans()).append("\n");
+            sb.append("Multas pendientes: $").append(snapshot.getFinesOutstanding()).append("\n\n");
+            sb.append("Ejemplares disponibles por categoría:\n");
+            snapshot.getAvailableByCategory().forEach((category, available) ->
+                sb.append("  ").append(category).append(": ").append(available).append("\n"));
+            if (snapshot.getLastReconciledAt() != null) {
+                sb.append("\nÚltima reconciliación: ")
+                  .append(snapshot.getLastReconciledAt().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")));
+            }
+            JOptionPane.showMessageDialog(null, sb.toString());
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(null, "Error: " + e.getMessage());
+            logger.error("Error al mostrar el panel en vivo: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Mueve los préstamos devueltos antiguos a loans_history y después mantiene las particiones de loans
+     */
+    private void archiveReturnedLoans() {
+        int confirm = JOptionPane.showConfirmDialog(null,
+            "¿Archivar los préstamos devueltos hace más de " +
+            DatabaseConfig.getIntProperty("archive.loans.min.age.days", 365) + " días?",
+            "Archivar Préstamos", JOptionPane.YES_NO_OPTION);
+        if (confirm != JOptionPane.YES_OPTION) {
+            return;
+        }
+
+        try {
+            int archived = context.getLoanArchiveService().archiveReturnedLoans();
+            boolean partitionsOk = context.isInMemory() || context.getLoanPartitionService().maintain();
+            JOptionPane.showMessageDialog(null, "Préstamos archivados: " + archived +
+                (partitionsOk ? "" : "\nNo se pudieron mantener las particiones (ver log)"));
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(null, "Error: " + e.getMessage());
+            logger.error("Error al archivar préstamos: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Exporta el catálogo de libros
      */
     private void exportBookCatalog() {
         try {
-            List<Book> books = bookService.getAllBooks();
+            List<Book> books = bookService().getAllBooks();
             if (books.isEmpty()) {
                 JOptionPane.showMessageDialog(null, "No hay libros para exportar.");
                 return;
@@ -811,7 +957,7 @@ public class LibroNovaUI {
      */
     private void exportLoans() {
         try {
-            List<Loan> loans = loanService.getActiveLoans();
+            List<Loan> loans = loanService().getActiveLoans();
             if (loans.isEmpty()) {
                 JOptionPane.showMessageDialog(null, "No hay préstamos para exportar.");
                 return;
@@ -0,0 +1,137 @@
+package com.libronova.ui;
+
+import com.libronova.config.DatabaseConfig;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Diálogo de búsqueda en vivo: consulta mientras el usuario escribe
+ */
+public class LiveSearchDialog<T> {
+    private static final int DEBOUNCE_MS = DatabaseConfig.getIntProperty("ui.search.debounce.ms", 250);
+    private static final int MIN_LENGTH = DatabaseConfig.getIntProperty("ui.search.min.length", 2);
+    private static final int MAX_ROWS = DatabaseConfig.getIntProperty("ui.search.max.rows", 200);
+
+    private final String title;
+    private final Function<ExecutorService, IncrementalSearch<T>> searchFactory;
+    private final Function<T, String> summary;
+    private final Function<T, String> detail;
+
+    /**
+     * @param title         título de la ventana
+     * @param searchFactory crea la búsqueda incremental sobre el ejecutor del diálogo
+     * @param summary       texto de una línea para la lista de resultados
+     * @param detail        texto completo mostrado al hacer doble clic
+     */
+    public LiveSearchDialog(String title, Function<ExecutorService, IncrementalSearch<T>> searchFactory,
+                            Function<T, String> summary, Function<T, String> detail) {
+        this.title = title;
+        this.searchFactory = searchFactory;
+        this.summary = summary;
+        this.detail = detail;
+    }
+
+    /**
+     * Muestra el diálogo de forma modal hasta que el usuario lo cierre
+     */
+    public void show() {
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "libronova-live-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+        IncrementalSearch<T> search = searchFactory.apply(executor);
+
+        JDialog dialog = new JDialog((Frame) null, title, true);
+        JTextField input = new JTextField(40);
+        JList<String> list = new JList<>(new DefaultListModel<>());
+        JLabel status = new JLabel("Escriba al menos " + MIN_LENGTH + " caracteres");
+        AtomicReference<List<T>> shown = new AtomicReference<>(List.of());
+
+        Timer debounce = new Timer(DEBOUNCE_MS, event -> {
+            String term = input.getText();
+            if (term.trim().length() < MIN_LENGTH) {
+                search.reset();
+                list.setModel(new DefaultListModel<>());
+                shown.set(List.of());
+                status.setText("Escriba al menos " + MIN_LENGTH + " caracteres");
+                return;
+            }
+            status.setText("Buscando...");
+            search.search(term, result -> SwingUtilities.invokeLater(() -> {
+                if (!result.getTerm().equals(input.getText())) {
+                    return; // El usuario siguió escribiendo
+                }
+                List<T> items = result.getItems();
+                List<T> visible = items.size() > MAX_ROWS ? items.subList(0, MAX_ROWS) : items;
+                DefaultListModel<String> fresh = new DefaultListModel<>();
+                for (T item : visible) {
+                    fresh.addElement(summary.apply(item));
+                }
+                list.setModel(fresh);
+                shown.set(visible);
+                status.setText(String.format("%d resultados%s (%d ms%s)",
+                        items.size(),
+                        items.size() > MAX_ROWS ? ", mostrando " + MAX_ROWS : "",
+                        result.getElapsedMs(),
+                        result.isNarrowed() ? ", filtrado local" : ""));
+            }));
+        });
+        debounce.setRepeats(false);
+
+        input.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                debounce.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                debounce.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                debounce.restart();
+            }
+        });
+
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = list.getSelectedIndex();
+                if (e.getClickCount() == 2 && index >= 0 && index < shown.get().size()) {
+                    JOptionPane.showMessageDialog(dialog, detail.apply(shown.get().get(index)));
+                }
+            }
+        });
+
+        JPanel panel = new JPanel(new BorderLayout(5, 5));
+        panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        panel.add(input, BorderLayout.NORTH);
+        panel.add(new JScrollPane(list), BorderLayout.CENTER);
+        panel.add(status, BorderLayout.SOUTH);
+
+        dialog.setContentPane(panel);
+        dialog.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+        dialog.setSize(640, 480);
+        dialog.setLocationRelativeTo(null);
+        try {
+            dialog.setVisible(true);
+        } finally {
+            debounce.stop();
+            search.reset();
+            executor.shutdownNow();
+        }
+    }
+}
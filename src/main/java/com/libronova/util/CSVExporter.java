@@ -4,9 +4,12 @@ import com.libronova.model.Book;
 import com.libronova.model.Loan;
 import com.libronova.model.Member;
 import com.libronova.config.DatabaseConfig;
+import com.libronova.metrics.CsvExportEvent;
 
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -24,8 +27,9 @@ public class CSVExporter {
      * Exporta el catálogo de libros a CSV
      */
     public static boolean exportBookCatalog(List<Book> books, String filename) {
+        CsvExportEvent event = beginEvent("books");
+        String filepath = EXPORT_PATH + filename;
         try {
-            String filepath = EXPORT_PATH + filename;
             createDirectoryIfNotExists();
 
             try (FileWriter writer = new FileWriter(filepath)) {
@@ -48,11 +52,13 @@ public class CSVExporter {
 
                 writer.flush();
                 logger.info("Catálogo de libros exportado exitosamente: " + filepath);
+                commitEvent(event, filepath, books.size(), true);
                 return true;
             }
 
         } catch (IOException e) {
             logger.error("Error al exportar catálogo de libros: " + e.getMessage(), e);
+            commitEvent(event, filepath, 0, false);
             return false;
         }
     }
@@ -61,8 +67,9 @@ public class CSVExporter {
      * Exporta los préstamos a CSV
      */
     public static boolean exportLoans(List<Loan> loans, String filename) {
+        CsvExportEvent event = beginEvent("loans");
+        String filepath = EXPORT_PATH + filename;
         try {
-            String filepath = EXPORT_PATH + filename;
             createDirectoryIfNotExists();
 
             try (FileWriter writer = new FileWriter(filepath)) {
@@ -93,11 +100,13 @@ public class CSVExporter {
 
                 writer.flush();
                 logger.info("Préstamos exportados exitosamente: " + filepath);
+                commitEvent(event, filepath, loans.size(), true);
                 return true;
             }
 
         } catch (IOException e) {
             logger.error("Error al exportar préstamos: " + e.getMessage(), e);
+            commitEvent(event, filepath, 0, false);
             return false;
         }
     }
@@ -106,8 +115,9 @@ public class CSVExporter {
      * Exporta los miembros a CSV
      */
     public static boolean exportMembers(List<Member> members, String filename) {
+        CsvExportEvent event = beginEvent("members");
+        String filepath = EXPORT_PATH + filename;
         try {
-            String filepath = EXPORT_PATH + filename;
             createDirectoryIfNotExists();
 
             try (FileWriter writer = new FileWriter(filepath)) {
@@ -133,15 +143,42 @@ public class CSVExporter {
 
                 writer.flush();
                 logger.info("Miembros exportados exitosamente: " + filepath);
+                commitEvent(event, filepath, members.size(), true);
                 return true;
             }
 
         } catch (IOException e) {
             logger.error("Error al exportar miembros: " + e.getMessage(), e);
+            commitEvent(event, filepath, 0, false);
             return false;
         }
     }
 
+    /**
+     * Inicia el evento JFR de una exportación; sin grabación activa no registra nada
+     */
+    private static CsvExportEvent beginEvent(String report) {
+        CsvExportEvent event = new CsvExportEvent();
+        event.report = report;
+        event.begin();
+        return event;
+    }
+
+    private static void commitEvent(CsvExportEvent event, String filepath, int rows, boolean succeeded) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = filepath;
+            event.rows = rows;
+            event.succeeded = succeeded;
+            try {
+                event.bytes = Files.size(Paths.get(filepath));
+            } catch (IOException e) {
+                event.bytes = 0;
+            }
+            event.commit();
+        }
+    }
+
     /**
      * Genera un nombre de archivo con timestamp
      */
@@ -0,0 +1,71 @@
+package com.libronova.util;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+/**
+ * Permite cancelar desde otro hilo la sentencia JDBC que está ejecutando una consulta.
+ *
+ * Interrumpir el hilo no detiene una consulta en curso: el driver sigue esperando al servidor.
+ * Quien lanza la consulta la ejecuta con run() y los DAO registran su sentencia con register()
+ * antes de ejecutarla; cancel() llama entonces a Statement.cancel(), que en MySQL envía un
+ * KILL QUERY. Los DAO consultan isCancelled() para no contar como error una consulta cancelada.
+ */
+public final class CancellableQuery {
+    private static final ThreadLocal<CancellableQuery> CURRENT = new ThreadLocal<>();
+
+    private volatile Statement statement;
+    private volatile boolean cancelled;
+
+    /**
+     * Ejecuta la consulta en el hilo actual; las sentencias que registre se pueden cancelar
+     */
+    public <T> T run(Supplier<T> query) {
+        CURRENT.set(this);
+        try {
+            return query.get();
+        } finally {
+            CURRENT.remove();
+            statement = null;
+        }
+    }
+
+    /**
+     * Cancela la consulta; si aún no ha llegado a ejecutar su sentencia, ya no la ejecutará
+     */
+    public void cancel() {
+        cancelled = true;
+        Statement running = statement;
+        if (running != null) {
+            try {
+                running.cancel();
+            } catch (SQLException e) {
+                // La sentencia ya terminó o se cerró
+            }
+        }
+    }
+
+    /**
+     * Registra la sentencia que el hilo actual va a ejecutar; lanza SQLException si su consulta
+     * ya se canceló. Fuera de run() no hace nada.
+     */
+    public static void register(Statement stmt) throws SQLException {
+        CancellableQuery current = CURRENT.get();
+        if (current == null) {
+            return;
+        }
+        current.statement = stmt;
+        if (current.cancelled) {
+            throw new SQLException("Consulta cancelada");
+        }
+    }
+
+    /**
+     * Indica si la consulta del hilo actual se canceló
+     */
+    public static boolean isCancelled() {
+        CancellableQuery current = CURRENT.get();
+        return current != null && current.cancelled;
+    }
+}
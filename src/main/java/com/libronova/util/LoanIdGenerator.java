@@ -0,0 +1,14 @@
+package com.libronova.util;
+
+/**
+ * Generador de identificadores de préstamo con formato "LOAN-..."
+ */
+public interface LoanIdGenerator {
+
+    String PREFIX = "LOAN-";
+
+    /**
+     * Genera un nuevo ID de préstamo único
+     */
+    String nextId();
+}
@@ -5,6 +5,9 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Clase singleton para el manejo de logs de la aplicación
@@ -15,6 +18,8 @@ public class Logger {
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     
     private PrintWriter writer;
+    private final ConcurrentHashMap<String, LongAdder> counts = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingWrites = new AtomicInteger();
     
     private Logger() {
         try {
@@ -81,16 +86,38 @@ public class Logger {
     private void log(String level, String message) {
         String timestamp = LocalDateTime.now().format(DATE_FORMAT);
         String logMessage = String.format("[%s] %s: %s", timestamp, level, message);
-        
-        // Escribir en consola
-        System.out.println(logMessage);
-        
-        // Escribir en archivo
-        if (writer != null) {
-            writer.println(logMessage);
-            writer.flush();
+        counts.computeIfAbsent(level, key -> new LongAdder()).increment();
+
+        pendingWrites.incrementAndGet();
+        try {
+            // Escribir en consola
+            System.out.println(logMessage);
+
+            // Escribir en archivo
+            if (writer != null) {
+                writer.println(logMessage);
+                writer.flush();
+            }
+        } finally {
+            pendingWrites.decrementAndGet();
         }
     }
+
+    /**
+     * Líneas registradas con el nivel indicado (INFO, WARNING, ERROR, DEBUG)
+     */
+    public long getCount(String level) {
+        LongAdder count = counts.get(level);
+        return count != null ? count.sum() : 0;
+    }
+
+    /**
+     * Hilos escribiendo o esperando para escribir en este momento; la escritura es síncrona,
+     * así que es el equivalente a la cola de un logger asíncrono
+     */
+    public int getPendingWrites() {
+        return pendingWrites.get();
+    }
     
     /**
      * Cierra el logger y libera recursos
@@ -0,0 +1,21 @@
+package com.libronova.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Paginación equivalente a LIMIT ? OFFSET ? sobre un listado ya ordenado en memoria
+ */
+public final class Pages {
+
+    private Pages() {}
+
+    /**
+     * Salta offset elementos y devuelve como mucho limit
+     */
+    public static <T> List<T> slice(List<T> rows, int offset, int limit) {
+        int from = Math.min(Math.max(0, offset), rows.size());
+        int to = Math.min(rows.size(), from + Math.max(0, limit));
+        return new ArrayList<>(rows.subList(from, to));
+    }
+}
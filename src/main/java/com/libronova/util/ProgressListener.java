@@ -0,0 +1,11 @@
+package com.libronova.util;
+
+/**
+ * Recibe el avance de una operación por lotes (elementos procesados sobre el total)
+ */
+public interface ProgressListener {
+
+    ProgressListener NONE = (done, total) -> { };
+
+    void onProgress(long done, long total);
+}
@@ -0,0 +1,17 @@
+package com.libronova.util;
+
+import java.util.UUID;
+
+/**
+ * Generador aleatorio heredado: 8 caracteres hexadecimales de un UUID.
+ *
+ * Se conserva por compatibilidad; con volúmenes altos puede colisionar con la
+ * restricción UNIQUE de loans.loan_id.
+ */
+public class RandomLoanIdGenerator implements LoanIdGenerator {
+
+    @Override
+    public String nextId() {
+        return PREFIX + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+}
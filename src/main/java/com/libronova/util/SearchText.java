@@ -0,0 +1,51 @@
+package com.libronova.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Comparación de texto equivalente a LIKE '%término%' con la intercalación utf8mb4_unicode_ci:
+ * sin distinguir mayúsculas ni acentos. La usan los repositorios en memoria y el filtrado local
+ * de la búsqueda incremental, para que ambos coincidan con las consultas SQL.
+ */
+public final class SearchText {
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private SearchText() {}
+
+    /**
+     * Normaliza un texto para compararlo con containsAny. Como LIKE, no recorta espacios
+     */
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (isAscii(value)) {
+            return value.toLowerCase(Locale.ROOT); // Camino rápido: sin acentos que eliminar
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Indica si alguno de los campos contiene el término ya normalizado
+     */
+    public static boolean containsAny(String normalizedTerm, String... fields) {
+        for (String field : fields) {
+            if (field != null && normalize(field).contains(normalizedTerm)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 127) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,32 @@
+package com.libronova.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Ejecutores con un hilo virtual por tarea cuando la JVM los ofrece (Java 21+).
+ *
+ * Se buscan por reflexión para seguir compilando con Java 17; en esa versión se usa un pool fijo
+ * de hilos de plataforma del tamaño indicado.
+ */
+public final class VirtualThreads {
+    private static final Logger logger = Logger.getInstance();
+
+    private VirtualThreads() {}
+
+    /**
+     * Un hilo virtual por tarea, o un pool fijo de fallbackThreads hilos de plataforma
+     */
+    public static ExecutorService newPerTaskExecutor(String purpose, int fallbackThreads) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            logger.info(purpose + " en hilos virtuales");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            logger.info("Hilos virtuales no disponibles (Java 21+); " + purpose + " en " + fallbackThreads +
+                        " hilos de plataforma");
+            return Executors.newFixedThreadPool(fallbackThreads);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.libronova.batch;
+
+import com.libronova.dao.LoanPartitionDAO;
+import com.libronova.dao.memory.InMemoryLoanRepository;
+import com.libronova.dataset.InMemoryLibrary;
+import com.libronova.metrics.DaoMetrics;
+import com.libronova.model.Loan;
+import com.libronova.service.LoanPartitionService;
+import com.libronova.service.LoanService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pruebas unitarias para BatchRunner
+ */
+@DisplayName("Pruebas de las tareas por lotes")
+class BatchRunnerTest {
+
+    @Test
+    @DisplayName("Debería marcar los vencidos, cobrar sus multas e informar del avance")
+    void shouldMarkOverdueLoansAndChargeFines() {
+        // Arrange
+        InMemoryLibrary library = InMemoryLibrary.generate(11, 30, 40, 300, 1.0, 0.5, 120);
+        InMemoryLoanRepository loans = library.getLoans();
+        LoanService loanService = library.newLoanService(5);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BatchRunner runner = new BatchRunner(library.getBookService(), library.getMemberService(), loanService,
+                                             new PrintStream(output, true, StandardCharsets.UTF_8));
+
+        // Act
+        int exitCode = runner.run(Arrays.asList(BatchRunner.Job.OVERDUE, BatchRunner.Job.FINES));
+
+        // Assert
+        assertEquals(BatchRunner.EXIT_OK, exitCode);
+        for (Loan loan : loans.findActiveLoans()) {
+            if ("ACTIVE".equals(loan.getStatus())) {
+                assertFalse(loan.isOverdue(), loan.getLoanId());
+            }
+        }
+        assertFalse(loans.findOverdueLoans().isEmpty());
+        for (Loan loan : loans.findOverdueLoans()) {
+            assertEquals(0, loan.calculateFine(new BigDecimal("5.00")).compareTo(loan.getFineAmount()), loan.getLoanId());
+        }
+        String console = output.toString(StandardCharsets.UTF_8);
+        assertTrue(console.contains("[overdue] Terminado"));
+        assertTrue(console.contains("[fines] Terminado"));
+    }
+
+    @Test
+    @DisplayName("Debería terminar con error si la base de datos falla aunque el DAO devuelva una lista vacía")
+    void shouldFailWhenRepositorySwallowsDatabaseError() {
+        // Arrange
+        InMemoryLibrary library = InMemoryLibrary.generate(11, 30, 40, 300, 1.0, 0.5, 120);
+        InMemoryLoanRepository unreachable = new InMemoryLoanRepository(library.getBooks(), library.getMembers()) {
+            @Override
+            public List<Loan> findActiveLoans() {
+                DaoMetrics.markFailed(); // Como LoanDAO cuando no consigue conexión
+                return new ArrayList<>();
+            }
+        };
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BatchRunner runner = new BatchRunner(library.getBookService(), library.getMemberService(),
+                                             library.newLoanService(unreachable, 5),
+                                             new PrintStream(output, true, StandardCharsets.UTF_8));
+
+        // Act
+        int exitCode = runner.run(Arrays.asList(BatchRunner.Job.OVERDUE, BatchRunner.Job.FINES));
+
+        // Assert
+        assertEquals(BatchRunner.EXIT_FAILED, exitCode);
+        String console = output.toString(StandardCharsets.UTF_8);
+        assertTrue(console.contains("[overdue] FALLIDA"));
+        assertFalse(console.contains("[fines] Inicio"));
+    }
+
+    @Test
+    @DisplayName("Debería crear las particiones que faltan y fallar si no se pueden consultar")
+    void shouldMaintainLoanPartitions() {
+        // Arrange
+        InMemoryLibrary library = InMemoryLibrary.generate(11, 30, 40, 300, 1.0, 0.5, 120);
+        List<YearMonth> added = new ArrayList<>();
+        LoanPartitionDAO partitioned = new LoanPartitionDAO() {
+            @Override
+            public List<YearMonth> findMonthlyPartitions() {
+                return Arrays.asList(YearMonth.now().minusMonths(1));
+            }
+
+            @Override
+            public boolean addMonthlyPartitions(List<YearMonth> months) {
+                added.addAll(months);
+                return true;
+            }
+        };
+        LoanPartitionDAO unreachable = new LoanPartitionDAO() {
+            @Override
+            public List<YearMonth> findMonthlyPartitions() {
+                return null; // Como cuando no se puede leer information_schema
+            }
+        };
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream console = new PrintStream(output, true, StandardCharsets.UTF_8);
+
+        // Act
+        int okCode = new BatchRunner(library.getBookService(), library.getMemberService(), library.newLoanService(5),
+                                     new LoanPartitionService(partitioned, 2, 0), console)
+            .run(Arrays.asList(BatchRunner.Job.PARTITIONS));
+        int failedCode = new BatchRunner(library.getBookService(), library.getMemberService(), library.newLoanService(5),
+                                         new LoanPartitionService(unreachable, 2, 0), console)
+            .run(Arrays.asList(BatchRunner.Job.PARTITIONS));
+
+        // Assert
+        assertEquals(BatchRunner.EXIT_OK, okCode);
+        assertEquals(3, added.size());
+        assertEquals(YearMonth.now().plusMonths(2), added.get(2));
+        assertEquals(BatchRunner.EXIT_FAILED, failedCode);
+        assertTrue(output.toString(StandardCharsets.UTF_8).contains("[partitions] FALLIDA"));
+    }
+}
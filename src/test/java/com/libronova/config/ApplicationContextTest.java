@@ -0,0 +1,30 @@
+package com.libronova.config;
+
+import com.libronova.service.LoanService.CounterMode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la resolución del modo de contadores de ApplicationContext
+ */
+@DisplayName("Pruebas del modo de contadores de préstamos")
+class ApplicationContextTest {
+
+    @Test
+    @DisplayName("Debería pasar a APPLICATION si se pide TRIGGER y la migración V3 ya eliminó los triggers")
+    void shouldUseApplicationWhenTriggersAreMissing() {
+        // Act & Assert
+        assertEquals(CounterMode.APPLICATION, ApplicationContext.resolveLoanCounterMode(CounterMode.TRIGGER, false));
+        assertEquals(CounterMode.TRIGGER, ApplicationContext.resolveLoanCounterMode(CounterMode.TRIGGER, true));
+    }
+
+    @Test
+    @DisplayName("Debería pasar a TRIGGER si se pide APPLICATION y los triggers siguen instalados")
+    void shouldUseTriggerWhenTriggersRemain() {
+        // Act & Assert
+        assertEquals(CounterMode.TRIGGER, ApplicationContext.resolveLoanCounterMode(CounterMode.APPLICATION, true));
+        assertEquals(CounterMode.APPLICATION, ApplicationContext.resolveLoanCounterMode(CounterMode.APPLICATION, false));
+        assertEquals(CounterMode.APPLICATION, ApplicationContext.resolveLoanCounterMode(CounterMode.APPLICATION, null));
+    }
+}
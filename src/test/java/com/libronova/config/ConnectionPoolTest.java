@@ -0,0 +1,144 @@
+package com.libronova.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pruebas unitarias para ConnectionPool
+ */
+@DisplayName("Pruebas del pool de conexiones")
+class ConnectionPoolTest {
+
+    private static final String URL = "jdbc:h2:mem:pool_test;DB_CLOSE_DELAY=-1";
+
+    @Test
+    @DisplayName("Debería reutilizar la conexión devuelta y deshacer la transacción abierta")
+    void shouldReuseReturnedConnectionAndRollBack() throws Exception {
+        // Arrange
+        ConnectionPool pool = new ConnectionPool(() -> DriverManager.getConnection(URL, "sa", ""), 2, 1000);
+        try (Connection conn = pool.borrow()) {
+            conn.createStatement().execute("CREATE TABLE IF NOT EXISTS items (id INT)");
+        }
+
+        // Act
+        try (Connection conn = pool.borrow()) {
+            conn.setAutoCommit(false);
+            conn.createStatement().execute("INSERT INTO items VALUES (1)");
+        }
+        int rows;
+        try (Connection conn = pool.borrow()) {
+            assertTrue(conn.getAutoCommit());
+            ResultSet rs = conn.createStatement().executeQuery("SELECT COUNT(*) FROM items");
+            rs.next();
+            rows = rs.getInt(1);
+        }
+
+        // Assert
+        assertEquals(0, rows);
+        assertEquals(1, pool.getOpened());
+        assertEquals(0, pool.getActive());
+        assertEquals(1, pool.getIdle());
+        assertEquals(3, pool.getBorrowTime().getCount());
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("Debería fallar al agotar el pool y no permitir usar una conexión devuelta")
+    void shouldTimeOutWhenExhausted() throws Exception {
+        // Arrange
+        ConnectionPool pool = new ConnectionPool(() -> DriverManager.getConnection(URL, "sa", ""), 1, 50);
+        Connection first = pool.borrow();
+
+        // Act & Assert
+        assertThrows(SQLException.class, pool::borrow);
+        assertEquals(1, pool.getTimeouts());
+
+        first.close();
+        first.close();
+        assertTrue(first.isClosed());
+        assertThrows(SQLException.class, first::createStatement);
+        try (Connection again = pool.borrow()) {
+            assertFalse(again.isClosed());
+        }
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("Debería admitir más préstamos simultáneos al ampliar el pool en caliente")
+    void shouldGrowWhenResized() throws Exception {
+        // Arrange
+        ConnectionPool pool = new ConnectionPool(() -> DriverManager.getConnection(URL, "sa", ""), 1, 50);
+        Connection first = pool.borrow();
+
+        // Act
+        pool.setMaxSize(2);
+        Connection second = pool.borrow();
+
+        // Assert
+        assertEquals(2, pool.getActive());
+        assertEquals(2, pool.getMaxSize());
+        second.close();
+        first.close();
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("Debería descartar una conexión libre que ya no responde a isValid()")
+    void shouldDiscardIdleConnectionThatFailsValidation() throws Exception {
+        // Arrange
+        AtomicBoolean serverRestarted = new AtomicBoolean();
+        ConnectionPool pool = new ConnectionPool(
+            () -> droppedOnRestart(DriverManager.getConnection(URL, "sa", ""), serverRestarted), 1, 1000);
+        pool.borrow().close();
+        serverRestarted.set(true);
+
+        // Act
+        pool.setValidationIdleMillis(60_000);
+        boolean reusedWithoutPing;
+        try (Connection conn = pool.borrow()) {
+            reusedWithoutPing = !conn.isValid(1);
+        }
+        pool.setValidationIdleMillis(0);
+        boolean validatedIsAlive;
+        try (Connection conn = pool.borrow()) {
+            validatedIsAlive = conn.isValid(1);
+        }
+
+        // Assert
+        assertTrue(reusedWithoutPing);
+        assertTrue(validatedIsAlive);
+        assertEquals(2, pool.getOpened());
+        assertEquals(1, pool.getDiscarded());
+        pool.close();
+    }
+
+    /**
+     * Conexión que deja de responder a isValid() si se abrió antes de que restarted se active,
+     * como las que corta un reinicio del servidor
+     */
+    private static Connection droppedOnRestart(Connection conn, AtomicBoolean restarted) {
+        boolean openedBefore = !restarted.get();
+        return (Connection) Proxy.newProxyInstance(
+            ConnectionPoolTest.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            (proxy, method, args) -> {
+                if ("isValid".equals(method.getName()) && openedBefore && restarted.get()) {
+                    return false;
+                }
+                try {
+                    return method.invoke(conn, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+}
@@ -0,0 +1,72 @@
+package com.libronova.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+/**
+ * Pruebas unitarias para MigrationRunner
+ */
+@DisplayName("Pruebas del ejecutor de migraciones")
+class MigrationRunnerTest {
+
+    @Test
+    @DisplayName("Debería dividir sentencias respetando DELIMITER y comentarios")
+    void shouldSplitStatementsHonoringDelimiter() {
+        // Arrange
+        String script =
+            "-- comentario\n" +
+            "ALTER TABLE books ADD COLUMN version INT NOT NULL DEFAULT 0;\n" +
+            "\n" +
+            "DELIMITER //\n" +
+            "CREATE TRIGGER t AFTER INSERT ON loans\n" +
+            "FOR EACH ROW\n" +
+            "BEGIN\n" +
+            "    UPDATE books SET available_stock = available_stock - 1 WHERE id = NEW.book_id;\n" +
+            "END //\n" +
+            "DELIMITER ;\n" +
+            "DROP INDEX idx_isbn ON books;\n";
+
+        // Act
+        List<String> statements = MigrationRunner.parseStatements(script);
+
+        // Assert
+        assertEquals(3, statements.size());
+        assertEquals("ALTER TABLE books ADD COLUMN version INT NOT NULL DEFAULT 0", statements.get(0));
+        assertTrue(statements.get(1).startsWith("CREATE TRIGGER t"));
+        assertTrue(statements.get(1).contains("WHERE id = NEW.book_id;"));
+        assertTrue(statements.get(1).endsWith("END"));
+        assertEquals("DROP INDEX idx_isbn ON books", statements.get(2));
+    }
+
+    @Test
+    @DisplayName("Debería cargar las migraciones empaquetadas en orden creciente")
+    void shouldLoadPackagedMigrationsInOrder() throws Exception {
+        // Act
+        List<MigrationRunner.Migration> migrations = MigrationRunner.loadMigrations();
+
+        // Assert
+        assertFalse(migrations.isEmpty());
+        int previous = 1;
+        for (MigrationRunner.Migration migration : migrations) {
+            assertTrue(migration.version > previous);
+            assertFalse(migration.statements.isEmpty());
+            previous = migration.version;
+        }
+    }
+
+    @Test
+    @DisplayName("Debería marcar como opcionales solo los scripts de optional/")
+    void shouldFlagOptionalMigrations() throws Exception {
+        // Act
+        List<MigrationRunner.Migration> migrations = MigrationRunner.loadMigrations();
+
+        // Assert
+        for (MigrationRunner.Migration migration : migrations) {
+            assertEquals(migration.script.startsWith("optional/"), migration.optional);
+        }
+        assertTrue(migrations.stream().anyMatch(migration -> migration.optional && migration.version == 6));
+    }
+}
@@ -0,0 +1,54 @@
+package com.libronova.dao;
+
+import com.libronova.dao.memory.InMemoryBookRepository;
+import com.libronova.exception.OptimisticLockException;
+import com.libronova.metrics.DaoMetrics;
+import com.libronova.model.Book;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+
+/**
+ * Pruebas unitarias para InstrumentedRepository
+ */
+@DisplayName("Pruebas de la instrumentación de repositorios")
+class InstrumentedRepositoryTest {
+
+    @Test
+    @DisplayName("Debería registrar llamadas, filas y errores por método")
+    void shouldRecordCallsRowsAndErrors() throws Exception {
+        // Arrange
+        DaoMetrics metrics = new DaoMetrics();
+        InMemoryBookRepository target = new InMemoryBookRepository() {
+            @Override
+            public Book findByIsbn(String isbn) {
+                DaoMetrics.markFailed(); // Como un DAO que captura la SQLException
+                return null;
+            }
+        };
+        BookRepository books = InstrumentedRepository.wrap(BookRepository.class, target, "BookDAO", metrics);
+        Book book = new Book("978-0000000001", "Rayuela", "Julio Cortázar", "Sudamericana",
+                             LocalDate.of(1963, 6, 28), "Literatura", 2);
+
+        // Act
+        books.create(book);
+        books.create(new Book("978-0000000002", "Ficciones", "Jorge Luis Borges", "Sur",
+                              LocalDate.of(1944, 1, 1), "Literatura", 1));
+        books.findAll();
+        books.findByIsbn("978-0000000001");
+        Book stale = books.findById(book.getId());
+        stale.setVersion(stale.getVersion() + 5);
+        assertThrows(OptimisticLockException.class, () -> books.update(stale));
+
+        // Assert
+        assertEquals(2, metrics.get("BookDAO.create").getCalls());
+        assertEquals(2, metrics.get("BookDAO.findAll").getRows());
+        assertEquals(1, metrics.get("BookDAO.findByIsbn").getErrors());
+        assertEquals(0, metrics.get("BookDAO.findById").getErrors());
+        assertEquals(1, metrics.get("BookDAO.update").getCalls());
+        assertEquals(0, metrics.get("BookDAO.update").getErrors());
+        assertTrue(metrics.format().contains("BookDAO.findAll"));
+    }
+}
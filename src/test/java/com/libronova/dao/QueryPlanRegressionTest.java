@@ -0,0 +1,256 @@
+package com.libronova.dao;
+
+import com.libronova.config.MigrationRunner;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Regresión de planes de ejecución: ejecuta EXPLAIN sobre cada consulta SQL de los DAO contra
+ * una base de datos temporal con el esquema, las migraciones y datos sembrados, y falla si una
+ * consulta recorre una tabla completa o necesita filesort por encima del umbral.
+ *
+ * Requiere un MySQL local o en contenedor; se omite si no se indica libronova.plan.url
+ * (ver el perfil query-plans del pom).
+ */
+@DisplayName("Regresión de planes de ejecución de las consultas de los DAO")
+class QueryPlanRegressionTest {
+
+    private static final String URL = System.getProperty("libronova.plan.url");
+    private static final String USER = System.getProperty("libronova.plan.user", "root");
+    private static final String PASSWORD = System.getProperty("libronova.plan.password", "password");
+    private static final String DATABASE = System.getProperty("libronova.plan.database", "libronova_plan_test");
+    private static final long MAX_SCANNED_ROWS = Long.getLong("libronova.plan.max.rows", 50);
+
+    private static final int BOOKS = 2000;
+    private static final int MEMBERS = 800;
+    private static final int LOANS = 8000;
+
+    // Consultas que recorren la tabla por diseño; cualquier otra debe usar índices, y ninguna
+    // puede ordenar con filesort
+    private static final Map<String, String> ALLOWED_SCANS = Map.of(
+        "BookDAO.SEARCH_BOOKS", "LIKE con comodín inicial",
+        "MemberDAO.SEARCH_MEMBERS", "LIKE con comodín inicial",
+        "LoanDAO.SEARCH_LOANS", "LIKE con comodín inicial",
+        "LoanDAO.SELECT_STATISTICS", "agregado sobre todos los préstamos",
+        "LoanDAO.COUNT_COUNTER_TRIGGERS", "consulta a information_schema",
+        "LoanPartitionDAO.SELECT_PARTITIONS", "consulta a information_schema",
+        "BookDAO.SELECT_ALL", "listado completo del catálogo",
+        "BookDAO.SELECT_AVAILABLE", "listado completo del catálogo",
+        "MemberDAO.SELECT_ALL", "listado completo de miembros",
+        "MemberDAO.SELECT_ACTIVE", "listado completo de miembros");
+
+    private static final String SAMPLE_ID_LIST = "?, ?, ?";
+
+    private static final Pattern PLACEHOLDER_CONTEXT = Pattern.compile("(\\w+)\\s*(=|<|>|<=|>=|LIKE)\\s*\\?$",
+                                                                       Pattern.CASE_INSENSITIVE);
+
+    private static Connection conn;
+
+    @BeforeAll
+    static void setUpDatabase() throws Exception {
+        Assumptions.assumeTrue(URL != null && !URL.isEmpty(),
+            "Sin MySQL configurado (-Dlibronova.plan.url); se omite la regresión de planes");
+
+        conn = DriverManager.getConnection(URL, USER, PASSWORD);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP DATABASE IF EXISTS " + DATABASE);
+            stmt.execute("CREATE DATABASE " + DATABASE + " CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci");
+        }
+        conn.setCatalog(DATABASE);
+
+        loadBaselineSchema();
+        new MigrationRunner(1).migrate(conn);
+        seed();
+    }
+
+    @AfterAll
+    static void tearDownDatabase() throws SQLException {
+        if (conn != null) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP DATABASE IF EXISTS " + DATABASE);
+            }
+            conn.close();
+        }
+    }
+
+    @TestFactory
+    @DisplayName("Ninguna consulta debería recorrer tablas completas ni ordenar con filesort")
+    List<DynamicTest> everyDaoQueryUsesIndexes() throws IllegalAccessException {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (Class<?> dao : List.of(BookDAO.class, MemberDAO.class, LoanDAO.class,
+                                    LoanPartitionDAO.class, LeaseDAO.class)) {
+            for (Field field : dao.getDeclaredFields()) {
+                String sql = sqlConstant(field);
+                if (sql == null) {
+                    continue;
+                }
+                String name = dao.getSimpleName() + "." + field.getName();
+                tests.add(DynamicTest.dynamicTest(name, () -> assertPlan(name, sql)));
+            }
+        }
+        return tests;
+    }
+
+    private static String sqlConstant(Field field) throws IllegalAccessException {
+        int modifiers = field.getModifiers();
+        if (field.getType() != String.class || !Modifier.isStatic(modifiers) || !Modifier.isFinal(modifiers)) {
+            return null;
+        }
+        field.setAccessible(true);
+        String sql = ((String) field.get(null)).trim();
+        // Las plantillas de lotes se completan con una lista de ids de ejemplo; las de nombres de
+        // partición necesitan la tabla particionada (V6 opcional) y se omiten
+        sql = sql.replace("IN (%s)", "IN (" + SAMPLE_ID_LIST + ")");
+        if (sql.contains("%s")) {
+            return null;
+        }
+        String verb = sql.split("\\s+", 2)[0].toUpperCase();
+        // Solo leen índices los INSERT ... SELECT; el resto (SELECT, UPDATE, DELETE) admite EXPLAIN
+        if (verb.equals("INSERT")) {
+            return sql.toUpperCase().contains(" SELECT ") ? sql : null;
+        }
+        return verb.equals("SELECT") || verb.equals("UPDATE") || verb.equals("DELETE") ? sql : null;
+    }
+
+    private static void assertPlan(String name, String sql) throws SQLException {
+        boolean scanAllowed = ALLOWED_SCANS.containsKey(name);
+        List<String> problems = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + sql)) {
+            bindSampleParameters(stmt, sql);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String table = rs.getString("table");
+                    String type = rs.getString("type");
+                    long rows = rs.getLong("rows");
+                    String extra = rs.getString("Extra");
+                    if ("ALL".equals(type) && rows > MAX_SCANNED_ROWS && !scanAllowed) {
+                        problems.add("recorrido completo de " + table + " (" + rows + " filas)");
+                    }
+                    if (extra != null && extra.contains("Using filesort") && rows > MAX_SCANNED_ROWS) {
+                        problems.add("filesort sobre " + table + " (" + rows + " filas)");
+                    }
+                }
+            }
+        }
+
+        assertTrue(problems.isEmpty(), name + ": " + String.join(", ", problems));
+    }
+
+    /**
+     * Asigna valores de ejemplo según la columna que precede a cada parámetro
+     */
+    private static void bindSampleParameters(PreparedStatement stmt, String sql) throws SQLException {
+        int index = 0;
+        for (int i = sql.indexOf('?'); i >= 0; i = sql.indexOf('?', i + 1)) {
+            index++;
+            Matcher matcher = PLACEHOLDER_CONTEXT.matcher(sql.substring(0, i + 1));
+            boolean found = matcher.find();
+            String column = found ? matcher.group(1).toLowerCase() : "";
+            String operator = found ? matcher.group(2).toUpperCase() : "";
+
+            if ("LIKE".equals(operator)) {
+                stmt.setString(index, "%ga%");
+            } else if (column.endsWith("_date") || column.endsWith("_at")) {
+                stmt.setString(index, "2024-03-01");
+            } else if (column.equals("status")) {
+                stmt.setString(index, "ACTIVE");
+            } else if (column.equals("name") || column.equals("holder")) {
+                stmt.setString(index, "scheduler");
+            } else {
+                stmt.setInt(index, 42);
+            }
+        }
+    }
+
+    private static void loadBaselineSchema() throws Exception {
+        String schema = Files.readString(Path.of("database", "schema.sql"), StandardCharsets.UTF_8);
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : MigrationRunner.parseStatements(schema)) {
+                String upper = sql.toUpperCase();
+                if (upper.startsWith("CREATE DATABASE") || upper.startsWith("USE ")) {
+                    continue;
+                }
+                stmt.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * Siembra volumen suficiente para que el optimizador elija planes realistas:
+     * la mayoría de los préstamos están devueltos, como en producción
+     */
+    private static void seed() throws SQLException {
+        conn.setAutoCommit(false);
+        try (PreparedStatement books = conn.prepareStatement(
+                "INSERT INTO books (isbn, title, author, publisher, publication_date, category, stock, available_stock, active) " +
+                "VALUES (?, ?, ?, 'Editorial', '2000-01-01', ?, 5, 5, ?)");
+             PreparedStatement members = conn.prepareStatement(
+                "INSERT INTO members (member_id, first_name, last_name, email, phone, address, birth_date, " +
+                "registration_date, membership_type, max_loans) " +
+                "VALUES (?, ?, ?, ?, '555-0000', 'Calle', '1990-01-01', '2024-01-01', 'REGULAR', 3)");
+             PreparedStatement loans = conn.prepareStatement(
+                "INSERT INTO loans (loan_id, book_id, member_id, user_id, loan_date, due_date, status) " +
+                "VALUES (?, ?, ?, 1, DATE_SUB('2024-06-01', INTERVAL ? DAY), DATE_SUB('2024-06-15', INTERVAL ? DAY), ?)")) {
+
+            for (int i = 1; i <= BOOKS; i++) {
+                books.setString(1, String.format("PLAN-%08d", i));
+                books.setString(2, "Título " + i);
+                books.setString(3, "Autor " + (i % 300));
+                books.setString(4, "Categoría " + (i % 25));
+                books.setBoolean(5, i % 10 != 0);
+                books.addBatch();
+            }
+            books.executeBatch();
+
+            for (int i = 1; i <= MEMBERS; i++) {
+                members.setString(1, String.format("PLAN%06d", i));
+                members.setString(2, "Nombre " + i);
+                members.setString(3, "Apellido " + (i % 200));
+                members.setString(4, "plan" + i + "@example.com");
+                members.addBatch();
+            }
+            members.executeBatch();
+
+            for (int i = 1; i <= LOANS; i++) {
+                int age = i % 700;
+                loans.setString(1, String.format("PLAN-%013d", i));
+                loans.setInt(2, 11 + (i * 7) % BOOKS);
+                loans.setInt(3, 6 + (i * 13) % MEMBERS);
+                loans.setInt(4, age);
+                loans.setInt(5, age);
+                loans.setString(6, i % 20 == 0 ? "ACTIVE" : i % 33 == 0 ? "OVERDUE" : "RETURNED");
+                loans.addBatch();
+            }
+            loans.executeBatch();
+            conn.commit();
+        } finally {
+            conn.setAutoCommit(true);
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ANALYZE TABLE books, members, loans");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.libronova.dao;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Pruebas unitarias para SlowQueryLog
+ */
+@DisplayName("Pruebas del registro de sentencias lentas")
+class SlowQueryLogTest {
+
+    @Test
+    @DisplayName("Debería enmascarar correos siempre y teléfonos solo en sentencias con la columna phone")
+    void shouldMaskEmailsAndPhones() {
+        // Act & Assert
+        assertEquals("'a***@example.com'", SlowQueryLog.describe("ana@example.com", false));
+        assertEquals("'%a***@example.com%'", SlowQueryLog.describe("%ana@example.com%", false));
+        assertEquals("'***-**01'", SlowQueryLog.describe("555-0001", true));
+        assertEquals("'978-0000000001'", SlowQueryLog.describe("978-0000000001", false));
+        assertEquals("'%a%'", SlowQueryLog.describe("%a%", true));
+        assertEquals("NULL", SlowQueryLog.describe(null, true));
+        assertEquals("42", SlowQueryLog.describe(42, true));
+    }
+
+    @Test
+    @DisplayName("Debería escribir constante, duración, filas y parámetros en una línea")
+    void shouldFormatLine() {
+        // Arrange
+        Map<Integer, Object> parameters = new TreeMap<>();
+        parameters.put(2, "%a%");
+        parameters.put(1, "%a%");
+
+        // Act
+        String line = SlowQueryLog.format(LocalDateTime.of(2025, 3, 1, 10, 0), "LoanDAO.SEARCH_LOANS",
+                                          "SELECT l.* FROM loans l", parameters, 812_400_000L, 15, false);
+
+        // Assert
+        assertEquals("2025-03-01 10:00:00.000 | 812.4 ms | 15 filas | LoanDAO.SEARCH_LOANS | [1='%a%', 2='%a%']", line);
+    }
+
+    @Test
+    @DisplayName("Debería indicar con ? las filas de una consulta que no se contaron")
+    void shouldMarkUncountedRows() {
+        // Act
+        String line = SlowQueryLog.format(LocalDateTime.of(2025, 3, 1, 10, 0), "BookDAO.SELECT_ALL",
+                                          "SELECT * FROM books", new TreeMap<>(), 600_000_000L, -1, false);
+
+        // Assert
+        assertEquals("2025-03-01 10:00:00.000 | 600.0 ms | ? filas | BookDAO.SELECT_ALL | []", line);
+    }
+}
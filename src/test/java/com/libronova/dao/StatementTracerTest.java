@@ -0,0 +1,70 @@
+package com.libronova.dao;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pruebas unitarias para StatementTracer (sobre la base de datos del perfil de pruebas)
+ */
+@DisplayName("Pruebas de la traza JFR de sentencias")
+class StatementTracerTest {
+
+    @Test
+    @DisplayName("Debería identificar las sentencias por la constante del DAO")
+    void shouldResolveSqlIdFromDaoConstant() {
+        // Act & Assert
+        assertEquals("BookDAO.SEARCH_BOOKS", StatementTracer.sqlId(readConstant("SEARCH_BOOKS")));
+        assertEquals("SELECT 1 FROM dual", StatementTracer.sqlId("SELECT 1\n    FROM dual"));
+    }
+
+    @Test
+    @DisplayName("Debería emitir un evento con la sentencia y las filas leídas durante una grabación")
+    void shouldEmitEventWhileRecording() throws Exception {
+        // Arrange
+        BookDAO books = new BookDAO();
+        List<RecordedEvent> events = new ArrayList<>();
+        Path file = Files.createTempFile("libronova-sql", ".jfr");
+
+        // Act
+        try (Recording recording = new Recording()) {
+            recording.enable("com.libronova.SqlStatement");
+            recording.start();
+            books.findAll();
+            recording.stop();
+            recording.dump(file);
+        }
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            if ("com.libronova.SqlStatement".equals(event.getEventType().getName())) {
+                events.add(event);
+            }
+        }
+        Files.deleteIfExists(file);
+
+        // Assert
+        assertFalse(events.isEmpty());
+        RecordedEvent event = events.get(events.size() - 1);
+        assertEquals("BookDAO.SELECT_ALL", event.getString("sqlId"));
+        assertEquals(books.findAll().size(), event.getLong("rows"));
+        assertFalse(event.getBoolean("failed"));
+    }
+
+    private static String readConstant(String name) {
+        try {
+            Field field = BookDAO.class.getDeclaredField(name);
+            field.setAccessible(true);
+            return (String) field.get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
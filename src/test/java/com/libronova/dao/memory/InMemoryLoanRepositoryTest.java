@@ -0,0 +1,164 @@
+package com.libronova.dao.memory;
+
+import com.libronova.exception.OptimisticLockException;
+import com.libronova.model.Book;
+import com.libronova.model.Loan;
+import com.libronova.model.Member;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pruebas unitarias para los repositorios en memoria
+ */
+@DisplayName("Pruebas de los repositorios en memoria")
+class InMemoryLoanRepositoryTest {
+
+    private InMemoryBookRepository books;
+    private InMemoryMemberRepository members;
+    private InMemoryLoanRepository loans;
+    private Book book;
+    private Member member;
+
+    @BeforeEach
+    void setUp() {
+        books = new InMemoryBookRepository();
+        members = new InMemoryMemberRepository();
+        loans = new InMemoryLoanRepository(books, members);
+
+        book = new Book("978-0000000001", "Rayuela", "Julio Cortázar", "Sudamericana",
+                        LocalDate.of(1963, 6, 28), "Literatura", 2);
+        books.create(book);
+        member = new Member("MEM001", "Ana", "García", "ana@example.com", "555-0001", "Calle 1",
+                            LocalDate.of(1990, 1, 1), "REGULAR");
+        members.create(member);
+    }
+
+    @Test
+    @DisplayName("Debería actualizar los contadores al prestar y al devolver")
+    void shouldMaintainCountersOnCheckoutAndCheckin() throws OptimisticLockException {
+        // Arrange
+        Loan loan = newLoan("LOAN-1");
+
+        // Act
+        boolean checkedOut = loans.checkout(loan);
+        int availableAfterCheckout = books.findById(book.getId()).getAvailableStock();
+        Loan stored = loans.findById(loan.getId());
+        stored.setStatus("RETURNED");
+        stored.setReturnDate(LocalDate.now());
+        loans.checkin(stored);
+
+        // Assert
+        assertTrue(checkedOut);
+        assertEquals(1, availableAfterCheckout);
+        assertEquals(2, books.findById(book.getId()).getAvailableStock());
+        assertEquals(0, members.findById(member.getId()).getCurrentLoans());
+        assertEquals("RETURNED", loans.findById(loan.getId()).getStatus());
+    }
+
+    @Test
+    @DisplayName("Debería deshacer el stock si el miembro alcanzó su límite")
+    void shouldUndoStockWhenMemberIsAtLimit() {
+        // Arrange
+        Member full = members.findById(member.getId());
+        full.setMaxLoans(0);
+        assertDoesNotThrow(() -> members.update(full));
+
+        // Act
+        boolean checkedOut = loans.checkout(newLoan("LOAN-1"));
+
+        // Assert
+        assertFalse(checkedOut);
+        assertEquals(2, books.findById(book.getId()).getAvailableStock());
+        assertTrue(loans.findActiveLoans().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar una escritura con versión obsoleta y devolver copias")
+    void shouldRejectStaleVersionAndReturnCopies() throws OptimisticLockException {
+        // Arrange
+        Book first = books.findById(book.getId());
+        Book second = books.findById(book.getId());
+        first.setTitle("Rayuela (edición crítica)");
+        books.update(first);
+
+        // Act
+        second.setTitle("Otro título");
+        second.setStock(99);
+
+        // Assert
+        assertThrows(OptimisticLockException.class, () -> books.update(second));
+        assertEquals("Rayuela (edición crítica)", books.findById(book.getId()).getTitle());
+        assertEquals(2, books.findById(book.getId()).getStock());
+    }
+
+    @Test
+    @DisplayName("Debería incluir los préstamos archivados en el historial del miembro")
+    void shouldKeepArchivedLoansInMemberHistory() throws OptimisticLockException {
+        // Arrange
+        Loan loan = newLoan("LOAN-1");
+        loans.checkout(loan);
+        Loan stored = loans.findById(loan.getId());
+        stored.setStatus("RETURNED");
+        stored.setReturnDate(LocalDate.now().minusDays(400));
+        loans.checkin(stored);
+
+        // Act
+        int archived = loans.archiveReturnedBefore(LocalDate.now().minusDays(365), 10);
+
+        // Assert
+        assertEquals(1, archived);
+        assertNull(loans.findById(loan.getId()));
+        assertEquals(1, loans.findByMember(member.getId()).size());
+        assertEquals(1, loans.getStatistics().getReturnedLoans());
+    }
+
+    @Test
+    @DisplayName("No debería prestar más ejemplares de los disponibles con hilos concurrentes")
+    void shouldNotOversellStockUnderConcurrency() throws Exception {
+        // Arrange
+        Member vip = members.findById(member.getId());
+        vip.setMaxLoans(100);
+        members.update(vip);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 32; i++) {
+            Loan loan = newLoan("LOAN-" + i);
+            results.add(executor.submit(() -> {
+                start.await();
+                return loans.checkout(loan);
+            }));
+        }
+        start.countDown();
+        int succeeded = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                succeeded++;
+            }
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(2, succeeded);
+        assertEquals(0, books.findById(book.getId()).getAvailableStock());
+        assertEquals(2, members.findById(member.getId()).getCurrentLoans());
+    }
+
+    private Loan newLoan(String loanId) {
+        return new Loan(loanId, book.getId(), member.getId(), 1, LocalDate.now(), LocalDate.now().plusDays(14));
+    }
+}
@@ -0,0 +1,131 @@
+package com.libronova.dataset;
+
+import com.libronova.model.Book;
+import com.libronova.model.Loan;
+import com.libronova.model.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pruebas unitarias para DatasetGenerator
+ */
+@DisplayName("Pruebas del generador de datasets sintéticos")
+class DatasetGeneratorTest {
+
+    private static final LocalDate REFERENCE_DATE = LocalDate.of(2025, 3, 1);
+
+    /**
+     * Destino que guarda las filas recibidas
+     */
+    private static class CollectingSink implements DatasetSink {
+        private final List<Book> books = new ArrayList<>();
+        private final List<Member> members = new ArrayList<>();
+        private final List<Loan> loans = new ArrayList<>();
+
+        @Override
+        public void book(Book book) {
+            books.add(book);
+        }
+
+        @Override
+        public void member(Member member) {
+            members.add(member);
+        }
+
+        @Override
+        public void loan(Loan loan) {
+            loans.add(loan);
+        }
+
+        @Override
+        public void close() {}
+    }
+
+    @Test
+    @DisplayName("Debería generar las mismas filas con la misma semilla")
+    void shouldBeDeterministicForSameSeed() throws Exception {
+        // Arrange
+        CollectingSink first = new CollectingSink();
+        CollectingSink second = new CollectingSink();
+
+        // Act
+        new DatasetGenerator(7, 200, 100, 2000, REFERENCE_DATE).generate(first);
+        new DatasetGenerator(7, 200, 100, 2000, REFERENCE_DATE).generate(second);
+
+        // Assert
+        assertEquals(first.books.size(), second.books.size());
+        for (int i = 0; i < first.books.size(); i++) {
+            assertEquals(first.books.get(i).getTitle(), second.books.get(i).getTitle());
+            assertEquals(first.books.get(i).getAvailableStock(), second.books.get(i).getAvailableStock());
+        }
+        for (int i = 0; i < first.loans.size(); i++) {
+            assertEquals(first.loans.get(i).getBookId(), second.loans.get(i).getBookId());
+            assertEquals(first.loans.get(i).getStatus(), second.loans.get(i).getStatus());
+        }
+    }
+
+    @Test
+    @DisplayName("Debería cuadrar stock disponible y préstamos actuales con los préstamos abiertos")
+    void shouldKeepCountersConsistentWithOpenLoans() throws Exception {
+        // Arrange
+        CollectingSink sink = new CollectingSink();
+        Map<Integer, Integer> openByBook = new HashMap<>();
+        Map<Integer, Integer> openByMember = new HashMap<>();
+
+        // Act
+        new DatasetGenerator(11, 50, 40, 5000, REFERENCE_DATE).generate(sink);
+        for (Loan loan : sink.loans) {
+            if (!"RETURNED".equals(loan.getStatus())) {
+                openByBook.merge(loan.getBookId(), 1, Integer::sum);
+                openByMember.merge(loan.getMemberId(), 1, Integer::sum);
+                assertNull(loan.getReturnDate());
+            } else {
+                assertFalse(loan.getReturnDate().isBefore(loan.getLoanDate()));
+                assertFalse(loan.getReturnDate().isAfter(REFERENCE_DATE));
+            }
+        }
+
+        // Assert
+        assertFalse(openByBook.isEmpty());
+        for (Book book : sink.books) {
+            int open = openByBook.getOrDefault(book.getId(), 0);
+            assertEquals(book.getStock() - open, book.getAvailableStock());
+            assertTrue(book.getAvailableStock() >= 0);
+        }
+        for (Member member : sink.members) {
+            int open = openByMember.getOrDefault(member.getId(), 0);
+            assertEquals(open, member.getCurrentLoans());
+            assertTrue(member.getCurrentLoans() <= member.getMaxLoans());
+        }
+    }
+
+    @Test
+    @DisplayName("Debería concentrar los préstamos en los títulos más populares")
+    void shouldSkewLoansTowardsPopularTitles() throws Exception {
+        // Arrange
+        CollectingSink sink = new CollectingSink();
+        Map<Integer, Integer> loansByBook = new HashMap<>();
+
+        // Act
+        new DatasetGenerator(3, 1000, 500, 20000, REFERENCE_DATE).generate(sink);
+        for (Loan loan : sink.loans) {
+            loansByBook.merge(loan.getBookId(), 1, Integer::sum);
+        }
+        List<Integer> counts = new ArrayList<>(loansByBook.values());
+        counts.sort((a, b) -> b - a);
+        int topTen = 0;
+        for (int i = 0; i < 10; i++) {
+            topTen += counts.get(i);
+        }
+
+        // Assert: con exponente 1 el 1% de los títulos acumula cerca del 39% de los préstamos
+        assertTrue(topTen > sink.loans.size() * 0.3, "Top 10: " + topTen);
+    }
+}
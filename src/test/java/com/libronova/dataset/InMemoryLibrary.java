@@ -0,0 +1,82 @@
+package com.libronova.dataset;
+
+import com.libronova.dao.LoanRepository;
+import com.libronova.dao.memory.InMemoryBookRepository;
+import com.libronova.dao.memory.InMemoryLoanRepository;
+import com.libronova.dao.memory.InMemoryMemberRepository;
+import com.libronova.metrics.DashboardMetrics;
+import com.libronova.service.BookService;
+import com.libronova.service.LoanService;
+import com.libronova.service.MemberService;
+import com.libronova.util.SnowflakeLoanIdGenerator;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Biblioteca en memoria para las pruebas: repositorios rellenados con DatasetGenerator a fecha
+ * de hoy y los servicios montados sobre ellos
+ */
+public final class InMemoryLibrary {
+    private final InMemoryBookRepository books = new InMemoryBookRepository();
+    private final InMemoryMemberRepository members = new InMemoryMemberRepository();
+    private final InMemoryLoanRepository loans = new InMemoryLoanRepository(books, members);
+    private final BookService bookService = new BookService(books);
+    private final MemberService memberService = new MemberService(members);
+
+    private InMemoryLibrary() {}
+
+    /**
+     * Genera el dataset con los parámetros de DatasetGenerator
+     */
+    public static InMemoryLibrary generate(long seed, int bookCount, int memberCount, int loanCount,
+                                           double zipfExponent, double overdueRatio, int historyDays) {
+        InMemoryLibrary library = new InMemoryLibrary();
+        try (RepositoryDatasetSink sink = new RepositoryDatasetSink(library.books, library.members, library.loans,
+                                                                    bookCount, memberCount)) {
+            new DatasetGenerator(seed, bookCount, memberCount, loanCount, LocalDate.now(),
+                                 zipfExponent, overdueRatio, historyDays).generate(sink);
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("No se pudo generar el dataset de prueba", e);
+        }
+        return library;
+    }
+
+    /**
+     * Servicio de préstamos sobre los repositorios de la biblioteca
+     */
+    public LoanService newLoanService(int generatorNode) {
+        return newLoanService(loans, generatorNode);
+    }
+
+    /**
+     * Servicio de préstamos sobre otro repositorio de préstamos (por ejemplo, uno que falla)
+     */
+    public LoanService newLoanService(LoanRepository loanRepository, int generatorNode) {
+        DashboardMetrics metrics = new DashboardMetrics(loans::getStatistics, books::countAvailableByCategory,
+                                                        bookId -> books.findById(bookId).getCategory());
+        return new LoanService(loanRepository, bookService, memberService, metrics,
+                               new SnowflakeLoanIdGenerator(generatorNode), LoanService.CounterMode.APPLICATION);
+    }
+
+    public InMemoryBookRepository getBooks() {
+        return books;
+    }
+
+    public InMemoryMemberRepository getMembers() {
+        return members;
+    }
+
+    public InMemoryLoanRepository getLoans() {
+        return loans;
+    }
+
+    public BookService getBookService() {
+        return bookService;
+    }
+
+    public MemberService getMemberService() {
+        return memberService;
+    }
+}
@@ -0,0 +1,47 @@
+package com.libronova.loadtest;
+
+import com.libronova.dataset.InMemoryLibrary;
+import com.libronova.model.Book;
+import com.libronova.model.Loan;
+import com.libronova.service.LoanService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pruebas unitarias para CirculationLoadGenerator
+ */
+@DisplayName("Pruebas de la prueba de carga de circulación")
+class CirculationLoadGeneratorTest {
+
+    @Test
+    @DisplayName("Debería medir todas las operaciones sin prestar más ejemplares de los que hay")
+    void shouldMeasureOperationsWithoutOversellingStock() throws Exception {
+        // Arrange
+        InMemoryLibrary library = InMemoryLibrary.generate(5, 20, 30, 100, 1.2, 0.0, 365);
+        LoanService loanService = library.newLoanService(3);
+        CirculationLoadGenerator generator = new CirculationLoadGenerator(
+            library.getBookService(), library.getMemberService(), loanService, 8, 0, new int[] { 40, 30, 15, 15 }, 9, 1.2);
+
+        // Act
+        CirculationLoadGenerator.Result result = generator.run(Duration.ZERO, Duration.ofMillis(300));
+        Map<Integer, Integer> openByBook = new HashMap<>();
+        for (Loan loan : library.getLoans().findActiveLoans()) {
+            openByBook.merge(loan.getBookId(), 1, Integer::sum);
+        }
+
+        // Assert
+        for (CirculationLoadGenerator.Operation operation : CirculationLoadGenerator.Operation.values()) {
+            assertTrue(result.getCount(operation) > 0, operation.getLabel());
+        }
+        assertTrue(result.getThroughput() > 0);
+        for (Book book : library.getBooks().findAll()) {
+            assertEquals(book.getStock() - book.getAvailableStock(), openByBook.getOrDefault(book.getId(), 0),
+                         book.getTitle());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.libronova.metrics;
+
+import com.libronova.model.LoanStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pruebas unitarias para DashboardMetrics
+ */
+@DisplayName("Pruebas de las métricas del panel en vivo")
+class DashboardMetricsTest {
+
+    private LoanStatistics statistics;
+    private Map<String, Long> available;
+    private AtomicInteger seedQueries;
+    private DashboardMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = new LoanStatistics();
+        statistics.setActiveLoans(10);
+        statistics.setOverdueLoans(2);
+        statistics.setFinesOutstanding(new BigDecimal("15.50"));
+        available = new HashMap<>(Map.of("Literatura", 20L, "Fantasía", 5L));
+        seedQueries = new AtomicInteger();
+
+        metrics = new DashboardMetrics(
+            () -> {
+                seedQueries.incrementAndGet();
+                return statistics;
+            },
+            () -> available,
+            bookId -> bookId == 1 ? "Literatura" : "Fantasía");
+    }
+
+    @Test
+    @DisplayName("Debería sembrarse una sola vez y actualizarse sin consultar la base de datos")
+    void shouldSeedOnceAndUpdateInMemory() {
+        // Arrange
+        metrics.snapshot();
+
+        // Act
+        metrics.onLoanCreated(1);
+        metrics.onLoanCreated(2);
+        metrics.onLoansMarkedOverdue(1);
+        metrics.onLoanReturned(1, true, new BigDecimal("5.50"));
+        DashboardMetrics.Snapshot snapshot = metrics.snapshot();
+
+        // Assert
+        assertEquals(1, seedQueries.get());
+        assertEquals(11, snapshot.getActiveLoans());
+        assertEquals(2, snapshot.getOverdueLoans());
+        assertEquals(new BigDecimal("10.00"), snapshot.getFinesOutstanding());
+        assertEquals(20L, snapshot.getAvailableByCategory().get("Literatura"));
+        assertEquals(4L, snapshot.getAvailableByCategory().get("Fantasía"));
+    }
+
+    @Test
+    @DisplayName("Debería ignorar eventos anteriores a la siembra")
+    void shouldIgnoreEventsBeforeSeeding() {
+        // Act
+        metrics.onLoanCreated(1);
+        DashboardMetrics.Snapshot snapshot = metrics.snapshot();
+
+        // Assert
+        assertEquals(10, snapshot.getActiveLoans());
+        assertEquals(20L, snapshot.getAvailableByCategory().get("Literatura"));
+    }
+
+    @Test
+    @DisplayName("Debería corregir la desviación al reconciliar con la base de datos")
+    void shouldCorrectDriftOnReconcile() {
+        // Arrange
+        metrics.snapshot();
+        metrics.onLoanCreated(1);
+        statistics.setActiveLoans(7);
+        available.remove("Fantasía");
+
+        // Act
+        metrics.reconcile();
+        DashboardMetrics.Snapshot snapshot = metrics.snapshot();
+
+        // Assert
+        assertEquals(7, snapshot.getActiveLoans());
+        assertFalse(snapshot.getAvailableByCategory().containsKey("Fantasía"));
+        assertNotNull(snapshot.getLastReconciledAt());
+    }
+
+    @Test
+    @DisplayName("Debería acumular los cambios de multa que después descuenta la devolución")
+    void shouldTrackFineChanges() {
+        // Arrange
+        metrics.snapshot();
+
+        // Act
+        metrics.onFineChanged(new BigDecimal("3.00"));
+        metrics.onFineChanged(new BigDecimal("-0.50"));
+        metrics.onLoanReturned(2, true, new BigDecimal("2.50"));
+        DashboardMetrics.Snapshot snapshot = metrics.snapshot();
+
+        // Assert
+        assertEquals(new BigDecimal("15.50"), snapshot.getFinesOutstanding());
+        assertEquals(1, snapshot.getOverdueLoans());
+    }
+}
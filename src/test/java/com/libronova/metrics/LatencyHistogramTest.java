@@ -0,0 +1,46 @@
+package com.libronova.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para LatencyHistogram
+ */
+@DisplayName("Pruebas del histograma de latencias")
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Debería calcular percentiles con un error relativo menor al 4%")
+    void shouldReportPercentilesWithinPrecision() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // Act
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros * 1_000);
+        }
+
+        // Assert
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(5_000_000, histogram.getValueAtPercentile(50), 5_000_000 * 0.04);
+        assertEquals(9_900_000, histogram.getValueAtPercentile(99), 9_900_000 * 0.04);
+        assertEquals(9_990_000, histogram.getValueAtPercentile(99.9), 9_990_000 * 0.04);
+        assertEquals(10_000_000, histogram.getMax());
+        assertEquals(5_000_500, histogram.getMean(), 1);
+    }
+
+    @Test
+    @DisplayName("Debería asignar cada valor a una cubeta que lo contiene")
+    void shouldMapValuesToContainingBuckets() {
+        // Arrange
+        long[] values = { 0, 1, 31, 32, 33, 63, 64, 65, 1_000, 123_456_789, Long.MAX_VALUE };
+
+        // Act & Assert
+        for (long value : values) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(LatencyHistogram.highestValueOf(bucket) >= value, "valor " + value);
+            assertTrue(bucket == 0 || LatencyHistogram.highestValueOf(bucket - 1) < value, "valor " + value);
+        }
+    }
+}
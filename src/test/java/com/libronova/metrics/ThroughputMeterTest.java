@@ -0,0 +1,33 @@
+package com.libronova.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para ThroughputMeter
+ */
+@DisplayName("Pruebas del medidor de ritmo")
+class ThroughputMeterTest {
+
+    @Test
+    @DisplayName("Debería contar los eventos y repartirlos en la ventana de segundos completos")
+    void shouldCountEventsOverCompletedSeconds() throws Exception {
+        // Arrange
+        ThroughputMeter meter = new ThroughputMeter();
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            meter.mark();
+        }
+        long lastSecond = System.currentTimeMillis() / 1000;
+        while (System.currentTimeMillis() / 1000 == lastSecond) {
+            Thread.sleep(20); // El segundo en curso no entra en el ritmo
+        }
+        double rate = meter.getRatePerSecond(10);
+
+        // Assert
+        assertEquals(50, meter.getCount());
+        assertEquals(5.0, rate, 0.0001);
+    }
+}
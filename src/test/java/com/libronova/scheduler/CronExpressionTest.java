@@ -0,0 +1,50 @@
+package com.libronova.scheduler;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pruebas unitarias para CronExpression
+ */
+@DisplayName("Pruebas de las expresiones cron")
+class CronExpressionTest {
+
+    @Test
+    @DisplayName("Debería calcular el siguiente disparo con pasos, rangos y días de la semana")
+    void shouldComputeNextFireTime() {
+        // Arrange
+        LocalDateTime saturdayNight = LocalDateTime.of(2025, 3, 1, 23, 59, 30);
+
+        // Act & Assert
+        assertEquals(LocalDateTime.of(2025, 3, 2, 0, 0), CronExpression.parse("*/15 * * * *").next(saturdayNight));
+        assertEquals(LocalDateTime.of(2025, 3, 2, 1, 15), CronExpression.parse("15 1 * * *").next(saturdayNight));
+        assertEquals(LocalDateTime.of(2025, 3, 3, 8, 0), CronExpression.parse("0 8-18/2 * * 1-5").next(saturdayNight));
+        assertEquals(LocalDateTime.of(2025, 3, 2, 3, 30), CronExpression.parse("30 3 * * 7").next(saturdayNight));
+        assertEquals(LocalDateTime.of(2028, 2, 29, 0, 0), CronExpression.parse("0 0 29 2 *").next(saturdayNight));
+    }
+
+    @Test
+    @DisplayName("Debería aceptar coincidencia de día del mes o de la semana cuando se restringen ambos")
+    void shouldMatchEitherDayFieldWhenBothRestricted() {
+        // Arrange
+        CronExpression firstOrMonday = CronExpression.parse("0 12 1 * 1");
+
+        // Act
+        LocalDateTime next = firstOrMonday.next(LocalDateTime.of(2025, 3, 1, 12, 0));
+
+        // Assert
+        assertEquals(LocalDateTime.of(2025, 3, 3, 12, 0), next);
+    }
+
+    @Test
+    @DisplayName("Debería rechazar expresiones mal formadas")
+    void shouldRejectInvalidExpressions() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> CronExpression.parse("0 * * *"));
+        assertThrows(IllegalArgumentException.class, () -> CronExpression.parse("60 * * * *"));
+        assertThrows(IllegalArgumentException.class, () -> CronExpression.parse("0 5-1 * * *"));
+    }
+}
@@ -0,0 +1,113 @@
+package com.libronova.scheduler;
+
+import com.libronova.metrics.DaoMetrics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pruebas unitarias para JobScheduler
+ */
+@DisplayName("Pruebas del planificador de tareas")
+class JobSchedulerTest {
+
+    @Test
+    @DisplayName("Debería omitir un disparo mientras la ejecución anterior sigue en curso")
+    void shouldSkipOverlappingRuns() throws Exception {
+        // Arrange
+        JobScheduler scheduler = new JobScheduler(2, 0, 10);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        scheduler.schedule("sweep", CronExpression.parse("0 3 * * *"), () -> {
+            started.countDown();
+            release.await();
+            return "hecho";
+        });
+
+        try {
+            // Act
+            boolean first = scheduler.runNow("sweep");
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            boolean second = scheduler.runNow("sweep");
+            release.countDown();
+            while (scheduler.isRunning("sweep")) {
+                Thread.sleep(10);
+            }
+            List<JobRun> history = scheduler.getHistory("sweep");
+
+            // Assert
+            assertTrue(first);
+            assertFalse(second);
+            assertEquals(2, history.size());
+            assertEquals(JobRun.Status.SKIPPED, history.get(0).getStatus());
+            assertEquals(JobRun.Status.SUCCEEDED, history.get(1).getStatus());
+            assertEquals("hecho", history.get(1).getMessage());
+        } finally {
+            scheduler.stop(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Debería anotar los fallos y conservar solo el historial configurado")
+    void shouldRecordFailuresWithinHistoryLimit() throws Exception {
+        // Arrange
+        JobScheduler scheduler = new JobScheduler(1, 0, 3);
+        scheduler.schedule("fines", CronExpression.parse("15 1 * * *"), () -> {
+            throw new IllegalStateException("sin conexión");
+        });
+        scheduler.start();
+
+        try {
+            // Act
+            for (int i = 0; i < 5; i++) {
+                scheduler.runNow("fines");
+                while (scheduler.isRunning("fines")) {
+                    Thread.sleep(10);
+                }
+            }
+            List<JobRun> history = scheduler.getHistory("fines");
+
+            // Assert
+            assertEquals(3, history.size());
+            for (JobRun run : history) {
+                assertEquals(JobRun.Status.FAILED, run.getStatus());
+                assertEquals("sin conexión", run.getMessage());
+            }
+            assertNotNull(scheduler.getNextRun("fines"));
+            assertEquals(15, scheduler.getNextRun("fines").getMinute());
+        } finally {
+            scheduler.stop(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Debería anotar como fallida una ejecución en la que el DAO capturó un error")
+    void shouldRecordSwallowedDatabaseErrorsAsFailed() throws Exception {
+        // Arrange
+        JobScheduler scheduler = new JobScheduler(1, 0, 5);
+        scheduler.schedule("overdue", CronExpression.parse("0 2 * * *"), () -> {
+            DaoMetrics.markFailed(); // Como LoanDAO cuando no consigue conexión
+            return "0 préstamos marcados como vencidos";
+        });
+
+        try {
+            // Act
+            scheduler.runNow("overdue");
+            while (scheduler.isRunning("overdue")) {
+                Thread.sleep(10);
+            }
+            List<JobRun> history = scheduler.getHistory("overdue");
+
+            // Assert
+            assertEquals(1, history.size());
+            assertEquals(JobRun.Status.FAILED, history.get(0).getStatus());
+            assertTrue(history.get(0).getMessage().startsWith("1 operaciones de base de datos fallidas"));
+        } finally {
+            scheduler.stop(1);
+        }
+    }
+}
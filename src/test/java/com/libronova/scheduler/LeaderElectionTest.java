@@ -0,0 +1,150 @@
+package com.libronova.scheduler;
+
+import com.libronova.dao.LeaseDAO;
+import com.libronova.dao.LeaseFence;
+import com.libronova.dao.LoanDAO;
+import com.libronova.metrics.DaoMetrics;
+import com.libronova.model.Loan;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pruebas de la elección de líder sobre la tabla job_leases (perfil h2)
+ */
+@DisplayName("Pruebas de la elección de líder")
+class LeaderElectionTest {
+
+    @Test
+    @DisplayName("Debería tener un único líder y pasar el lease al liberarlo con un token mayor")
+    void shouldElectSingleLeaderAndHandOverOnRelease() {
+        // Arrange
+        LeaseDAO leaseDAO = new LeaseDAO();
+        LeaderElection first = new LeaderElection(leaseDAO, "test-release", "nodo-a", 60_000);
+        LeaderElection second = new LeaderElection(leaseDAO, "test-release", "nodo-b", 60_000);
+
+        // Act
+        first.beat();
+        second.beat();
+        long firstToken = first.getFencingToken();
+        boolean secondWasLeader = second.isLeader();
+        first.stop();
+        second.beat();
+
+        // Assert
+        assertTrue(firstToken > 0);
+        assertFalse(secondWasLeader);
+        assertFalse(first.isLeader());
+        assertTrue(second.isLeader());
+        assertTrue(second.validate());
+        assertTrue(second.getFencingToken() > firstToken);
+        second.stop();
+    }
+
+    @Test
+    @DisplayName("Debería ceder el liderazgo cuando el lease caduca sin renovarse")
+    void shouldFailOverWhenLeaseExpires() throws Exception {
+        // Arrange
+        LeaseDAO leaseDAO = new LeaseDAO();
+        LeaderElection stalled = new LeaderElection(leaseDAO, "test-expiry", "nodo-a", 300);
+        LeaderElection standby = new LeaderElection(leaseDAO, "test-expiry", "nodo-b", 300);
+        AtomicBoolean lost = new AtomicBoolean();
+        stalled.setOnLeadershipLost(() -> lost.set(true));
+        stalled.beat();
+        long stalledToken = stalled.getFencingToken();
+
+        // Act
+        Thread.sleep(400);
+        boolean stalledStillLeader = stalled.isLeader();
+        standby.beat();
+        stalled.beat();
+
+        // Assert
+        assertTrue(stalledToken > 0);
+        assertFalse(stalledStillLeader);
+        assertTrue(standby.isLeader());
+        assertEquals(stalledToken + 1, standby.getFencingToken());
+        assertTrue(lost.get());
+        assertFalse(stalled.isLeader());
+        assertEquals(-1, stalled.getFencingToken());
+        standby.stop();
+        stalled.stop();
+    }
+
+    @Test
+    @DisplayName("Debería rechazar en la propia sentencia las escrituras con un fencing token antiguo")
+    void shouldRejectWritesWithStaleFencingToken() {
+        // Arrange
+        LeaseDAO leaseDAO = new LeaseDAO();
+        LoanDAO loanDAO = new LoanDAO();
+        LeaderElection old = new LeaderElection(leaseDAO, "test-fence", "nodo-a", 60_000);
+        LeaderElection current = new LeaderElection(leaseDAO, "test-fence", "nodo-b", 60_000);
+        old.beat();
+        long staleToken = old.getFencingToken();
+        old.stop();
+        current.beat();
+        Loan loan = loanDAO.findOverdueLoans().get(0);
+        long failuresBefore = DaoMetrics.failureCount();
+
+        // Act
+        boolean staleWrite;
+        boolean staleInterrupted;
+        boolean currentWrite;
+        try {
+            LeaseFence.set("test-fence", staleToken);
+            staleWrite = loanDAO.updateFine(loan.getId(), loan.getFineAmount());
+            staleInterrupted = Thread.interrupted();
+            LeaseFence.set("test-fence", current.getFencingToken());
+            currentWrite = loanDAO.updateFine(loan.getId(), loan.getFineAmount());
+        } finally {
+            LeaseFence.clear();
+            current.stop();
+        }
+
+        // Assert
+        assertFalse(staleWrite);
+        assertTrue(staleInterrupted);
+        assertEquals(failuresBefore + 1, DaoMetrics.failureCount());
+        assertTrue(currentWrite);
+    }
+
+    @Test
+    @DisplayName("Debería reservar un nodo distinto para cada instancia y reutilizarlo al liberarse")
+    void shouldClaimDistinctNodes() {
+        // Arrange
+        LeaseDAO leaseDAO = new LeaseDAO();
+        NodeLease first = NodeLease.claim(leaseDAO, "test-node-", 3, "nodo-a", 60_000);
+        NodeLease second = NodeLease.claim(leaseDAO, "test-node-", 3, "nodo-b", 60_000);
+
+        // Act
+        first.release();
+        NodeLease third = NodeLease.claim(leaseDAO, "test-node-", 3, "nodo-c", 60_000);
+
+        // Assert
+        assertEquals(0, first.getNode());
+        assertEquals(1, second.getNode());
+        assertFalse(first.isHeld());
+        assertTrue(second.isHeld());
+        assertEquals(0, third.getNode());
+        second.release();
+        third.release();
+    }
+
+    @Test
+    @DisplayName("Debería fallar si no quedan nodos libres")
+    void shouldFailWhenNoNodeIsFree() {
+        // Arrange
+        LeaseDAO leaseDAO = new LeaseDAO();
+        NodeLease only = NodeLease.claim(leaseDAO, "test-full-", 0, "nodo-a", 60_000);
+
+        // Act & Assert
+        try {
+            assertThrows(IllegalStateException.class,
+                         () -> NodeLease.claim(leaseDAO, "test-full-", 0, "nodo-b", 60_000));
+        } finally {
+            only.release();
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.libronova.server;
+
+import com.libronova.dao.memory.InMemoryBookRepository;
+import com.libronova.dataset.InMemoryLibrary;
+import com.libronova.metrics.DaoMetrics;
+import com.libronova.model.Book;
+import com.libronova.model.Loan;
+import com.libronova.model.Member;
+import com.libronova.model.RecordVersion;
+import com.libronova.service.BookService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pruebas de la API HTTP/JSON sobre repositorios en memoria
+ */
+@DisplayName("Pruebas de la API REST")
+class ApiServerTest {
+
+    private InMemoryLibrary library;
+    private ApiServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        library = InMemoryLibrary.generate(7, 20, 30, 0, 1.2, 0.0, 365);
+        server = new ApiServer(library.getBookService(), library.getMemberService(), library.newLoanService(4),
+                               new InetSocketAddress("127.0.0.1", 0), 50, 4, 60_000, 100);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Debería listar los libros y devolver 404 para uno inexistente")
+    void shouldListBooksAndReturnNotFound() throws Exception {
+        // Act
+        HttpURLConnection list = request("GET", "/api/books", null);
+        String body = read(list);
+        HttpURLConnection missing = request("GET", "/api/books/999999", null);
+
+        // Assert
+        assertEquals(200, list.getResponseCode());
+        assertTrue(list.getContentType().startsWith("application/json"));
+        assertTrue(body.startsWith("[{\"id\":"));
+        assertEquals(library.getBooks().findAll().size(), body.split("\"isbn\":").length - 1);
+        assertEquals(404, missing.getResponseCode());
+        assertTrue(read(missing).contains("\"error\":"));
+    }
+
+    @Test
+    @DisplayName("Debería paginar los listados con offset y limit")
+    void shouldPageListings() throws Exception {
+        // Arrange
+        int total = library.getBooks().findAll().size();
+
+        // Act
+        HttpURLConnection first = request("GET", "/api/books?limit=7", null);
+        String firstBody = read(first);
+        HttpURLConnection last = request("GET", "/api/books?offset=" + (total - 3) + "&limit=7", null);
+        String lastBody = read(last);
+        HttpURLConnection invalid = request("GET", "/api/books?limit=0", null);
+
+        // Assert
+        assertEquals(7, firstBody.split("\"isbn\":").length - 1);
+        assertEquals("7", first.getHeaderField("X-Next-Offset"));
+        assertTrue(firstBody.contains("\"isbn\":\"" + library.getBooks().findAll().get(0).getIsbn() + "\""));
+        assertEquals(3, lastBody.split("\"isbn\":").length - 1);
+        assertNull(last.getHeaderField("X-Next-Offset"));
+        assertEquals(400, invalid.getResponseCode());
+    }
+
+    @Test
+    @DisplayName("Debería crear un préstamo y rechazar un cuerpo JSON no válido")
+    void shouldCreateLoanAndRejectInvalidBody() throws Exception {
+        // Arrange
+        Book book = library.getBooks().findAvailable().get(0);
+        Member member = library.getMembers().findActiveMembers().get(0);
+        int availableBefore = book.getAvailableStock();
+
+        // Act
+        HttpURLConnection created = request("POST", "/api/loans",
+                "{\"bookId\": " + book.getId() + ", \"memberId\": " + member.getId() + "}");
+        String createdBody = read(created);
+        HttpURLConnection invalid = request("POST", "/api/loans", "{\"bookId\": ");
+        HttpURLConnection active = request("GET", "/api/loans?memberId=" + member.getId(), null);
+        HttpURLConnection outOfRange = request("GET", "/api/loans?memberId=" + member.getId()
+                + "&from=2000-01-01&to=" + LocalDate.now(), null);
+        HttpURLConnection invalidDate = request("GET", "/api/loans?memberId=" + member.getId() + "&from=ayer", null);
+
+        // Assert
+        assertEquals(201, created.getResponseCode());
+        Loan loan = library.getLoans().findActiveByMember(member.getId()).get(0);
+        assertTrue(createdBody.contains("\"id\":" + loan.getId() + ","));
+        assertTrue(createdBody.contains("\"loanId\":\"" + loan.getLoanId() + "\""));
+        assertEquals("/api/loans/" + loan.getId(), created.getHeaderField("Location"));
+        assertEquals(400, invalid.getResponseCode());
+        assertTrue(read(active).contains("\"bookId\":" + book.getId()));
+        assertFalse(read(outOfRange).contains("\"loanId\":\"" + loan.getLoanId() + "\""));
+        assertEquals(400, invalidDate.getResponseCode());
+        assertEquals(availableBefore - 1, library.getBooks().findById(book.getId()).getAvailableStock());
+    }
+
+    @Test
+    @DisplayName("Debería responder 304 mientras la versión del libro no cambie")
+    void shouldAnswerNotModifiedUntilVersionChanges() throws Exception {
+        // Arrange
+        Book book = library.getBooks().findAvailable().get(0);
+        Member member = library.getMembers().findActiveMembers().get(0);
+        HttpURLConnection first = request("GET", "/api/books/" + book.getId(), null);
+        String etag = first.getHeaderField("ETag");
+
+        // Act
+        int cached = request("GET", "/api/books/" + book.getId(), null, etag).getResponseCode();
+        request("POST", "/api/loans", "{\"bookId\": " + book.getId() + ", \"memberId\": " + member.getId() + "}")
+            .getResponseCode();
+        HttpURLConnection changed = request("GET", "/api/books/" + book.getId(), null, etag);
+
+        // Assert
+        assertEquals(200, first.getResponseCode());
+        assertEquals("\"book-" + book.getId() + "-v" + book.getVersion() + "\"", etag);
+        assertEquals(304, cached);
+        assertEquals(200, changed.getResponseCode());
+        assertNotEquals(etag, changed.getHeaderField("ETag"));
+    }
+
+    @Test
+    @DisplayName("Debería responder 503 si no quedan turnos libres o si falló la base de datos")
+    void shouldReturnServiceUnavailable() throws Exception {
+        // Arrange
+        CountDownLatch listing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InMemoryBookRepository unreachable = new InMemoryBookRepository() {
+            @Override
+            public List<Book> findAll() {
+                listing.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.findAll();
+            }
+
+            @Override
+            public Book findById(int id) {
+                DaoMetrics.markFailed(); // Como BookDAO cuando no consigue conexión
+                return null;
+            }
+
+            @Override
+            public RecordVersion findVersion(int id) {
+                DaoMetrics.markFailed();
+                return null;
+            }
+        };
+        server.stop(0);
+        server = new ApiServer(new BookService(unreachable), library.getMemberService(), library.newLoanService(4),
+                               new InetSocketAddress("127.0.0.1", 0), 50, 4);
+        server.setMaxConcurrentRequests(1, 50);
+        server.start();
+        HttpURLConnection slow = request("GET", "/api/books", null);
+        Thread holder = new Thread(() -> {
+            try {
+                slow.getResponseCode();
+            } catch (IOException e) {
+                // La aserción sobre el código de respuesta lo detectará
+            }
+        });
+        holder.start();
+        assertTrue(listing.await(5, TimeUnit.SECONDS));
+
+        // Act
+        HttpURLConnection busy = request("GET", "/api/books/1", null);
+        int busyStatus = busy.getResponseCode();
+        release.countDown();
+        holder.join(5000);
+        HttpURLConnection failed = request("GET", "/api/books/1", null);
+
+        // Assert
+        assertEquals(503, busyStatus);
+        assertEquals("1", busy.getHeaderField("Retry-After"));
+        assertEquals(200, slow.getResponseCode());
+        assertEquals(503, failed.getResponseCode());
+        assertTrue(read(failed).contains("Base de datos no disponible"));
+    }
+
+    private HttpURLConnection request(String method, String path, String body) throws IOException {
+        return request(method, path, body, null);
+    }
+
+    private HttpURLConnection request(String method, String path, String body, String ifNoneMatch)
+            throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort() + path)
+            .openConnection();
+        connection.setRequestMethod(method);
+        if (ifNoneMatch != null) {
+            connection.setRequestProperty("If-None-Match", ifNoneMatch);
+        }
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return connection;
+    }
+
+    private static String read(HttpURLConnection connection) throws IOException {
+        InputStream in = connection.getResponseCode() < 400 ? connection.getInputStream() : connection.getErrorStream();
+        try (InputStream body = in) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.libronova.service;
 
+import com.libronova.exception.OptimisticLockException;
 import com.libronova.model.Book;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.LocalDate;
+import java.util.List;
 
 /**
  * Pruebas unitarias para BookService
@@ -192,4 +194,57 @@ class BookServiceTest {
             }
         });
     }
+
+    @Test
+    @DisplayName("Debería crear, actualizar y buscar un libro contra la base de datos embebida")
+    void shouldCreateUpdateAndSearchBookThroughDao() throws Exception {
+        // Arrange
+        BookService bookService = new BookService();
+        String isbn = "978-" + Long.toString(System.nanoTime(), 36);
+        Book book = new Book(isbn, "Pedro Páramo", "Juan Rulfo", "Cátedra",
+                             LocalDate.of(1955, 3, 19), "Literatura", 4);
+
+        // Act
+        boolean created = bookService.createBook(book);
+        Book stored = bookService.findBookByIsbn(isbn);
+        stored.setTitle("Pedro Páramo (edición conmemorativa)");
+        stored.setStock(6);
+        bookService.updateBook(stored);
+        Book updated = bookService.findBookById(book.getId());
+        List<Book> found = bookService.searchBooks("conmemorativa");
+
+        // Assert
+        assertTrue(created);
+        assertEquals("Pedro Páramo (edición conmemorativa)", updated.getTitle());
+        assertEquals(6, updated.getStock());
+        assertEquals(1, updated.getVersion());
+        assertTrue(found.stream().anyMatch(b -> isbn.equals(b.getIsbn())));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar la edición de un libro leído antes de otra modificación")
+    void shouldRejectEditOnStaleVersion() throws Exception {
+        // Arrange
+        BookService bookService = new BookService();
+        String isbn = "978-" + Long.toString(System.nanoTime(), 36);
+        Book book = new Book(isbn, "La tregua", "Mario Benedetti", "Alfaguara",
+                             LocalDate.of(1960, 1, 1), "Literatura", 3);
+        bookService.createBook(book);
+        Book first = bookService.findBookById(book.getId());
+        Book stale = bookService.findBookById(book.getId());
+
+        // Act
+        first.setTitle("La tregua (edición anotada)");
+        bookService.updateBook(first);
+        stale.setAuthor("Otro autor");
+        stale.setStock(5);
+
+        // Assert
+        assertThrows(OptimisticLockException.class, () -> bookService.updateBook(stale));
+        Book stored = bookService.findBookById(book.getId());
+        assertEquals("La tregua (edición anotada)", stored.getTitle());
+        assertEquals("Mario Benedetti", stored.getAuthor());
+        assertEquals(3, stored.getStock());
+        assertEquals(1, stored.getVersion());
+    }
 }
@@ -0,0 +1,69 @@
+package com.libronova.service;
+
+import com.libronova.dao.LoanDAO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Pruebas unitarias para LoanArchiveService
+ */
+@DisplayName("Pruebas del archivo de préstamos devueltos")
+class LoanArchiveServiceTest {
+
+    /**
+     * DAO que devuelve una secuencia fija de resultados por lote
+     */
+    private static class ScriptedLoanDAO extends LoanDAO {
+        private final Deque<Integer> results;
+        private final List<LocalDate> cutoffs = new ArrayList<>();
+
+        ScriptedLoanDAO(Integer... results) {
+            this.results = new ArrayDeque<>(Arrays.asList(results));
+        }
+
+        @Override
+        public int archiveReturnedBefore(LocalDate cutoff, int batchSize) {
+            cutoffs.add(cutoff);
+            return results.isEmpty() ? 0 : results.poll();
+        }
+    }
+
+    @Test
+    @DisplayName("Debería archivar por lotes hasta recibir un lote incompleto")
+    void shouldArchiveInBatchesUntilPartialBatch() {
+        // Arrange
+        ScriptedLoanDAO loanDAO = new ScriptedLoanDAO(100, 100, 37, 100);
+        LoanArchiveService service = new LoanArchiveService(loanDAO, 365, 100);
+
+        // Act
+        int archived = service.archiveReturnedLoans();
+
+        // Assert
+        assertEquals(237, archived);
+        assertEquals(3, loanDAO.cutoffs.size());
+        assertEquals(LocalDate.now().minusDays(365), loanDAO.cutoffs.get(0));
+    }
+
+    @Test
+    @DisplayName("Debería detenerse ante un error conservando lo ya archivado")
+    void shouldStopOnError() {
+        // Arrange
+        ScriptedLoanDAO loanDAO = new ScriptedLoanDAO(50, -1, 50);
+        LoanArchiveService service = new LoanArchiveService(loanDAO, 30, 50);
+
+        // Act
+        int archived = service.archiveReturnedLoans();
+
+        // Assert
+        assertEquals(50, archived);
+        assertEquals(2, loanDAO.cutoffs.size());
+    }
+}
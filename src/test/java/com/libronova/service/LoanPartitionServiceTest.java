@@ -0,0 +1,93 @@
+package com.libronova.service;
+
+import com.libronova.dao.LoanPartitionDAO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pruebas unitarias para LoanPartitionService
+ */
+@DisplayName("Pruebas del mantenimiento de particiones de préstamos")
+class LoanPartitionServiceTest {
+
+    /**
+     * DAO en memoria que registra las particiones añadidas y eliminadas
+     */
+    private static class ScriptedPartitionDAO extends LoanPartitionDAO {
+        private final List<YearMonth> months;
+        private final Map<YearMonth, Long> openLoans = new HashMap<>();
+        private final List<YearMonth> added = new ArrayList<>();
+        private final List<YearMonth> dropped = new ArrayList<>();
+
+        ScriptedPartitionDAO(List<YearMonth> months) {
+            this.months = months;
+        }
+
+        @Override
+        public List<YearMonth> findMonthlyPartitions() {
+            return months;
+        }
+
+        @Override
+        public boolean addMonthlyPartitions(List<YearMonth> newMonths) {
+            added.addAll(newMonths);
+            return true;
+        }
+
+        @Override
+        public long countOpenLoans(YearMonth month) {
+            return openLoans.getOrDefault(month, 0L);
+        }
+
+        @Override
+        public boolean dropMonthlyPartition(YearMonth month) {
+            dropped.add(month);
+            return true;
+        }
+    }
+
+    @Test
+    @DisplayName("Debería añadir los meses que faltan hasta el horizonte configurado")
+    void shouldAddMissingMonthsUpToHorizon() {
+        // Arrange
+        YearMonth current = YearMonth.now();
+        ScriptedPartitionDAO dao = new ScriptedPartitionDAO(List.of(current.minusMonths(1), current));
+        LoanPartitionService service = new LoanPartitionService(dao, 3, 0);
+
+        // Act
+        boolean ok = service.maintain();
+
+        // Assert
+        assertTrue(ok);
+        assertEquals(List.of(current.plusMonths(1), current.plusMonths(2), current.plusMonths(3)), dao.added);
+        assertTrue(dao.dropped.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debería eliminar solo los meses caducados sin préstamos abiertos")
+    void shouldDropOnlyExpiredMonthsWithoutOpenLoans() {
+        // Arrange
+        YearMonth current = YearMonth.now();
+        List<YearMonth> months = new ArrayList<>();
+        for (int i = 14; i >= -3; i--) {
+            months.add(current.minusMonths(i));
+        }
+        ScriptedPartitionDAO dao = new ScriptedPartitionDAO(months);
+        dao.openLoans.put(current.minusMonths(13), 2L);
+        LoanPartitionService service = new LoanPartitionService(dao, 3, 12);
+
+        // Act
+        service.maintain();
+
+        // Assert
+        assertTrue(dao.added.isEmpty());
+        assertEquals(List.of(current.minusMonths(14)), dao.dropped);
+    }
+}
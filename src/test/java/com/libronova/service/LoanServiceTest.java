@@ -1,12 +1,19 @@
 package com.libronova.service;
 
+import com.libronova.dataset.InMemoryLibrary;
+import com.libronova.metrics.DashboardMetrics;
+import com.libronova.model.Book;
 import com.libronova.model.Loan;
+import com.libronova.model.Member;
+import com.libronova.model.LoanStatistics;
+import com.libronova.util.ProgressListener;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 /**
  * Pruebas unitarias para LoanService
@@ -261,4 +268,83 @@ class LoanServiceTest {
         assertTrue(loan.getDueDate().isAfter(loan.getLoanDate()));
         assertEquals(14, loan.getLoanDate().until(loan.getDueDate()).getDays());
     }
+
+    @Test
+    @DisplayName("Debería formatear las estadísticas agregadas con desglose por categoría y membresía")
+    void shouldFormatAggregatedStatistics() {
+        // Arrange
+        LoanStatistics statistics = new LoanStatistics();
+        statistics.setActiveLoans(3);
+        statistics.setOverdueLoans(1);
+        statistics.setReturnedLoans(12);
+        statistics.setFinesOutstanding(new BigDecimal("25.00"));
+        statistics.putOpenLoansByCategory("Literatura", 3);
+        statistics.putOpenLoansByCategory("Fantasía", 1);
+        statistics.putOpenLoansByMembershipType("VIP", 4);
+
+        // Act
+        String text = LoanService.formatStatistics(statistics);
+
+        // Assert
+        assertEquals(4, statistics.getOpenLoans());
+        assertTrue(text.contains("Préstamos activos: 3"));
+        assertTrue(text.contains("Préstamos vencidos: 1"));
+        assertTrue(text.contains("Literatura: 3"));
+        assertTrue(text.contains("VIP: 4"));
+    }
+
+    @Test
+    @DisplayName("Debería prestar y devolver un libro actualizando los contadores en la base de datos embebida")
+    void shouldCheckoutAndReturnThroughDao() throws Exception {
+        // Arrange
+        BookService bookService = new BookService();
+        MemberService memberService = new MemberService();
+        LoanService loanService = new LoanService();
+        String suffix = Long.toString(System.nanoTime(), 36);
+        Book book = new Book("978-" + suffix, "Ficciones", "Jorge Luis Borges", "Sur",
+                             LocalDate.of(1944, 1, 1), "Literatura", 1);
+        Member member = new Member("MEM-" + suffix, "Rosario", "Castellanos", "rosario." + suffix + "@email.com",
+                                   "555-0198", "Calle Norte 3", LocalDate.now().minusYears(30), "REGULAR");
+        bookService.createBook(book);
+        memberService.createMember(member);
+
+        // Act
+        boolean created = loanService.createLoan(book.getId(), member.getId(), 1);
+        int availableWhileLent = bookService.findBookById(book.getId()).getAvailableStock();
+        List<Loan> active = loanService.getActiveLoansByMember(member.getId());
+        loanService.returnBook(active.get(0).getId());
+
+        // Assert
+        assertTrue(created);
+        assertEquals(0, availableWhileLent);
+        assertEquals(1, active.size());
+        assertEquals(1, bookService.findBookById(book.getId()).getAvailableStock());
+        assertEquals(0, memberService.findMemberById(member.getId()).getCurrentLoans());
+        assertEquals("RETURNED", loanService.getLoansByMember(member.getId()).get(0).getStatus());
+        assertNotNull(loanService.getStatistics());
+    }
+
+    @Test
+    @DisplayName("Debería sumar al panel las multas recalculadas para que la devolución las descuente")
+    void shouldKeepDashboardFinesInSyncWhenRecalculating() throws Exception {
+        // Arrange
+        InMemoryLibrary library = InMemoryLibrary.generate(17, 30, 40, 300, 1.0, 0.5, 120);
+        LoanService loanService = library.newLoanService(6);
+        loanService.getDashboardSnapshot();
+        loanService.updateOverdueLoans(ProgressListener.NONE);
+
+        // Act
+        int updated = loanService.updateFines(ProgressListener.NONE);
+        BigDecimal finesAfterUpdate = library.getLoans().getStatistics().getFinesOutstanding();
+        DashboardMetrics.Snapshot afterFines = loanService.getDashboardSnapshot();
+        loanService.returnBook(library.getLoans().findOverdueLoans().get(0).getId());
+        BigDecimal finesAfterReturn = library.getLoans().getStatistics().getFinesOutstanding();
+        DashboardMetrics.Snapshot afterReturn = loanService.getDashboardSnapshot();
+
+        // Assert
+        assertTrue(updated > 0);
+        assertEquals(0, finesAfterUpdate.compareTo(afterFines.getFinesOutstanding()));
+        assertTrue(finesAfterReturn.compareTo(finesAfterUpdate) < 0);
+        assertEquals(0, finesAfterReturn.compareTo(afterReturn.getFinesOutstanding()));
+    }
 }
@@ -1,5 +1,6 @@
 package com.libronova.service;
 
+import com.libronova.exception.OptimisticLockException;
 import com.libronova.model.Member;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -7,6 +8,7 @@ import org.junit.jupiter.api.DisplayName;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.LocalDate;
+import java.util.List;
 
 /**
  * Pruebas unitarias para MemberService
@@ -268,4 +270,49 @@ class MemberServiceTest {
         assertEquals(5, premiumMember.getMaxLoans());
         assertEquals(10, vipMember.getMaxLoans());
     }
+
+    @Test
+    @DisplayName("Debería registrar y buscar un miembro contra la base de datos embebida")
+    void shouldCreateAndSearchMemberThroughDao() throws Exception {
+        // Arrange
+        String suffix = Long.toString(System.nanoTime(), 36);
+        Member member = new Member("MEM-" + suffix, "Elena", "Garro", "elena." + suffix + "@email.com",
+                                   "555-0199", "Calle Sur 12", LocalDate.now().minusYears(40), "PREMIUM");
+
+        // Act
+        boolean created = memberService.createMember(member);
+        Member stored = memberService.findMemberByMemberId(member.getMemberId());
+        List<Member> found = memberService.searchMembers(suffix);
+
+        // Assert
+        assertTrue(created);
+        assertEquals(member.getId(), stored.getId());
+        assertEquals(5, stored.getMaxLoans());
+        assertEquals(0, stored.getCurrentLoans());
+        assertEquals(1, found.size());
+        assertThrows(IllegalArgumentException.class, () -> memberService.createMember(member));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar la edición de un miembro leído antes de otra modificación")
+    void shouldRejectEditOnStaleVersion() throws Exception {
+        // Arrange
+        String suffix = Long.toString(System.nanoTime(), 36);
+        Member member = new Member("M-" + suffix, "Ana", "Gómez", "ana." + suffix + "@email.com",
+                                   "555-0199", "Calle 45", LocalDate.now().minusYears(30), "REGULAR");
+        memberService.createMember(member);
+        Member first = memberService.findMemberById(member.getId());
+        Member stale = memberService.findMemberById(member.getId());
+
+        // Act
+        first.setFirstName("Ana María");
+        memberService.updateMember(first);
+        stale.setLastName("Gómez Ruiz");
+
+        // Assert
+        assertThrows(OptimisticLockException.class, () -> memberService.updateMember(stale));
+        Member stored = memberService.findMemberById(member.getId());
+        assertEquals("Ana María", stored.getFirstName());
+        assertEquals("Gómez", stored.getLastName());
+    }
 }
@@ -0,0 +1,63 @@
+package com.libronova.service;
+
+import com.libronova.exception.BookNotFoundException;
+import com.libronova.exception.OptimisticLockException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pruebas unitarias para OptimisticRetry
+ */
+@DisplayName("Pruebas del reintento con bloqueo optimista")
+class OptimisticRetryTest {
+
+    @Test
+    @DisplayName("Debería reintentar hasta que la escritura no tenga conflicto")
+    void shouldRetryUntilWriteSucceeds() throws Exception {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        boolean result = OptimisticRetry.execute("prueba", 3, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockException("conflicto");
+            }
+            return true;
+        });
+
+        // Assert
+        assertTrue(result);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Debería propagar el conflicto al agotar los reintentos")
+    void shouldPropagateConflictWhenRetriesExhausted() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(OptimisticLockException.class, () -> OptimisticRetry.execute("prueba", 2, () -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockException("conflicto");
+        }));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    @DisplayName("No debería reintentar errores de negocio")
+    void shouldNotRetryBusinessErrors() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(BookNotFoundException.class, () -> OptimisticRetry.execute("prueba", 3, () -> {
+            attempts.incrementAndGet();
+            throw new BookNotFoundException("no existe");
+        }));
+        assertEquals(1, attempts.get());
+    }
+}
@@ -0,0 +1,190 @@
+package com.libronova.ui;
+
+import com.libronova.util.CancellableQuery;
+import com.libronova.util.SearchText;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pruebas unitarias para IncrementalSearch
+ */
+@DisplayName("Pruebas de la búsqueda incremental")
+class IncrementalSearchTest {
+
+    private static final List<String> CATALOG = List.of(
+        "Cien años de soledad", "El Quijote", "El Principito", "Crimen y Castigo", "Orgullo y Prejuicio");
+
+    private ExecutorService executor;
+    private AtomicInteger queries;
+    private BlockingQueue<IncrementalSearch.Result<String>> results;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        queries = new AtomicInteger();
+        results = new LinkedBlockingQueue<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private List<String> query(String term) {
+        queries.incrementAndGet();
+        List<String> matches = new ArrayList<>();
+        for (String title : CATALOG) {
+            if (SearchText.containsAny(SearchText.normalize(term), title)) {
+                matches.add(title);
+            }
+        }
+        return matches;
+    }
+
+    private IncrementalSearch<String> newSearch() {
+        return new IncrementalSearch<>(this::query,
+            (title, term) -> SearchText.containsAny(term, title), executor);
+    }
+
+    @Test
+    @DisplayName("Debería filtrar localmente cuando el término extiende al anterior")
+    void shouldNarrowLocallyWhenTermExtendsPrevious() throws InterruptedException {
+        // Arrange
+        IncrementalSearch<String> search = newSearch();
+
+        // Act
+        search.search("el", results::add);
+        IncrementalSearch.Result<String> first = results.poll(5, TimeUnit.SECONDS);
+        search.search("el p", results::add);
+        IncrementalSearch.Result<String> second = results.poll(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertNotNull(first);
+        assertNotNull(second);
+        assertFalse(first.isNarrowed());
+        assertTrue(second.isNarrowed());
+        assertEquals(List.of("El Principito"), second.getItems());
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    @DisplayName("Debería volver a consultar cuando el término no extiende al anterior")
+    void shouldQueryAgainWhenTermDoesNotExtendPrevious() throws InterruptedException {
+        // Arrange
+        IncrementalSearch<String> search = newSearch();
+
+        // Act
+        search.search("quij", results::add);
+        results.poll(5, TimeUnit.SECONDS);
+        search.search("qui", results::add);
+        IncrementalSearch.Result<String> second = results.poll(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertNotNull(second);
+        assertFalse(second.isNarrowed());
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    @DisplayName("Debería descartar resultados de búsquedas obsoletas")
+    void shouldDiscardStaleResults() throws InterruptedException {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        IncrementalSearch<String> search = new IncrementalSearch<>(term -> {
+            if (term.equals("cri")) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return query(term);
+        }, null, executor);
+
+        // Act
+        search.search("cri", results::add);
+        search.search("orgullo", results::add);
+        release.countDown();
+        IncrementalSearch.Result<String> delivered = results.poll(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertNotNull(delivered);
+        assertEquals("orgullo", delivered.getTerm());
+        assertNull(results.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Debería cancelar en el servidor la sentencia de la búsqueda sustituida")
+    void shouldCancelStatementOfSupersededSearch() throws Exception {
+        // Arrange
+        CountDownLatch executing = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        AtomicBoolean reportedAsCancelled = new AtomicBoolean();
+        Statement slowStatement = (Statement) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class<?>[] { Statement.class },
+            (proxy, method, args) -> {
+                if ("cancel".equals(method.getName())) {
+                    cancelled.countDown();
+                } else if ("execute".equals(method.getName())) {
+                    // Como un driver JDBC: no atiende a la interrupción del hilo, solo a cancel()
+                    executing.countDown();
+                    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                    while (cancelled.getCount() > 0 && System.nanoTime() < deadline) {
+                        Thread.onSpinWait();
+                    }
+                    throw new SQLException("Query execution was interrupted");
+                }
+                return null;
+            });
+        IncrementalSearch<String> search = new IncrementalSearch<>(term -> {
+            if (term.equals("cri")) {
+                try {
+                    CancellableQuery.register(slowStatement);
+                    slowStatement.execute("SELECT ...");
+                } catch (SQLException e) {
+                    reportedAsCancelled.set(CancellableQuery.isCancelled());
+                    return List.of();
+                }
+            }
+            return query(term);
+        }, null, executor);
+
+        // Act
+        search.search("cri", results::add);
+        assertTrue(executing.await(5, TimeUnit.SECONDS));
+        search.search("orgullo", results::add);
+        IncrementalSearch.Result<String> delivered = results.poll(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(0, cancelled.getCount());
+        assertTrue(reportedAsCancelled.get());
+        assertNotNull(delivered);
+        assertEquals("orgullo", delivered.getTerm());
+    }
+
+    @Test
+    @DisplayName("Debería ignorar acentos y mayúsculas como la collation de MySQL, sin recortar espacios como LIKE")
+    void shouldIgnoreAccentsAndCase() {
+        // Act & Assert
+        assertEquals("anos", SearchText.normalize("AÑOS"));
+        assertTrue(SearchText.containsAny(SearchText.normalize("garcia"), "Gabriel García Márquez"));
+        assertFalse(SearchText.containsAny(SearchText.normalize("garcia "), "Márquez García"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.libronova.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pruebas unitarias para SnowflakeLoanIdGenerator
+ */
+@DisplayName("Pruebas del generador de IDs de préstamo ordenados por tiempo")
+class SnowflakeLoanIdGeneratorTest {
+
+    @Test
+    @DisplayName("Debería generar IDs con formato fijo que caben en loan_id")
+    void shouldGenerateFixedWidthIds() {
+        // Arrange
+        SnowflakeLoanIdGenerator generator = new SnowflakeLoanIdGenerator(7);
+
+        // Act
+        String id = generator.nextId();
+
+        // Assert
+        assertTrue(id.matches("LOAN-[0-9A-Z]{13}"), id);
+        assertTrue(id.length() <= 20);
+    }
+
+    @Test
+    @DisplayName("Debería generar IDs crecientes también en orden lexicográfico")
+    void shouldGenerateIncreasingIds() {
+        // Arrange
+        SnowflakeLoanIdGenerator generator = new SnowflakeLoanIdGenerator(1);
+        String previous = generator.nextId();
+
+        // Act & Assert
+        for (int i = 0; i < 10_000; i++) {
+            String next = generator.nextId();
+            assertTrue(next.compareTo(previous) > 0, previous + " >= " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    @DisplayName("No debería repetir IDs bajo concurrencia ni entre nodos")
+    void shouldNotRepeatIdsUnderConcurrency() throws Exception {
+        // Arrange
+        SnowflakeLoanIdGenerator nodeA = new SnowflakeLoanIdGenerator(1);
+        SnowflakeLoanIdGenerator nodeB = new SnowflakeLoanIdGenerator(2);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        int perTask = 20_000;
+
+        // Act
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            SnowflakeLoanIdGenerator generator = t % 2 == 0 ? nodeA : nodeB;
+            tasks.add(executor.submit(() -> {
+                for (int i = 0; i < perTask; i++) {
+                    ids.add(generator.nextId());
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(8 * perTask, ids.size());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar nodos fuera de rango")
+    void shouldRejectInvalidNode() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeLoanIdGenerator(1024));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeLoanIdGenerator(-1));
+    }
+
+    @Test
+    @DisplayName("No debería generar IDs cuando el nodo ya no está reservado")
+    void shouldRefuseIdsWhenNodeIsNoLongerHeld() {
+        // Arrange
+        AtomicBoolean held = new AtomicBoolean(true);
+        SnowflakeLoanIdGenerator generator = new SnowflakeLoanIdGenerator(3, held::get);
+        generator.nextId();
+
+        // Act
+        held.set(false);
+
+        // Assert
+        assertThrows(IllegalStateException.class, generator::nextId);
+    }
+}